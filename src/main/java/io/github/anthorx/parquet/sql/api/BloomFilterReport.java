@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.util.MetaDataUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.hadoop.BloomFilterReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size and false positive rate of the bloom filters of a file, written with
+ * {@link SQLParquetWriter.AbstractBuilder#withBloomFilter(String, long)}.
+ * The rate is estimated for the expected number of distinct values given to the writer,
+ * or for the row count of each row group when none was given.
+ */
+public class BloomFilterReport {
+
+  public static final String METADATA_KEY = "parquet.sql.bloom.ndv";
+
+  // each value sets one bit in each of the 8 words of a block of a split block bloom filter
+  private static final int BITS_SET_PER_VALUE = 8;
+
+  private final List<ColumnReport> columnReports;
+
+  private BloomFilterReport(List<ColumnReport> columnReports) {
+    this.columnReports = Collections.unmodifiableList(columnReports);
+  }
+
+  public static BloomFilterReport read(String file, Configuration configuration) throws IOException {
+    return read(HadoopInputFile.fromPath(new Path(file), configuration));
+  }
+
+  public static BloomFilterReport read(InputFile file) throws IOException {
+    Map<String, ColumnReport> reports = new LinkedHashMap<>();
+    try (ParquetFileReader reader = ParquetFileReader.open(file)) {
+      Map<String, Long> expectedDistinctValues = fromMetaData(reader.getFileMetaData().getKeyValueMetaData().get(METADATA_KEY));
+      for (BlockMetaData block : reader.getFooter().getBlocks()) {
+        BloomFilterReader bloomFilterReader = reader.getBloomFilterDataReader(block);
+        for (ColumnChunkMetaData column : block.getColumns()) {
+          BloomFilter bloomFilter = bloomFilterReader.readBloomFilter(column);
+          if (bloomFilter != null) {
+            String name = column.getPath().toDotString();
+            long distinctValues = expectedDistinctValues.getOrDefault(name, 0L);
+            if (distinctValues <= 0 || distinctValues > block.getRowCount()) {
+              distinctValues = block.getRowCount();
+            }
+            reports.computeIfAbsent(name, ColumnReport::new).add(bloomFilter.getBitsetSize(), distinctValues);
+          }
+        }
+      }
+    }
+    return new BloomFilterReport(new ArrayList<>(reports.values()));
+  }
+
+  /**
+   * @return report of each column having a bloom filter, in the schema order
+   */
+  public List<ColumnReport> getColumnReports() {
+    return columnReports;
+  }
+
+  /**
+   * Estimated false positive rate of a split block bloom filter
+   *
+   * @param bitsetBytes    size of the filter
+   * @param distinctValues number of values added
+   */
+  public static double falsePositiveRate(long bitsetBytes, long distinctValues) {
+    double bits = bitsetBytes * 8d;
+    return Math.pow(1 - Math.exp(-BITS_SET_PER_VALUE * distinctValues / bits), BITS_SET_PER_VALUE);
+  }
+
+  static String toMetaData(Map<String, Long> expectedDistinctValues) {
+    return MetaDataUtils.toMetaData(expectedDistinctValues);
+  }
+
+  private static Map<String, Long> fromMetaData(String metaData) {
+    Map<String, Long> expectedDistinctValues = new HashMap<>();
+    for (Map.Entry<String, String> entry : MetaDataUtils.fromMetaData(metaData).entrySet()) {
+      expectedDistinctValues.put(entry.getKey(), Long.parseLong(entry.getValue()));
+    }
+    return expectedDistinctValues;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (ColumnReport columnReport : columnReports) {
+      if (builder.length() > 0) {
+        builder.append(System.lineSeparator());
+      }
+      builder.append(columnReport);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Bloom filters of one column, over all the row groups
+   */
+  public static class ColumnReport {
+    private final String column;
+    private int rowGroupCount;
+    private long totalBytes;
+    private long distinctValues;
+    private double maxFalsePositiveRate;
+
+    private ColumnReport(String column) {
+      this.column = column;
+    }
+
+    private void add(int bitsetBytes, long rowGroupDistinctValues) {
+      rowGroupCount++;
+      totalBytes += bitsetBytes;
+      distinctValues += rowGroupDistinctValues;
+      maxFalsePositiveRate = Math.max(maxFalsePositiveRate, falsePositiveRate(bitsetBytes, rowGroupDistinctValues));
+    }
+
+    public String getColumn() {
+      return column;
+    }
+
+    public int getRowGroupCount() {
+      return rowGroupCount;
+    }
+
+    /**
+     * @return size of the filters of all the row groups
+     */
+    public long getTotalBytes() {
+      return totalBytes;
+    }
+
+    /**
+     * @return distinct values the rate is estimated for, summed over the row groups
+     */
+    public long getDistinctValues() {
+      return distinctValues;
+    }
+
+    /**
+     * @return estimated false positive rate of the worst row group
+     */
+    public double getMaxFalsePositiveRate() {
+      return maxFalsePositiveRate;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: %d row groups, %d bytes, %d distinct values, false positive rate %.4f%%",
+          column, rowGroupCount, totalBytes, distinctValues, maxFalsePositiveRate * 100);
+    }
+  }
+}
@@ -0,0 +1,465 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.TableStatistics;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Export many tables or queries, each into its own parquet file, on a pool of workers.
+ * The number of connections open at the same time and the memory buffered by the writers are bounded.
+ * Largest exports are started first, from the row count estimated by the database,
+ * so that a big table doesn't start last and run alone at the end.
+ */
+public class ExportOrchestrator {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExportOrchestrator.class);
+
+  // writer memory is reserved by block, so that budgets above 2GB fit in the semaphore permits
+  private static final long MEMORY_BLOCK_SIZE = 1024 * 1024;
+
+  /**
+   * Estimate the number of rows of an export, 0 when unknown
+   */
+  @FunctionalInterface
+  public interface RowCountEstimator {
+    long estimate(Connection connection, ExportSource source) throws SQLException;
+  }
+
+  private final DataSource dataSource;
+  private final String outputDirectory;
+  private final List<ExportSource> sources;
+  private final int parallelism;
+  private final Semaphore connectionPermits;
+  private final Semaphore memoryPermits;
+  private final int writerMemoryPermits;
+  private final int rowGroupSize;
+  private final int fetchSize;
+  private final RowCountEstimator rowCountEstimator;
+
+  private ExportOrchestrator(Builder builder) {
+    this.dataSource = builder.dataSource;
+    this.outputDirectory = builder.outputDirectory;
+    this.sources = new ArrayList<>(builder.sources);
+    this.parallelism = builder.parallelism;
+    this.connectionPermits = new Semaphore(builder.maxConnections, true);
+    int memoryBudgetPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, builder.maxWriterMemory / MEMORY_BLOCK_SIZE));
+    this.memoryPermits = new Semaphore(memoryBudgetPermits, true);
+    // a writer bigger than the whole budget runs alone rather than never
+    this.writerMemoryPermits = (int) Math.min(memoryBudgetPermits, Math.max(1, (builder.rowGroupSize + MEMORY_BLOCK_SIZE - 1) / MEMORY_BLOCK_SIZE));
+    this.rowGroupSize = builder.rowGroupSize;
+    this.fetchSize = builder.fetchSize;
+    this.rowCountEstimator = builder.rowCountEstimator;
+  }
+
+  /**
+   * @param dataSource      source of the connections, one per running export
+   * @param outputDirectory directory of the files, named after each export
+   */
+  public static Builder builder(DataSource dataSource, String outputDirectory) {
+    return new Builder(dataSource, outputDirectory);
+  }
+
+  /**
+   * Run all the exports. An export failing doesn't stop the others: its error is in its report.
+   *
+   * @return report of each export, in the order they were started
+   */
+  public Report run() throws SQLException, IOException {
+    new File(outputDirectory).mkdirs();
+    List<TableReport> reports = estimateRowCounts();
+    reports.sort(Comparator.comparingLong(TableReport::getEstimatedRowCount).reversed());
+
+    long start = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (TableReport report : reports) {
+        futures.add(executor.submit(() -> export(report)));
+      }
+      for (Future<?> future : futures) {
+        await(future);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return new Report(reports, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private List<TableReport> estimateRowCounts() throws SQLException {
+    List<TableReport> reports = new ArrayList<>(sources.size());
+    try (Connection connection = dataSource.getConnection()) {
+      for (ExportSource source : sources) {
+        long estimatedRowCount = 0;
+        try {
+          estimatedRowCount = rowCountEstimator.estimate(connection, source);
+        } catch (SQLException e) {
+          LOG.warn("Can't estimate the row count of {}, it is exported last", source.getName(), e);
+        }
+        reports.add(new TableReport(source, estimatedRowCount));
+      }
+    }
+    return reports;
+  }
+
+  private void export(TableReport report) {
+    ExportSource source = report.getSource();
+    String file = Paths.get(outputDirectory, source.getName() + ".parquet").toString();
+    boolean connectionAcquired = false;
+    boolean memoryAcquired = false;
+    try {
+      connectionPermits.acquire();
+      connectionAcquired = true;
+      memoryPermits.acquire(writerMemoryPermits);
+      memoryAcquired = true;
+
+      long start = System.nanoTime();
+      // written under a hidden name, so that a failed export leaves no truncated file
+      PendingFile pendingFile = new PendingFile(file, new Configuration());
+      try {
+        try (JDBCReader reader = openReader(source);
+             ParquetWriter<SQLRow> writer = SQLParquetWriter
+                 .builder(pendingFile.getPendingFile())
+                 .withSchema(source.getName(), reader.getMetaData())
+                 .withRowGroupSize(rowGroupSize)
+                 .build()) {
+          long rowCount = 0;
+          for (SQLRow row = reader.read(); row != null; row = reader.read()) {
+            writer.write(row);
+            rowCount++;
+          }
+          report.rowCount = rowCount;
+        }
+        pendingFile.commit();
+      } catch (Exception e) {
+        pendingFile.abort();
+        throw e;
+      }
+      report.durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      LOG.info("{} exported: {} rows in {} ms", source.getName(), report.rowCount, report.durationMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      report.error = e;
+    } catch (Exception e) {
+      LOG.error("Export of {} failed", source.getName(), e);
+      report.error = e;
+    } finally {
+      if (memoryAcquired) {
+        memoryPermits.release(writerMemoryPermits);
+      }
+      if (connectionAcquired) {
+        connectionPermits.release();
+      }
+    }
+  }
+
+  private JDBCReader openReader(ExportSource source) throws SQLException {
+    Connection connection = dataSource.getConnection();
+    try {
+      PreparedStatement preparedStatement = connection.prepareStatement(source.getQuery());
+      preparedStatement.setFetchSize(fetchSize);
+      return new JDBCReader(preparedStatement);
+    } catch (SQLException | RuntimeException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Default estimator: cardinality of the table statistics from DatabaseMetaData.getIndexInfo,
+   * as returned without an accurate count by most drivers. Queries are unknown.
+   */
+  static long estimateFromStatistics(Connection connection, ExportSource source) throws SQLException {
+    if (source.getTableName() == null) {
+      return 0;
+    }
+    return TableStatistics.rowCount(connection, source.getTableName());
+  }
+
+  private static void await(Future<?> future) throws IOException {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for an export", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Error when running an export", e.getCause());
+    }
+  }
+
+  /**
+   * A table or a query to export
+   */
+  public static class ExportSource {
+    private final String name;
+    private final String tableName;
+    private final String query;
+
+    ExportSource(String name, String tableName, String query) {
+      this.name = name;
+      this.tableName = tableName;
+      this.query = query;
+    }
+
+    /**
+     * @return name of the export, used for the file name and the schema name
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return exported table, null for a query
+     */
+    public String getTableName() {
+      return tableName;
+    }
+
+    public String getQuery() {
+      return query;
+    }
+  }
+
+  /**
+   * Outcome of one export
+   */
+  public static class TableReport {
+    private final ExportSource source;
+    private final long estimatedRowCount;
+    private volatile long rowCount;
+    private volatile long durationMillis;
+    private volatile Exception error;
+
+    private TableReport(ExportSource source, long estimatedRowCount) {
+      this.source = source;
+      this.estimatedRowCount = estimatedRowCount;
+    }
+
+    public ExportSource getSource() {
+      return source;
+    }
+
+    public String getName() {
+      return source.getName();
+    }
+
+    public long getEstimatedRowCount() {
+      return estimatedRowCount;
+    }
+
+    public long getRowCount() {
+      return rowCount;
+    }
+
+    public long getDurationMillis() {
+      return durationMillis;
+    }
+
+    public double getRowsPerSecond() {
+      return durationMillis == 0 ? rowCount : rowCount * 1000d / durationMillis;
+    }
+
+    /**
+     * @return cause of the failure, null if the export succeeded
+     */
+    public Exception getError() {
+      return error;
+    }
+
+    public boolean isSuccess() {
+      return error == null;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: %d rows in %d ms (%.0f rows/s)%s", getName(), rowCount, durationMillis, getRowsPerSecond(),
+          error == null ? "" : ", failed: " + error);
+    }
+  }
+
+  /**
+   * Reports of all the exports of a run
+   */
+  public static class Report {
+    private final List<TableReport> tableReports;
+    private final long durationMillis;
+
+    private Report(List<TableReport> tableReports, long durationMillis) {
+      this.tableReports = Collections.unmodifiableList(tableReports);
+      this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return report of each export, in the order they were started
+     */
+    public List<TableReport> getTableReports() {
+      return tableReports;
+    }
+
+    public List<TableReport> getFailures() {
+      List<TableReport> failures = new ArrayList<>();
+      for (TableReport report : tableReports) {
+        if (!report.isSuccess()) {
+          failures.add(report);
+        }
+      }
+      return failures;
+    }
+
+    public long getRowCount() {
+      return tableReports.stream().mapToLong(TableReport::getRowCount).sum();
+    }
+
+    /**
+     * @return wall clock time of the whole run
+     */
+    public long getDurationMillis() {
+      return durationMillis;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder()
+          .append(tableReports.size()).append(" exports, ")
+          .append(getRowCount()).append(" rows in ")
+          .append(durationMillis).append(" ms");
+      for (TableReport report : tableReports) {
+        builder.append(System.lineSeparator()).append("  ").append(report);
+      }
+      return builder.toString();
+    }
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder {
+
+    private final DataSource dataSource;
+    private final String outputDirectory;
+    private final List<ExportSource> sources = new ArrayList<>();
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int maxConnections = Runtime.getRuntime().availableProcessors();
+    private long maxWriterMemory = Runtime.getRuntime().maxMemory() / 2;
+    private int rowGroupSize = ParquetWriter.DEFAULT_BLOCK_SIZE;
+    private int fetchSize = 1000;
+    private RowCountEstimator rowCountEstimator = ExportOrchestrator::estimateFromStatistics;
+
+    private Builder(DataSource dataSource, String outputDirectory) {
+      notNull(dataSource, "dataSource cannot be null");
+      notNull(outputDirectory, "outputDirectory cannot be null");
+      this.dataSource = dataSource;
+      this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Export a whole table into tableName.parquet
+     */
+    public Builder addTable(String tableName) {
+      notNull(tableName, "tableName cannot be null");
+      sources.add(new ExportSource(tableName, tableName, String.format("select * from %s", tableName)));
+      return this;
+    }
+
+    /**
+     * Export the result of a query into name.parquet
+     */
+    public Builder addQuery(String name, String query) {
+      notNull(name, "name cannot be null");
+      notNull(query, "query cannot be null");
+      sources.add(new ExportSource(name, null, query));
+      return this;
+    }
+
+    /**
+     * Number of workers
+     */
+    public Builder withParallelism(int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("parallelism must be greater than 0");
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Maximum number of connections used at the same time by the exports.
+     * The row count estimation uses one more connection before the exports start.
+     */
+    public Builder withMaxConnections(int maxConnections) {
+      if (maxConnections < 1) {
+        throw new IllegalArgumentException("maxConnections must be greater than 0");
+      }
+      this.maxConnections = maxConnections;
+      return this;
+    }
+
+    /**
+     * Maximum memory buffered by the writers at the same time, in bytes.
+     * Each running export reserves a row group.
+     */
+    public Builder withMaxWriterMemory(long maxWriterMemory) {
+      if (maxWriterMemory < 1) {
+        throw new IllegalArgumentException("maxWriterMemory must be greater than 0");
+      }
+      this.maxWriterMemory = maxWriterMemory;
+      return this;
+    }
+
+    public Builder withRowGroupSize(int rowGroupSize) {
+      if (rowGroupSize < 1) {
+        throw new IllegalArgumentException("rowGroupSize must be greater than 0");
+      }
+      this.rowGroupSize = rowGroupSize;
+      return this;
+    }
+
+    public Builder withFetchSize(int fetchSize) {
+      this.fetchSize = fetchSize;
+      return this;
+    }
+
+    /**
+     * Replace the estimation from the table statistics, e.g. to read the row counts of the previous run
+     */
+    public Builder withRowCountEstimator(RowCountEstimator rowCountEstimator) {
+      notNull(rowCountEstimator, "rowCountEstimator cannot be null");
+      this.rowCountEstimator = rowCountEstimator;
+      return this;
+    }
+
+    public ExportOrchestrator build() {
+      return new ExportOrchestrator(this);
+    }
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import io.github.anthorx.parquet.sql.parquet.write.converter.Converter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Export a JDBCReader into a parquet file with three stages running on their own threads:
+ * <ul>
+ *   <li>fetch: read the ResultSet (one thread, a ResultSet can't be shared)</li>
+ *   <li>convert: SQLRow to Record conversion (configurable number of threads)</li>
+ *   <li>encode: parquet encoding and compression (the calling thread, a ParquetWriter can't be shared)</li>
+ * </ul>
+ * Stages are joined by bounded queues, so a slow stage slows down the previous ones.
+ * With more than one convert thread, rows order is not kept.
+ */
+public class ExportPipeline {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExportPipeline.class);
+
+  private static final SQLRow END_OF_ROWS = new SQLRow();
+  private static final Record END_OF_RECORDS = new Record();
+
+  private final JDBCReader jdbcReader;
+  private final SQLParquetWriter.RecordBuilder writerBuilder;
+  private final int queueCapacity;
+  private final int convertParallelism;
+
+  private ExportPipeline(Builder builder) {
+    this.jdbcReader = builder.jdbcReader;
+    this.writerBuilder = builder.writerBuilder;
+    this.queueCapacity = builder.queueCapacity;
+    this.convertParallelism = builder.convertParallelism;
+  }
+
+  /**
+   * @param jdbcReader    reader to export. It is not closed by the pipeline.
+   * @param writerBuilder builder of the output file, with its schema. The writer is built and closed by the pipeline.
+   */
+  public static Builder builder(JDBCReader jdbcReader, SQLParquetWriter.RecordBuilder writerBuilder) {
+    return new Builder(jdbcReader, writerBuilder);
+  }
+
+  /**
+   * Run the export until the reader is exhausted
+   *
+   * @return time spent by each stage waiting on its neighbours
+   */
+  public Statistics run() throws IOException, SQLException {
+    StageStatistics fetch = new StageStatistics("fetch");
+    StageStatistics convert = new StageStatistics("convert");
+    StageStatistics encode = new StageStatistics("encode");
+
+    BlockingQueue<SQLRow> rows = new ArrayBlockingQueue<>(queueCapacity);
+    BlockingQueue<Record> records = new ArrayBlockingQueue<>(queueCapacity);
+    ExecutorService executor = Executors.newFixedThreadPool(convertParallelism + 1);
+
+    try (ParquetWriter<Record> writer = writerBuilder.build()) {
+      Converter<SQLRow, Record> converter = writerBuilder.getWritePlan();
+      List<Future<?>> futures = new ArrayList<>();
+
+      futures.add(executor.submit(() -> {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          put(rows, row, fetch);
+          fetch.rows.increment();
+        }
+        for (int i = 0; i < convertParallelism; i++) {
+          put(rows, END_OF_ROWS, fetch);
+        }
+        return null;
+      }));
+
+      for (int i = 0; i < convertParallelism; i++) {
+        futures.add(executor.submit(() -> {
+          for (SQLRow row = take(rows, convert); row != END_OF_ROWS; row = take(rows, convert)) {
+            try {
+              put(records, converter.convert(row), convert);
+              convert.rows.increment();
+            } catch (ConvertException e) {
+              LOG.error("Can't convert " + row + " to Records. Row not written to the parquet file", e);
+            }
+          }
+          put(records, END_OF_RECORDS, convert);
+          return null;
+        }));
+      }
+
+      int finishedConverters = 0;
+      while (finishedConverters < convertParallelism) {
+        long start = System.nanoTime();
+        Record record = records.poll(100, TimeUnit.MILLISECONDS);
+        encode.addStall(System.nanoTime() - start);
+        if (record == END_OF_RECORDS) {
+          finishedConverters++;
+        } else if (record != null) {
+          writer.write(record);
+          encode.rows.increment();
+        } else {
+          throwIfFailed(futures, false);
+        }
+      }
+      throwIfFailed(futures, true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Export pipeline interrupted", e);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    return new Statistics(fetch, convert, encode);
+  }
+
+  private static <T> void put(BlockingQueue<T> queue, T value, StageStatistics statistics) throws InterruptedException {
+    if (!queue.offer(value)) {
+      long start = System.nanoTime();
+      queue.put(value);
+      statistics.addStall(System.nanoTime() - start);
+    }
+  }
+
+  private static <T> T take(BlockingQueue<T> queue, StageStatistics statistics) throws InterruptedException {
+    T value = queue.poll();
+    if (value == null) {
+      long start = System.nanoTime();
+      value = queue.take();
+      statistics.addStall(System.nanoTime() - start);
+    }
+    return value;
+  }
+
+  private static void throwIfFailed(List<Future<?>> futures, boolean wait) throws IOException, SQLException, InterruptedException {
+    for (Future<?> future : futures) {
+      if (wait || future.isDone()) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof SQLException) {
+            throw (SQLException) cause;
+          } else if (cause instanceof IOException) {
+            throw (IOException) cause;
+          } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          throw new IOException("Error in export pipeline", cause);
+        }
+      }
+    }
+  }
+
+  /**
+   * Statistics of a stage.
+   * The stall time is the time spent blocked on the queues: waiting for input (the previous stage is slower)
+   * or waiting for room in the output queue (the next stage is slower).
+   */
+  public static class StageStatistics {
+    private final String name;
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder stallNanos = new LongAdder();
+
+    private StageStatistics(String name) {
+      this.name = name;
+    }
+
+    private void addStall(long nanos) {
+      stallNanos.add(nanos);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getRows() {
+      return rows.sum();
+    }
+
+    /**
+     * @return stall time in milliseconds, summed over the threads of the stage
+     */
+    public long getStallMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(stallNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+      return "StageStatistics{" +
+          "name='" + name + '\'' +
+          ", rows=" + getRows() +
+          ", stallMillis=" + getStallMillis() +
+          '}';
+    }
+  }
+
+  public static class Statistics {
+    private final StageStatistics fetch;
+    private final StageStatistics convert;
+    private final StageStatistics encode;
+
+    private Statistics(StageStatistics fetch, StageStatistics convert, StageStatistics encode) {
+      this.fetch = fetch;
+      this.convert = convert;
+      this.encode = encode;
+    }
+
+    public StageStatistics getFetch() {
+      return fetch;
+    }
+
+    public StageStatistics getConvert() {
+      return convert;
+    }
+
+    public StageStatistics getEncode() {
+      return encode;
+    }
+
+    @Override
+    public String toString() {
+      return "Statistics{" +
+          "fetch=" + fetch +
+          ", convert=" + convert +
+          ", encode=" + encode +
+          '}';
+    }
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder {
+    private final JDBCReader jdbcReader;
+    private final SQLParquetWriter.RecordBuilder writerBuilder;
+    private int queueCapacity = 10000;
+    private int convertParallelism = 1;
+
+    private Builder(JDBCReader jdbcReader, SQLParquetWriter.RecordBuilder writerBuilder) {
+      notNull(jdbcReader, "jdbcReader cannot be null");
+      notNull(writerBuilder, "writerBuilder cannot be null");
+      this.jdbcReader = jdbcReader;
+      this.writerBuilder = writerBuilder;
+    }
+
+    /**
+     * Capacity of each queue between two stages
+     */
+    public Builder withQueueCapacity(int queueCapacity) {
+      if (queueCapacity < 1) {
+        throw new IllegalArgumentException("queueCapacity must be greater than 0");
+      }
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /**
+     * Number of threads converting rows to records
+     */
+    public Builder withConvertParallelism(int convertParallelism) {
+      if (convertParallelism < 1) {
+        throw new IllegalArgumentException("convertParallelism must be greater than 0");
+      }
+      this.convertParallelism = convertParallelism;
+      return this;
+    }
+
+    public ExportPipeline build() {
+      return new ExportPipeline(this);
+    }
+  }
+}
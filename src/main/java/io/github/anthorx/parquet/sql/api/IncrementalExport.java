@@ -0,0 +1,213 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.jdbc.model.Watermark;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.hadoop.util.HiddenFileFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Export only the rows added or updated since the previous run, into a new part file of the directory.
+ * Rows are selected on a column only growing over time (an update timestamp, a sequence id).
+ * The highest value exported is stored in the footer of the part file, and read back from the latest part
+ * by the next run: the directory is the only state.
+ * Rows committed later with a value below the watermark, e.g. by long transactions, are not exported.
+ * The part is written under a hidden name and renamed once complete: a failed run leaves no part, and the
+ * next run exports its rows again.
+ */
+public class IncrementalExport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IncrementalExport.class);
+
+  private final DataSource dataSource;
+  private final String tableName;
+  private final String watermarkColumn;
+  private final String directory;
+  private final String schemaName;
+  private final int fetchSize;
+  private final Configuration configuration;
+
+  private IncrementalExport(Builder builder) {
+    this.dataSource = builder.dataSource;
+    this.tableName = builder.tableName;
+    this.watermarkColumn = builder.watermarkColumn;
+    this.directory = builder.directory;
+    this.schemaName = builder.schemaName;
+    this.fetchSize = builder.fetchSize;
+    this.configuration = builder.configuration;
+  }
+
+  /**
+   * @param tableName       exported table
+   * @param watermarkColumn column only growing over time
+   * @param directory       directory of the part files, one per run exporting rows
+   */
+  public static Builder builder(DataSource dataSource, String tableName, String watermarkColumn, String directory) {
+    return new Builder(dataSource, tableName, watermarkColumn, directory);
+  }
+
+  /**
+   * Export the rows above the watermark of the latest part. No part is written when there is no new row.
+   *
+   * @return number of rows exported
+   */
+  public long run() throws SQLException, IOException {
+    Optional<Watermark> previous = readWatermark(directory, configuration);
+    Watermark watermark = previous.orElse(new Watermark(watermarkColumn, null));
+    LOG.debug("Incremental export of {} from {}", tableName, watermark);
+
+    String file = Paths.get(directory, String.format(RollingParquetWriter.PART_FILE_FORMAT, nextPartIndex())).toString();
+    try (Connection connection = dataSource.getConnection();
+         JDBCReader reader = new JDBCReader(connection, tableName, watermark, fetchSize)) {
+      SQLRow row = reader.read();
+      if (row == null) {
+        return 0;
+      }
+
+      long rowCount = 0;
+      PendingFile pendingFile = new PendingFile(file, configuration);
+      try {
+        try (ParquetWriter<SQLRow> writer = SQLParquetWriter
+            .builder(pendingFile.getPendingFile())
+            .withConf(configuration)
+            .withSchema(schemaName, reader.getMetaData())
+            .withWatermark(watermarkColumn)
+            .build()) {
+          for (; row != null; row = reader.read()) {
+            writer.write(row);
+            rowCount++;
+          }
+        }
+        pendingFile.commit();
+      } catch (Exception e) {
+        // a part with the watermark of a partial run would make the next runs skip the missing rows
+        pendingFile.abort();
+        throw e;
+      }
+      LOG.debug("{} rows of {} exported into {}", rowCount, tableName, file);
+      return rowCount;
+    }
+  }
+
+  /**
+   * Read the watermark stored by the latest part of a directory having one
+   *
+   * @return the watermark, empty when the directory doesn't exist or has no watermark yet
+   */
+  public static Optional<Watermark> readWatermark(String directory, Configuration configuration) throws IOException {
+    FileStatus[] parts = listParts(directory, configuration);
+    for (int index = parts.length - 1; index >= 0; index--) {
+      try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromStatus(parts[index], configuration))) {
+        Map<String, String> metaData = reader.getFileMetaData().getKeyValueMetaData();
+        Optional<Watermark> watermark = Watermark.fromMetaData(metaData);
+        if (watermark.isPresent()) {
+          return watermark;
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private int nextPartIndex() throws IOException {
+    FileStatus[] parts = listParts(directory, configuration);
+    if (parts.length == 0) {
+      return 0;
+    }
+    String lastName = parts[parts.length - 1].getPath().getName();
+    return Integer.parseInt(lastName.substring("part-".length(), lastName.indexOf('.'))) + 1;
+  }
+
+  private static FileStatus[] listParts(String directory, Configuration configuration) throws IOException {
+    Path path = new Path(directory);
+    FileSystem fileSystem = path.getFileSystem(configuration);
+    if (!fileSystem.exists(path)) {
+      return new FileStatus[0];
+    }
+    // sorted by name, i.e. in the order they were written
+    FileStatus[] parts = fileSystem.listStatus(path, file -> HiddenFileFilter.INSTANCE.accept(file)
+        && file.getName().startsWith("part-") && file.getName().endsWith(".parquet"));
+    Arrays.sort(parts, Comparator.comparing(status -> status.getPath().getName()));
+    return parts;
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder {
+
+    private final DataSource dataSource;
+    private final String tableName;
+    private final String watermarkColumn;
+    private final String directory;
+    private String schemaName = SQLParquetWriter.DEFAULT_SCHEMA_NAME;
+    private int fetchSize = 1000;
+    private Configuration configuration = new Configuration();
+
+    private Builder(DataSource dataSource, String tableName, String watermarkColumn, String directory) {
+      notNull(dataSource, "dataSource cannot be null");
+      notNull(tableName, "tableName cannot be null");
+      notNull(watermarkColumn, "watermarkColumn cannot be null");
+      notNull(directory, "directory cannot be null");
+      this.dataSource = dataSource;
+      this.tableName = tableName;
+      this.watermarkColumn = watermarkColumn;
+      this.directory = directory;
+    }
+
+    public Builder withSchemaName(String schemaName) {
+      this.schemaName = schemaName;
+      return this;
+    }
+
+    public Builder withFetchSize(int fetchSize) {
+      this.fetchSize = fetchSize;
+      return this;
+    }
+
+    /**
+     * Configuration of the file system of the directory
+     */
+    public Builder withConf(Configuration configuration) {
+      this.configuration = configuration;
+      return this;
+    }
+
+    public IncrementalExport build() {
+      return new IncrementalExport(this);
+    }
+  }
+}
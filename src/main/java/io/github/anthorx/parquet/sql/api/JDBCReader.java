@@ -15,11 +15,18 @@
 
 package io.github.anthorx.parquet.sql.api;
 
-import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
-import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.jdbc.AdaptiveFetchSize;
+import io.github.anthorx.parquet.sql.jdbc.model.*;
+import io.github.anthorx.parquet.sql.parquet.write.converter.types.BigDecimalConverter;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
 
 public class JDBCReader implements AutoCloseable {
 
@@ -27,10 +34,49 @@ public class JDBCReader implements AutoCloseable {
   private final int columnCount;
   private final PreparedStatement preparedStatement;
   private final ResultSet resultSet;
+  private final AdaptiveFetchSize adaptiveFetchSize;
+  private SQLBatch batch;
 
   public JDBCReader(Connection connection, String tableName, int fetchSize) throws SQLException {
+    this(builder(connection, tableName).withFetchSize(fetchSize).prepareStatement());
+  }
+
+  /**
+   * Constructor reading only the rows above the watermark, see {@link IncrementalExport}
+   */
+  public JDBCReader(Connection connection, String tableName, Watermark watermark, int fetchSize) throws SQLException {
+    this(builder(connection, tableName).withWatermark(watermark).withFetchSize(fetchSize).prepareStatement());
+  }
+
+  /**
+   * Builder reading a table, with a subset of its columns and of its rows.
+   * The parquet schema follows the selected columns.
+   */
+  public static Builder builder(Connection connection, String tableName) {
+    return new Builder(connection, tableName, null);
+  }
+
+  /**
+   * Builder reading the result of an arbitrary query
+   *
+   * @param query      SQL query, with '?' for the parameters
+   * @param parameters values bound to the parameters of the query, in order
+   */
+  public static Builder queryBuilder(Connection connection, String query, Object... parameters) {
+    return new Builder(connection, null, query).withParameters(parameters);
+  }
 
-    preparedStatement = createPrepareStatement(connection, tableName, fetchSize);
+  /**
+   * Constructor with a custom prepareStatement.
+   * The statement must be fully configured (parameters, fetch size) since it is executed right away.
+   */
+  public JDBCReader(PreparedStatement preparedStatement) throws SQLException {
+    this(preparedStatement, null);
+  }
+
+  private JDBCReader(PreparedStatement preparedStatement, AdaptiveFetchSize adaptiveFetchSize) throws SQLException {
+    this.preparedStatement = preparedStatement;
+    this.adaptiveFetchSize = adaptiveFetchSize;
     resultSet = preparedStatement.executeQuery();
 
     ResultSetMetaData metaData = resultSet.getMetaData();
@@ -38,13 +84,6 @@ public class JDBCReader implements AutoCloseable {
     columns = getColumns(columnCount, metaData);
   }
 
-  private static PreparedStatement createPrepareStatement(Connection connection, String tableName, int fetchSize) throws SQLException {
-    String query = String.format("select * from %s", tableName);
-    PreparedStatement result = connection.prepareStatement(query);
-    result.setFetchSize(fetchSize);
-    return result;
-  }
-
   private static SQLField[] getColumns(int columnCount, ResultSetMetaData metaData) throws SQLException {
     SQLField[] result = new SQLField[columnCount];
     for (int index = 1; index <= columnCount; index++) {
@@ -64,6 +103,9 @@ public class JDBCReader implements AutoCloseable {
 }
 
   public SQLRow read() throws SQLException {
+    if (adaptiveFetchSize != null) {
+      return readAdaptive();
+    }
     if (resultSet.next()) {
       return createSqlRow(resultSet);
     } else {
@@ -71,6 +113,98 @@ public class JDBCReader implements AutoCloseable {
     }
   }
 
+  private SQLRow readAdaptive() throws SQLException {
+    long start = System.nanoTime();
+    if (!resultSet.next()) {
+      return null;
+    }
+    long nextNanos = System.nanoTime() - start;
+    SQLRow row = createSqlRow(resultSet);
+    if (!adaptiveFetchSize.isFixed()) {
+      long rowBytes = 0;
+      for (SQLField field : row.getFields()) {
+        rowBytes += AdaptiveFetchSize.estimateBytes(field.getValue());
+      }
+      adaptiveFetchSize.onRow(resultSet, rowBytes, nextNanos);
+    }
+    return row;
+  }
+
+  /**
+   * @return the fetch size tuning, measures and chosen fetch size, empty when the fetch size is static
+   */
+  public Optional<AdaptiveFetchSize> getAdaptiveFetchSize() {
+    return Optional.ofNullable(adaptiveFetchSize);
+  }
+
+  /**
+   * Read up to maxRows rows, column by column into primitive vectors.
+   * The returned batch is reused by the next call: its content must be consumed before reading again.
+   *
+   * @param maxRows maximum number of rows of the batch
+   * @return the batch, or null when there is no more row
+   */
+  public SQLBatch readBatch(int maxRows) throws SQLException {
+    if (batch == null || batch.getCapacity() < maxRows) {
+      batch = createBatch(maxRows);
+    }
+    batch.reset();
+
+    int row = 0;
+    while (row < maxRows && resultSet.next()) {
+      for (int index = 1; index <= columnCount; index++) {
+        batch.getColumn(index - 1).read(resultSet, index, row);
+      }
+      row++;
+    }
+    batch.setSize(row);
+
+    return row == 0 ? null : batch;
+  }
+
+  private SQLBatch createBatch(int capacity) throws SQLException {
+    ColumnVector[] vectors = new ColumnVector[columnCount];
+    for (int index = 0; index < columnCount; index++) {
+      vectors[index] = createColumnVector(columns[index], capacity);
+    }
+    return new SQLBatch(vectors, capacity);
+  }
+
+  /**
+   * Choose the vector of a column so that it is written with the parquet type of the default converters
+   */
+  private static ColumnVector createColumnVector(SQLField column, int capacity) throws SQLException {
+    String name = column.getName();
+    switch (column.getColumnClassName()) {
+      case "java.math.BigDecimal":
+        int precision = column.getPrecision().filter(p -> p > 0).orElse(BigDecimalConverter.DEFAULT_PRECISION);
+        int scale = Math.max(column.getScale().orElse(0), 0);
+        if (precision <= 9) {
+          return new IntColumnVector(name, capacity, scale);
+        } else if (precision <= 18) {
+          return new LongColumnVector(name, capacity, scale);
+        } else {
+          return new BigDecimalColumnVector(name, capacity, precision, scale);
+        }
+      case "java.lang.Double":
+        return new DoubleColumnVector(name, capacity);
+      case "java.lang.Float":
+        return new FloatColumnVector(name, capacity);
+      case "java.lang.Integer":
+      case "java.lang.Short":
+      case "java.lang.Byte":
+        return new IntColumnVector(name, capacity);
+      case "java.lang.Long":
+        return new LongColumnVector(name, capacity);
+      case "java.lang.String":
+        return new BinaryColumnVector(name, capacity);
+      case "java.sql.Timestamp":
+        return new TimestampColumnVector(name, capacity);
+      default:
+        throw new SQLException("Column " + name + " of type " + column.getColumnClassName() + " can't be read in batch");
+    }
+  }
+
   private SQLRow createSqlRow(ResultSet resultSet) throws SQLException {
     SQLRow row = new SQLRow();
 
@@ -89,4 +223,147 @@ public class JDBCReader implements AutoCloseable {
     this.preparedStatement.close();
     connection.close();
   }
+
+  /**
+   * Builder of the query of a JDBCReader.
+   * Columns and predicate are sent to the database so that only the needed data is read and transferred.
+   */
+  public static class Builder {
+
+    private final Connection connection;
+    private final String tableName;
+    private final String query;
+    private final List<String> columns = new ArrayList<>();
+    private final List<String> predicates = new ArrayList<>();
+    private final List<Object> parameters = new ArrayList<>();
+    private Watermark watermark;
+    private int fetchSize = 1000;
+    private long targetFetchBytes;
+    private long targetFetchMillis;
+
+    private Builder(Connection connection, String tableName, String query) {
+      notNull(connection, "connection cannot be null");
+      if (tableName == null && query == null) {
+        throw new IllegalArgumentException("tableName cannot be null");
+      }
+      this.connection = connection;
+      this.tableName = tableName;
+      this.query = query;
+    }
+
+    /**
+     * Read only these columns, in this order. All the columns are read by default.
+     */
+    public Builder withColumns(String... columns) {
+      checkTable("columns");
+      this.columns.addAll(Arrays.asList(columns));
+      return this;
+    }
+
+    /**
+     * Read only the rows matching the predicate. Predicates of several calls are combined with 'and'.
+     *
+     * @param predicate  SQL condition, with '?' for the parameters, e.g. "country = ? and amount > ?"
+     * @param parameters values bound to the parameters of the predicate, in order
+     */
+    public Builder withWhere(String predicate, Object... parameters) {
+      checkTable("where");
+      notNull(predicate, "predicate cannot be null");
+      this.predicates.add(predicate);
+      return withParameters(parameters);
+    }
+
+    /**
+     * Read only the rows above the watermark, ordered by its column
+     */
+    public Builder withWatermark(Watermark watermark) {
+      checkTable("watermark");
+      this.watermark = watermark;
+      return this;
+    }
+
+    public Builder withFetchSize(int fetchSize) {
+      this.fetchSize = fetchSize;
+      return this;
+    }
+
+    /**
+     * Tune the fetch size over the first fetches of {@link JDBCReader#read()}, starting from the one of
+     * {@link #withFetchSize(int)}. The fetch size moves toward the number of rows holding targetFetchBytes
+     * and fetched in targetFetchMillis, whichever is lower. The chosen value is given by
+     * {@link JDBCReader#getAdaptiveFetchSize()}.
+     *
+     * @param targetFetchBytes  wanted memory held by the driver for a fetch, e.g. 16MB
+     * @param targetFetchMillis wanted duration of a fetch, e.g. 200ms
+     */
+    public Builder withAdaptiveFetchSize(long targetFetchBytes, long targetFetchMillis) {
+      this.targetFetchBytes = targetFetchBytes;
+      this.targetFetchMillis = targetFetchMillis;
+      return this;
+    }
+
+    public JDBCReader build() throws SQLException {
+      AdaptiveFetchSize adaptiveFetchSize = targetFetchBytes > 0
+          ? new AdaptiveFetchSize(fetchSize, targetFetchBytes, targetFetchMillis)
+          : null;
+      return new JDBCReader(prepareStatement(), adaptiveFetchSize);
+    }
+
+    /**
+     * @return the query sent to the database
+     */
+    String toSql() {
+      if (query != null) {
+        return query;
+      }
+      StringBuilder sql = new StringBuilder("select ")
+          .append(columns.isEmpty() ? "*" : String.join(", ", columns))
+          .append(" from ")
+          .append(tableName);
+      List<String> conditions = new ArrayList<>();
+      for (String predicate : predicates) {
+        conditions.add(predicates.size() > 1 || watermark != null ? "(" + predicate + ")" : predicate);
+      }
+      if (watermark != null && watermark.getValue() != null) {
+        conditions.add(watermark.predicate());
+      }
+      if (!conditions.isEmpty()) {
+        sql.append(" where ").append(String.join(" and ", conditions));
+      }
+      if (watermark != null) {
+        // rows in watermark order, the rows read always being all the ones below the highest value read
+        sql.append(" order by ").append(watermark.getColumn());
+      }
+      return sql.toString();
+    }
+
+    PreparedStatement prepareStatement() throws SQLException {
+      PreparedStatement result = connection.prepareStatement(toSql());
+      try {
+        result.setFetchSize(fetchSize);
+        int parameterIndex = 1;
+        for (Object parameter : parameters) {
+          result.setObject(parameterIndex++, parameter);
+        }
+        if (watermark != null) {
+          watermark.bind(result, parameterIndex);
+        }
+      } catch (SQLException | RuntimeException e) {
+        result.close();
+        throw e;
+      }
+      return result;
+    }
+
+    private Builder withParameters(Object... parameters) {
+      this.parameters.addAll(Arrays.asList(parameters));
+      return this;
+    }
+
+    private void checkTable(String option) {
+      if (query != null) {
+        throw new IllegalStateException(option + " can't be set on a query, write it in the query");
+      }
+    }
+  }
 }
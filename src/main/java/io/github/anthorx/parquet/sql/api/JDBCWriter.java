@@ -18,8 +18,12 @@ package io.github.anthorx.parquet.sql.api;
 import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -39,6 +43,11 @@ public class JDBCWriter implements ReadRecordConsumer, AutoCloseable {
   private final List<String> errors;
   private int currentParameterIndex = 0;
   private TimeZone timeZone;
+  // created once: Calendar.getInstance is costly, and the driver only reads the zone from it
+  private Calendar calendar;
+  private boolean javaTimeSupported = true;
+  // parameters of binary columns, read from the statement on the first string given as UTF-8 bytes
+  private boolean[] binaryParameters;
 
   /**
    * Default constructor that should be used.
@@ -74,6 +83,7 @@ public class JDBCWriter implements ReadRecordConsumer, AutoCloseable {
     this.preparedStatement = preparedStatement;
     this.errors = new ArrayList<>();
     this.timeZone = timeZone;
+    this.calendar = timeZone == null ? null : Calendar.getInstance(timeZone);
   }
 
   protected static String prepareStatementQuery(String tableName, Collection<String> columnNames) throws IllegalArgumentException {
@@ -89,6 +99,22 @@ public class JDBCWriter implements ReadRecordConsumer, AutoCloseable {
     return String.format("insert into %s%s values (%s)", tableName, formattedColumns, elem);
   }
 
+  /**
+   * @return columns of a table, in the table order
+   */
+  public static List<String> getColumnNames(Connection connection, String tableName) throws SQLException {
+    notNull(tableName, "tableName cannot be null");
+    try (PreparedStatement statement = connection.prepareStatement(String.format("select * from %s where 1 = 0", tableName));
+         ResultSet resultSet = statement.executeQuery()) {
+      ResultSetMetaData metaData = resultSet.getMetaData();
+      List<String> columnNames = new ArrayList<>();
+      for (int column = 1; column <= metaData.getColumnCount(); column++) {
+        columnNames.add(metaData.getColumnName(column));
+      }
+      return columnNames;
+    }
+  }
+
   public void addBatch() throws SQLException {
     if (!errors.isEmpty()) {
       throw new SQLException("Errors when setting prepared statement. Details : " + errors);
@@ -144,6 +170,11 @@ public class JDBCWriter implements ReadRecordConsumer, AutoCloseable {
     withException(() -> this.preparedStatement.setBigDecimal(getNextIndex(), value));
   }
 
+  @Override
+  public void setUnscaledDecimal(long unscaled, int scale) {
+    withException(() -> this.preparedStatement.setBigDecimal(getNextIndex(), BigDecimal.valueOf(unscaled, scale)));
+  }
+
   @Override
   public void setString(String value) {
     withException(() -> this.preparedStatement.setString(getNextIndex(), value));
@@ -154,11 +185,56 @@ public class JDBCWriter implements ReadRecordConsumer, AutoCloseable {
     withException(() -> this.preparedStatement.setBytes(getNextIndex(), value));
   }
 
+  /**
+   * The bytes are bound as they are when the parameter is a binary column, and decoded otherwise
+   */
+  @Override
+  public void setUtf8Bytes(byte[] utf8) {
+    withException(() -> {
+      int index = getNextIndex();
+      if (isBinaryParameter(index)) {
+        this.preparedStatement.setBytes(index, utf8);
+      } else {
+        this.preparedStatement.setString(index, new String(utf8, StandardCharsets.UTF_8));
+      }
+    });
+  }
+
+  private boolean isBinaryParameter(int index) {
+    if (binaryParameters == null) {
+      binaryParameters = readBinaryParameters();
+    }
+    return index <= binaryParameters.length && binaryParameters[index - 1];
+  }
+
+  private boolean[] readBinaryParameters() {
+    try {
+      ParameterMetaData metaData = this.preparedStatement.getParameterMetaData();
+      boolean[] binary = new boolean[metaData.getParameterCount()];
+      for (int index = 0; index < binary.length; index++) {
+        switch (metaData.getParameterType(index + 1)) {
+          case Types.BINARY:
+          case Types.VARBINARY:
+          case Types.LONGVARBINARY:
+          case Types.BLOB:
+            binary[index] = true;
+            break;
+          default:
+            break;
+        }
+      }
+      return binary;
+    } catch (SQLException e) {
+      // a driver not describing the parameters gets strings
+      return new boolean[0];
+    }
+  }
+
   @Override
   public void setDate(Date value) {
     withException(() -> {
       if (this.timeZone != null) {
-        this.preparedStatement.setDate(getNextIndex(), value, Calendar.getInstance(this.timeZone));
+        this.preparedStatement.setDate(getNextIndex(), value, this.calendar);
       } else {
         this.preparedStatement.setDate(getNextIndex(), value);
       }
@@ -169,16 +245,48 @@ public class JDBCWriter implements ReadRecordConsumer, AutoCloseable {
   public void setTimestamp(Timestamp value) {
     withException(() -> {
       if (this.timeZone != null) {
-        this.preparedStatement.setTimestamp(getNextIndex(), value, Calendar.getInstance(this.timeZone));
+        this.preparedStatement.setTimestamp(getNextIndex(), value, this.calendar);
       } else {
         this.preparedStatement.setTimestamp(getNextIndex(), value);
       }
     });
   }
 
+  /**
+   * LocalDateTime, OffsetDateTime and LocalDate are bound as they are when the driver supports java.time (JDBC 4.2),
+   * and as Timestamp or Date otherwise
+   */
   @Override
   public void setObject(Object value) {
-    withException(() -> this.preparedStatement.setObject(getNextIndex(), value));
+    withException(() -> {
+      int index = getNextIndex();
+      if (javaTimeSupported || !isJavaTime(value)) {
+        try {
+          this.preparedStatement.setObject(index, value);
+          return;
+        } catch (SQLFeatureNotSupportedException e) {
+          if (!isJavaTime(value)) {
+            throw e;
+          }
+          javaTimeSupported = false;
+        }
+      }
+      setLegacyTime(index, value);
+    });
+  }
+
+  private static boolean isJavaTime(Object value) {
+    return value instanceof LocalDateTime || value instanceof OffsetDateTime || value instanceof LocalDate;
+  }
+
+  private void setLegacyTime(int index, Object value) throws SQLException {
+    if (value instanceof LocalDate) {
+      this.preparedStatement.setDate(index, Date.valueOf((LocalDate) value));
+    } else if (value instanceof OffsetDateTime) {
+      this.preparedStatement.setTimestamp(index, Timestamp.from(((OffsetDateTime) value).toInstant()));
+    } else {
+      this.preparedStatement.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+    }
   }
 
   @Override
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.api;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.RecordConsumer;
+
+/**
+ * Write support of a writer sharing a {@link WriterMemoryManager}: reports the written rows,
+ * and leaves the budget once the file is finalized or a row fails to be written
+ */
+class ManagedWriteSupport<T> extends WriteSupport<T> {
+
+  private final WriteSupport<T> writeSupport;
+  private final WriterMemoryManager.ManagedWriter managedWriter;
+
+  ManagedWriteSupport(WriteSupport<T> writeSupport, WriterMemoryManager.ManagedWriter managedWriter) {
+    this.writeSupport = writeSupport;
+    this.managedWriter = managedWriter;
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    return writeSupport.init(configuration);
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    writeSupport.prepareForWrite(recordConsumer);
+  }
+
+  @Override
+  public void write(T record) {
+    try {
+      writeSupport.write(record);
+    } catch (RuntimeException e) {
+      // the writer is aborted, it may never be finalized
+      managedWriter.close();
+      throw e;
+    }
+    managedWriter.onRowWritten();
+  }
+
+  @Override
+  public String getName() {
+    return writeSupport.getName();
+  }
+
+  @Override
+  public FinalizedWriteContext finalizeWrite() {
+    managedWriter.close();
+    return writeSupport.finalizeWrite();
+  }
+}
@@ -0,0 +1,587 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.read.RecordFilter;
+import io.github.anthorx.parquet.sql.parquet.read.SQLReadSupport;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.util.HiddenFileFilter;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Read a file, or the files of a folder, in parallel.
+ * Files are split into ranges of row groups from their footer, and the splits are decoded by a pool of threads.
+ * Records are either read one by one with {@link #read()}, in the file order or in the order they are decoded,
+ * or handed to one {@link RecordWorker} per thread with {@link #forEach(RecordWorkerFactory)},
+ * e.g. a {@link JDBCWriter} with its own connection.
+ */
+public class ParallelSQLParquetReader implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelSQLParquetReader.class);
+
+  private static final Record END_OF_SPLIT = new Record();
+
+  /**
+   * Consumer of the records read by a thread
+   */
+  @FunctionalInterface
+  public interface RecordWorker extends AutoCloseable {
+    void accept(Record record) throws SQLException, IOException;
+
+    /**
+     * Called once all the splits are read, or on error
+     */
+    @Override
+    default void close() throws SQLException, IOException {
+    }
+  }
+
+  /**
+   * Create the worker of a thread
+   */
+  @FunctionalInterface
+  public interface RecordWorkerFactory {
+    RecordWorker create() throws SQLException, IOException;
+  }
+
+  private final Configuration configuration;
+  // records given to read() are queued, they can't be reused
+  private final Configuration queuedConfiguration;
+  private final int parallelism;
+  private final boolean ordered;
+  private final int queueCapacity;
+  private final List<Split> splits;
+  private final MessageType schema;
+  private final FilterPredicate predicate;
+
+  private ExecutorService executor;
+  private List<Future<Long>> futures;
+  private final AtomicInteger nextSplit = new AtomicInteger();
+  // set by the first failing thread, the other threads stop at their next record
+  private final AtomicBoolean failed = new AtomicBoolean();
+  // ordered: one queue per split, read one after the other. unordered: one queue shared by the splits
+  private List<BlockingQueue<Record>> queues;
+  private int currentQueue;
+  private int finishedWorkers;
+  private boolean finished;
+
+  private ParallelSQLParquetReader(Builder builder) throws IOException {
+    this.configuration = builder.configuration;
+    if (configuration.getBoolean(SQLReadSupport.REUSE_RECORDS, false)) {
+      this.queuedConfiguration = new Configuration(configuration);
+      queuedConfiguration.setBoolean(SQLReadSupport.REUSE_RECORDS, false);
+    } else {
+      this.queuedConfiguration = configuration;
+    }
+    this.ordered = builder.ordered;
+    this.queueCapacity = builder.queueCapacity;
+
+    List<Split> fileSplits = new ArrayList<>();
+    MessageType fileSchema = null;
+    for (FileStatus status : listFiles(new Path(builder.path), configuration)) {
+      InputFile inputFile = SQLParquetReader.inputFile(status, configuration);
+      try (ParquetFileReader reader = ParquetFileReader.open(inputFile)) {
+        if (fileSchema == null) {
+          fileSchema = SQLReadSupport.requestedSchema(reader.getFileMetaData().getSchema(), configuration);
+        }
+        fileSplits.addAll(split(status.getPath().toString(), inputFile, reader.getFooter().getBlocks(), builder.rowGroupsPerSplit));
+      }
+    }
+    this.splits = Collections.unmodifiableList(fileSplits);
+    this.schema = fileSchema;
+    this.predicate = builder.filter == null || fileSchema == null ? null : builder.filter.toPredicate(fileSchema);
+    this.parallelism = Math.max(1, Math.min(builder.parallelism, splits.size()));
+  }
+
+  /**
+   * @param path file or folder to read. Files of a folder are read in the order of their names.
+   */
+  public static Builder builder(String path, Configuration configuration) {
+    return new Builder(path, configuration);
+  }
+
+  static List<Split> split(String file, InputFile inputFile, List<BlockMetaData> blocks, int rowGroupsPerSplit) {
+    List<Split> splits = new ArrayList<>();
+    for (int first = 0; first < blocks.size(); first += rowGroupsPerSplit) {
+      int last = Math.min(first + rowGroupsPerSplit, blocks.size()) - 1;
+      long rowCount = 0;
+      for (int index = first; index <= last; index++) {
+        rowCount += blocks.get(index).getRowCount();
+      }
+      BlockMetaData lastBlock = blocks.get(last);
+      // a row group belongs to the range holding its middle
+      splits.add(new Split(file, inputFile, first, last - first + 1, blocks.get(first).getStartingPos(),
+          lastBlock.getStartingPos() + lastBlock.getCompressedSize(), rowCount));
+    }
+    return splits;
+  }
+
+  private static List<FileStatus> listFiles(Path path, Configuration configuration) throws IOException {
+    FileSystem fileSystem = path.getFileSystem(configuration);
+    FileStatus status = fileSystem.getFileStatus(path);
+    if (!status.isDir()) {
+      return Collections.singletonList(status);
+    }
+    FileStatus[] statuses = fileSystem.listStatus(path, HiddenFileFilter.INSTANCE);
+    Arrays.sort(statuses, Comparator.comparing(fileStatus -> fileStatus.getPath().getName()));
+    return Arrays.asList(statuses);
+  }
+
+  public MessageType getSchema() {
+    return schema;
+  }
+
+  public List<String> getFieldsNames() {
+    return schema.getFields().stream().map(Type::getName).collect(Collectors.toList());
+  }
+
+  public List<Type> getFields() {
+    return schema.getFields();
+  }
+
+  /**
+   * @return ranges of row groups decoded by a thread, in the file order
+   */
+  public List<Split> getSplits() {
+    return splits;
+  }
+
+  /**
+   * Read the next record. Splits start being decoded on the first call.
+   *
+   * @return the next record, null once all the splits are read
+   */
+  public Record read() throws IOException {
+    if (finished) {
+      return null;
+    }
+    if (executor == null) {
+      startDecoding();
+    }
+    try {
+      while (true) {
+        if (ordered ? currentQueue == splits.size() : finishedWorkers == parallelism) {
+          finished = true;
+          awaitAll(futures);
+          return null;
+        }
+        Record record = queues.get(ordered ? currentQueue : 0).poll(100, TimeUnit.MILLISECONDS);
+        if (record == END_OF_SPLIT) {
+          if (ordered) {
+            queues.set(currentQueue++, null);
+          } else {
+            finishedWorkers++;
+          }
+        } else if (record != null) {
+          return record;
+        } else {
+          throwIfFailed(futures);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading splits", e);
+    }
+  }
+
+  private void startDecoding() {
+    executor = newExecutor();
+    queues = new ArrayList<>();
+    if (ordered) {
+      // a worker blocks on the queue of its split, so at most one queue per thread holds records
+      for (int index = 0; index < splits.size(); index++) {
+        queues.add(new LinkedBlockingQueue<>(Math.max(1, queueCapacity / parallelism)));
+      }
+    } else {
+      queues.add(new ArrayBlockingQueue<>(queueCapacity));
+    }
+    futures = new ArrayList<>();
+    for (int worker = 0; worker < parallelism; worker++) {
+      futures.add(executor.submit(() -> {
+        long count = 0;
+        try {
+          for (int index = takeSplit(); index >= 0; index = takeSplit()) {
+            BlockingQueue<Record> queue = queues.get(ordered ? index : 0);
+            count += readSplit(splits.get(index), queuedConfiguration, queue::put);
+            if (ordered) {
+              queue.put(END_OF_SPLIT);
+            }
+          }
+        } catch (Exception | Error e) {
+          failed.set(true);
+          throw e;
+        } finally {
+          if (!ordered) {
+            queues.get(0).put(END_OF_SPLIT);
+          }
+        }
+        return count;
+      }));
+    }
+  }
+
+  /**
+   * Read all the splits, each thread giving its records to its own worker.
+   * Records of a split are given in the file order, splits are given in any order.
+   * With {@link SQLReadSupport#REUSE_RECORDS}, a record is only valid until the worker returns.
+   * On the first error of a worker, the other workers stop at their next record and are closed,
+   * then the error is thrown.
+   *
+   * @return number of records read
+   */
+  public long forEach(RecordWorkerFactory workerFactory) throws SQLException, IOException {
+    if (executor != null) {
+      throw new IllegalStateException("Records are already being read");
+    }
+    executor = newExecutor();
+    CompletionService<Long> completionService = new ExecutorCompletionService<>(executor);
+    for (int worker = 0; worker < parallelism; worker++) {
+      completionService.submit(() -> {
+        long count = 0;
+        try (RecordWorker recordWorker = workerFactory.create()) {
+          for (int index = takeSplit(); index >= 0; index = takeSplit()) {
+            count += readSplit(splits.get(index), configuration, recordWorker::accept);
+          }
+        } catch (Exception | Error e) {
+          failed.set(true);
+          throw e;
+        }
+        return count;
+      });
+    }
+    finished = true;
+    int running = parallelism;
+    try {
+      long total = 0;
+      // futures are taken as they complete, so the first failure is thrown without waiting for the other threads
+      for (; running > 0; running--) {
+        total += await(takeCompleted(completionService));
+      }
+      return total;
+    } catch (SQLException | IOException | RuntimeException e) {
+      failed.set(true);
+      executor.shutdownNow();
+      // let the other workers stop and close before giving the error
+      for (running--; running > 0; running--) {
+        try {
+          await(takeCompleted(completionService));
+        } catch (SQLException | IOException | RuntimeException suppressed) {
+          e.addSuppressed(suppressed);
+        }
+      }
+      throw e;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Future<Long> takeCompleted(CompletionService<Long> completionService) throws IOException {
+    try {
+      return completionService.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a split", e);
+    }
+  }
+
+  /**
+   * @return index of the next split to read, -1 once all the splits are taken or a thread failed
+   */
+  private int takeSplit() {
+    if (failed.get()) {
+      return -1;
+    }
+    int index = nextSplit.getAndIncrement();
+    return index < splits.size() ? index : -1;
+  }
+
+  /**
+   * Insert all the records into a table, each thread with its own connection and JDBCWriter.
+   * Each connection commits as configured by the data source.
+   *
+   * @param batchSize rows of a JDBC batch
+   * @return number of records inserted
+   */
+  public long importInto(DataSource dataSource, String tableName, int batchSize) throws SQLException, IOException {
+    List<Type> fields = getFields();
+    return forEach(() -> new RecordWorker() {
+      private final JDBCWriter jdbcWriter = new JDBCWriter(dataSource.getConnection(), tableName, getFieldsNames());
+      private int batchRows;
+
+      @Override
+      public void accept(Record record) throws SQLException {
+        record.readAll(fields, jdbcWriter);
+        jdbcWriter.addBatch();
+        if (++batchRows == batchSize) {
+          jdbcWriter.executeBatch();
+          batchRows = 0;
+        }
+      }
+
+      @Override
+      public void close() throws SQLException {
+        try {
+          // rows of the pending batch are not inserted once another thread failed
+          if (batchRows > 0 && !failed.get()) {
+            jdbcWriter.executeBatch();
+          }
+        } finally {
+          jdbcWriter.close();
+        }
+      }
+    });
+  }
+
+  @FunctionalInterface
+  private interface SplitConsumer {
+    void accept(Record record) throws SQLException, IOException, InterruptedException;
+  }
+
+  private long readSplit(Split split, Configuration configuration, SplitConsumer consumer) throws SQLException, IOException, InterruptedException {
+    long count = 0;
+    SQLParquetReader.Builder builder = new SQLParquetReader.Builder(split.inputFile);
+    builder.withConf(configuration).withFileRange(split.start, split.end);
+    if (predicate != null) {
+      builder.withPredicate(predicate);
+    }
+    try (ParquetReader<Record> reader = builder.build()) {
+      for (Record record = reader.read(); record != null && !failed.get(); record = reader.read()) {
+        if (Thread.interrupted()) {
+          throw new InterruptedException("Interrupted while reading " + split);
+        }
+        consumer.accept(record);
+        count++;
+      }
+    }
+    LOG.debug("{} records read from {}", count, split);
+    return count;
+  }
+
+  private ExecutorService newExecutor() {
+    AtomicInteger threadIndex = new AtomicInteger();
+    return Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, "parquet-split-reader-" + threadIndex.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static void throwIfFailed(List<Future<Long>> futures) throws IOException {
+    for (Future<Long> future : futures) {
+      if (future.isDone()) {
+        try {
+          await(future);
+        } catch (SQLException e) {
+          throw new IOException(e);
+        }
+      }
+    }
+  }
+
+  private static long awaitAll(List<Future<Long>> futures) throws IOException {
+    try {
+      long total = 0;
+      for (Future<Long> future : futures) {
+        total += await(future);
+      }
+      return total;
+    } catch (SQLException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static long await(Future<Long> future) throws SQLException, IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a split", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException("Error when reading a split", cause);
+    }
+  }
+
+  /**
+   * Stop the threads still decoding splits
+   */
+  @Override
+  public void close() {
+    finished = true;
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Consecutive row groups of a file
+   */
+  public static class Split {
+    private final String file;
+    private final InputFile inputFile;
+    private final int firstRowGroup;
+    private final int rowGroupCount;
+    private final long start;
+    private final long end;
+    private final long rowCount;
+
+    Split(String file, InputFile inputFile, int firstRowGroup, int rowGroupCount, long start, long end, long rowCount) {
+      this.file = file;
+      this.inputFile = inputFile;
+      this.firstRowGroup = firstRowGroup;
+      this.rowGroupCount = rowGroupCount;
+      this.start = start;
+      this.end = end;
+      this.rowCount = rowCount;
+    }
+
+    public String getFile() {
+      return file;
+    }
+
+    public int getFirstRowGroup() {
+      return firstRowGroup;
+    }
+
+    public int getRowGroupCount() {
+      return rowGroupCount;
+    }
+
+    public long getRowCount() {
+      return rowCount;
+    }
+
+    @Override
+    public String toString() {
+      return file + "[row groups " + firstRowGroup + " to " + (firstRowGroup + rowGroupCount - 1) + "]";
+    }
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder {
+
+    private final String path;
+    private Configuration configuration;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int rowGroupsPerSplit = 1;
+    private boolean ordered = true;
+    private int queueCapacity = 10000;
+    private RecordFilter filter;
+
+    private Builder(String path, Configuration configuration) {
+      notNull(path, "path cannot be null");
+      notNull(configuration, "configuration cannot be null");
+      this.path = path;
+      this.configuration = configuration;
+    }
+
+    /**
+     * @param parallelism threads decoding splits, at most one per split
+     */
+    public Builder withParallelism(int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("parallelism must be greater than 0");
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    public Builder withRowGroupsPerSplit(int rowGroupsPerSplit) {
+      if (rowGroupsPerSplit < 1) {
+        throw new IllegalArgumentException("rowGroupsPerSplit must be greater than 0");
+      }
+      this.rowGroupsPerSplit = rowGroupsPerSplit;
+      return this;
+    }
+
+    /**
+     * @param ordered true to read the records in the file order (default),
+     *                false to read them as soon as they are decoded
+     */
+    public Builder withOrder(boolean ordered) {
+      this.ordered = ordered;
+      return this;
+    }
+
+    /**
+     * @param queueCapacity records decoded ahead of {@link #read()}, shared by the threads
+     */
+    public Builder withQueueCapacity(int queueCapacity) {
+      if (queueCapacity < 1) {
+        throw new IllegalArgumentException("queueCapacity must be greater than 0");
+      }
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /**
+     * Read only some columns of the files, see {@link SQLReadSupport#COLUMNS}
+     */
+    public Builder withColumns(Collection<String> columns) {
+      this.configuration = SQLParquetReader.withColumns(configuration, columns);
+      return this;
+    }
+
+    /**
+     * Read only the records matching the filter, see {@link SQLParquetReader#SQLParquetReader(String, Configuration, RecordFilter)}.
+     * Splits are still made of all the row groups, the skipped ones being read as empty.
+     */
+    public Builder withFilter(RecordFilter filter) {
+      this.filter = filter;
+      return this;
+    }
+
+    public ParallelSQLParquetReader build() throws IOException {
+      return new ParallelSQLParquetReader(this);
+    }
+  }
+}
@@ -0,0 +1,380 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.ConsistentSnapshot;
+import io.github.anthorx.parquet.sql.jdbc.model.KeyRange;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Read a table in parallel.
+ * The table is split into key ranges on a numeric or date column, min and max being discovered up front.
+ * Each range is read through its own connection and all ranges are read at the same time.
+ */
+public class PartitionedJDBCReader {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionedJDBCReader.class);
+
+  private static final SQLRow END_OF_RANGE = new SQLRow();
+
+  /**
+   * Create the writer of a range, when each range has its own output
+   */
+  @FunctionalInterface
+  public interface RangeWriterFactory {
+    ParquetWriter<SQLRow> create(KeyRange range, ResultSetMetaData metaData) throws IOException;
+  }
+
+  /**
+   * Create the writer shared by all the ranges
+   */
+  @FunctionalInterface
+  public interface MergedWriterFactory {
+    ParquetWriter<SQLRow> create(ResultSetMetaData metaData) throws IOException;
+  }
+
+  private final DataSource dataSource;
+  private final String tableName;
+  private final String splitColumn;
+  private final int partitionCount;
+  private final int fetchSize;
+  private final int queueCapacity;
+  private final boolean consistentSnapshot;
+  private final ConsistentSnapshot snapshotImplementation;
+
+  private PartitionedJDBCReader(Builder builder) {
+    this.dataSource = builder.dataSource;
+    this.tableName = builder.tableName;
+    this.splitColumn = builder.splitColumn;
+    this.partitionCount = builder.partitionCount;
+    this.fetchSize = builder.fetchSize;
+    this.queueCapacity = builder.queueCapacity;
+    this.consistentSnapshot = builder.consistentSnapshot;
+    this.snapshotImplementation = builder.snapshotImplementation;
+  }
+
+  public static Builder builder(DataSource dataSource, String tableName, String splitColumn) {
+    return new Builder(dataSource, tableName, splitColumn);
+  }
+
+  /**
+   * Discover min and max of the split column and split them in ranges
+   */
+  public List<KeyRange> computeRanges() throws SQLException {
+    String query = String.format("select min(%s), max(%s) from %s", splitColumn, splitColumn, tableName);
+    try (Connection connection = dataSource.getConnection();
+         Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(query)) {
+      resultSet.next();
+      return KeyRange.split(resultSet.getObject(1), resultSet.getObject(2), partitionCount);
+    }
+  }
+
+  /**
+   * Write each range in its own file named part-xxxxx.parquet in the directory
+   *
+   * @return number of rows exported
+   */
+  public long exportToFiles(String directory, String schemaName) throws SQLException, IOException {
+    return exportToWriters((range, metaData) -> SQLParquetWriter
+        .builder(Paths.get(directory, String.format(RollingParquetWriter.PART_FILE_FORMAT, range.getIndex())).toString())
+        .withSchema(schemaName, metaData)
+        .build());
+  }
+
+  /**
+   * Write each range with its own writer. Writers are closed once their range is exported.
+   *
+   * @return number of rows exported
+   */
+  public long exportToWriters(RangeWriterFactory writerFactory) throws SQLException, IOException {
+    List<KeyRange> ranges = computeRanges();
+    ExecutorService executor = Executors.newFixedThreadPool(ranges.size());
+    try {
+      List<JDBCReader> readers = openReaders(ranges, executor);
+      List<Future<Long>> futures = new ArrayList<>();
+      for (int i = 0; i < ranges.size(); i++) {
+        KeyRange range = ranges.get(i);
+        JDBCReader reader = readers.get(i);
+        futures.add(executor.submit(() -> {
+          try (JDBCReader r = reader; ParquetWriter<SQLRow> writer = writerFactory.create(range, r.getMetaData())) {
+            long count = 0;
+            for (SQLRow row = r.read(); row != null; row = r.read()) {
+              writer.write(row);
+              count++;
+            }
+            LOG.debug("{} rows exported for {}", count, range);
+            return count;
+          }
+        }));
+      }
+
+      long total = 0;
+      for (Future<Long> future : futures) {
+        total += await(future);
+      }
+      return total;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Read all the ranges at the same time and merge them into one writer.
+   * The writer is used by the calling thread only. It is closed at the end of the export.
+   *
+   * @return number of rows exported
+   */
+  public long exportMerged(MergedWriterFactory writerFactory) throws SQLException, IOException {
+    List<KeyRange> ranges = computeRanges();
+    ExecutorService executor = Executors.newFixedThreadPool(ranges.size());
+    BlockingQueue<SQLRow> queue = new ArrayBlockingQueue<>(queueCapacity);
+    try {
+      List<JDBCReader> readers = openReaders(ranges, executor);
+      List<Future<Long>> futures = new ArrayList<>();
+
+      ParquetWriter<SQLRow> mergedWriter;
+      try {
+        mergedWriter = writerFactory.create(readers.get(0).getMetaData());
+      } catch (SQLException | IOException | RuntimeException e) {
+        readers.forEach(PartitionedJDBCReader::closeQuietly);
+        throw e;
+      }
+
+      try (ParquetWriter<SQLRow> writer = mergedWriter) {
+        for (JDBCReader reader : readers) {
+          futures.add(executor.submit(() -> {
+            try (JDBCReader r = reader) {
+              long count = 0;
+              for (SQLRow row = r.read(); row != null; row = r.read()) {
+                queue.put(row);
+                count++;
+              }
+              return count;
+            } finally {
+              queue.put(END_OF_RANGE);
+            }
+          }));
+        }
+
+        long total = 0;
+        int finishedRanges = 0;
+        while (finishedRanges < ranges.size()) {
+          SQLRow row = queue.poll(100, TimeUnit.MILLISECONDS);
+          if (row == END_OF_RANGE) {
+            finishedRanges++;
+          } else if (row != null) {
+            writer.write(row);
+            total++;
+          } else {
+            throwIfFailed(futures);
+          }
+        }
+        for (Future<Long> future : futures) {
+          await(future);
+        }
+        return total;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while merging ranges of " + tableName, e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Open one reader per range, in parallel.
+   * When a consistent snapshot is asked, every connection joins the snapshot before its query is executed.
+   */
+  private List<JDBCReader> openReaders(List<KeyRange> ranges, ExecutorService executor) throws SQLException, IOException {
+    Connection coordinator = null;
+    try {
+      String snapshotId = null;
+      ConsistentSnapshot snapshot = null;
+      if (consistentSnapshot) {
+        coordinator = dataSource.getConnection();
+        Optional<ConsistentSnapshot> maybeSnapshot = snapshotImplementation != null
+            ? Optional.of(snapshotImplementation)
+            : ConsistentSnapshot.forConnection(coordinator);
+        if (maybeSnapshot.isPresent()) {
+          snapshot = maybeSnapshot.get();
+          snapshotId = snapshot.export(coordinator);
+        } else {
+          LOG.warn("No consistent snapshot support for this database. Ranges of {} are read without a shared snapshot", tableName);
+        }
+      }
+
+      List<Future<JDBCReader>> futures = new ArrayList<>();
+      for (KeyRange range : ranges) {
+        ConsistentSnapshot rangeSnapshot = snapshot;
+        String rangeSnapshotId = snapshotId;
+        futures.add(executor.submit(() -> openReader(range, rangeSnapshot, rangeSnapshotId)));
+      }
+
+      List<JDBCReader> readers = new ArrayList<>();
+      try {
+        for (Future<JDBCReader> future : futures) {
+          readers.add(await(future));
+        }
+      } catch (SQLException | IOException | RuntimeException e) {
+        readers.forEach(PartitionedJDBCReader::closeQuietly);
+        throw e;
+      }
+      return readers;
+    } finally {
+      if (coordinator != null) {
+        closeQuietly(coordinator);
+      }
+    }
+  }
+
+  private JDBCReader openReader(KeyRange range, ConsistentSnapshot snapshot, String snapshotId) throws SQLException {
+    Connection connection = dataSource.getConnection();
+    try {
+      if (snapshot != null) {
+        snapshot.join(connection, snapshotId);
+      }
+      String query = String.format("select * from %s where %s", tableName, range.predicate(splitColumn));
+      PreparedStatement preparedStatement = connection.prepareStatement(query);
+      preparedStatement.setFetchSize(fetchSize);
+      range.bind(preparedStatement, 1);
+      return new JDBCReader(preparedStatement);
+    } catch (SQLException | RuntimeException e) {
+      closeQuietly(connection);
+      throw e;
+    }
+  }
+
+  private static void throwIfFailed(List<? extends Future<?>> futures) throws SQLException, IOException {
+    for (Future<?> future : futures) {
+      if (future.isDone()) {
+        await(future);
+      }
+    }
+  }
+
+  private static <T> T await(Future<T> future) throws SQLException, IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a range", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException("Error when reading a range", cause);
+    }
+  }
+
+  private static void closeQuietly(AutoCloseable closeable) {
+    try {
+      closeable.close();
+    } catch (Exception e) {
+      LOG.warn("Error when closing " + closeable, e);
+    }
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder {
+
+    private final DataSource dataSource;
+    private final String tableName;
+    private final String splitColumn;
+    private int partitionCount = Runtime.getRuntime().availableProcessors();
+    private int fetchSize = 1000;
+    private int queueCapacity = 10000;
+    private boolean consistentSnapshot = false;
+    private ConsistentSnapshot snapshotImplementation;
+
+    private Builder(DataSource dataSource, String tableName, String splitColumn) {
+      notNull(dataSource, "dataSource cannot be null");
+      notNull(tableName, "tableName cannot be null");
+      notNull(splitColumn, "splitColumn cannot be null");
+      this.dataSource = dataSource;
+      this.tableName = tableName;
+      this.splitColumn = splitColumn;
+    }
+
+    /**
+     * Number of ranges, and so of connections used at the same time
+     */
+    public Builder withPartitionCount(int partitionCount) {
+      if (partitionCount < 1) {
+        throw new IllegalArgumentException("partitionCount must be greater than 0");
+      }
+      this.partitionCount = partitionCount;
+      return this;
+    }
+
+    public Builder withFetchSize(int fetchSize) {
+      this.fetchSize = fetchSize;
+      return this;
+    }
+
+    /**
+     * Number of rows buffered between the readers and the writer in merged mode
+     */
+    public Builder withQueueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /**
+     * Pin all ranges on one snapshot when the database supports it (PostgreSQL and Oracle).
+     * Otherwise a warning is logged and each range reads its own view of the table.
+     */
+    public Builder withConsistentSnapshot(boolean consistentSnapshot) {
+      this.consistentSnapshot = consistentSnapshot;
+      return this;
+    }
+
+    /**
+     * Pin all ranges on one snapshot with the given implementation
+     */
+    public Builder withConsistentSnapshot(ConsistentSnapshot snapshotImplementation) {
+      this.consistentSnapshot = true;
+      this.snapshotImplementation = snapshotImplementation;
+      return this;
+    }
+
+    public PartitionedJDBCReader build() {
+      return new PartitionedJDBCReader(this);
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConverterContainer;
+import io.github.anthorx.parquet.sql.parquet.write.converter.WritePlan;
+import io.github.anthorx.parquet.sql.parquet.write.converter.types.ParquetSQLConverter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notEmpty;
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Write rows into Hive style partition directories, e.g. dt=2026-10-17/region=eu/part-00000.parquet.
+ * Partition columns are taken from the path and not written in the files.
+ * At most maxOpenWriters partitions are open at the same time: the least recently written one is closed
+ * when another partition is needed, and a new part file is started if it comes back.
+ */
+public class PartitionedParquetWriter implements Closeable {
+
+  public static final String DEFAULT_PARTITION_NAME = "__HIVE_DEFAULT_PARTITION__";
+
+  private static final String ESCAPED_CHARS = "\"#%'*/:=?\\{[]^";
+
+  private final String directory;
+  private final String[] partitionColumns;
+  private final int[] partitionIndexes;
+  private final WritePlan writePlan;
+  private final CompressionCodecName codecName;
+  private final int maxOpenWriters;
+
+  // access ordered, so the first entry is the least recently written partition
+  private final LinkedHashMap<String, ParquetWriter<SQLRow>> openWriters = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Integer> partCounts = new HashMap<>();
+  private final StringBuilder partitionPathBuilder = new StringBuilder();
+
+  private PartitionedParquetWriter(Builder builder, int[] partitionIndexes, WritePlan writePlan) {
+    this.directory = builder.directory;
+    this.partitionColumns = builder.partitionColumns;
+    this.partitionIndexes = partitionIndexes;
+    this.writePlan = writePlan;
+    this.codecName = builder.codecName;
+    this.maxOpenWriters = builder.maxOpenWriters;
+  }
+
+  /**
+   * @param directory         root directory of the partitions
+   * @param schemaName        name of the parquet schema
+   * @param resultSetMetaData columns of the written rows
+   * @param partitionColumns  columns the rows are partitioned by, in the directories order
+   */
+  public static Builder builder(String directory, String schemaName, ResultSetMetaData resultSetMetaData, String... partitionColumns) {
+    return new Builder(directory, schemaName, resultSetMetaData, partitionColumns);
+  }
+
+  public void write(SQLRow row) throws IOException {
+    String partitionPath = partitionPath(row);
+    ParquetWriter<SQLRow> writer = openWriters.get(partitionPath);
+    if (writer == null) {
+      writer = open(partitionPath);
+    }
+    writer.write(row);
+  }
+
+  /**
+   * @return number of partitions with an open writer
+   */
+  public int getOpenWriterCount() {
+    return openWriters.size();
+  }
+
+  private ParquetWriter<SQLRow> open(String partitionPath) throws IOException {
+    if (openWriters.size() >= maxOpenWriters) {
+      Iterator<ParquetWriter<SQLRow>> leastRecentlyWritten = openWriters.values().iterator();
+      ParquetWriter<SQLRow> evicted = leastRecentlyWritten.next();
+      leastRecentlyWritten.remove();
+      evicted.close();
+    }
+
+    int part = partCounts.merge(partitionPath, 1, Integer::sum) - 1;
+    String file = Paths.get(directory, partitionPath, String.format(RollingParquetWriter.PART_FILE_FORMAT, part)).toString();
+    ParquetWriter<SQLRow> writer = SQLParquetWriter
+        .builder(file)
+        .withWritePlan(writePlan)
+        .withCompressionCodec(codecName)
+        .build();
+    openWriters.put(partitionPath, writer);
+    return writer;
+  }
+
+  private String partitionPath(SQLRow row) {
+    partitionPathBuilder.setLength(0);
+    for (int index = 0; index < partitionIndexes.length; index++) {
+      if (index > 0) {
+        partitionPathBuilder.append('/');
+      }
+      Object value = row.getField(partitionIndexes[index]).getValue();
+      partitionPathBuilder.append(partitionColumns[index]).append('=');
+      if (value == null) {
+        partitionPathBuilder.append(DEFAULT_PARTITION_NAME);
+      } else {
+        escapePathName(value.toString(), partitionPathBuilder);
+      }
+    }
+    return partitionPathBuilder.toString();
+  }
+
+  /**
+   * Escape chars not allowed in a partition directory name, the same way Hive does
+   */
+  static void escapePathName(String value, StringBuilder builder) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x20 || c == 0x7F || ESCAPED_CHARS.indexOf(c) >= 0) {
+        builder.append('%').append(String.format("%02X", (int) c));
+      } else {
+        builder.append(c);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException exception = null;
+    for (ParquetWriter<SQLRow> writer : openWriters.values()) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        if (exception == null) {
+          exception = e;
+        } else {
+          exception.addSuppressed(e);
+        }
+      }
+    }
+    openWriters.clear();
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder {
+    private final String directory;
+    private final String schemaName;
+    private final ResultSetMetaData resultSetMetaData;
+    private final String[] partitionColumns;
+    private final ConverterContainer converterContainer = new ConverterContainer();
+    private CompressionCodecName codecName = ParquetWriter.DEFAULT_COMPRESSION_CODEC_NAME;
+    private int maxOpenWriters = 32;
+
+    private Builder(String directory, String schemaName, ResultSetMetaData resultSetMetaData, String... partitionColumns) {
+      notNull(directory, "directory cannot be null");
+      notNull(resultSetMetaData, "resultSetMetaData cannot be null");
+      notEmpty(Arrays.asList(partitionColumns), "at least one partition column is required");
+      this.directory = directory;
+      this.schemaName = schemaName;
+      this.resultSetMetaData = resultSetMetaData;
+      this.partitionColumns = partitionColumns;
+    }
+
+    public Builder registerConverter(ParquetSQLConverter parquetSQLConverter) {
+      converterContainer.registerConverter(parquetSQLConverter);
+      return this;
+    }
+
+    public Builder withCompressionCodec(CompressionCodecName codecName) {
+      this.codecName = codecName;
+      return this;
+    }
+
+    /**
+     * Maximum number of partitions written at the same time. Each open partition buffers a row group in memory.
+     */
+    public Builder withMaxOpenWriters(int maxOpenWriters) {
+      if (maxOpenWriters < 1) {
+        throw new IllegalArgumentException("maxOpenWriters must be greater than 0");
+      }
+      this.maxOpenWriters = maxOpenWriters;
+      return this;
+    }
+
+    public PartitionedParquetWriter build() throws IOException {
+      try {
+        int[] partitionIndexes = new int[partitionColumns.length];
+        for (int index = 0; index < partitionColumns.length; index++) {
+          partitionIndexes[index] = findColumn(partitionColumns[index]);
+        }
+        WritePlan writePlan = WritePlan.create(schemaName, converterContainer, resultSetMetaData, Arrays.asList(partitionColumns));
+        return new PartitionedParquetWriter(this, partitionIndexes, writePlan);
+      } catch (SQLException | ConvertException e) {
+        throw new IOException("Error when building PartitionedParquetWriter. ResultSet structure can't be converted to a parquet schema", e);
+      }
+    }
+
+    private int findColumn(String partitionColumn) throws SQLException {
+      for (int index = 1; index <= resultSetMetaData.getColumnCount(); index++) {
+        if (resultSetMetaData.getColumnName(index).equalsIgnoreCase(partitionColumn)) {
+          return index - 1;
+        }
+      }
+      throw new IllegalArgumentException("Partition column " + partitionColumn + " not found in the ResultSet");
+    }
+  }
+}
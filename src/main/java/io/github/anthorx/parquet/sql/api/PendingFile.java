@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.api;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * File written under a hidden name of its directory, skipped by the readers, and renamed to its name
+ * once complete. A failed write is deleted instead, so that no truncated file looks like a complete one.
+ * A hidden file left by a run that was killed before it could delete it is deleted when the next run starts.
+ */
+class PendingFile {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PendingFile.class);
+
+  private final FileSystem fileSystem;
+  private final Path path;
+  private final Path pendingPath;
+
+  PendingFile(String file, Configuration configuration) throws IOException {
+    this.path = new Path(file);
+    this.pendingPath = new Path(path.getParent(), "." + path.getName() + ".pending");
+    this.fileSystem = path.getFileSystem(configuration);
+    if (fileSystem.delete(pendingPath, false)) {
+      LOG.warn("Deleted {} left by a previous run", pendingPath);
+    }
+  }
+
+  /**
+   * @return hidden file to write
+   */
+  String getPendingFile() {
+    return pendingPath.toString();
+  }
+
+  String getFile() {
+    return path.toString();
+  }
+
+  /**
+   * Rename the written file to its name
+   *
+   * @throws IOException when the file already exists or can't be renamed
+   */
+  void commit() throws IOException {
+    if (fileSystem.exists(path)) {
+      abort();
+      throw new IOException("File " + path + " already exists");
+    }
+    if (!fileSystem.rename(pendingPath, path)) {
+      abort();
+      throw new IOException("Can't rename " + pendingPath + " to " + path);
+    }
+  }
+
+  /**
+   * Delete the written file, if any
+   */
+  void abort() {
+    try {
+      fileSystem.delete(pendingPath, false);
+    } catch (IOException e) {
+      LOG.warn("Can't delete {}", pendingPath, e);
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.api;
+
+import org.apache.parquet.hadoop.ParquetWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Write rows into a directory of part files (part-00000.parquet, part-00001.parquet, ...).
+ * A new part is started once the current one reaches a size or a row count.
+ * The previous part is closed, i.e. its last row group and its footer are flushed, on a background thread
+ * while rows are written to the next one.
+ * The directory can be read back with {@link SQLParquetReader}.
+ *
+ * @param <T> type of the written rows
+ */
+public class RollingParquetWriter<T> implements Closeable {
+
+  public static final String PART_FILE_FORMAT = "part-%05d.parquet";
+
+  // getDataSize goes through all the columns, so the size is not checked on every row
+  private static final int SIZE_CHECK_INTERVAL = 100;
+
+  private final String directory;
+  private final PartWriterFactory<T> partWriterFactory;
+  private final long maxFileSize;
+  private final long maxRowsPerFile;
+  private final ExecutorService closeExecutor;
+  private final List<String> files = new ArrayList<>();
+
+  private ParquetWriter<T> currentWriter;
+  private long currentRowCount;
+  private Future<?> pendingClose;
+  private boolean closed;
+
+  private RollingParquetWriter(Builder<T> builder) {
+    this.directory = builder.directory;
+    this.partWriterFactory = builder.partWriterFactory;
+    this.maxFileSize = builder.maxFileSize;
+    this.maxRowsPerFile = builder.maxRowsPerFile;
+    this.closeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "parquet-part-closer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * @param directory         directory of the part files
+   * @param partWriterFactory creates the writer of a part file, with its schema and its options
+   */
+  public static <T> Builder<T> builder(String directory, PartWriterFactory<T> partWriterFactory) {
+    return new Builder<>(directory, partWriterFactory);
+  }
+
+  public void write(T row) throws IOException {
+    if (currentWriter == null) {
+      String file = Paths.get(directory, String.format(PART_FILE_FORMAT, files.size())).toString();
+      currentWriter = partWriterFactory.create(file);
+      currentRowCount = 0;
+      files.add(file);
+    }
+
+    currentWriter.write(row);
+    currentRowCount++;
+
+    if (currentRowCount >= maxRowsPerFile
+        || (currentRowCount % SIZE_CHECK_INTERVAL == 0 && currentWriter.getDataSize() >= maxFileSize)) {
+      roll();
+    }
+  }
+
+  /**
+   * Close the current part in background. The next write starts a new part.
+   */
+  public void roll() throws IOException {
+    if (currentWriter != null) {
+      // only one part closing at a time, so that memory doesn't grow when closing is slower than writing
+      awaitPendingClose();
+      ParquetWriter<T> writer = currentWriter;
+      currentWriter = null;
+      pendingClose = closeExecutor.submit(() -> {
+        writer.close();
+        return null;
+      });
+    }
+  }
+
+  /**
+   * @return paths of the part files started so far
+   */
+  public List<String> getFiles() {
+    return Collections.unmodifiableList(files);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        roll();
+        awaitPendingClose();
+      } finally {
+        closeExecutor.shutdown();
+      }
+    }
+  }
+
+  private void awaitPendingClose() throws IOException {
+    if (pendingClose != null) {
+      try {
+        pendingClose.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while closing a part file", e);
+      } catch (ExecutionException e) {
+        throw new IOException("Error when closing a part file", e.getCause());
+      } finally {
+        pendingClose = null;
+      }
+    }
+  }
+
+  /**
+   * Create the writer of a part file
+   */
+  @FunctionalInterface
+  public interface PartWriterFactory<T> {
+    ParquetWriter<T> create(String file) throws IOException;
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder<T> {
+    private final String directory;
+    private final PartWriterFactory<T> partWriterFactory;
+    private long maxFileSize = Long.MAX_VALUE;
+    private long maxRowsPerFile = Long.MAX_VALUE;
+
+    private Builder(String directory, PartWriterFactory<T> partWriterFactory) {
+      notNull(directory, "directory cannot be null");
+      notNull(partWriterFactory, "partWriterFactory cannot be null");
+      this.directory = directory;
+      this.partWriterFactory = partWriterFactory;
+    }
+
+    /**
+     * Start a new part once the current one reaches this compressed size, in bytes
+     */
+    public Builder<T> withMaxFileSize(long maxFileSize) {
+      if (maxFileSize < 1) {
+        throw new IllegalArgumentException("maxFileSize must be greater than 0");
+      }
+      this.maxFileSize = maxFileSize;
+      return this;
+    }
+
+    /**
+     * Start a new part once the current one reaches this number of rows
+     */
+    public Builder<T> withMaxRowsPerFile(long maxRowsPerFile) {
+      if (maxRowsPerFile < 1) {
+        throw new IllegalArgumentException("maxRowsPerFile must be greater than 0");
+      }
+      this.maxRowsPerFile = maxRowsPerFile;
+      return this;
+    }
+
+    public RollingParquetWriter<T> build() {
+      return new RollingParquetWriter<>(this);
+    }
+  }
+}
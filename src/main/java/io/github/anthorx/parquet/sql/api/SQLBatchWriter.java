@@ -0,0 +1,249 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.ColumnVector;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLBatch;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConverterContainer;
+import io.github.anthorx.parquet.sql.parquet.write.converter.MessageTypeConverter;
+import io.github.anthorx.parquet.sql.parquet.write.converter.types.ParquetSQLConverter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.ColumnChunkPageWriteStore;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.ResultSetMetaData;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Write batches read by {@link JDBCReader#readBatch(int)} into a parquet file, one column at a time.
+ * The parquet schema is the one of {@link SQLParquetWriter}, derived from the ResultSetMetaData.
+ */
+public class SQLBatchWriter implements Closeable {
+
+  private final MessageType messageType;
+  private final List<ColumnDescriptor> columns;
+  private final ParquetProperties properties;
+  private final CodecFactory codecFactory;
+  private final CompressionCodecFactory.BytesInputCompressor compressor;
+  private final ParquetFileWriter fileWriter;
+  private final long rowGroupSize;
+
+  private ColumnChunkPageWriteStore pageStore;
+  private ColumnWriteStore columnStore;
+  private ColumnWriter[] columnWriters;
+  private long recordCount;
+  private boolean closed;
+
+  private SQLBatchWriter(Builder builder, MessageType messageType) throws IOException {
+    this.messageType = messageType;
+    this.columns = messageType.getColumns();
+    this.rowGroupSize = builder.rowGroupSize;
+    this.properties = ParquetProperties.builder()
+        .withPageSize(builder.pageSize)
+        .withDictionaryPageSize(builder.pageSize)
+        .withDictionaryEncoding(builder.enableDictionary)
+        .build();
+    this.codecFactory = new CodecFactory(builder.conf, properties.getPageSizeThreshold());
+    this.compressor = codecFactory.getCompressor(builder.codecName);
+    this.fileWriter = new ParquetFileWriter(
+        HadoopOutputFile.fromPath(builder.file, builder.conf),
+        messageType,
+        builder.mode,
+        rowGroupSize,
+        ParquetWriter.MAX_PADDING_SIZE_DEFAULT,
+        properties.getColumnIndexTruncateLength(),
+        properties.getStatisticsTruncateLength(),
+        properties.getPageWriteChecksumEnabled());
+    fileWriter.start();
+    initStore();
+  }
+
+  public static Builder builder(String file) {
+    return new Builder(new Path(file));
+  }
+
+  // the ColumnChunkPageWriteStore of parquet 1.12 only takes the deprecated CodecFactory.BytesCompressor,
+  // which the compressors of a CodecFactory are
+  @SuppressWarnings("deprecation")
+  private ColumnChunkPageWriteStore newPageStore() {
+    return new ColumnChunkPageWriteStore((CodecFactory.BytesCompressor) compressor, messageType, properties.getAllocator(),
+        properties.getColumnIndexTruncateLength(), properties.getPageWriteChecksumEnabled());
+  }
+
+  private void initStore() {
+    pageStore = newPageStore();
+    columnStore = properties.newColumnWriteStore(messageType, pageStore, pageStore);
+    columnWriters = new ColumnWriter[columns.size()];
+    for (int index = 0; index < columns.size(); index++) {
+      columnWriters[index] = columnStore.getColumnWriter(columns.get(index));
+    }
+  }
+
+  /**
+   * Write all the rows of a batch, one column after the other
+   */
+  public void write(SQLBatch batch) throws IOException {
+    if (batch.getColumnCount() != columns.size()) {
+      throw new IOException("Batch of " + batch.getColumnCount() + " columns can't be written in schema " + messageType);
+    }
+
+    int size = batch.size();
+    for (int index = 0; index < columns.size(); index++) {
+      ColumnDescriptor descriptor = columns.get(index);
+      ColumnVector vector = batch.getColumn(index);
+      if (vector.getPrimitiveTypeName() != descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+        throw new IOException("Column " + vector.getName() + " read as " + vector.getPrimitiveTypeName()
+            + " can't be written as " + descriptor.getPrimitiveType());
+      }
+
+      ColumnWriter columnWriter = columnWriters[index];
+      int maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+      for (int row = 0; row < size; row++) {
+        vector.write(columnWriter, row, maxDefinitionLevel);
+      }
+    }
+
+    for (int row = 0; row < size; row++) {
+      columnStore.endRecord();
+    }
+    recordCount += size;
+
+    if (columnStore.getBufferedSize() >= rowGroupSize) {
+      flushRowGroup();
+      initStore();
+    }
+  }
+
+  /**
+   * @return size of the written data, including the buffered row group
+   */
+  public long getDataSize() {
+    try {
+      return fileWriter.getPos() + (closed ? 0 : columnStore.getBufferedSize());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void flushRowGroup() throws IOException {
+    if (recordCount > 0) {
+      fileWriter.startBlock(recordCount);
+      columnStore.flush();
+      pageStore.flushToFileWriter(fileWriter);
+      fileWriter.endBlock();
+      recordCount = 0;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        flushRowGroup();
+        fileWriter.end(Collections.emptyMap());
+      } finally {
+        codecFactory.release();
+      }
+    }
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder {
+    private final Path file;
+    private Configuration conf = new Configuration();
+    private ParquetFileWriter.Mode mode = ParquetFileWriter.Mode.CREATE;
+    private CompressionCodecName codecName = ParquetWriter.DEFAULT_COMPRESSION_CODEC_NAME;
+    private long rowGroupSize = ParquetWriter.DEFAULT_BLOCK_SIZE;
+    private int pageSize = ParquetWriter.DEFAULT_PAGE_SIZE;
+    private boolean enableDictionary = ParquetWriter.DEFAULT_IS_DICTIONARY_ENABLED;
+    private ResultSetMetaData resultSetMetaData;
+    private String schemaName;
+    private ConverterContainer converterContainer = new ConverterContainer();
+
+    private Builder(Path file) {
+      this.file = file;
+    }
+
+    public Builder withSchema(String schemaName, ResultSetMetaData resultSetMetaData) {
+      this.schemaName = schemaName;
+      this.resultSetMetaData = resultSetMetaData;
+      return this;
+    }
+
+    public Builder registerConverter(ParquetSQLConverter parquetSQLConverter) {
+      converterContainer.registerConverter(parquetSQLConverter);
+      return this;
+    }
+
+    public Builder withConf(Configuration conf) {
+      this.conf = conf;
+      return this;
+    }
+
+    public Builder withWriteMode(ParquetFileWriter.Mode mode) {
+      this.mode = mode;
+      return this;
+    }
+
+    public Builder withCompressionCodec(CompressionCodecName codecName) {
+      this.codecName = codecName;
+      return this;
+    }
+
+    public Builder withRowGroupSize(long rowGroupSize) {
+      this.rowGroupSize = rowGroupSize;
+      return this;
+    }
+
+    public Builder withPageSize(int pageSize) {
+      this.pageSize = pageSize;
+      return this;
+    }
+
+    public Builder withDictionaryEncoding(boolean enableDictionary) {
+      this.enableDictionary = enableDictionary;
+      return this;
+    }
+
+    public SQLBatchWriter build() throws IOException {
+      MessageType messageType;
+      try {
+        messageType = new MessageTypeConverter(schemaName, converterContainer).convert(resultSetMetaData);
+      } catch (ConvertException e) {
+        throw new IOException("Error when building SQLBatchWriter. ResultSet structure can't be converted to a parquet schema", e);
+      }
+      return new SQLBatchWriter(this, messageType);
+    }
+  }
+}
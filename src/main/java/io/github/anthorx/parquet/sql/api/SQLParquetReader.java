@@ -15,12 +15,17 @@
 
 package io.github.anthorx.parquet.sql.api;
 
+import io.github.anthorx.parquet.sql.parquet.io.LocalInputFile;
 import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.read.FilterReport;
+import io.github.anthorx.parquet.sql.parquet.read.RecordFilter;
 import io.github.anthorx.parquet.sql.parquet.read.SQLReadSupport;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
 import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetReader;
 import org.apache.parquet.hadoop.api.ReadSupport;
@@ -31,8 +36,14 @@ import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.Type;
 
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -40,10 +51,27 @@ import java.util.stream.Collectors;
 public class SQLParquetReader {
 
   private final Iterator<ParquetReader<Record>> parquetReaderIterator;
+  private final List<InputFile> inputFiles = new ArrayList<>();
+  private final Configuration configuration;
+  private final RecordFilter filter;
   private ParquetReader<Record> currentParquetReader;
   private MessageType schema;
+  private FilterPredicate predicate;
+  private FilterReport filterReport;
 
   public SQLParquetReader(String stringFilePath, Configuration configuration) throws IOException {
+    this(stringFilePath, configuration, (RecordFilter) null);
+  }
+
+  /**
+   * Read only the records matching the filter. Row groups and pages without any matching record are skipped,
+   * see {@link #getFilterReport()}.
+   *
+   * @param filter filter on the columns read, null to read all the records
+   */
+  public SQLParquetReader(String stringFilePath, Configuration configuration, RecordFilter filter) throws IOException {
+    this.configuration = configuration;
+    this.filter = filter;
     Path filePath = new Path(stringFilePath);
     FileSystem fileSystem = filePath.getFileSystem(configuration);
     FileStatus fileStatus = fileSystem.getFileStatus(filePath);
@@ -55,43 +83,153 @@ public class SQLParquetReader {
     }
   }
 
+  /**
+   * Read only some columns of the files, the column chunks of the others being skipped
+   *
+   * @param columns columns to read, see {@link SQLReadSupport#COLUMNS}
+   */
+  public SQLParquetReader(String stringFilePath, Configuration configuration, Collection<String> columns) throws IOException {
+    this(stringFilePath, withColumns(configuration, columns));
+  }
+
+  /**
+   * Read only some columns of the records matching the filter
+   *
+   * @param columns columns to read, the filtered ones included
+   * @param filter  filter on the columns read, null to read all the records
+   */
+  public SQLParquetReader(String stringFilePath, Configuration configuration, Collection<String> columns,
+                          RecordFilter filter) throws IOException {
+    this(stringFilePath, withColumns(configuration, columns), filter);
+  }
+
+  /**
+   * Read only the columns of the files that the table has, e.g. to import them into the table
+   */
+  public static SQLParquetReader forTable(String stringFilePath, Configuration configuration, Connection connection, String tableName) throws IOException, SQLException {
+    List<String> tableColumns = JDBCWriter.getColumnNames(connection, tableName);
+    List<String> columns = readFileSchema(stringFilePath, configuration)
+        .getFields()
+        .stream()
+        .map(Type::getName)
+        .filter(name -> tableColumns.stream().anyMatch(name::equalsIgnoreCase))
+        .collect(Collectors.toList());
+    return new SQLParquetReader(stringFilePath, configuration, columns);
+  }
+
+  static Configuration withColumns(Configuration configuration, Collection<String> columns) {
+    Configuration projected = new Configuration(configuration);
+    projected.set(SQLReadSupport.COLUMNS, String.join(",", columns));
+    return projected;
+  }
+
+  /**
+   * @return schema of the file, or of the first file of a folder
+   */
+  private static MessageType readFileSchema(String stringFilePath, Configuration configuration) throws IOException {
+    Path filePath = new Path(stringFilePath);
+    FileSystem fileSystem = filePath.getFileSystem(configuration);
+    FileStatus fileStatus = fileSystem.getFileStatus(filePath);
+    if (fileStatus.isDir()) {
+      FileStatus[] fileStatuses = fileSystem.listStatus(filePath, HiddenFileFilter.INSTANCE);
+      Arrays.sort(fileStatuses, Comparator.comparing(status -> status.getPath().getName()));
+      if (fileStatuses.length == 0) {
+        throw new IOException("No file to read in " + stringFilePath);
+      }
+      fileStatus = fileStatuses[0];
+    }
+    try (ParquetFileReader parquetFileReader = ParquetFileReader.open(inputFile(fileStatus, configuration))) {
+      return parquetFileReader.getFileMetaData().getSchema();
+    }
+  }
+
   private Iterator<ParquetReader<Record>> createReadersFromFolderAndInitSchema(FileSystem fileSystem, Path filePath,
                                                                                Configuration configuration) throws IOException {
     List<ParquetReader<Record>> parquetReaderList = new ArrayList<>();
-    for (FileStatus currentFileStatus : fileSystem.listStatus(filePath, HiddenFileFilter.INSTANCE)) {
-      InputFile currentInputFile = HadoopInputFile.fromStatus(currentFileStatus, configuration);
+    // sorted by name so that part files are read in the order they were written
+    FileStatus[] fileStatuses = fileSystem.listStatus(filePath, HiddenFileFilter.INSTANCE);
+    Arrays.sort(fileStatuses, Comparator.comparing(status -> status.getPath().getName()));
+
+    for (FileStatus currentFileStatus : fileStatuses) {
+      InputFile currentInputFile = inputFile(currentFileStatus, configuration);
 
       if (schema == null) {
-        this.initFileSchema(currentInputFile);
+        this.initFileSchema(currentInputFile, configuration);
       }
 
-      ParquetReader.Builder<Record> builder = new SQLParquetReader.Builder(currentInputFile);
-      parquetReaderList.add(builder.build());
+      parquetReaderList.add(newParquetReader(currentInputFile, configuration));
     }
 
     return parquetReaderList.iterator();
   }
 
   private Iterator<ParquetReader<Record>> createReadersFromFileAndInitSchema(FileStatus fileStatus, Configuration configuration) throws IOException {
-    InputFile inputFile = HadoopInputFile.fromStatus(fileStatus, configuration);
-    ParquetReader.Builder<Record> recordParquetReader = new SQLParquetReader.Builder(inputFile);
+    InputFile inputFile = inputFile(fileStatus, configuration);
+
+    this.initFileSchema(inputFile, configuration);
+    return Collections.singletonList(newParquetReader(inputFile, configuration)).iterator();
+  }
+
+  private ParquetReader<Record> newParquetReader(InputFile inputFile, Configuration configuration) throws IOException {
+    inputFiles.add(inputFile);
+    SQLParquetReader.Builder builder = new SQLParquetReader.Builder(inputFile);
+    builder.withConf(configuration);
+    if (predicate != null) {
+      builder.withPredicate(predicate);
+    }
+    return builder.build();
+  }
 
-    this.initFileSchema(inputFile);
-    return Collections.singletonList(recordParquetReader.build()).iterator();
+  /**
+   * Local files are memory mapped, unless disabled by {@link SQLReadSupport#LOCAL_MMAP}
+   */
+  static InputFile inputFile(FileStatus fileStatus, Configuration configuration) throws IOException {
+    Path path = fileStatus.getPath();
+    if ("file".equals(path.toUri().getScheme()) && configuration.getBoolean(SQLReadSupport.LOCAL_MMAP, true)) {
+      return new LocalInputFile(Paths.get(path.toUri()));
+    }
+    return HadoopInputFile.fromStatus(fileStatus, configuration);
   }
 
-  private void initFileSchema(InputFile inputFile) throws IOException {
+  private void initFileSchema(InputFile inputFile, Configuration configuration) throws IOException {
     ParquetFileReader parquetFileReader = ParquetFileReader.open(inputFile);
     MessageType schema = parquetFileReader.getFileMetaData().getSchema();
     parquetFileReader.close();
 
-    this.schema = schema;
+    // the records hold the requested columns only
+    this.schema = SQLReadSupport.requestedSchema(schema, configuration);
+    if (filter != null) {
+      this.predicate = filter.toPredicate(this.schema);
+    }
   }
 
   public MessageType getSchema() {
     return schema;
   }
 
+  /**
+   * Row groups and pages skipped by the filter, computed from the footers and column indexes of the files
+   * the first time it is asked for
+   *
+   * @return the report, empty without a filter
+   */
+  public FilterReport getFilterReport() throws IOException {
+    if (filterReport == null) {
+      FilterReport report = new FilterReport();
+      if (predicate != null) {
+        for (InputFile inputFile : inputFiles) {
+          report.merge(FilterReport.of(inputFile, configuration, schema, predicate));
+        }
+      }
+      filterReport = report;
+    }
+    return filterReport;
+  }
+
+  /**
+   * @return the next record, null at the end of the files. With {@link SQLReadSupport#REUSE_RECORDS},
+   * the same record is returned for all the rows of a file and is only valid until the next call.
+   */
   public Record read() throws IOException {
     Record recordResult  = null;
 
@@ -130,6 +268,20 @@ public class SQLParquetReader {
       return new SQLReadSupport();
     }
 
+    /**
+     * Filter the records with the predicate, skipping the row groups from their statistics, dictionaries and
+     * bloom filters and the pages from the column indexes. To be called after withConf, which resets the options.
+     */
+    public Builder withPredicate(FilterPredicate predicate) {
+      withFilter(FilterCompat.get(predicate));
+      useStatsFilter();
+      useDictionaryFilter();
+      useBloomFilter();
+      useColumnIndexFilter();
+      useRecordFilter();
+      return this;
+    }
+
     @Override
     public ParquetReader<Record> build() throws IOException {
       return super.build();
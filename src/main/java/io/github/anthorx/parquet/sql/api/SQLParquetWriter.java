@@ -16,10 +16,17 @@
 package io.github.anthorx.parquet.sql.api;
 
 import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.io.LocalOutputFile;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.write.ColumnEncoding;
+import io.github.anthorx.parquet.sql.parquet.write.EncodingAdvisor;
+import io.github.anthorx.parquet.sql.parquet.write.EncodingPlan;
+import io.github.anthorx.parquet.sql.parquet.write.RecordWriteSupport;
+import io.github.anthorx.parquet.sql.parquet.write.ResultSetWriteSupport;
 import io.github.anthorx.parquet.sql.parquet.write.SQLWriteSupport;
 import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
 import io.github.anthorx.parquet.sql.parquet.write.converter.ConverterContainer;
-import io.github.anthorx.parquet.sql.parquet.write.converter.MessageTypeConverter;
+import io.github.anthorx.parquet.sql.parquet.write.converter.WritePlan;
 import io.github.anthorx.parquet.sql.parquet.write.converter.types.ParquetSQLConverter;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -27,13 +34,21 @@ import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
-import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.schema.Type;
 
 import java.io.IOException;
+import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class SQLParquetWriter extends ParquetWriter<SQLRow> {
 
+  public static final String DEFAULT_SCHEMA_NAME = "schema";
 
   /**
    * Constructor for retrocompatibility only. Use the builder rather than this constructor.
@@ -48,47 +63,364 @@ public class SQLParquetWriter extends ParquetWriter<SQLRow> {
   }
 
   /**
-   * Builder
+   * Builder of a writer into any parquet OutputFile, e.g. a {@link LocalOutputFile} writing local files
+   * without the hadoop FileSystem stack.
+   */
+  public static SQLParquetWriter.Builder builder(OutputFile file) {
+    return new SQLParquetWriter.Builder(file);
+  }
+
+  /**
+   * Builder of a writer taking records already converted from SQL rows.
+   * Used when the conversion is done apart from the writing, see {@link ExportPipeline}.
+   */
+  public static SQLParquetWriter.RecordBuilder recordBuilder(String file) {
+    return new SQLParquetWriter.RecordBuilder(new Path(file));
+  }
+
+  /**
+   * Builder of a writer rolling over part files of the given directory.
+   * Part files are written with the default options of {@link #builder(String)}.
+   */
+  public static RollingParquetWriter.Builder<SQLRow> rollingBuilder(String directory, String schemaName, ResultSetMetaData resultSetMetaData) {
+    return RollingParquetWriter.builder(directory, file -> SQLParquetWriter
+        .builder(file)
+        .withSchema(schemaName, resultSetMetaData)
+        .build());
+  }
+
+  /**
+   * Builder of a writer into Hive style partition directories, e.g. dt=2026-10-17/region=eu/part-00000.parquet
+   *
+   * @param partitionColumns columns the rows are partitioned by. They are not written in the files.
+   */
+  public static PartitionedParquetWriter.Builder partitionedBuilder(String directory, String schemaName, ResultSetMetaData resultSetMetaData, String... partitionColumns) {
+    return PartitionedParquetWriter.builder(directory, schemaName, resultSetMetaData, partitionColumns);
+  }
+
+  /**
+   * Builder of a writer taking the current row of a ResultSet, read with typed getters.
+   */
+  public static SQLParquetWriter.ResultSetBuilder resultSetBuilder(OutputFile file) {
+    return new SQLParquetWriter.ResultSetBuilder(file);
+  }
+
+  /**
+   * Export all the remaining rows of a ResultSet into a parquet file
+   *
+   * @param resultSet  rows to export. It is not closed.
+   * @param outputFile file to write
+   * @return number of exported rows
+   */
+  public static long export(ResultSet resultSet, OutputFile outputFile) throws IOException, SQLException {
+    long rowCount = 0;
+    try (ParquetWriter<ResultSet> writer = resultSetBuilder(outputFile)
+        .withSchema(DEFAULT_SCHEMA_NAME, resultSet.getMetaData())
+        .build()) {
+      while (resultSet.next()) {
+        writer.write(resultSet);
+        rowCount++;
+      }
+    }
+    return rowCount;
+  }
+
+  /**
+   * Builder of a writer taking batches read by {@link JDBCReader#readBatch(int)}, written column by column.
+   */
+  public static SQLBatchWriter.Builder batchBuilder(String file) {
+    return SQLBatchWriter.builder(file);
+  }
+
+  /**
+   * Builder of a writer sorting the rows before writing them, with a bounded memory spilling to local files.
+   *
+   * @param writerBuilder builder of the written file, with its schema and options
    */
-  public static class Builder extends ParquetWriter.Builder<SQLRow, SQLParquetWriter.Builder> {
+  public static SortingParquetWriter.Builder sortingBuilder(SQLParquetWriter.Builder writerBuilder) {
+    return SortingParquetWriter.builder(writerBuilder);
+  }
+
+  /**
+   * Base builder deriving the parquet schema from a ResultSetMetaData
+   */
+  public abstract static class AbstractBuilder<T, SELF extends AbstractBuilder<T, SELF>> extends ParquetWriter.Builder<T, SELF> {
 
     private ResultSetMetaData resultSetMetaData;
     private String schemaName;
-    private ConverterContainer converterContainer;
-    MessageType messageType;
+    private Collection<SQLRow> encodingSample;
+    private EncodingPlan encodingPlan;
+    private final Map<String, Long> bloomFilterDistinctValues = new LinkedHashMap<>();
+    private final String fileName;
+    private WriterMemoryManager memoryManager;
+    private WriterMemoryManager.ManagedWriter managedWriter;
+    ConverterContainer converterContainer;
+    WritePlan writePlan;
+    final Map<String, String> extraMetaData = new HashMap<>();
 
-    private Builder(Path file) {
+    // null when the OutputFile doesn't tell its path
+    private final Path path;
+    private Configuration conf = new Configuration();
+
+    protected AbstractBuilder(Path file) {
+      super(file);
+      this.fileName = file.toString();
+      this.path = file;
+    }
+
+    protected AbstractBuilder(OutputFile file) {
       super(file);
+      this.fileName = file.toString();
+      this.path = file.getPath() == null ? null : new Path(file.getPath());
     }
 
-    public SQLParquetWriter.Builder withSchema(String schemaName, ResultSetMetaData resultSetMetaData) {
+    @Override
+    public SELF withConf(Configuration conf) {
+      this.conf = conf;
+      return super.withConf(conf);
+    }
+
+    public SELF withSchema(String schemaName, ResultSetMetaData resultSetMetaData) {
       this.schemaName = schemaName;
       this.resultSetMetaData = resultSetMetaData;
       this.converterContainer = new ConverterContainer();
-      return this;
+      return self();
     }
 
-    public SQLParquetWriter.Builder registerConverter(ParquetSQLConverter parquetSQLConverter) {
+    public SELF registerConverter(ParquetSQLConverter parquetSQLConverter) {
       converterContainer.registerConverter(parquetSQLConverter);
-      return this;
+      return self();
     }
 
-    protected SQLParquetWriter.Builder self() {
-      return this;
+    public ConverterContainer getConverterContainer() {
+      return converterContainer;
     }
 
-    protected WriteSupport<SQLRow> getWriteSupport(Configuration conf) {
-      return new SQLWriteSupport(messageType, converterContainer);
+    /**
+     * @return converters of each column, resolved by {@link #build()}
+     */
+    public WritePlan getWritePlan() {
+      return writePlan;
+    }
+
+    /**
+     * Write a key-value in the footer
+     */
+    public SELF withExtraMetaData(String key, String value) {
+      extraMetaData.put(key, value);
+      return self();
+    }
+
+    /**
+     * Choose the encoding of each column from a sample of rows, e.g. the first rows to write or a TABLESAMPLE,
+     * see {@link EncodingAdvisor}. The file is written with the parquet v2 writer.
+     */
+    public SELF withEncodingSample(Collection<SQLRow> encodingSample) {
+      this.encodingSample = encodingSample;
+      return self();
+    }
+
+    /**
+     * Encode the columns as planned, e.g. with a plan read back from a previous file.
+     * The file is written with the parquet v2 writer.
+     */
+    public SELF withEncodingPlan(EncodingPlan encodingPlan) {
+      this.encodingPlan = encodingPlan;
+      return self();
+    }
+
+    /**
+     * Write a bloom filter of the column in each row group, so that readers looking for a value
+     * skip the row groups not holding it. The filter is sized for the maximum bloom filter size.
+     * The column is looked up ignoring case, as databases may upper-case the names, and
+     * {@link #build()} fails when it isn't written.
+     */
+    public SELF withBloomFilter(String column) {
+      return withBloomFilter(column, 0);
+    }
+
+    /**
+     * Write a bloom filter of the column in each row group, sized for the expected number of distinct values.
+     * The distinct values of the whole table, e.g. from
+     * {@link io.github.anthorx.parquet.sql.jdbc.TableStatistics#distinctValues}, are an upper bound of it:
+     * the filters are then larger than needed when the table holds several row groups.
+     *
+     * @param expectedDistinctValues distinct values of the column in a row group at most, 0 when unknown
+     */
+    public SELF withBloomFilter(String column, long expectedDistinctValues) {
+      bloomFilterDistinctValues.put(column, expectedDistinctValues);
+      return self();
+    }
+
+    /**
+     * Share a memory budget with the other writers of the manager: the row group size of the writer
+     * is lowered when the row groups of all the writers don't fit in the budget.
+     */
+    public SELF withMemoryManager(WriterMemoryManager memoryManager) {
+      this.memoryManager = memoryManager;
+      return self();
+    }
+
+    /**
+     * @return encoding of each column, chosen by {@link #build()} when a sample was given
+     */
+    public EncodingPlan getEncodingPlan() {
+      return encodingPlan;
+    }
+
+    /**
+     * Use a plan already resolved, for writers sharing the same columns
+     */
+    SELF withWritePlan(WritePlan writePlan) {
+      this.writePlan = writePlan;
+      return self();
     }
 
-    public ParquetWriter<SQLRow> build() throws IOException {
+    public ParquetWriter<T> build() throws IOException {
+      resolveWritePlan();
+      if (encodingSample != null) {
+        encodingPlan = new EncodingAdvisor().advise(writePlan, encodingSample);
+      }
+      if (encodingPlan != null) {
+        applyEncodingPlan();
+      }
+      if (!bloomFilterDistinctValues.isEmpty()) {
+        applyBloomFilters();
+      }
+      if (memoryManager == null) {
+        return super.build();
+      }
+      managedWriter = memoryManager.new ManagedWriter(fileName);
+      ParquetWriter<T> writer = super.build();
+      memoryManager.register(managedWriter, writer);
+      return writer;
+    }
+
+    /**
+     * @return converters of each column, resolved before {@link #build()} when it didn't run yet
+     */
+    WritePlan resolveWritePlan() throws IOException {
       try {
-        this.messageType = new MessageTypeConverter(schemaName, converterContainer).convert(resultSetMetaData);
+        if (writePlan == null) {
+          this.writePlan = WritePlan.create(schemaName, converterContainer, resultSetMetaData);
+        }
       } catch (ConvertException e) {
         throw new IOException("Error when building ParquetWriter. ResultSet structure can't be converted to a parquet schema", e);
       }
-      return super.build();
+      return writePlan;
+    }
+
+    /**
+     * Delete the written file, e.g. a partial file left by a failed writer. Nothing is deleted when the path
+     * of the file is unknown.
+     */
+    void deleteFile() throws IOException {
+      if (path != null) {
+        path.getFileSystem(conf).delete(path, false);
+      }
+    }
+
+    /**
+     * @return the write support, reporting to the memory manager when there is one
+     */
+    WriteSupport<T> managed(WriteSupport<T> writeSupport) {
+      return managedWriter == null ? writeSupport : new ManagedWriteSupport<>(writeSupport, managedWriter);
+    }
+
+    private void applyBloomFilters() {
+      Map<String, Long> distinctValues = new LinkedHashMap<>();
+      for (Map.Entry<String, Long> bloomFilter : bloomFilterDistinctValues.entrySet()) {
+        String column = writePlan.getMessageType().getFields().stream()
+            .map(Type::getName)
+            .filter(name -> name.equalsIgnoreCase(bloomFilter.getKey()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Bloom filter column " + bloomFilter.getKey() + " is not written"));
+        withBloomFilterEnabled(column, true);
+        if (bloomFilter.getValue() > 0) {
+          withBloomFilterNDV(column, bloomFilter.getValue());
+        }
+        distinctValues.put(column, bloomFilter.getValue());
+      }
+      extraMetaData.put(BloomFilterReport.METADATA_KEY, BloomFilterReport.toMetaData(distinctValues));
+    }
+
+    private void applyEncodingPlan() {
+      withWriterVersion(ParquetProperties.WriterVersion.PARQUET_2_0);
+      // without dictionary, the v2 writer uses the encoding of the column type
+      for (Map.Entry<String, ColumnEncoding> encoding : encodingPlan.getEncodings().entrySet()) {
+        withDictionaryEncoding(encoding.getKey(), encoding.getValue() == ColumnEncoding.DICTIONARY);
+      }
+      withByteStreamSplitEncoding(encodingPlan.contains(ColumnEncoding.BYTE_STREAM_SPLIT));
+      extraMetaData.put(EncodingPlan.METADATA_KEY, encodingPlan.toMetaData());
     }
   }
 
+  /**
+   * Builder
+   */
+  public static class Builder extends AbstractBuilder<SQLRow, SQLParquetWriter.Builder> {
+
+    private String watermarkColumn;
+
+    private Builder(Path file) {
+      super(file);
+    }
+
+    private Builder(OutputFile file) {
+      super(file);
+    }
+
+    protected SQLParquetWriter.Builder self() {
+      return this;
+    }
+
+    /**
+     * Store in the footer the highest value written of a column only growing over time,
+     * for the next incremental export. See {@link IncrementalExport}.
+     */
+    public SQLParquetWriter.Builder withWatermark(String watermarkColumn) {
+      this.watermarkColumn = watermarkColumn;
+      return this;
+    }
+
+    protected WriteSupport<SQLRow> getWriteSupport(Configuration conf) {
+      return managed(new SQLWriteSupport(writePlan, watermarkColumn, extraMetaData));
+    }
+  }
+
+  /**
+   * Builder of a writer of converted records
+   */
+  public static class RecordBuilder extends AbstractBuilder<Record, SQLParquetWriter.RecordBuilder> {
+
+    private RecordBuilder(Path file) {
+      super(file);
+    }
+
+    protected SQLParquetWriter.RecordBuilder self() {
+      return this;
+    }
+
+    protected WriteSupport<Record> getWriteSupport(Configuration conf) {
+      return managed(new RecordWriteSupport(writePlan.getMessageType(), extraMetaData));
+    }
+  }
+
+  /**
+   * Builder of a writer of ResultSet rows
+   */
+  public static class ResultSetBuilder extends AbstractBuilder<ResultSet, SQLParquetWriter.ResultSetBuilder> {
+
+    private ResultSetBuilder(OutputFile file) {
+      super(file);
+    }
+
+    protected SQLParquetWriter.ResultSetBuilder self() {
+      return this;
+    }
+
+    protected WriteSupport<ResultSet> getWriteSupport(Configuration conf) {
+      return managed(new ResultSetWriteSupport(writePlan.getMessageType(), extraMetaData));
+    }
+  }
 }
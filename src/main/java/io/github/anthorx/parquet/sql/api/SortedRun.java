@@ -0,0 +1,281 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * Sorted rows spilled to a local file by {@link SortingParquetWriter}.
+ * Only the values are written, with a type tag: column definitions are taken back from a row of the same query.
+ * Values of other types than the common JDBC ones fall back to java serialization.
+ */
+class SortedRun implements Closeable {
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte BIG_DECIMAL = 2;
+  private static final byte DOUBLE = 3;
+  private static final byte FLOAT = 4;
+  private static final byte LONG = 5;
+  private static final byte INTEGER = 6;
+  private static final byte SHORT = 7;
+  private static final byte BYTE = 8;
+  private static final byte BOOLEAN = 9;
+  private static final byte TIMESTAMP = 10;
+  private static final byte DATE = 11;
+  private static final byte TIME = 12;
+  private static final byte BYTES = 13;
+  private static final byte SERIALIZED = 14;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path file;
+  private final SQLField[] columns;
+  private DataInputStream input;
+  private final long rowCount;
+  private long remainingRows;
+
+  private SortedRun(Path file, SQLField[] columns, long rowCount) {
+    this.file = file;
+    this.columns = columns;
+    this.rowCount = rowCount;
+    this.remainingRows = rowCount;
+  }
+
+  /**
+   * Start a new run in a file of the directory, rows must be written in order
+   *
+   * @param columns column definitions of the rows
+   */
+  static Writer create(Path directory, SQLField[] columns) throws IOException {
+    return new Writer(Files.createTempFile(directory, "parquet-sql-sort-", ".run"), columns);
+  }
+
+  long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return next row of the run, null at the end
+   */
+  SQLRow read() throws IOException {
+    if (remainingRows == 0) {
+      return null;
+    }
+    if (input == null) {
+      input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+    }
+    SQLRow row = new SQLRow();
+    for (SQLField column : columns) {
+      row.addField(column.copy(readValue(input)));
+    }
+    remainingRows--;
+    return row;
+  }
+
+  /**
+   * Close and delete the file
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      if (input != null) {
+        input.close();
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static void writeValue(DataOutputStream output, Object value) throws IOException {
+    if (value == null) {
+      output.writeByte(NULL);
+    } else if (value instanceof String) {
+      output.writeByte(STRING);
+      writeBytes(output, ((String) value).getBytes(StandardCharsets.UTF_8));
+    } else if (value instanceof BigDecimal) {
+      BigDecimal bigDecimal = (BigDecimal) value;
+      output.writeByte(BIG_DECIMAL);
+      output.writeInt(bigDecimal.scale());
+      writeBytes(output, bigDecimal.unscaledValue().toByteArray());
+    } else if (value instanceof Double) {
+      output.writeByte(DOUBLE);
+      output.writeDouble((Double) value);
+    } else if (value instanceof Float) {
+      output.writeByte(FLOAT);
+      output.writeFloat((Float) value);
+    } else if (value instanceof Long) {
+      output.writeByte(LONG);
+      output.writeLong((Long) value);
+    } else if (value instanceof Integer) {
+      output.writeByte(INTEGER);
+      output.writeInt((Integer) value);
+    } else if (value instanceof Short) {
+      output.writeByte(SHORT);
+      output.writeShort((Short) value);
+    } else if (value instanceof Byte) {
+      output.writeByte(BYTE);
+      output.writeByte((Byte) value);
+    } else if (value instanceof Boolean) {
+      output.writeByte(BOOLEAN);
+      output.writeBoolean((Boolean) value);
+    } else if (value instanceof Timestamp) {
+      Timestamp timestamp = (Timestamp) value;
+      output.writeByte(TIMESTAMP);
+      output.writeLong(timestamp.getTime());
+      output.writeInt(timestamp.getNanos());
+    } else if (value instanceof Date) {
+      output.writeByte(DATE);
+      output.writeLong(((Date) value).getTime());
+    } else if (value instanceof Time) {
+      output.writeByte(TIME);
+      output.writeLong(((Time) value).getTime());
+    } else if (value instanceof byte[]) {
+      output.writeByte(BYTES);
+      writeBytes(output, (byte[]) value);
+    } else {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream objectOutput = new ObjectOutputStream(bytes)) {
+        objectOutput.writeObject(value);
+      }
+      output.writeByte(SERIALIZED);
+      writeBytes(output, bytes.toByteArray());
+    }
+  }
+
+  private static Object readValue(DataInputStream input) throws IOException {
+    byte type = input.readByte();
+    switch (type) {
+      case NULL:
+        return null;
+      case STRING:
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+      case BIG_DECIMAL:
+        int scale = input.readInt();
+        return new BigDecimal(new BigInteger(readBytes(input)), scale);
+      case DOUBLE:
+        return input.readDouble();
+      case FLOAT:
+        return input.readFloat();
+      case LONG:
+        return input.readLong();
+      case INTEGER:
+        return input.readInt();
+      case SHORT:
+        return input.readShort();
+      case BYTE:
+        return input.readByte();
+      case BOOLEAN:
+        return input.readBoolean();
+      case TIMESTAMP:
+        Timestamp timestamp = new Timestamp(input.readLong());
+        timestamp.setNanos(input.readInt());
+        return timestamp;
+      case DATE:
+        return new Date(input.readLong());
+      case TIME:
+        return new Time(input.readLong());
+      case BYTES:
+        return readBytes(input);
+      case SERIALIZED:
+        try (ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(readBytes(input)))) {
+          return objectInput.readObject();
+        } catch (ClassNotFoundException e) {
+          throw new IOException("Can't read back a spilled value", e);
+        }
+      default:
+        throw new IOException("Unknown type " + type + " of a spilled value");
+    }
+  }
+
+  private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInputStream input) throws IOException {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Writer of the rows of a run
+   */
+  static class Writer implements Closeable {
+
+    private final Path file;
+    private final SQLField[] columns;
+    private final DataOutputStream output;
+    private long rowCount;
+    private boolean finished;
+
+    private Writer(Path file, SQLField[] columns) throws IOException {
+      this.file = file;
+      this.columns = columns;
+      this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    void write(SQLRow row) throws IOException {
+      for (SQLField field : row.getFields()) {
+        writeValue(output, field.getValue());
+      }
+      rowCount++;
+    }
+
+    /**
+     * @return the run to read the written rows back
+     */
+    SortedRun finish() throws IOException {
+      output.close();
+      finished = true;
+      return new SortedRun(file, columns, rowCount);
+    }
+
+    /**
+     * Discard the run if it wasn't finished
+     */
+    @Override
+    public void close() throws IOException {
+      if (!finished) {
+        try {
+          output.close();
+        } finally {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,437 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.AdaptiveFetchSize;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.schema.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Write rows into a parquet file sorted on one or more columns, so the min/max statistics of the row groups
+ * can prune reads on these columns, without an ORDER BY run by the database.
+ * Rows are buffered up to maxBufferBytes, then sorted and spilled as a run into a local temporary file.
+ * On close, the runs are merged into the parquet file; when there are more than maxMergeRuns runs,
+ * they are first merged into fewer, longer runs so the number of open files stays bounded.
+ * Nulls are sorted last. The sort order is written in the footer under {@link #METADATA_KEY},
+ * as "column ASC,other DESC" with the names of the written columns. When a write, spill or merge fails, the file is deleted on close rather than
+ * left with part of the rows.
+ */
+public class SortingParquetWriter implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SortingParquetWriter.class);
+
+  public static final String METADATA_KEY = "parquet.sql.sort.columns";
+  public static final long DEFAULT_MAX_BUFFER_BYTES = 64 * 1024 * 1024;
+  public static final int DEFAULT_MAX_MERGE_RUNS = 64;
+
+  // rough overhead of a buffered field, SQLField object and list slot
+  private static final int FIELD_OVERHEAD_BYTES = 48;
+
+  private final SQLParquetWriter.Builder writerBuilder;
+  private final ParquetWriter<SQLRow> writer;
+  private final List<SortColumn> sortColumns;
+  private final long maxBufferBytes;
+  private final int maxMergeRuns;
+  private final Path tempDirectory;
+
+  private final List<SQLRow> buffer = new ArrayList<>();
+  private final List<SortedRun> runs = new ArrayList<>();
+  private long bufferBytes;
+  private SQLField[] columns;
+  private Comparator<SQLRow> comparator;
+  private long rowCount;
+  private int spilledRuns;
+  private boolean closed;
+  private boolean failed;
+
+  private SortingParquetWriter(Builder builder, ParquetWriter<SQLRow> writer) {
+    this.writerBuilder = builder.writerBuilder;
+    this.writer = writer;
+    this.sortColumns = builder.sortColumns;
+    this.maxBufferBytes = builder.maxBufferBytes;
+    this.maxMergeRuns = builder.maxMergeRuns;
+    this.tempDirectory = builder.tempDirectory;
+  }
+
+  /**
+   * @param writerBuilder builder of the written file, with its schema and options
+   */
+  public static Builder builder(SQLParquetWriter.Builder writerBuilder) {
+    return new Builder(writerBuilder);
+  }
+
+  /**
+   * Buffer a row, spilling the buffer as a sorted run when it is full
+   */
+  public void write(SQLRow row) throws IOException {
+    if (closed) {
+      throw new IOException("SortingParquetWriter is closed");
+    }
+    try {
+      if (columns == null) {
+        init(row);
+      }
+      buffer.add(row);
+      rowCount++;
+      for (SQLField field : row.getFields()) {
+        bufferBytes += FIELD_OVERHEAD_BYTES + AdaptiveFetchSize.estimateBytes(field.getValue());
+      }
+      if (bufferBytes >= maxBufferBytes) {
+        spill();
+      }
+    } catch (IOException | RuntimeException e) {
+      failed = true;
+      throw e;
+    }
+  }
+
+  /**
+   * @return number of rows written
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return number of sorted runs spilled to disk, including the ones of intermediate merges
+   */
+  public int getSpilledRuns() {
+    return spilledRuns;
+  }
+
+  // the columns are resolved on the first row, ignoring case as databases upper case unquoted names
+  private void init(SQLRow row) {
+    List<SQLField> fields = row.getFields();
+    Comparator<SQLRow> rowComparator = null;
+    for (SortColumn sortColumn : sortColumns) {
+      int index = indexOf(fields, sortColumn.getName());
+      Comparator<SQLRow> columnComparator = (left, right) -> compareValues(sortColumn, left.getField(index).getValue(), right.getField(index).getValue());
+      rowComparator = rowComparator == null ? columnComparator : rowComparator.thenComparing(columnComparator);
+    }
+    columns = fields.toArray(new SQLField[0]);
+    comparator = rowComparator;
+  }
+
+  private static int indexOf(List<SQLField> fields, String name) {
+    for (int index = 0; index < fields.size(); index++) {
+      if (fields.get(index).getName().equalsIgnoreCase(name)) {
+        return index;
+      }
+    }
+    throw new IllegalArgumentException("Sort column " + name + " is not a column of the written rows");
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static int compareValues(SortColumn sortColumn, Object left, Object right) {
+    if (left == null || right == null) {
+      // nulls last, whatever the direction
+      return left == null ? (right == null ? 0 : 1) : -1;
+    }
+    if (!(left instanceof Comparable)) {
+      throw new IllegalArgumentException("Sort column " + sortColumn.getName() + " of type " + left.getClass().getName() + " can't be sorted");
+    }
+    int comparison = ((Comparable) left).compareTo(right);
+    return sortColumn.isDescending() ? -comparison : comparison;
+  }
+
+  private void spill() throws IOException {
+    // List.sort is stable, rows with equal keys keep their order
+    buffer.sort(comparator);
+    try (SortedRun.Writer runWriter = SortedRun.create(tempDirectory, columns)) {
+      for (SQLRow row : buffer) {
+        runWriter.write(row);
+      }
+      runs.add(runWriter.finish());
+    }
+    spilledRuns++;
+    LOG.debug("Spilled a sorted run of {} rows, {} bytes estimated", buffer.size(), bufferBytes);
+    buffer.clear();
+    bufferBytes = 0;
+  }
+
+  /**
+   * Merge the sorted rows into the parquet file and close it, the temporary files are deleted.
+   * When a write failed, or when the merge fails, the parquet file is deleted instead.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      if (failed) {
+        throw new IOException("A write failed, the sorted file is incomplete");
+      }
+      writeSorted();
+    } catch (IOException | RuntimeException e) {
+      // a partial file would look complete and sorted
+      discard(e);
+      throw e;
+    } finally {
+      buffer.clear();
+    }
+    try {
+      closeRuns();
+    } finally {
+      writer.close();
+    }
+  }
+
+  private void writeSorted() throws IOException {
+    if (runs.isEmpty()) {
+      if (comparator != null) {
+        buffer.sort(comparator);
+      }
+      for (SQLRow row : buffer) {
+        writer.write(row);
+      }
+    } else {
+      if (!buffer.isEmpty()) {
+        spill();
+      }
+      while (runs.size() > maxMergeRuns) {
+        mergePass();
+      }
+      merge(new ArrayList<>(runs), writer::write);
+    }
+  }
+
+  private void discard(Exception failure) {
+    try {
+      closeRuns();
+    } catch (IOException e) {
+      failure.addSuppressed(e);
+    }
+    try {
+      writer.close();
+    } catch (IOException | RuntimeException e) {
+      failure.addSuppressed(e);
+    }
+    try {
+      writerBuilder.deleteFile();
+    } catch (IOException e) {
+      failure.addSuppressed(e);
+    }
+  }
+
+  // merge the runs by groups of maxMergeRuns into longer runs
+  private void mergePass() throws IOException {
+    List<SortedRun> merged = new ArrayList<>();
+    List<SortedRun> created = new ArrayList<>();
+    try {
+      for (int from = 0; from < runs.size(); from += maxMergeRuns) {
+        List<SortedRun> group = new ArrayList<>(runs.subList(from, Math.min(runs.size(), from + maxMergeRuns)));
+        if (group.size() == 1) {
+          merged.add(group.get(0));
+          continue;
+        }
+        try (SortedRun.Writer runWriter = SortedRun.create(tempDirectory, columns)) {
+          merge(group, runWriter::write);
+          SortedRun run = runWriter.finish();
+          created.add(run);
+          merged.add(run);
+        }
+        spilledRuns++;
+        for (SortedRun run : group) {
+          run.close();
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      // the runs merged from the previous groups are deleted with the others
+      runs.addAll(created);
+      throw e;
+    }
+    LOG.debug("Merged {} sorted runs into {}", runs.size(), merged.size());
+    runs.clear();
+    runs.addAll(merged);
+  }
+
+  // k-way merge, equal rows are taken from the earliest run to keep the sort stable
+  private void merge(List<SortedRun> sortedRuns, RowConsumer consumer) throws IOException {
+    PriorityQueue<RunHead> heads = new PriorityQueue<>(sortedRuns.size(),
+        Comparator.<RunHead, SQLRow>comparing(head -> head.row, comparator).thenComparingInt(head -> head.runIndex));
+    for (int index = 0; index < sortedRuns.size(); index++) {
+      SQLRow row = sortedRuns.get(index).read();
+      if (row != null) {
+        heads.add(new RunHead(row, index));
+      }
+    }
+    while (!heads.isEmpty()) {
+      RunHead head = heads.poll();
+      consumer.accept(head.row);
+      SQLRow next = sortedRuns.get(head.runIndex).read();
+      if (next != null) {
+        heads.add(new RunHead(next, head.runIndex));
+      }
+    }
+  }
+
+  private void closeRuns() throws IOException {
+    IOException exception = null;
+    for (SortedRun run : runs) {
+      try {
+        run.close();
+      } catch (IOException e) {
+        exception = e;
+      }
+    }
+    runs.clear();
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private interface RowConsumer {
+    void accept(SQLRow row) throws IOException;
+  }
+
+  private static class RunHead {
+    private final SQLRow row;
+    private final int runIndex;
+
+    private RunHead(SQLRow row, int runIndex) {
+      this.row = row;
+      this.runIndex = runIndex;
+    }
+  }
+
+  /**
+   * Column of the sort key
+   */
+  public static class SortColumn {
+    private final String name;
+    private final boolean descending;
+
+    public SortColumn(String name, boolean descending) {
+      this.name = name;
+      this.descending = descending;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public boolean isDescending() {
+      return descending;
+    }
+
+    @Override
+    public String toString() {
+      return name + (descending ? " DESC" : " ASC");
+    }
+  }
+
+  /**
+   * Builder
+   */
+  public static class Builder {
+
+    private final SQLParquetWriter.Builder writerBuilder;
+    private final List<SortColumn> sortColumns = new ArrayList<>();
+    private long maxBufferBytes = DEFAULT_MAX_BUFFER_BYTES;
+    private int maxMergeRuns = DEFAULT_MAX_MERGE_RUNS;
+    private Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+
+    private Builder(SQLParquetWriter.Builder writerBuilder) {
+      notNull(writerBuilder, "writerBuilder cannot be null");
+      this.writerBuilder = writerBuilder;
+    }
+
+    /**
+     * Sort in ascending order on the column, after the columns already added
+     */
+    public Builder sortBy(String column) {
+      return sortBy(column, false);
+    }
+
+    public Builder sortBy(String column, boolean descending) {
+      notNull(column, "column cannot be null");
+      sortColumns.add(new SortColumn(column, descending));
+      return this;
+    }
+
+    /**
+     * @param maxBufferBytes estimated memory of the rows buffered before a sorted run is spilled to disk
+     */
+    public Builder withMaxBufferBytes(long maxBufferBytes) {
+      if (maxBufferBytes < 1) {
+        throw new IllegalArgumentException("maxBufferBytes must be greater than 0");
+      }
+      this.maxBufferBytes = maxBufferBytes;
+      return this;
+    }
+
+    /**
+     * @param maxMergeRuns maximum number of runs, i.e. of open files, merged at once
+     */
+    public Builder withMaxMergeRuns(int maxMergeRuns) {
+      if (maxMergeRuns < 2) {
+        throw new IllegalArgumentException("maxMergeRuns must be greater than 1");
+      }
+      this.maxMergeRuns = maxMergeRuns;
+      return this;
+    }
+
+    /**
+     * @param tempDirectory local directory of the sorted runs, java.io.tmpdir by default
+     */
+    public Builder withTempDirectory(String tempDirectory) {
+      notNull(tempDirectory, "tempDirectory cannot be null");
+      this.tempDirectory = Paths.get(tempDirectory);
+      return this;
+    }
+
+    public SortingParquetWriter build() throws IOException {
+      if (sortColumns.isEmpty()) {
+        throw new IllegalArgumentException("At least one sort column is required");
+      }
+      // the names of the written columns, as the sort columns are looked up ignoring case
+      List<Type> fields = writerBuilder.resolveWritePlan().getMessageType().getFields();
+      String sortOrder = sortColumns.stream()
+          .map(sortColumn -> new SortColumn(writtenName(fields, sortColumn.getName()), sortColumn.isDescending()).toString())
+          .collect(Collectors.joining(","));
+      ParquetWriter<SQLRow> writer = writerBuilder
+          .withExtraMetaData(METADATA_KEY, sortOrder)
+          .build();
+      return new SortingParquetWriter(this, writer);
+    }
+
+    // a column that isn't written keeps its name, the first row written fails when it isn't a column of the rows
+    private static String writtenName(List<Type> fields, String name) {
+      return fields.stream()
+          .map(Type::getName)
+          .filter(name::equalsIgnoreCase)
+          .findFirst()
+          .orElse(name);
+    }
+  }
+}
@@ -0,0 +1,337 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.api;
+
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Memory budget shared by the writers of a JVM, e.g. the writers of parallel exports.
+ * A writer buffers its whole row group in memory before writing it: when the row group sizes of the registered
+ * writers add up over the budget, they are scaled down, each writer keeping at least minAllocation bytes.
+ * When the bytes buffered still go over the budget, the writers buffering the most are flushed
+ * at their next memory check, every 100 to 10000 rows.
+ * A rebalance only publishes the allocation and the flush request of each writer: a writer applies them
+ * on its own thread at its next check, as a parquet writer is not thread safe.
+ * In the spirit of parquet-mr MemoryManager, only used by ParquetOutputFormat: the row group size of a writer
+ * is not public, it is read and changed by reflection.
+ */
+public class WriterMemoryManager {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WriterMemoryManager.class);
+
+  public static final long DEFAULT_MIN_ALLOCATION = 1024 * 1024;
+  // rows written by a writer between two rebalances
+  static final int CHECK_INTERVAL = 1000;
+
+  private static final Field WRITER_FIELD;
+  private static final Field COLUMN_STORE_FIELD;
+  private static final Field NEXT_ROW_GROUP_SIZE_FIELD;
+  private static final Method GET_THRESHOLD_METHOD;
+  private static final Method SET_THRESHOLD_METHOD;
+
+  static {
+    try {
+      WRITER_FIELD = ParquetWriter.class.getDeclaredField("writer");
+      Class<?> internalWriter = WRITER_FIELD.getType();
+      COLUMN_STORE_FIELD = internalWriter.getDeclaredField("columnStore");
+      NEXT_ROW_GROUP_SIZE_FIELD = internalWriter.getDeclaredField("nextRowGroupSize");
+      GET_THRESHOLD_METHOD = internalWriter.getDeclaredMethod("getRowGroupSizeThreshold");
+      SET_THRESHOLD_METHOD = internalWriter.getDeclaredMethod("setRowGroupSizeThreshold", long.class);
+      WRITER_FIELD.setAccessible(true);
+      COLUMN_STORE_FIELD.setAccessible(true);
+      NEXT_ROW_GROUP_SIZE_FIELD.setAccessible(true);
+      GET_THRESHOLD_METHOD.setAccessible(true);
+      SET_THRESHOLD_METHOD.setAccessible(true);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError("Row group size of the parquet writers is not reachable: " + e);
+    }
+  }
+
+  private final long budgetBytes;
+  private final long minAllocation;
+  private final Set<ManagedWriter> writers = new LinkedHashSet<>();
+  private long forcedFlushes;
+
+  /**
+   * @param budgetBytes memory shared by the row groups of the writers
+   */
+  public WriterMemoryManager(long budgetBytes) {
+    this(budgetBytes, DEFAULT_MIN_ALLOCATION);
+  }
+
+  /**
+   * @param budgetBytes   memory shared by the row groups of the writers
+   * @param minAllocation row group size a writer keeps whatever the number of writers
+   */
+  public WriterMemoryManager(long budgetBytes, long minAllocation) {
+    if (budgetBytes < 1 || minAllocation < 1) {
+      throw new IllegalArgumentException("budgetBytes and minAllocation must be greater than 0");
+    }
+    this.budgetBytes = budgetBytes;
+    this.minAllocation = minAllocation;
+  }
+
+  /**
+   * @param heapRatio part of the maximum heap shared by the writers, e.g. 0.5
+   */
+  public static WriterMemoryManager ofHeapRatio(double heapRatio) {
+    if (heapRatio <= 0 || heapRatio > 1) {
+      throw new IllegalArgumentException("heapRatio must be in ]0, 1]");
+    }
+    return new WriterMemoryManager((long) (Runtime.getRuntime().maxMemory() * heapRatio));
+  }
+
+  /**
+   * Called by the thread building the writer, its allocation is applied right away
+   */
+  void register(ManagedWriter managedWriter, ParquetWriter<?> parquetWriter) {
+    try {
+      managedWriter.internalWriter = WRITER_FIELD.get(parquetWriter);
+      managedWriter.rowGroupSize = (long) GET_THRESHOLD_METHOD.invoke(managedWriter.internalWriter);
+      managedWriter.appliedSize = managedWriter.rowGroupSize;
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Cannot register the writer of " + managedWriter.name, e);
+    }
+    synchronized (this) {
+      writers.add(managedWriter);
+      rebalance();
+    }
+    managedWriter.applyAllocation();
+  }
+
+  synchronized void unregister(ManagedWriter managedWriter) {
+    if (writers.remove(managedWriter)) {
+      rebalance();
+    }
+  }
+
+  /**
+   * Scale the row groups of the writers to the budget, and flush the biggest ones when still over it.
+   * Only the published allocations and flush requests are changed, from the bytes buffered by each writer
+   * as of its last check.
+   */
+  synchronized void rebalance() {
+    if (writers.isEmpty()) {
+      return;
+    }
+    long requested = 0;
+    for (ManagedWriter writer : writers) {
+      requested += writer.rowGroupSize;
+    }
+    double scale = Math.min(1, (double) budgetBytes / requested);
+    long buffered = 0;
+    for (ManagedWriter writer : writers) {
+      writer.allocation = Math.max(minAllocation, (long) (writer.rowGroupSize * scale));
+      buffered += writer.bufferedBytes;
+    }
+
+    if (buffered > budgetBytes) {
+      List<ManagedWriter> biggest = new ArrayList<>(writers);
+      biggest.sort(Comparator.comparingLong((ManagedWriter writer) -> writer.bufferedBytes).reversed());
+      for (ManagedWriter writer : biggest) {
+        if (buffered <= budgetBytes) {
+          break;
+        }
+        LOG.debug("{} bytes buffered over a budget of {}, flushing {}", buffered, budgetBytes, writer.name);
+        writer.flushRequested = true;
+        buffered -= writer.bufferedBytes;
+        forcedFlushes++;
+      }
+    }
+  }
+
+  public long getBudgetBytes() {
+    return budgetBytes;
+  }
+
+  /**
+   * @return bytes buffered by the registered writers, as of their last check
+   */
+  public synchronized long getBufferedBytes() {
+    long buffered = 0;
+    for (ManagedWriter writer : writers) {
+      buffered += writer.bufferedBytes;
+    }
+    return buffered;
+  }
+
+  /**
+   * @return number of row groups flushed before reaching their size to stay in the budget
+   */
+  public synchronized long getForcedFlushes() {
+    return forcedFlushes;
+  }
+
+  /**
+   * @return allocation of each registered writer, in registration order
+   */
+  public synchronized List<Allocation> getAllocations() {
+    List<Allocation> allocations = new ArrayList<>();
+    for (ManagedWriter writer : writers) {
+      allocations.add(new Allocation(writer.name, writer.rowGroupSize, writer.allocation, writer.bufferedBytes));
+    }
+    return Collections.unmodifiableList(allocations);
+  }
+
+  @Override
+  public String toString() {
+    return "WriterMemoryManager{" +
+        "budgetBytes=" + budgetBytes +
+        ", allocations=" + getAllocations() +
+        '}';
+  }
+
+  /**
+   * Memory given to a writer
+   */
+  public static class Allocation {
+    private final String name;
+    private final long rowGroupSize;
+    private final long allocatedBytes;
+    private final long bufferedBytes;
+
+    Allocation(String name, long rowGroupSize, long allocatedBytes, long bufferedBytes) {
+      this.name = name;
+      this.rowGroupSize = rowGroupSize;
+      this.allocatedBytes = allocatedBytes;
+      this.bufferedBytes = bufferedBytes;
+    }
+
+    /**
+     * @return file written by the writer
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return row group size the writer was built with
+     */
+    public long getRowGroupSize() {
+      return rowGroupSize;
+    }
+
+    /**
+     * @return row group size given by the budget
+     */
+    public long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    /**
+     * @return bytes of the current row group, as of the last check of the writer
+     */
+    public long getBufferedBytes() {
+      return bufferedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return name + "{rowGroupSize=" + rowGroupSize + ", allocatedBytes=" + allocatedBytes + ", bufferedBytes=" + bufferedBytes + '}';
+    }
+  }
+
+  /**
+   * Writer registered once built, rebalancing the budget every {@link #CHECK_INTERVAL} rows it writes.
+   * Its parquet writer is only read and changed by the thread writing it.
+   */
+  class ManagedWriter {
+    private final String name;
+    // written by the thread of the writer
+    private Object internalWriter;
+    private long appliedSize;
+    private int rowsSinceCheck;
+    private volatile long rowGroupSize;
+    private volatile long bufferedBytes;
+    // published by the rebalances
+    private volatile long allocation;
+    private volatile boolean flushRequested;
+
+    ManagedWriter(String name) {
+      this.name = name;
+    }
+
+    void onRowWritten() {
+      if (++rowsSinceCheck >= CHECK_INTERVAL) {
+        rowsSinceCheck = 0;
+        readBufferedBytes();
+        rebalance();
+        applyAllocation();
+      }
+    }
+
+    /**
+     * Leave the budget, once the file is finalized or the writer failed
+     */
+    void close() {
+      unregister(this);
+    }
+
+    private void applyAllocation() {
+      long size = allocation;
+      if (size != appliedSize) {
+        setRowGroupSize(size);
+        appliedSize = size;
+      }
+      if (flushRequested) {
+        flushRequested = false;
+        flushAtNextCheck();
+      }
+    }
+
+    /**
+     * The threshold applies from the next row group, the size of the current one is lowered right away
+     */
+    private void setRowGroupSize(long size) {
+      try {
+        SET_THRESHOLD_METHOD.invoke(internalWriter, size);
+        if (NEXT_ROW_GROUP_SIZE_FIELD.getLong(internalWriter) > size) {
+          NEXT_ROW_GROUP_SIZE_FIELD.setLong(internalWriter, size);
+        }
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Cannot set the row group size of " + name, e);
+      }
+    }
+
+    private void flushAtNextCheck() {
+      try {
+        NEXT_ROW_GROUP_SIZE_FIELD.setLong(internalWriter, 0);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Cannot flush the row group of " + name, e);
+      }
+    }
+
+    private void readBufferedBytes() {
+      try {
+        ColumnWriteStore columnStore = (ColumnWriteStore) COLUMN_STORE_FIELD.get(internalWriter);
+        bufferedBytes = columnStore == null ? 0 : columnStore.getBufferedSize();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Cannot read the buffered size of " + name, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+
+/**
+ * Tune the fetch size of a ResultSet from the rows read.
+ * Over the first fetches, the average size of a row and the time spent fetching a row are measured,
+ * and the fetch size is moved toward the number of rows holding targetFetchBytes in the driver
+ * and fetched in targetFetchMillis. It is fixed once sampleFetches fetches were measured,
+ * so the chosen value can be reused as a static fetch size.
+ * Not thread safe.
+ */
+public class AdaptiveFetchSize {
+
+  public static final int DEFAULT_MIN_FETCH_SIZE = 10;
+  public static final int DEFAULT_MAX_FETCH_SIZE = 100_000;
+  public static final int DEFAULT_SAMPLE_FETCHES = 5;
+
+  // rough overhead of a value held by the driver, whatever its type
+  private static final int VALUE_OVERHEAD_BYTES = 16;
+  // large object of unknown length, e.g. a SQLXML: assumed large so that the fetch size stays low
+  private static final int UNKNOWN_LOB_BYTES = 1 << 20;
+
+  private final long targetFetchBytes;
+  private final long targetFetchNanos;
+  private final int minFetchSize;
+  private final int maxFetchSize;
+  private final int sampleFetches;
+
+  private int fetchSize;
+  private int measuredFetches;
+  private int rowsInFetch;
+  private long sampledRows;
+  private long sampledBytes;
+  private long sampledNanos;
+
+  /**
+   * @param initialFetchSize  fetch size of the statement, used for the first fetch
+   * @param targetFetchBytes  wanted memory held by the driver for a fetch
+   * @param targetFetchMillis wanted duration of a fetch
+   */
+  public AdaptiveFetchSize(int initialFetchSize, long targetFetchBytes, long targetFetchMillis) {
+    this(initialFetchSize, targetFetchBytes, targetFetchMillis, DEFAULT_MIN_FETCH_SIZE, DEFAULT_MAX_FETCH_SIZE, DEFAULT_SAMPLE_FETCHES);
+  }
+
+  public AdaptiveFetchSize(int initialFetchSize, long targetFetchBytes, long targetFetchMillis,
+                           int minFetchSize, int maxFetchSize, int sampleFetches) {
+    if (targetFetchBytes < 1 || targetFetchMillis < 1) {
+      throw new IllegalArgumentException("targetFetchBytes and targetFetchMillis must be greater than 0");
+    }
+    if (minFetchSize < 1 || maxFetchSize < minFetchSize) {
+      throw new IllegalArgumentException("minFetchSize must be greater than 0 and lower than maxFetchSize");
+    }
+    this.targetFetchBytes = targetFetchBytes;
+    this.targetFetchNanos = targetFetchMillis * 1_000_000;
+    this.minFetchSize = minFetchSize;
+    this.maxFetchSize = maxFetchSize;
+    this.sampleFetches = sampleFetches;
+    this.fetchSize = Math.max(1, initialFetchSize);
+  }
+
+  /**
+   * Record a row and resize the fetch size of the ResultSet at the end of each measured fetch
+   *
+   * @param resultSet ResultSet the row was read from
+   * @param rowBytes  estimated size of the row, see {@link #estimateBytes(Object)}
+   * @param nextNanos time spent in ResultSet.next() to get the row
+   */
+  public void onRow(ResultSet resultSet, long rowBytes, long nextNanos) throws SQLException {
+    if (isFixed()) {
+      return;
+    }
+    sampledRows++;
+    sampledBytes += rowBytes;
+    sampledNanos += nextNanos;
+
+    if (++rowsInFetch >= fetchSize) {
+      rowsInFetch = 0;
+      measuredFetches++;
+      int newFetchSize = computeFetchSize();
+      if (newFetchSize != fetchSize) {
+        fetchSize = newFetchSize;
+        resultSet.setFetchSize(fetchSize);
+      }
+    }
+  }
+
+  /**
+   * @return true when enough fetches were measured and the fetch size doesn't change anymore
+   */
+  public boolean isFixed() {
+    return measuredFetches >= sampleFetches;
+  }
+
+  int computeFetchSize() {
+    long averageRowBytes = Math.max(1, getAverageRowBytes());
+    long nanosPerRow = Math.max(1, sampledNanos / sampledRows);
+    long bySize = targetFetchBytes / averageRowBytes;
+    long byLatency = targetFetchNanos / nanosPerRow;
+    return (int) Math.max(minFetchSize, Math.min(maxFetchSize, Math.min(bySize, byLatency)));
+  }
+
+  /**
+   * @return current fetch size, the one to reuse once {@link #isFixed()}
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  public long getAverageRowBytes() {
+    return sampledRows == 0 ? 0 : sampledBytes / sampledRows;
+  }
+
+  /**
+   * @return average time to fetch a row, including the round trips to the database
+   */
+  public double getAverageRowMicros() {
+    return sampledRows == 0 ? 0 : sampledNanos / 1000d / sampledRows;
+  }
+
+  /**
+   * Rough size of a value read from a ResultSet. Blobs and clobs are sized from their length, as the
+   * driver may hold their content; other large objects are assumed to be large.
+   */
+  public static long estimateBytes(Object value) {
+    if (value == null) {
+      return 1;
+    } else if (value instanceof String) {
+      return VALUE_OVERHEAD_BYTES + 2L * ((String) value).length();
+    } else if (value instanceof byte[]) {
+      return VALUE_OVERHEAD_BYTES + ((byte[]) value).length;
+    } else if (value instanceof BigDecimal) {
+      return VALUE_OVERHEAD_BYTES + ((BigDecimal) value).unscaledValue().bitLength() / 8 + 1;
+    } else if (value instanceof Blob || value instanceof Clob || value instanceof SQLXML) {
+      return VALUE_OVERHEAD_BYTES + estimateLobBytes(value);
+    }
+    return VALUE_OVERHEAD_BYTES;
+  }
+
+  private static long estimateLobBytes(Object value) {
+    try {
+      if (value instanceof Blob) {
+        return ((Blob) value).length();
+      } else if (value instanceof Clob) {
+        // NClob included
+        return 2 * ((Clob) value).length();
+      }
+    } catch (SQLException e) {
+      // freed or unreadable, its size is unknown
+    }
+    return UNKNOWN_LOB_BYTES;
+  }
+
+  @Override
+  public String toString() {
+    return "AdaptiveFetchSize{" +
+        "fetchSize=" + fetchSize +
+        ", averageRowBytes=" + getAverageRowBytes() +
+        ", averageRowMicros=" + getAverageRowMicros() +
+        ", fixed=" + isFixed() +
+        '}';
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc;
+
+import java.sql.*;
+import java.util.Optional;
+
+/**
+ * Pin several connections on the same database snapshot, so that reads spread over
+ * many connections see the same data.
+ * There is no JDBC standard for this, each implementation relies on a vendor feature.
+ */
+public interface ConsistentSnapshot {
+
+  /**
+   * Open a snapshot on the coordinator connection.
+   * The coordinator connection must stay open until every other connection joined the snapshot.
+   *
+   * @return an identifier of the snapshot to give to {@link #join(Connection, String)}
+   */
+  String export(Connection coordinator) throws SQLException;
+
+  /**
+   * Make the connection read the snapshot identified by snapshotId.
+   * Must be called before any query is executed on the connection.
+   */
+  void join(Connection connection, String snapshotId) throws SQLException;
+
+  /**
+   * PostgreSQL exported snapshots (pg_export_snapshot / SET TRANSACTION SNAPSHOT)
+   */
+  ConsistentSnapshot POSTGRESQL = new ConsistentSnapshot() {
+    @Override
+    public String export(Connection coordinator) throws SQLException {
+      coordinator.setAutoCommit(false);
+      coordinator.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+      try (Statement statement = coordinator.createStatement();
+           ResultSet resultSet = statement.executeQuery("select pg_export_snapshot()")) {
+        resultSet.next();
+        return resultSet.getString(1);
+      }
+    }
+
+    @Override
+    public void join(Connection connection, String snapshotId) throws SQLException {
+      connection.setAutoCommit(false);
+      connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId.replace("'", "''") + "'");
+      }
+    }
+  };
+
+  /**
+   * Oracle flashback queries at the system change number read by the coordinator
+   */
+  ConsistentSnapshot ORACLE = new ConsistentSnapshot() {
+    @Override
+    public String export(Connection coordinator) throws SQLException {
+      try (Statement statement = coordinator.createStatement();
+           ResultSet resultSet = statement.executeQuery("select dbms_flashback.get_system_change_number from dual")) {
+        resultSet.next();
+        return resultSet.getBigDecimal(1).toPlainString();
+      }
+    }
+
+    @Override
+    public void join(Connection connection, String snapshotId) throws SQLException {
+      try (CallableStatement statement = connection.prepareCall("{call dbms_flashback.enable_at_system_change_number(?)}")) {
+        statement.setBigDecimal(1, new java.math.BigDecimal(snapshotId));
+        statement.execute();
+      }
+    }
+  };
+
+  /**
+   * Find the implementation matching the database of the connection.
+   *
+   * @return empty if the database has no known way to share a snapshot
+   */
+  static Optional<ConsistentSnapshot> forConnection(Connection connection) throws SQLException {
+    String productName = connection.getMetaData().getDatabaseProductName().toLowerCase();
+    if (productName.contains("postgresql")) {
+      return Optional.of(POSTGRESQL);
+    } else if (productName.contains("oracle")) {
+      return Optional.of(ORACLE);
+    }
+    return Optional.empty();
+  }
+}
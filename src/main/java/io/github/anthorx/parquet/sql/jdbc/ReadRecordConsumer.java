@@ -16,6 +16,7 @@
 package io.github.anthorx.parquet.sql.jdbc;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.Timestamp;
 
@@ -36,10 +37,25 @@ public interface ReadRecordConsumer {
 
   void setBigDecimal(BigDecimal value);
 
+  /**
+   * Decimal given as its unscaled value, e.g. -1250 with a scale of 2 for -12.50
+   */
+  default void setUnscaledDecimal(long unscaled, int scale) {
+    setBigDecimal(BigDecimal.valueOf(unscaled, scale));
+  }
+
   void setString(String value);
 
   void setBytes(byte[] value);
 
+  /**
+   * String given as its UTF-8 bytes, without decoding them. It is decoded by default, a consumer knowing
+   * that its target stores the bytes can bind them as they are.
+   */
+  default void setUtf8Bytes(byte[] utf8) {
+    setString(new String(utf8, StandardCharsets.UTF_8));
+  }
+
   void setDate(Date value);
 
   void setTimestamp(Timestamp value);
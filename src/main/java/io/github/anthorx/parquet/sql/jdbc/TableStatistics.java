@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.jdbc;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Estimates read from the statistics the database keeps on its tables, through DatabaseMetaData.getIndexInfo.
+ * They are approximate and cost no scan of the table. 0 means the database has no statistics.
+ */
+public class TableStatistics {
+
+  private TableStatistics() {
+  }
+
+  /**
+   * @param tableName table name, optionally prefixed by its schema
+   * @return estimated number of rows of the table, 0 when unknown
+   */
+  public static long rowCount(Connection connection, String tableName) throws SQLException {
+    // the table statistic row holds the row count, a unique index has as many entries as rows
+    return readIndexInfo(connection, tableName, null);
+  }
+
+  /**
+   * The estimation is the cardinality of the indexes starting with the column, so only indexed columns are known.
+   *
+   * @param tableName table name, optionally prefixed by its schema
+   * @return estimated number of distinct values of the column, 0 when unknown
+   */
+  public static long distinctValues(Connection connection, String tableName, String column) throws SQLException {
+    return readIndexInfo(connection, tableName, column);
+  }
+
+  private static long readIndexInfo(Connection connection, String tableName, String column) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    String schemaName = null;
+    int dot = tableName.lastIndexOf('.');
+    if (dot >= 0) {
+      schemaName = tableName.substring(0, dot);
+      tableName = tableName.substring(dot + 1);
+    }
+
+    // names are stored upper or lower case depending on the database
+    long estimate = readIndexInfo(metaData, schemaName, tableName, column);
+    if (estimate == 0 && metaData.storesUpperCaseIdentifiers()) {
+      estimate = readIndexInfo(metaData, schemaName == null ? null : schemaName.toUpperCase(), tableName.toUpperCase(), column);
+    } else if (estimate == 0 && metaData.storesLowerCaseIdentifiers()) {
+      estimate = readIndexInfo(metaData, schemaName == null ? null : schemaName.toLowerCase(), tableName.toLowerCase(), column);
+    }
+    return estimate;
+  }
+
+  private static long readIndexInfo(DatabaseMetaData metaData, String schemaName, String tableName, String column) throws SQLException {
+    long estimate = 0;
+    try (ResultSet resultSet = metaData.getIndexInfo(null, schemaName, tableName, false, true)) {
+      while (resultSet.next()) {
+        long cardinality = resultSet.getLong("CARDINALITY");
+        if (column == null) {
+          estimate = Math.max(estimate, cardinality);
+        } else if (cardinality > 0
+            && resultSet.getShort("TYPE") != DatabaseMetaData.tableIndexStatistic
+            && resultSet.getShort("ORDINAL_POSITION") == 1
+            && column.equalsIgnoreCase(resultSet.getString("COLUMN_NAME"))) {
+          // an index on more columns has at least as many entries as the column has values, the smallest is the closest
+          estimate = estimate == 0 ? cardinality : Math.min(estimate, cardinality);
+        }
+      }
+    }
+    return estimate;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+import io.github.anthorx.parquet.sql.util.DecimalUtils;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Vector of decimals too large for a long, stored as FIXED_LEN_BYTE_ARRAY unscaled two's-complement bytes.
+ * Each value is encoded in a buffer sized to the precision, reused from one value to the next.
+ */
+public class BigDecimalColumnVector extends BinaryColumnVector {
+
+  private final int scale;
+  private final byte[] fixedBytes;
+
+  public BigDecimalColumnVector(String name, int capacity, int precision, int scale) {
+    super(name, capacity);
+    this.scale = scale;
+    this.fixedBytes = new byte[DecimalUtils.fixedLength(precision)];
+  }
+
+  @Override
+  public PrimitiveType.PrimitiveTypeName getPrimitiveTypeName() {
+    return PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+  }
+
+  @Override
+  protected void readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+    BigDecimal value = resultSet.getBigDecimal(columnIndex);
+    startValue(row);
+    if (value != null) {
+      try {
+        DecimalUtils.toFixedBytes(value, scale, fixedBytes, 0, fixedBytes.length);
+      } catch (ArithmeticException e) {
+        throw new SQLException("Decimal " + value + " of column " + getName() + " doesn't fit " + fixedBytes.length + " bytes", e);
+      }
+      append(fixedBytes);
+    }
+    endValue(row);
+  }
+}
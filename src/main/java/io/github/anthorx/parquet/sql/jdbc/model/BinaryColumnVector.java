@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+import io.github.anthorx.parquet.sql.util.Utf8Codec;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Vector of strings, stored UTF-8 encoded one after the other in a single byte buffer.
+ * Values are handed to parquet as reused binaries: the dictionary and the statistics copy the ones they keep.
+ */
+public class BinaryColumnVector extends ColumnVector {
+
+  private static final int DEFAULT_BYTES_PER_VALUE = 16;
+
+  private final int[] offsets;
+  private final int[] lengths;
+  private final Utf8Codec utf8Codec = new Utf8Codec();
+  private byte[] buffer;
+  private int position;
+
+  public BinaryColumnVector(String name, int capacity) {
+    super(name, capacity);
+    this.offsets = new int[capacity];
+    this.lengths = new int[capacity];
+    this.buffer = new byte[capacity * DEFAULT_BYTES_PER_VALUE];
+  }
+
+  public Binary getBinary(int row) {
+    return Binary.fromReusedByteArray(buffer, offsets[row], lengths[row]);
+  }
+
+  public String getString(int row) {
+    return utf8Codec.decode(buffer, offsets[row], lengths[row]);
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    position = 0;
+  }
+
+  @Override
+  public PrimitiveType.PrimitiveTypeName getPrimitiveTypeName() {
+    return PrimitiveType.PrimitiveTypeName.BINARY;
+  }
+
+  @Override
+  protected void readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+    String value = resultSet.getString(columnIndex);
+    startValue(row);
+    if (value != null) {
+      utf8Codec.encode(value);
+      append(utf8Codec.getBuffer(), utf8Codec.getLength());
+    }
+    endValue(row);
+  }
+
+  @Override
+  protected void writeValue(ColumnWriter columnWriter, int row, int definitionLevel) {
+    columnWriter.write(getBinary(row), 0, definitionLevel);
+  }
+
+  /**
+   * The value of a row is made of the bytes appended between startValue and endValue
+   */
+  protected void startValue(int row) {
+    offsets[row] = position;
+  }
+
+  protected void append(byte[] bytes) {
+    append(bytes, bytes.length);
+  }
+
+  protected void append(byte[] bytes, int length) {
+    ensureCapacity(length);
+    System.arraycopy(bytes, 0, buffer, position, length);
+    position += length;
+  }
+
+  protected void endValue(int row) {
+    lengths[row] = position - offsets[row];
+  }
+
+  private void ensureCapacity(int length) {
+    if (position + length > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+    }
+  }
+}
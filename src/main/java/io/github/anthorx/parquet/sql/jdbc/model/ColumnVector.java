@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Values of one column for a batch of rows, stored without boxing.
+ * Nulls are kept in a bitmap apart from the values.
+ * A vector is reused from one batch to the next.
+ */
+public abstract class ColumnVector {
+
+  private final String name;
+  private final int capacity;
+  private final long[] nulls;
+
+  protected ColumnVector(String name, int capacity) {
+    this.name = name;
+    this.capacity = capacity;
+    this.nulls = new long[(capacity + 63) >>> 6];
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public boolean isNull(int row) {
+    return (nulls[row >>> 6] & (1L << row)) != 0;
+  }
+
+  protected void setNull(int row) {
+    nulls[row >>> 6] |= 1L << row;
+  }
+
+  /**
+   * Clear the vector before filling it with a new batch
+   */
+  public void reset() {
+    Arrays.fill(nulls, 0L);
+  }
+
+  /**
+   * Read the value of the current ResultSet row into the vector
+   *
+   * @param resultSet   ResultSet positioned on the row to read
+   * @param columnIndex JDBC index of the column, starting at 1
+   * @param row         index of the row in the batch
+   */
+  public void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+    readValue(resultSet, columnIndex, row);
+    if (resultSet.wasNull()) {
+      setNull(row);
+    }
+  }
+
+  /**
+   * Write the value of a row to a parquet column
+   *
+   * @param columnWriter           writer of the parquet column
+   * @param row                    index of the row in the batch
+   * @param maxDefinitionLevel     definition level of a non null value
+   */
+  public void write(ColumnWriter columnWriter, int row, int maxDefinitionLevel) {
+    if (isNull(row)) {
+      if (maxDefinitionLevel == 0) {
+        throw new IllegalStateException("Null value in row " + row + " of required column " + name);
+      }
+      columnWriter.writeNull(0, maxDefinitionLevel - 1);
+    } else {
+      writeValue(columnWriter, row, maxDefinitionLevel);
+    }
+  }
+
+  /**
+   * @return parquet type the values are written as
+   */
+  public abstract PrimitiveType.PrimitiveTypeName getPrimitiveTypeName();
+
+  protected abstract void readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException;
+
+  protected abstract void writeValue(ColumnWriter columnWriter, int row, int definitionLevel);
+}
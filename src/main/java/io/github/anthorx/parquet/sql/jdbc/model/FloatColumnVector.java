@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Vector of float values
+ */
+public class FloatColumnVector extends ColumnVector {
+
+  private final float[] values;
+
+  public FloatColumnVector(String name, int capacity) {
+    super(name, capacity);
+    this.values = new float[capacity];
+  }
+
+  public float getFloat(int row) {
+    return values[row];
+  }
+
+  @Override
+  public PrimitiveType.PrimitiveTypeName getPrimitiveTypeName() {
+    return PrimitiveType.PrimitiveTypeName.FLOAT;
+  }
+
+  @Override
+  protected void readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+    values[row] = resultSet.getFloat(columnIndex);
+  }
+
+  @Override
+  protected void writeValue(ColumnWriter columnWriter, int row, int definitionLevel) {
+    columnWriter.write(values[row], 0, definitionLevel);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A range of a split column: lower bound inclusive, upper bound exclusive.
+ * A null bound means the range is unbounded on that side.
+ * The first range of a split also holds the rows where the split column is null.
+ */
+public class KeyRange {
+
+  private final int index;
+  private final Object lowerInclusive;
+  private final Object upperExclusive;
+  private final boolean includeNulls;
+
+  public KeyRange(int index, Object lowerInclusive, Object upperExclusive, boolean includeNulls) {
+    this.index = index;
+    this.lowerInclusive = lowerInclusive;
+    this.upperExclusive = upperExclusive;
+    this.includeNulls = includeNulls;
+  }
+
+  /**
+   * Split [min, max] in at most rangeCount ranges of the same width.
+   * Supported bounds are numbers, java.sql.Date and java.sql.Timestamp.
+   * Outer ranges are left unbounded so that rows outside [min, max] are never lost.
+   *
+   * @param min        minimum value of the split column, null if the table is empty
+   * @param max        maximum value of the split column, null if the table is empty
+   * @param rangeCount wanted number of ranges
+   * @return the ranges, ordered by split column
+   */
+  public static List<KeyRange> split(Object min, Object max, int rangeCount) {
+    if (rangeCount < 1) {
+      throw new IllegalArgumentException("rangeCount must be greater than 0");
+    }
+    if (min == null || max == null || rangeCount == 1) {
+      return Collections.singletonList(new KeyRange(0, null, null, true));
+    }
+
+    BigDecimal lower = toBigDecimal(min);
+    BigDecimal upper = toBigDecimal(max);
+    boolean integral = !(min instanceof BigDecimal || min instanceof Double || min instanceof Float);
+    BigDecimal step = upper.subtract(lower).divide(BigDecimal.valueOf(rangeCount), 10, RoundingMode.CEILING);
+
+    List<Object> boundaries = new ArrayList<>();
+    for (int i = 1; i < rangeCount; i++) {
+      BigDecimal boundary = lower.add(step.multiply(BigDecimal.valueOf(i)));
+      if (integral) {
+        boundary = boundary.setScale(0, RoundingMode.CEILING);
+      }
+      if (boundary.compareTo(upper) > 0) {
+        break;
+      }
+      Object value = fromBigDecimal(boundary, min);
+      if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(value)) {
+        boundaries.add(value);
+      }
+    }
+
+    List<KeyRange> result = new ArrayList<>();
+    Object previous = null;
+    for (Object boundary : boundaries) {
+      result.add(new KeyRange(result.size(), previous, boundary, result.isEmpty()));
+      previous = boundary;
+    }
+    result.add(new KeyRange(result.size(), previous, null, result.isEmpty()));
+    return result;
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    if (value instanceof BigDecimal) {
+      return (BigDecimal) value;
+    } else if (value instanceof Double || value instanceof Float) {
+      return BigDecimal.valueOf(((Number) value).doubleValue());
+    } else if (value instanceof Number) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    } else if (value instanceof java.util.Date) {
+      return BigDecimal.valueOf(((java.util.Date) value).getTime());
+    }
+    throw new IllegalArgumentException("Unsupported split column type " + value.getClass().getName());
+  }
+
+  private static Object fromBigDecimal(BigDecimal value, Object template) {
+    if (template instanceof Timestamp) {
+      return new Timestamp(value.longValue());
+    } else if (template instanceof Date) {
+      return new Date(value.longValue());
+    } else if (template instanceof BigDecimal) {
+      return value;
+    } else if (template instanceof Double || template instanceof Float) {
+      return value.doubleValue();
+    }
+    return value.longValue();
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public Object getLowerInclusive() {
+    return lowerInclusive;
+  }
+
+  public Object getUpperExclusive() {
+    return upperExclusive;
+  }
+
+  public boolean isIncludeNulls() {
+    return includeNulls;
+  }
+
+  /**
+   * @param column split column name
+   * @return the SQL predicate selecting this range, with one bind parameter per bound
+   */
+  public String predicate(String column) {
+    List<String> conditions = new ArrayList<>();
+    if (lowerInclusive != null) {
+      conditions.add(column + " >= ?");
+    }
+    if (upperExclusive != null) {
+      conditions.add(column + " < ?");
+    }
+    if (conditions.isEmpty()) {
+      return "1 = 1";
+    }
+    String bounded = String.join(" and ", conditions);
+    return includeNulls ? String.format("(%s or %s is null)", bounded, column) : bounded;
+  }
+
+  /**
+   * Bind the bounds of the range on the statement created from {@link #predicate(String)}
+   *
+   * @return the next parameter index
+   */
+  public int bind(PreparedStatement preparedStatement, int parameterIndex) throws SQLException {
+    int index = parameterIndex;
+    if (lowerInclusive != null) {
+      preparedStatement.setObject(index++, lowerInclusive);
+    }
+    if (upperExclusive != null) {
+      preparedStatement.setObject(index++, upperExclusive);
+    }
+    return index;
+  }
+
+  @Override
+  public String toString() {
+    return "KeyRange{" +
+        "index=" + index +
+        ", lowerInclusive=" + lowerInclusive +
+        ", upperExclusive=" + upperExclusive +
+        ", includeNulls=" + includeNulls +
+        '}';
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+import io.github.anthorx.parquet.sql.util.DecimalUtils;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Vector of long values, or of unscaled decimal values when a scale is given
+ */
+public class LongColumnVector extends ColumnVector {
+
+  private final int scale;
+  protected final long[] values;
+
+  public LongColumnVector(String name, int capacity) {
+    this(name, capacity, 0);
+  }
+
+  public LongColumnVector(String name, int capacity, int scale) {
+    super(name, capacity);
+    this.scale = scale;
+    this.values = new long[capacity];
+  }
+
+  public long getLong(int row) {
+    return values[row];
+  }
+
+  @Override
+  public PrimitiveType.PrimitiveTypeName getPrimitiveTypeName() {
+    return PrimitiveType.PrimitiveTypeName.INT64;
+  }
+
+  @Override
+  protected void readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+    if (scale == 0) {
+      values[row] = resultSet.getLong(columnIndex);
+    } else {
+      BigDecimal value = resultSet.getBigDecimal(columnIndex);
+      if (value != null) {
+        try {
+          values[row] = DecimalUtils.unscaledLong(value, scale);
+        } catch (ArithmeticException e) {
+          throw new SQLException("Decimal " + value + " of column " + getName() + " doesn't fit an INT64", e);
+        }
+      }
+    }
+  }
+
+  @Override
+  protected void writeValue(ColumnWriter columnWriter, int row, int definitionLevel) {
+    columnWriter.write(values[row], 0, definitionLevel);
+  }
+}
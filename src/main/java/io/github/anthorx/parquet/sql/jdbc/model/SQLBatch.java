@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+/**
+ * A batch of rows stored column by column
+ */
+public class SQLBatch {
+
+  private final ColumnVector[] columns;
+  private final int capacity;
+  private int size;
+
+  public SQLBatch(ColumnVector[] columns, int capacity) {
+    this.columns = columns;
+    this.capacity = capacity;
+  }
+
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  public ColumnVector getColumn(int index) {
+    return columns[index];
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return number of rows in the batch
+   */
+  public int size() {
+    return size;
+  }
+
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  /**
+   * Clear the batch before filling it with new rows
+   */
+  public void reset() {
+    size = 0;
+    for (ColumnVector column : columns) {
+      column.reset();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SQLBatch{" +
+        "columnCount=" + columns.length +
+        ", size=" + size +
+        '}';
+  }
+}
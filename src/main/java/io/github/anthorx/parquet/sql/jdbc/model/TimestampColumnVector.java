@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+import io.github.anthorx.parquet.sql.util.ZoneOffsetTable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Vector of timestamps in milliseconds, adjusted to UTC like the TimestampConverter
+ */
+public class TimestampColumnVector extends LongColumnVector {
+
+  private final ZoneOffsetTable offsets;
+
+  /**
+   * Vector of timestamps read in the default zone
+   */
+  public TimestampColumnVector(String name, int capacity) {
+    this(name, capacity, ZoneOffsetTable.systemDefault());
+  }
+
+  public TimestampColumnVector(String name, int capacity, ZoneOffsetTable offsets) {
+    super(name, capacity);
+    this.offsets = offsets;
+  }
+
+  @Override
+  protected void readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+    Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+    if (timestamp != null) {
+      long timestampMs = timestamp.getTime();
+      values[row] = timestampMs + offsets.getOffsetMillis(timestampMs);
+    }
+  }
+}
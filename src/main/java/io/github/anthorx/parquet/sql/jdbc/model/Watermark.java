@@ -0,0 +1,204 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.jdbc.model;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Highest value exported of a column only growing over time, e.g. an update timestamp or a sequence id.
+ * The next incremental export selects the rows strictly above it.
+ * It is kept in the key-value metadata of the parquet footer, so the output directory is the only state.
+ * Supported values are numbers, java.sql.Date, java.sql.Timestamp and strings. LocalDate, LocalDateTime and
+ * OffsetDateTime values are held as the Date and Timestamp a driver binds them as. Timestamps are kept as
+ * microseconds since the epoch, their sub-microsecond part is dropped.
+ */
+public class Watermark {
+
+  public static final String COLUMN_KEY = "parquet.sql.watermark.column";
+  public static final String TYPE_KEY = "parquet.sql.watermark.type";
+  public static final String VALUE_KEY = "parquet.sql.watermark.value";
+
+  private static final String NUMBER = "number";
+  private static final String TIMESTAMP = "timestamp";
+  private static final String DATE = "date";
+  private static final String STRING = "string";
+
+  private final String column;
+  private final Object value;
+
+  public Watermark(String column, Object value) {
+    this.column = column;
+    this.value = fromJavaTime(value);
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  /**
+   * @return highest exported value, null if nothing was exported yet
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * @return the SQL predicate selecting the rows above the watermark, with one bind parameter if there is a value
+   */
+  public String predicate() {
+    return value == null ? "1 = 1" : column + " > ?";
+  }
+
+  /**
+   * Bind the value on the statement created from {@link #predicate()}
+   *
+   * @return the next parameter index
+   */
+  public int bind(PreparedStatement preparedStatement, int parameterIndex) throws SQLException {
+    if (value == null) {
+      return parameterIndex;
+    }
+    preparedStatement.setObject(parameterIndex, value);
+    return parameterIndex + 1;
+  }
+
+  /**
+   * @return the watermark with the highest value of the two, the other one being of the same column
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public Watermark max(Object otherValue) {
+    if (otherValue == null) {
+      return this;
+    }
+    Object other = fromJavaTime(otherValue);
+    if (value == null || ((Comparable) normalize(other)).compareTo(normalize(value)) > 0) {
+      return new Watermark(column, other);
+    }
+    return this;
+  }
+
+  /**
+   * @return the footer entries holding this watermark, empty if there is no value
+   */
+  public Map<String, String> toMetaData() {
+    Map<String, String> metaData = new HashMap<>();
+    if (value != null) {
+      metaData.put(COLUMN_KEY, column);
+      metaData.put(TYPE_KEY, typeOf(value));
+      metaData.put(VALUE_KEY, valueToString(value));
+    }
+    return metaData;
+  }
+
+  /**
+   * Read a watermark back from footer entries written by {@link #toMetaData()}
+   */
+  public static Optional<Watermark> fromMetaData(Map<String, String> metaData) {
+    String column = metaData.get(COLUMN_KEY);
+    String type = metaData.get(TYPE_KEY);
+    String value = metaData.get(VALUE_KEY);
+    if (column == null || type == null || value == null) {
+      return Optional.empty();
+    }
+    switch (type) {
+      case NUMBER:
+        return Optional.of(new Watermark(column, new BigDecimal(value)));
+      case TIMESTAMP:
+        return Optional.of(new Watermark(column, fromEpochMicros(Long.parseLong(value))));
+      case DATE:
+        return Optional.of(new Watermark(column, Date.valueOf(value)));
+      case STRING:
+        return Optional.of(new Watermark(column, value));
+      default:
+        throw new IllegalArgumentException("Unknown watermark type " + type);
+    }
+  }
+
+  private static String typeOf(Object value) {
+    if (value instanceof Number) {
+      return NUMBER;
+    } else if (value instanceof Timestamp) {
+      return TIMESTAMP;
+    } else if (value instanceof Date) {
+      return DATE;
+    } else if (value instanceof String) {
+      return STRING;
+    }
+    throw new IllegalArgumentException("Watermark of type " + value.getClass().getName() + " is not supported");
+  }
+
+  private static String valueToString(Object value) {
+    if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).toPlainString();
+    } else if (value instanceof Timestamp) {
+      // an instant, not the local date time of the default zone of the JVM writing it
+      return Long.toString(toEpochMicros((Timestamp) value));
+    }
+    return value.toString();
+  }
+
+  private static long toEpochMicros(Timestamp timestamp) {
+    return Math.floorDiv(timestamp.getTime(), 1000) * 1_000_000 + timestamp.getNanos() / 1000;
+  }
+
+  private static Timestamp fromEpochMicros(long epochMicros) {
+    Timestamp timestamp = new Timestamp(Math.floorDiv(epochMicros, 1_000_000) * 1000);
+    timestamp.setNanos((int) (Math.floorMod(epochMicros, 1_000_000) * 1000));
+    return timestamp;
+  }
+
+  // a local date time is the one of the default zone of the JVM, as for Timestamp.valueOf
+  private static Object fromJavaTime(Object value) {
+    if (value instanceof LocalDateTime) {
+      return Timestamp.valueOf((LocalDateTime) value);
+    } else if (value instanceof OffsetDateTime) {
+      return Timestamp.from(((OffsetDateTime) value).toInstant());
+    } else if (value instanceof LocalDate) {
+      return Date.valueOf((LocalDate) value);
+    }
+    return value;
+  }
+
+  // numbers of different classes are compared as BigDecimal
+  private static Object normalize(Object value) {
+    if (value instanceof BigDecimal) {
+      return value;
+    } else if (value instanceof Double || value instanceof Float) {
+      return BigDecimal.valueOf(((Number) value).doubleValue());
+    } else if (value instanceof Number) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    }
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return "Watermark{" +
+        "column='" + column + '\'' +
+        ", value=" + value +
+        '}';
+  }
+}
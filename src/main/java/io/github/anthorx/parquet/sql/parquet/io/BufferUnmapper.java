@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Release of the mapping of a MappedByteBuffer without waiting for its garbage collection:
+ * through sun.misc.Unsafe.invokeCleaner on java 9 and later, and through the cleaner of the buffer on java 8.
+ * When neither is accessible, the mapping is released when the buffer is garbage collected.
+ * The buffer, or any buffer sliced from it, must not be read after it is unmapped.
+ */
+final class BufferUnmapper {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BufferUnmapper.class);
+
+  private interface Unmapper {
+    void unmap(ByteBuffer buffer) throws ReflectiveOperationException;
+  }
+
+  private static final Unmapper UNMAPPER = lookupUnmapper();
+
+  private BufferUnmapper() {
+  }
+
+  /**
+   * @return whether buffers are unmapped by {@link #unmap(MappedByteBuffer)}
+   */
+  static boolean isSupported() {
+    return UNMAPPER != null;
+  }
+
+  static void unmap(MappedByteBuffer buffer) {
+    if (UNMAPPER == null) {
+      return;
+    }
+    try {
+      UNMAPPER.unmap(buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.debug("Can't unmap a buffer, it is released when garbage collected", e);
+    }
+  }
+
+  private static Unmapper lookupUnmapper() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Object unsafe = theUnsafe.get(null);
+      return buffer -> invokeCleaner.invoke(unsafe, buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.trace("No Unsafe.invokeCleaner, looking for the java 8 cleaner", e);
+    }
+    try {
+      Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> clean.invoke(cleaner.invoke(buffer));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.debug("Mapped buffers can't be unmapped, they are released when garbage collected", e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.io;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Local file read from memory mapped windows of the file, without the hadoop FileSystem stack.
+ * Windows are mapped one at a time, the previous one being unmapped when the JVM allows it (otherwise when it is
+ * garbage collected), so that large files don't need their whole size of address space and are not limited by
+ * the 2GB of a mapped buffer.
+ */
+public class LocalInputFile implements InputFile {
+
+  public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+  private final Path path;
+  private final int windowSize;
+
+  public LocalInputFile(Path path) {
+    this(path, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * @param windowSize size of the mapped windows of the file
+   */
+  public LocalInputFile(Path path, int windowSize) {
+    notNull(path, "path cannot be null");
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("windowSize must be greater than 0");
+    }
+    this.path = path;
+    this.windowSize = windowSize;
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    return Files.size(path);
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    return new MappedSeekableInputStream(FileChannel.open(path, StandardOpenOption.READ), windowSize);
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.io;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Local file written through a FileChannel, without the hadoop FileSystem stack and its checksum side files.
+ * Bytes are gathered in direct buffers aligned on the file system pages before being written,
+ * optionally by a background thread so that encoding goes on while the previous buffer is written.
+ */
+public class LocalOutputFile implements OutputFile {
+
+  public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+  static final int ALIGNMENT = 4096;
+
+  private final Path path;
+  private final int bufferSize;
+  private final boolean backgroundFlush;
+
+  public LocalOutputFile(Path path) {
+    this(path, DEFAULT_BUFFER_SIZE, false);
+  }
+
+  /**
+   * @param bufferSize      size of the write buffers, rounded up to a multiple of 4KB
+   * @param backgroundFlush write the full buffers from a background thread, using two buffers
+   */
+  public LocalOutputFile(Path path, int bufferSize, boolean backgroundFlush) {
+    notNull(path, "path cannot be null");
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("bufferSize must be greater than 0");
+    }
+    this.path = path;
+    this.bufferSize = (bufferSize + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    this.backgroundFlush = backgroundFlush;
+  }
+
+  /**
+   * @throws java.nio.file.FileAlreadyExistsException when the file exists
+   */
+  @Override
+  public PositionOutputStream create(long blockSizeHint) throws IOException {
+    return open(StandardOpenOption.CREATE_NEW);
+  }
+
+  @Override
+  public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+    return open(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  private PositionOutputStream open(StandardOpenOption... options) throws IOException {
+    FileChannel channel = FileChannel.open(path, append(options, StandardOpenOption.WRITE));
+    return new LocalPositionOutputStream(channel, bufferSize, backgroundFlush);
+  }
+
+  private static StandardOpenOption[] append(StandardOpenOption[] options, StandardOpenOption option) {
+    StandardOpenOption[] all = new StandardOpenOption[options.length + 1];
+    System.arraycopy(options, 0, all, 0, options.length);
+    all[options.length] = option;
+    return all;
+  }
+
+  @Override
+  public boolean supportsBlockSize() {
+    return false;
+  }
+
+  @Override
+  public long defaultBlockSize() {
+    return 0;
+  }
+
+  @Override
+  public String getPath() {
+    return path.toString();
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.io;
+
+import org.apache.parquet.io.PositionOutputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Stream of a {@link LocalOutputFile}. Writes are copied into a direct buffer written to the channel once full.
+ * With a background flush, the full buffer is written by a single thread while the other buffer is filled,
+ * at most one write being pending. Errors of a background write are thrown by the next write, flush or close.
+ */
+class LocalPositionOutputStream extends PositionOutputStream {
+
+  private final FileChannel channel;
+  private final ExecutorService flushExecutor;
+  private ByteBuffer buffer;
+  private ByteBuffer spareBuffer;
+  private Future<?> pendingFlush;
+  private long position;
+  private boolean closed;
+
+  LocalPositionOutputStream(FileChannel channel, int bufferSize, boolean backgroundFlush) {
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    if (backgroundFlush) {
+      this.spareBuffer = ByteBuffer.allocateDirect(bufferSize);
+      this.flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "parquet-local-flusher");
+        thread.setDaemon(true);
+        return thread;
+      });
+    } else {
+      this.flushExecutor = null;
+    }
+  }
+
+  @Override
+  public long getPos() {
+    return position;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (!buffer.hasRemaining()) {
+      flushBuffer();
+    }
+    buffer.put((byte) b);
+    position++;
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    position += length;
+    if (length >= buffer.capacity() && buffer.position() == 0 && flushExecutor == null) {
+      // large page written as is, rather than copied through the buffer
+      writeFully(ByteBuffer.wrap(bytes, offset, length));
+      return;
+    }
+    while (length > 0) {
+      if (!buffer.hasRemaining()) {
+        flushBuffer();
+      }
+      int chunk = Math.min(length, buffer.remaining());
+      buffer.put(bytes, offset, chunk);
+      offset += chunk;
+      length -= chunk;
+    }
+  }
+
+  /**
+   * Write the buffered bytes to the channel, without forcing them to the disk
+   */
+  @Override
+  public void flush() throws IOException {
+    flushBuffer();
+    awaitPendingFlush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        flush();
+      } finally {
+        if (flushExecutor != null) {
+          flushExecutor.shutdown();
+        }
+        channel.close();
+      }
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    if (buffer.position() == 0) {
+      return;
+    }
+    buffer.flip();
+    if (flushExecutor == null) {
+      writeFully(buffer);
+      buffer.clear();
+      return;
+    }
+    awaitPendingFlush();
+    ByteBuffer full = buffer;
+    pendingFlush = flushExecutor.submit(() -> {
+      writeFully(full);
+      full.clear();
+      return null;
+    });
+    buffer = spareBuffer;
+    spareBuffer = full;
+  }
+
+  private void writeFully(ByteBuffer bytes) throws IOException {
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+  }
+
+  private void awaitPendingFlush() throws IOException {
+    if (pendingFlush != null) {
+      try {
+        pendingFlush.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while writing to the file", e);
+      } catch (ExecutionException e) {
+        throw new IOException("Error when writing to the file", e.getCause());
+      } finally {
+        pendingFlush = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.io;
+
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Stream of a {@link LocalInputFile}. Reads are copied from the window of the file mapped around the position,
+ * the next window being mapped when the position leaves it. A read spanning windows is copied window by window.
+ * A window is unmapped when the next one is mapped and on close, see {@link BufferUnmapper}: it is never
+ * handed out of the stream.
+ */
+class MappedSeekableInputStream extends SeekableInputStream {
+
+  private final FileChannel channel;
+  private final long length;
+  private final int windowSize;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
+
+  MappedSeekableInputStream(FileChannel channel, int windowSize) throws IOException {
+    this.channel = channel;
+    this.length = channel.size();
+    this.windowSize = windowSize;
+  }
+
+  @Override
+  public long getPos() {
+    return position;
+  }
+
+  @Override
+  public void seek(long newPosition) throws IOException {
+    if (newPosition < 0 || newPosition > length) {
+      throw new EOFException("Cannot seek to " + newPosition + ", file length is " + length);
+    }
+    position = newPosition;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position >= length) {
+      return -1;
+    }
+    int b = windowAtPosition().get() & 0xFF;
+    position++;
+    return b;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (position >= length) {
+      return -1;
+    }
+    int read = (int) Math.min(len, length - position);
+    copy(bytes, offset, read);
+    return read;
+  }
+
+  @Override
+  public void readFully(byte[] bytes) throws IOException {
+    readFully(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public void readFully(byte[] bytes, int offset, int len) throws IOException {
+    checkRemaining(len);
+    copy(bytes, offset, len);
+  }
+
+  @Override
+  public int read(ByteBuffer buffer) throws IOException {
+    if (!buffer.hasRemaining()) {
+      return 0;
+    }
+    if (position >= length) {
+      return -1;
+    }
+    int read = (int) Math.min(buffer.remaining(), length - position);
+    copy(buffer, read);
+    return read;
+  }
+
+  @Override
+  public void readFully(ByteBuffer buffer) throws IOException {
+    checkRemaining(buffer.remaining());
+    copy(buffer, buffer.remaining());
+  }
+
+  @Override
+  public long skip(long n) {
+    long skipped = Math.max(0, Math.min(n, length - position));
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, length - position);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (window != null) {
+      BufferUnmapper.unmap(window);
+      window = null;
+    }
+    channel.close();
+  }
+
+  private void checkRemaining(int len) throws EOFException {
+    if (len > length - position) {
+      throw new EOFException("Cannot read " + len + " bytes at " + position + ", file length is " + length);
+    }
+  }
+
+  private void copy(byte[] bytes, int offset, int len) throws IOException {
+    while (len > 0) {
+      ByteBuffer source = windowAtPosition();
+      int chunk = Math.min(len, source.remaining());
+      source.get(bytes, offset, chunk);
+      position += chunk;
+      offset += chunk;
+      len -= chunk;
+    }
+  }
+
+  private void copy(ByteBuffer buffer, int len) throws IOException {
+    while (len > 0) {
+      ByteBuffer source = windowAtPosition();
+      int chunk = Math.min(len, source.remaining());
+      source.limit(source.position() + chunk);
+      buffer.put(source);
+      position += chunk;
+      len -= chunk;
+    }
+  }
+
+  /**
+   * @return the window holding the position, positioned on it
+   */
+  private ByteBuffer windowAtPosition() throws IOException {
+    if (window == null || position < windowStart || position >= windowStart + window.capacity()) {
+      if (window != null) {
+        BufferUnmapper.unmap(window);
+        window = null;
+      }
+      windowStart = position / windowSize * windowSize;
+      window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, length - windowStart));
+    }
+    window.limit(window.capacity());
+    window.position((int) (position - windowStart));
+    return window;
+  }
+}
@@ -0,0 +1,325 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.model;
+
+import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
+import io.github.anthorx.parquet.sql.util.DecimalUtils;
+import org.apache.parquet.schema.Type;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Record reused for all the rows read, holding the values of a row in one slot per column of the schema:
+ * primitive values unboxed and the others as objects, with a flag for the columns set.
+ * Its values are valid until the next row is read. {@link #getFields()} builds the fields from the slots,
+ * {@link #readAll(List, ReadRecordConsumer)} gives the values to the consumer without building them.
+ */
+public class MutableRecord extends Record {
+
+  /**
+   * How the value of a column is held. An UNSCALED_DECIMAL is held as a long, with the scale of its column.
+   */
+  public enum Kind {
+    BOOLEAN, INT, LONG, UNSCALED_DECIMAL, FLOAT, DOUBLE, OBJECT
+  }
+
+  private final RecordLayout layout;
+  private final Kind[] kinds;
+  private final BiConsumer<ReadRecordConsumer, Object>[] objectReaders;
+  private final boolean[] set;
+  private final long[] longs;
+  private final int[] scales;
+  private final double[] doubles;
+  private final Object[] objects;
+
+  public MutableRecord(List<Type> schemaFields) {
+    this(new RecordLayout(schemaFields));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public MutableRecord(RecordLayout layout) {
+    int columnCount = layout.getColumnCount();
+    this.layout = layout;
+    this.kinds = new Kind[columnCount];
+    this.objectReaders = new BiConsumer[columnCount];
+    this.set = new boolean[columnCount];
+    this.longs = new long[columnCount];
+    this.scales = new int[columnCount];
+    this.doubles = new double[columnCount];
+    this.objects = new Object[columnCount];
+    Arrays.fill(kinds, Kind.OBJECT);
+  }
+
+  /**
+   * @param objectReader function giving an OBJECT value to a consumer
+   */
+  @SuppressWarnings("unchecked")
+  public void defineColumn(int column, Kind kind, BiConsumer<ReadRecordConsumer, ?> objectReader) {
+    kinds[column] = kind;
+    objectReaders[column] = (BiConsumer<ReadRecordConsumer, Object>) objectReader;
+  }
+
+  /**
+   * Scale of an UNSCALED_DECIMAL column
+   */
+  public void defineScale(int column, int scale) {
+    scales[column] = scale;
+  }
+
+  /**
+   * Unset all the columns, before reading the next row
+   */
+  public void clear() {
+    Arrays.fill(set, false);
+  }
+
+  public void setBoolean(int column, boolean value) {
+    longs[column] = value ? 1 : 0;
+    set[column] = true;
+  }
+
+  public void setInt(int column, int value) {
+    longs[column] = value;
+    set[column] = true;
+  }
+
+  public void setLong(int column, long value) {
+    longs[column] = value;
+    set[column] = true;
+  }
+
+  public void setFloat(int column, float value) {
+    doubles[column] = value;
+    set[column] = true;
+  }
+
+  public void setDouble(int column, double value) {
+    doubles[column] = value;
+    set[column] = true;
+  }
+
+  public void setObject(int column, Object value) {
+    objects[column] = value;
+    set[column] = value != null;
+  }
+
+  /**
+   * Set a boxed value, as returned by {@link #getValue(int)}, converted to the kind of the column.
+   * A BigDecimal is unscaled to the scale of an UNSCALED_DECIMAL column.
+   */
+  public void setValue(int column, Object value) {
+    if (value == null) {
+      setObject(column, null);
+      return;
+    }
+    switch (kinds[column]) {
+      case BOOLEAN:
+        setBoolean(column, (Boolean) value);
+        break;
+      case INT:
+        setInt(column, ((Number) value).intValue());
+        break;
+      case LONG:
+        setLong(column, ((Number) value).longValue());
+        break;
+      case UNSCALED_DECIMAL:
+        setLong(column, value instanceof BigDecimal
+            ? DecimalUtils.unscaledLong((BigDecimal) value, scales[column])
+            : ((Number) value).longValue());
+        break;
+      case FLOAT:
+        setFloat(column, ((Number) value).floatValue());
+        break;
+      case DOUBLE:
+        setDouble(column, ((Number) value).doubleValue());
+        break;
+      default:
+        setObject(column, value);
+    }
+  }
+
+  public int getColumnCount() {
+    return layout.getColumnCount();
+  }
+
+  /**
+   * @return index of the column, -1 when the schema doesn't have it
+   */
+  public int getColumnIndex(String name) {
+    return layout.getColumnIndex(name);
+  }
+
+  public boolean isNull(int column) {
+    return !set[column];
+  }
+
+  public boolean getBoolean(int column) {
+    return longs[column] != 0;
+  }
+
+  public int getInt(int column) {
+    return (int) longs[column];
+  }
+
+  public long getLong(int column) {
+    return longs[column];
+  }
+
+  public float getFloat(int column) {
+    return (float) doubles[column];
+  }
+
+  public double getDouble(int column) {
+    return doubles[column];
+  }
+
+  /**
+   * @return value of the column, boxed for a primitive one, null when not set
+   */
+  public Object getValue(int column) {
+    if (!set[column]) {
+      return null;
+    }
+    switch (kinds[column]) {
+      case BOOLEAN:
+        return getBoolean(column);
+      case INT:
+        return getInt(column);
+      case LONG:
+      case UNSCALED_DECIMAL:
+        return getLong(column);
+      case FLOAT:
+        return getFloat(column);
+      case DOUBLE:
+        return getDouble(column);
+      default:
+        return objects[column];
+    }
+  }
+
+  /**
+   * Set the value of the field in the column of its name, see {@link #setValue(int, Object)}.
+   * The field itself isn't kept: its value is read as the other values of the column.
+   *
+   * @throws IllegalArgumentException when the schema doesn't have the column
+   */
+  @Override
+  public <T> void addField(RecordField<T> field) {
+    int column = getColumnIndex(field.getName());
+    if (column < 0) {
+      throw new IllegalArgumentException("Column " + field.getName() + " is not in the schema of the record");
+    }
+    setValue(column, field.getValue());
+  }
+
+  @Override
+  public void setField(int column, RecordField<?> field) {
+    setValue(column, field.getValue());
+  }
+
+  /**
+   * @return new fields of the columns set, in the schema order
+   */
+  @Override
+  public List<RecordField<?>> getFields() {
+    List<RecordField<?>> fields = new ArrayList<>();
+    for (int column = 0; column < set.length; column++) {
+      if (set[column]) {
+        fields.add(newField(column));
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * @param index index of the column in the schema
+   */
+  @Override
+  public RecordField<?> getField(int index) {
+    return set[index] ? newField(index) : layout.getNullField(index);
+  }
+
+  @Override
+  public Optional<RecordField<?>> getField(String name) {
+    int column = getColumnIndex(name);
+    return column < 0 || !set[column] ? Optional.empty() : Optional.of(newField(column));
+  }
+
+  private RecordField<?> newField(int column) {
+    return new RecordField<>(layout.getName(column), getValue(column))
+        .addReadConsumer((readRecordConsumer, value) -> read(column, readRecordConsumer));
+  }
+
+  /**
+   * Give the values to the consumer without boxing the primitive ones
+   */
+  @Override
+  public void readAll(List<Type> schemaField, ReadRecordConsumer readRecordConsumer) {
+    RecordLayout.Slots schemaSlots = layout.slotsOf(schemaField);
+    for (int index = 0; index < schemaSlots.columns.length; index++) {
+      int column = schemaSlots.columns[index];
+      if (column < 0) {
+        schemaSlots.nullFields[index].read(readRecordConsumer);
+      } else {
+        read(column, readRecordConsumer);
+      }
+    }
+  }
+
+  private void read(int column, ReadRecordConsumer readRecordConsumer) {
+    if (!set[column]) {
+      layout.getNullField(column).read(readRecordConsumer);
+      return;
+    }
+    switch (kinds[column]) {
+      case BOOLEAN:
+        readRecordConsumer.setBoolean(getBoolean(column));
+        break;
+      case INT:
+        readRecordConsumer.setInt(getInt(column));
+        break;
+      case LONG:
+        readRecordConsumer.setLong(getLong(column));
+        break;
+      case UNSCALED_DECIMAL:
+        readRecordConsumer.setUnscaledDecimal(getLong(column), scales[column]);
+        break;
+      case FLOAT:
+        readRecordConsumer.setFloat(getFloat(column));
+        break;
+      case DOUBLE:
+        readRecordConsumer.setDouble(getDouble(column));
+        break;
+      default:
+        if (objectReaders[column] != null) {
+          objectReaders[column].accept(readRecordConsumer, objects[column]);
+        }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("MutableRecord{");
+    for (int column = 0; column < set.length; column++) {
+      builder.append(column == 0 ? "" : ", ").append(layout.getName(column)).append('=').append(getValue(column));
+    }
+    return builder.append('}').toString();
+  }
+}
@@ -23,24 +23,90 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Fields of a row read. Records of a reader share the {@link RecordLayout} of its schema: their fields are
+ * then addressed by column index, and readAll binds the columns without looking them up by name.
+ */
 public class Record {
 
+  // fields without a column of the layout, all the fields of a record without layout
   private final List<RecordField<?>> fields = new ArrayList<>();
+  private final RecordLayout layout;
+  // field of each column of the layout, null when not read
+  private final RecordField<?>[] slots;
+
+  public Record() {
+    this.layout = null;
+    this.slots = null;
+  }
+
+  public Record(RecordLayout layout) {
+    this.layout = layout;
+    this.slots = new RecordField<?>[layout.getColumnCount()];
+  }
 
+  /**
+   * Add a field, held in the column of its name when the layout has one not set yet
+   */
   public <T> void addField(RecordField<T> field) {
+    if (layout != null) {
+      int column = layout.getColumnIndex(field.getName());
+      if (column >= 0 && slots[column] == null) {
+        slots[column] = field;
+        return;
+      }
+    }
     fields.add(field);
   }
 
-  public List<RecordField<?>> getFields() {
-    return fields;
+  /**
+   * Set the field of a column of the layout, without looking up its name
+   *
+   * @param column index of the column in the schema of the layout
+   */
+  public void setField(int column, RecordField<?> field) {
+    slots[column] = field;
   }
 
+  /**
+   * @return fields added, for a record with a layout those of its columns first, in the schema order
+   */
+  public List<RecordField<?>> getFields() {
+    if (layout == null) {
+      return fields;
+    }
+    List<RecordField<?>> allFields = new ArrayList<>(slots.length + fields.size());
+    for (RecordField<?> field : slots) {
+      if (field != null) {
+        allFields.add(field);
+      }
+    }
+    allFields.addAll(fields);
+    return allFields;
+  }
 
+  /**
+   * The null field of a column is shared by all the records of the layout, across threads:
+   * it must not be changed, e.g. with {@link RecordField#addReadConsumer}.
+   *
+   * @param index index of the column in the schema of the layout, or of the field in the added fields
+   *              for a record without layout
+   */
   public RecordField<?> getField(int index) {
-    return fields.get(index);
+    if (layout == null) {
+      return fields.get(index);
+    }
+    RecordField<?> field = slots[index];
+    return field == null ? layout.getNullField(index) : field;
   }
 
   public Optional<RecordField<?>> getField(String name) {
+    if (layout != null) {
+      int column = layout.getColumnIndex(name);
+      if (column >= 0) {
+        return Optional.ofNullable(slots[column]);
+      }
+    }
     return fields
         .stream()
         .filter(rr -> rr.getName().equals(name))
@@ -54,17 +120,26 @@ public class Record {
    * @param readRecordConsumer the consumer used to consume the record fields
    */
   public void readAll(List<Type> schemaField, ReadRecordConsumer readRecordConsumer) {
-    schemaField.stream()
-        .map(type -> this
-            .getField(type.getName())
-            .orElseGet(() -> NullRecordFieldConstructor.newNullRecordField(type)))
-        .forEach(recordField -> recordField.read(readRecordConsumer));
+    if (layout == null) {
+      schemaField.stream()
+          .map(type -> this
+              .getField(type.getName())
+              .orElseGet(() -> NullRecordFieldConstructor.newNullRecordField(type)))
+          .forEach(recordField -> recordField.read(readRecordConsumer));
+      return;
+    }
+    RecordLayout.Slots schemaSlots = layout.slotsOf(schemaField);
+    for (int index = 0; index < schemaSlots.columns.length; index++) {
+      int column = schemaSlots.columns[index];
+      RecordField<?> field = column < 0 ? null : slots[column];
+      (field == null ? schemaSlots.nullFields[index] : field).read(readRecordConsumer);
+    }
   }
 
   @Override
   public String toString() {
     return "Record{" +
-        "fields=" + fields +
+        "fields=" + getFields() +
         '}';
   }
 }
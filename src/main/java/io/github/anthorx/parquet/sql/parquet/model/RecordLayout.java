@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.model;
+
+import io.github.anthorx.parquet.sql.jdbc.NullRecordFieldConstructor;
+import org.apache.parquet.schema.Type;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columns of the records read with a schema, built once per schema and shared by its records:
+ * the slot of each column name and the field binding a null value for each column.
+ * Thread safe.
+ */
+public class RecordLayout {
+
+  private final List<Type> schemaFields;
+  private final String[] names;
+  private final Map<String, Integer> columnIndexes;
+  private final RecordField<?>[] nullFields;
+  // slots of the last schema given to slotsOf, replaced as a whole
+  private volatile Slots lastSlots;
+
+  public RecordLayout(List<Type> schemaFields) {
+    int columnCount = schemaFields.size();
+    this.schemaFields = schemaFields;
+    this.names = new String[columnCount];
+    this.columnIndexes = new HashMap<>(columnCount * 2);
+    this.nullFields = new RecordField<?>[columnCount];
+    for (int column = 0; column < columnCount; column++) {
+      Type type = schemaFields.get(column);
+      names[column] = type.getName();
+      // first column of a name, as Record.getField(String) returns the first field
+      columnIndexes.putIfAbsent(type.getName(), column);
+      nullFields[column] = NullRecordFieldConstructor.newNullRecordField(type);
+    }
+    this.lastSlots = new Slots(schemaFields, this);
+  }
+
+  public List<Type> getSchemaFields() {
+    return schemaFields;
+  }
+
+  public int getColumnCount() {
+    return names.length;
+  }
+
+  public String getName(int column) {
+    return names[column];
+  }
+
+  /**
+   * @return index of the column, -1 when the schema doesn't have it
+   */
+  public int getColumnIndex(String name) {
+    Integer column = columnIndexes.get(name);
+    return column == null ? -1 : column;
+  }
+
+  /**
+   * @return field binding a null value of the type of the column, shared by all the records: it must not be changed
+   */
+  public RecordField<?> getNullField(int column) {
+    return nullFields[column];
+  }
+
+  /**
+   * Columns of the fields of another schema, e.g. the fields given to Record.readAll.
+   * They are computed once as long as the same list is given.
+   */
+  Slots slotsOf(List<Type> fields) {
+    Slots slots = lastSlots;
+    if (slots.fields != fields) {
+      slots = new Slots(fields, this);
+      lastSlots = slots;
+    }
+    return slots;
+  }
+
+  /**
+   * Column of each field of a schema, with the field binding a null value for the fields without a column
+   */
+  static class Slots {
+    private final List<Type> fields;
+    final int[] columns;
+    final RecordField<?>[] nullFields;
+
+    private Slots(List<Type> fields, RecordLayout layout) {
+      this.fields = fields;
+      this.columns = new int[fields.size()];
+      this.nullFields = new RecordField<?>[fields.size()];
+      for (int index = 0; index < columns.length; index++) {
+        int column = layout.getColumnIndex(fields.get(index).getName());
+        columns[index] = column;
+        nullFields[index] = column < 0
+            ? NullRecordFieldConstructor.newNullRecordField(fields.get(index))
+            : layout.getNullField(column);
+      }
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.read;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.HadoopReadOptions;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexFilter;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
+import org.apache.parquet.internal.filter2.columnindex.RowRanges;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Row groups, rows and pages of the requested columns skipped by a filter, before the records are filtered
+ * one by one. It is computed from the footers and the column indexes, the way the reader prunes them,
+ * as ParquetReader doesn't expose what it skipped.
+ */
+public class FilterReport {
+
+  private long rowGroups;
+  private long rowGroupsRead;
+  private long rows;
+  private long rowsRead;
+  private long pages;
+  private long pagesRead;
+
+  /**
+   * @param requestedSchema columns read, the filtered columns included
+   */
+  public static FilterReport of(InputFile inputFile, Configuration configuration, MessageType requestedSchema,
+                                FilterPredicate predicate) throws IOException {
+    FilterCompat.Filter filter = FilterCompat.get(predicate);
+    ParquetReadOptions options = HadoopReadOptions.builder(configuration)
+        .withRecordFilter(filter)
+        .useStatsFilter(true)
+        .useDictionaryFilter(true)
+        .useBloomFilter(true)
+        .useColumnIndexFilter(true)
+        .build();
+    Set<ColumnPath> paths = requestedSchema.getColumns()
+        .stream()
+        .map(column -> ColumnPath.get(column.getPath()))
+        .collect(Collectors.toSet());
+
+    FilterReport report = new FilterReport();
+    try (ParquetFileReader reader = ParquetFileReader.open(inputFile, options)) {
+      for (BlockMetaData block : reader.getFooter().getBlocks()) {
+        report.rowGroups++;
+        report.rows += block.getRowCount();
+        report.pages += report.countPages(reader, block, paths, null);
+      }
+      // row groups left by the statistics, dictionaries and bloom filters
+      for (BlockMetaData block : reader.getRowGroups()) {
+        report.rowGroupsRead++;
+        RowRanges rowRanges = ColumnIndexFilter.calculateRowRanges(filter, new BlockIndexStore(reader, block), paths, block.getRowCount());
+        report.rowsRead += rowRanges.rowCount();
+        report.pagesRead += report.countPages(reader, block, paths, rowRanges);
+      }
+    }
+    return report;
+  }
+
+  /**
+   * @param rowRanges rows read in the row group, null for all of them
+   * @return number of pages of the columns holding rows read, or 1 per column chunk without an offset index
+   */
+  private long countPages(ParquetFileReader reader, BlockMetaData block, Set<ColumnPath> paths, RowRanges rowRanges) throws IOException {
+    long count = 0;
+    for (ColumnChunkMetaData chunk : block.getColumns()) {
+      if (!paths.contains(chunk.getPath())) {
+        continue;
+      }
+      OffsetIndex offsetIndex = reader.readOffsetIndex(chunk);
+      if (offsetIndex == null) {
+        count += rowRanges == null || rowRanges.rowCount() > 0 ? 1 : 0;
+        continue;
+      }
+      for (int page = 0; page < offsetIndex.getPageCount(); page++) {
+        if (rowRanges == null || rowRanges.isOverlapping(offsetIndex.getFirstRowIndex(page),
+            offsetIndex.getLastRowIndex(page, block.getRowCount()))) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Add the counts of another file
+   */
+  public FilterReport merge(FilterReport other) {
+    rowGroups += other.rowGroups;
+    rowGroupsRead += other.rowGroupsRead;
+    rows += other.rows;
+    rowsRead += other.rowsRead;
+    pages += other.pages;
+    pagesRead += other.pagesRead;
+    return this;
+  }
+
+  public long getRowGroups() {
+    return rowGroups;
+  }
+
+  public long getRowGroupsRead() {
+    return rowGroupsRead;
+  }
+
+  public long getRowGroupsSkipped() {
+    return rowGroups - rowGroupsRead;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  /**
+   * @return rows of the pages read, before the records are filtered one by one
+   */
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  public long getRowsSkipped() {
+    return rows - rowsRead;
+  }
+
+  public long getPages() {
+    return pages;
+  }
+
+  public long getPagesRead() {
+    return pagesRead;
+  }
+
+  public long getPagesSkipped() {
+    return pages - pagesRead;
+  }
+
+  @Override
+  public String toString() {
+    return "FilterReport{" +
+        "rowGroups=" + rowGroups +
+        ", rowGroupsSkipped=" + getRowGroupsSkipped() +
+        ", rows=" + rows +
+        ", rowsSkipped=" + getRowsSkipped() +
+        ", pages=" + pages +
+        ", pagesSkipped=" + getPagesSkipped() +
+        '}';
+  }
+
+  /**
+   * Column indexes of a row group, read when the filter asks for them
+   */
+  private static class BlockIndexStore implements ColumnIndexStore {
+    private final ParquetFileReader reader;
+    private final Map<ColumnPath, ColumnChunkMetaData> chunks = new HashMap<>();
+
+    private BlockIndexStore(ParquetFileReader reader, BlockMetaData block) {
+      this.reader = reader;
+      for (ColumnChunkMetaData chunk : block.getColumns()) {
+        chunks.put(chunk.getPath(), chunk);
+      }
+    }
+
+    @Override
+    public ColumnIndex getColumnIndex(ColumnPath column) {
+      ColumnChunkMetaData chunk = chunks.get(column);
+      try {
+        return chunk == null ? null : reader.readColumnIndex(chunk);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public OffsetIndex getOffsetIndex(ColumnPath column) {
+      ColumnChunkMetaData chunk = chunks.get(column);
+      try {
+        OffsetIndex offsetIndex = chunk == null ? null : reader.readOffsetIndex(chunk);
+        if (offsetIndex == null) {
+          throw new MissingOffsetIndexException(column);
+        }
+        return offsetIndex;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
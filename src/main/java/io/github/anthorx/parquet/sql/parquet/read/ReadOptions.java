@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.read;
+
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * Options choosing the java values built from the parquet values, read from the configuration keys of
+ * {@link SQLReadSupport}
+ */
+public class ReadOptions {
+
+  public static final ReadOptions DEFAULT = new ReadOptions(false, false, false, false);
+
+  private final boolean unscaledDecimals;
+  private final boolean javaTime;
+  private final boolean rawStrings;
+  private final boolean reuseRecords;
+
+  /**
+   * @param unscaledDecimals read the decimals stored as INT32 or INT64 as their unscaled long value
+   * @param javaTime         read timestamps as LocalDateTime and dates as LocalDate
+   * @param rawStrings       read strings as their UTF-8 bytes, without decoding them
+   */
+  public ReadOptions(boolean unscaledDecimals, boolean javaTime, boolean rawStrings) {
+    this(unscaledDecimals, javaTime, rawStrings, false);
+  }
+
+  /**
+   * @param reuseRecords return the same MutableRecord for all the rows
+   */
+  public ReadOptions(boolean unscaledDecimals, boolean javaTime, boolean rawStrings, boolean reuseRecords) {
+    this.unscaledDecimals = unscaledDecimals;
+    this.javaTime = javaTime;
+    this.rawStrings = rawStrings;
+    this.reuseRecords = reuseRecords;
+  }
+
+  public static ReadOptions fromConfiguration(Configuration configuration) {
+    return new ReadOptions(
+        configuration.getBoolean(SQLReadSupport.UNSCALED_DECIMALS, false),
+        configuration.getBoolean(SQLReadSupport.JAVA_TIME, false),
+        configuration.getBoolean(SQLReadSupport.RAW_STRINGS, false),
+        configuration.getBoolean(SQLReadSupport.REUSE_RECORDS, false));
+  }
+
+  public boolean isUnscaledDecimals() {
+    return unscaledDecimals;
+  }
+
+  public boolean isJavaTime() {
+    return javaTime;
+  }
+
+  public boolean isRawStrings() {
+    return rawStrings;
+  }
+
+  public boolean isReuseRecords() {
+    return reuseRecords;
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.read;
+
+import io.github.anthorx.parquet.sql.util.DecimalUtils;
+import io.github.anthorx.parquet.sql.util.TimestampUtils;
+import io.github.anthorx.parquet.sql.util.ZoneOffsetTable;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.github.anthorx.parquet.sql.util.AssertionUtils.notNull;
+
+/**
+ * Filter of the records read, pushed down to parquet: row groups are skipped from their statistics, dictionaries
+ * and bloom filters, pages from the column indexes, and the remaining records are filtered one by one.
+ * Column predicates take SQL values (BigDecimal, Timestamp, Date, String...) converted to the type the column
+ * is stored with once the file schema is known. Decimal values must fit the scale of the column.
+ */
+public abstract class RecordFilter {
+
+  enum Operator {
+    EQ, NOT_EQ, LT, LT_EQ, GT, GT_EQ
+  }
+
+  /**
+   * @return the parquet predicate of the filter, on the columns of the schema
+   * @throws IllegalArgumentException when a column isn't in the schema or a value can't be converted to its type
+   */
+  public abstract FilterPredicate toPredicate(MessageType schema);
+
+  /**
+   * Filter with a predicate built with the parquet FilterApi, on the stored values
+   */
+  public static RecordFilter of(FilterPredicate predicate) {
+    notNull(predicate, "predicate cannot be null");
+    return new RecordFilter() {
+      @Override
+      public FilterPredicate toPredicate(MessageType schema) {
+        return predicate;
+      }
+
+      @Override
+      public String toString() {
+        return predicate.toString();
+      }
+    };
+  }
+
+  /**
+   * @param value null to keep the null values
+   */
+  public static RecordFilter eq(String column, Object value) {
+    return new ColumnFilter(column, Operator.EQ, value);
+  }
+
+  /**
+   * Like SQL {@code <>}, null values don't match a non null value.
+   *
+   * @param value null to keep the non null values
+   */
+  public static RecordFilter notEq(String column, Object value) {
+    return new ColumnFilter(column, Operator.NOT_EQ, value);
+  }
+
+  public static RecordFilter lt(String column, Object value) {
+    return new ColumnFilter(column, Operator.LT, value);
+  }
+
+  public static RecordFilter ltEq(String column, Object value) {
+    return new ColumnFilter(column, Operator.LT_EQ, value);
+  }
+
+  public static RecordFilter gt(String column, Object value) {
+    return new ColumnFilter(column, Operator.GT, value);
+  }
+
+  public static RecordFilter gtEq(String column, Object value) {
+    return new ColumnFilter(column, Operator.GT_EQ, value);
+  }
+
+  /**
+   * @return filter of the values from low to high, both included
+   */
+  public static RecordFilter between(String column, Object low, Object high) {
+    return and(gtEq(column, low), ltEq(column, high));
+  }
+
+  public static RecordFilter in(String column, Collection<?> values) {
+    if (values.isEmpty()) {
+      throw new IllegalArgumentException("values cannot be empty");
+    }
+    return or(values.stream().map(value -> eq(column, value)).toArray(RecordFilter[]::new));
+  }
+
+  public static RecordFilter isNull(String column) {
+    return eq(column, null);
+  }
+
+  public static RecordFilter isNotNull(String column) {
+    return notEq(column, null);
+  }
+
+  public static RecordFilter and(RecordFilter... filters) {
+    return combine(true, filters);
+  }
+
+  public static RecordFilter or(RecordFilter... filters) {
+    return combine(false, filters);
+  }
+
+  /**
+   * Records not matching the filter. Unlike SQL, whose {@code NOT} of an unknown comparison stays unknown,
+   * a null value doesn't match a comparison, so its records are kept:
+   * {@code not(eq(column, value))} keeps the nulls of the column, {@code notEq(column, value)} doesn't.
+   */
+  public static RecordFilter not(RecordFilter filter) {
+    notNull(filter, "filter cannot be null");
+    return new RecordFilter() {
+      @Override
+      public FilterPredicate toPredicate(MessageType schema) {
+        return FilterApi.not(filter.toPredicate(schema));
+      }
+
+      @Override
+      public String toString() {
+        return "not(" + filter + ")";
+      }
+    };
+  }
+
+  private static RecordFilter combine(boolean and, RecordFilter... filters) {
+    if (filters.length == 0) {
+      throw new IllegalArgumentException("At least one filter must be combined");
+    }
+    List<RecordFilter> filterList = Arrays.asList(filters);
+    return new RecordFilter() {
+      @Override
+      public FilterPredicate toPredicate(MessageType schema) {
+        FilterPredicate predicate = filterList.get(0).toPredicate(schema);
+        for (RecordFilter filter : filterList.subList(1, filterList.size())) {
+          predicate = and ? FilterApi.and(predicate, filter.toPredicate(schema)) : FilterApi.or(predicate, filter.toPredicate(schema));
+        }
+        return predicate;
+      }
+
+      @Override
+      public String toString() {
+        return filterList.stream().map(Object::toString).collect(Collectors.joining(and ? " and " : " or ", "(", ")"));
+      }
+    };
+  }
+
+  private static class ColumnFilter extends RecordFilter {
+    private final String column;
+    private final Operator operator;
+    private final Object value;
+
+    private ColumnFilter(String column, Operator operator, Object value) {
+      notNull(column, "column cannot be null");
+      if (value == null && operator != Operator.EQ && operator != Operator.NOT_EQ) {
+        throw new IllegalArgumentException(operator + " cannot compare " + column + " to null");
+      }
+      this.column = column;
+      this.operator = operator;
+      this.value = value;
+    }
+
+    @Override
+    public FilterPredicate toPredicate(MessageType schema) {
+      Type field = SQLReadSupport.findField(schema, column)
+          .orElseThrow(() -> new IllegalArgumentException("Column " + column + " not found in " + schema.getName()));
+      if (!field.isPrimitive()) {
+        throw new IllegalArgumentException("Column " + column + " is not a primitive column");
+      }
+      PrimitiveType type = field.asPrimitiveType();
+      String path = type.getName();
+      try {
+        switch (type.getPrimitiveTypeName()) {
+          case INT32:
+            return compare(FilterApi.intColumn(path), value == null ? null : toInt(type, value));
+          case INT64:
+            return compare(FilterApi.longColumn(path), value == null ? null : toLong(type, value));
+          case FLOAT:
+            return compare(FilterApi.floatColumn(path), value == null ? null : ((Number) value).floatValue());
+          case DOUBLE:
+            return compare(FilterApi.doubleColumn(path), value == null ? null : ((Number) value).doubleValue());
+          case BOOLEAN:
+            if (operator == Operator.EQ) {
+              return FilterApi.eq(FilterApi.booleanColumn(path), (Boolean) value);
+            } else if (operator == Operator.NOT_EQ) {
+              return notEq(FilterApi.booleanColumn(path), (Boolean) value);
+            }
+            throw new IllegalArgumentException(operator + " cannot compare the boolean column " + path);
+          case BINARY:
+          case FIXED_LEN_BYTE_ARRAY:
+            return compare(FilterApi.binaryColumn(path), value == null ? null : toBinary(type, value));
+          default:
+            throw new IllegalArgumentException("Column " + path + " of type " + type.getPrimitiveTypeName() + " cannot be filtered");
+        }
+      } catch (ClassCastException | ArithmeticException e) {
+        throw new IllegalArgumentException("Value " + value + " cannot be compared to column " + type, e);
+      }
+    }
+
+    private <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt> FilterPredicate compare(C column, T value) {
+      switch (operator) {
+        case EQ:
+          return FilterApi.eq(column, value);
+        case NOT_EQ:
+          return notEq(column, value);
+        case LT:
+          return FilterApi.lt(column, value);
+        case LT_EQ:
+          return FilterApi.ltEq(column, value);
+        case GT:
+          return FilterApi.gt(column, value);
+        default:
+          return FilterApi.gtEq(column, value);
+      }
+    }
+
+    // parquet keeps the null values when they differ from a non null value, SQL doesn't
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq> FilterPredicate notEq(C column, T value) {
+      if (value == null) {
+        return FilterApi.notEq(column, null);
+      }
+      return FilterApi.and(FilterApi.notEq(column, value), FilterApi.notEq(column, null));
+    }
+
+    private static int toInt(PrimitiveType type, Object value) {
+      LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+      if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+        int scale = ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType).getScale();
+        return DecimalUtils.unscaledInt(exactDecimal(value, scale), scale);
+      } else if (value instanceof LocalDate) {
+        return Math.toIntExact(((LocalDate) value).toEpochDay());
+      } else if (value instanceof Date) {
+        return Math.toIntExact(((Date) value).toLocalDate().toEpochDay());
+      }
+      return Math.toIntExact(exactLong(value));
+    }
+
+    private static long toLong(PrimitiveType type, Object value) {
+      LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+      if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+        int scale = ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType).getScale();
+        return DecimalUtils.unscaledLong(exactDecimal(value, scale), scale);
+      } else if (logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) {
+        LogicalTypeAnnotation.TimeUnit unit = ((LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) logicalType).getUnit();
+        if (value instanceof LocalDateTime) {
+          return TimestampUtils.toParquet((LocalDateTime) value, unit);
+        }
+        // stored as the local date time of the writer, like TimestampConverter does
+        return TimestampUtils.toParquet((Timestamp) value, ZoneOffsetTable.systemDefault(), unit);
+      }
+      return exactLong(value);
+    }
+
+    // a truncated value would change which records match, like a rounded decimal
+    private static long exactLong(Object value) {
+      if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+        return ((Number) value).longValue();
+      }
+      return exactDecimal(value, 0).longValueExact();
+    }
+
+    private static Binary toBinary(PrimitiveType type, Object value) {
+      LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+      if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+        if (type.getPrimitiveTypeName() != PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+          throw new IllegalArgumentException("Decimal column " + type.getName() + " stored as BINARY cannot be filtered");
+        }
+        int scale = ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType).getScale();
+        byte[] bytes = new byte[type.getTypeLength()];
+        DecimalUtils.toFixedBytes(exactDecimal(value, scale), scale, bytes, 0, bytes.length);
+        return Binary.fromConstantByteArray(bytes);
+      } else if (value instanceof byte[]) {
+        return Binary.fromConstantByteArray((byte[]) value);
+      }
+      return Binary.fromString(value.toString());
+    }
+
+    private static BigDecimal exactDecimal(Object value, int scale) {
+      BigDecimal decimal;
+      if (value instanceof BigDecimal) {
+        decimal = (BigDecimal) value;
+      } else if (value instanceof BigInteger) {
+        decimal = new BigDecimal((BigInteger) value);
+      } else if (value instanceof Double || value instanceof Float) {
+        decimal = BigDecimal.valueOf(((Number) value).doubleValue());
+      } else {
+        decimal = BigDecimal.valueOf(((Number) value).longValue());
+      }
+      // a rounded value would change which records match
+      if (decimal.stripTrailingZeros().scale() > scale) {
+        throw new ArithmeticException("Decimal " + decimal + " has more digits than the scale " + scale);
+      }
+      return decimal;
+    }
+
+    @Override
+    public String toString() {
+      return column + " " + operator + " " + value;
+    }
+  }
+}
@@ -15,8 +15,9 @@
 
 package io.github.anthorx.parquet.sql.parquet.read;
 
+import io.github.anthorx.parquet.sql.parquet.model.MutableRecord;
 import io.github.anthorx.parquet.sql.parquet.model.Record;
-import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.parquet.model.RecordLayout;
 import io.github.anthorx.parquet.sql.parquet.read.converter.*;
 import org.apache.parquet.io.api.Converter;
 import org.apache.parquet.io.api.GroupConverter;
@@ -27,21 +28,28 @@ import org.apache.parquet.schema.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
-import java.sql.Date;
-import java.sql.Timestamp;
 import java.util.Optional;
-import java.util.function.Consumer;
 
 public class SQLGroupConverter extends GroupConverter {
 
   private static final Logger LOG = LoggerFactory.getLogger(SQLGroupConverter.class);
 
   private Record currentSQLRowRead;
+  // columns of the schema, shared by all the records read
+  private final RecordLayout recordLayout;
+  // record reused for all the rows when ReadOptions.isReuseRecords()
+  private final MutableRecord mutableRecord;
   private final Converter[] converters;
+  private final ReadOptions readOptions;
 
   public SQLGroupConverter(MessageType parquetSchema) {
-    this.currentSQLRowRead = new Record();
+    this(parquetSchema, ReadOptions.DEFAULT);
+  }
+
+  public SQLGroupConverter(MessageType parquetSchema, ReadOptions readOptions) {
+    this.readOptions = readOptions;
+    this.recordLayout = new RecordLayout(parquetSchema.getFields());
+    this.currentSQLRowRead = new Record(recordLayout);
     this.converters = new Converter[parquetSchema.getFieldCount()];
 
     int parquetFieldIndex = 0;
@@ -49,6 +57,20 @@ public class SQLGroupConverter extends GroupConverter {
     for (Type parquetField : parquetSchema.getFields()) {
       converters[parquetFieldIndex++] = getConverterFromField(parquetField);
     }
+
+    if (readOptions.isReuseRecords()) {
+      this.mutableRecord = new MutableRecord(recordLayout);
+      for (int column = 0; column < converters.length; column++) {
+        ((FieldConverter<?>) converters[column]).reuseInto(mutableRecord, column);
+      }
+      this.currentSQLRowRead = mutableRecord;
+    } else {
+      this.mutableRecord = null;
+      // converters set their fields by column in the current record, their consumer is not used
+      for (int column = 0; column < converters.length; column++) {
+        ((FieldConverter<?>) converters[column]).readInto(this::getCurrentSQLRowRead, column);
+      }
+    }
   }
 
   public Record getCurrentSQLRowRead() {
@@ -62,13 +84,17 @@ public class SQLGroupConverter extends GroupConverter {
 
   @Override
   public void start() {
-    LOG.debug("Start converting a new row with " + this.getClass().getSimpleName());
-    currentSQLRowRead = new Record();
+    LOG.debug("Start converting a new row with {}", getClass().getSimpleName());
+    if (mutableRecord != null) {
+      mutableRecord.clear();
+    } else {
+      currentSQLRowRead = new Record(recordLayout);
+    }
   }
 
   @Override
   public void end() {
-    LOG.debug("End converting a row with " + this.getClass().getSimpleName());
+    LOG.debug("End converting a row with {}", getClass().getSimpleName());
   }
 
   /**
@@ -105,37 +131,44 @@ public class SQLGroupConverter extends GroupConverter {
     return logicalTypeAnnotation.accept(new LogicalTypeAnnotation.LogicalTypeAnnotationVisitor<Converter>() {
       @Override
       public Optional<Converter> visit(LogicalTypeAnnotation.StringLogicalTypeAnnotation logicalType) {
-        Consumer<RecordField<String>> f = (RecordField<String> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        return Optional.of(new FieldStringConverter(f, fieldName));
+        if (readOptions.isRawStrings()) {
+          return Optional.of(new FieldUtf8BytesConverter(null, fieldName));
+        }
+        return Optional.of(new FieldStringConverter(null, fieldName));
       }
 
       @Override
       public Optional<Converter> visit(LogicalTypeAnnotation.TimestampLogicalTypeAnnotation logicalType) {
-        Consumer<RecordField<Timestamp>> f = (RecordField<Timestamp> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        return Optional.of(new FieldTimestampConverter(f, fieldName));
+        if (readOptions.isJavaTime()) {
+          return Optional.of(new FieldLocalDateTimeConverter(null, fieldName, logicalType.getUnit()));
+        }
+        return Optional.of(new FieldTimestampConverter(null, fieldName, logicalType.getUnit()));
       }
 
       @Override
       public Optional<Converter> visit(LogicalTypeAnnotation.DateLogicalTypeAnnotation logicalType) {
-        Consumer<RecordField<Date>> f = (RecordField<Date> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        return Optional.of(new FieldDateConverter(f, fieldName));
+        if (readOptions.isJavaTime()) {
+          return Optional.of(new FieldLocalDateConverter(null, fieldName));
+        }
+        return Optional.of(new FieldDateConverter(null, fieldName));
       }
 
       @Override
       public Optional<Converter> visit(LogicalTypeAnnotation.IntLogicalTypeAnnotation logicalType) {
         if (logicalType.getBitWidth() == 64) {
-          Consumer<RecordField<Long>> f = (RecordField<Long> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-          return Optional.of(new FieldLongConverter(f, fieldName));
+          return Optional.of(new FieldLongConverter(null, fieldName));
         } else {
-          Consumer<RecordField<Integer>> f = (RecordField<Integer> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-          return Optional.of(new FieldIntegerConverter(f, fieldName));
+          return Optional.of(new FieldIntegerConverter(null, fieldName));
         }
       }
 
       @Override
       public Optional<Converter> visit(LogicalTypeAnnotation.DecimalLogicalTypeAnnotation logicalType) {
-        Consumer<RecordField<BigDecimal>> f = (RecordField<BigDecimal> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        return Optional.of(new FieldDecimalConverter(f, fieldName, parquetField.asPrimitiveType()));
+        PrimitiveType.PrimitiveTypeName primitiveTypeName = parquetField.asPrimitiveType().getPrimitiveTypeName();
+        if (readOptions.isUnscaledDecimals() && (primitiveTypeName == PrimitiveType.PrimitiveTypeName.INT32 || primitiveTypeName == PrimitiveType.PrimitiveTypeName.INT64)) {
+          return Optional.of(new FieldUnscaledDecimalConverter(null, fieldName, logicalType.getScale()));
+        }
+        return Optional.of(new FieldDecimalConverter(null, fieldName, parquetField.asPrimitiveType()));
       }
     });
   }
@@ -153,31 +186,29 @@ public class SQLGroupConverter extends GroupConverter {
 
     switch (primitiveType.getPrimitiveTypeName()) {
       case DOUBLE:
-        Consumer<RecordField<Double>> fDouble = (RecordField<Double> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        converter = Optional.of(new FieldDoubleConverter(fDouble, fieldName));
+        converter = Optional.of(new FieldDoubleConverter(null, fieldName));
         break;
       case FLOAT:
-        Consumer<RecordField<Float>> fFloat = (RecordField<Float> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        converter = Optional.of(new FieldFloatConverter(fFloat, fieldName));
+        converter = Optional.of(new FieldFloatConverter(null, fieldName));
         break;
       case BOOLEAN:
-        Consumer<RecordField<Boolean>> fBool = (RecordField<Boolean> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        converter = Optional.of(new FieldBooleanConverter(fBool, fieldName));
+        converter = Optional.of(new FieldBooleanConverter(null, fieldName));
         break;
       case INT32:
-        Consumer<RecordField<Integer>> fint = (RecordField<Integer> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        converter = Optional.of(new FieldIntegerConverter(fint, fieldName));
+        converter = Optional.of(new FieldIntegerConverter(null, fieldName));
         break;
       case INT64:
-        Consumer<RecordField<Long>> flong = (RecordField<Long> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        converter = Optional.of(new FieldLongConverter(flong, fieldName));
+        converter = Optional.of(new FieldLongConverter(null, fieldName));
         break;
       // According to Spark's code (SQLConf.PARQUET_OUTPUT_TIMESTAMP_TYPE and ParquetWriteSupport), default Parquet format used for timestamp is INT96
       // INT96 is not standard and is only used for timestamp
       // Still the case on Spark 3.0.0
       case INT96:
-        Consumer<RecordField<Timestamp>> fTsp = (RecordField<Timestamp> recordField) -> SQLGroupConverter.this.currentSQLRowRead.addField(recordField);
-        converter = Optional.of(new FieldTimestampConverter(fTsp, fieldName));
+        if (readOptions.isJavaTime()) {
+          converter = Optional.of(new FieldLocalDateTimeConverter(null, fieldName, LogicalTypeAnnotation.TimeUnit.NANOS));
+          break;
+        }
+        converter = Optional.of(new FieldTimestampConverter(null, fieldName));
         break;
     }
 
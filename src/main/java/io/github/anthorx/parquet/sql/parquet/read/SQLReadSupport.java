@@ -21,18 +21,113 @@ import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class SQLReadSupport extends ReadSupport<Record> {
 
+  /**
+   * Configuration key: when true, decimals stored as INT32 or INT64 are read as their unscaled long value
+   * instead of a BigDecimal, the scale being the one of the decimal type of the column. False by default.
+   */
+  public static final String UNSCALED_DECIMALS = "parquet.sql.read.decimal.unscaled";
+
+  /**
+   * Configuration key: when true, timestamps are read as LocalDateTime and dates as LocalDate, bound with setObject
+   * by a JDBCWriter. Timestamps are the local date time written, whatever the zone of the reader. False by default.
+   */
+  public static final String JAVA_TIME = "parquet.sql.read.java.time";
+
+  /**
+   * Configuration key: when true, strings are read as their UTF-8 bytes, skipping their decoding, e.g. to load them
+   * into binary columns. A JDBCWriter binds them with setBytes to the parameters of binary columns, and decodes them
+   * for the others. False by default.
+   */
+  public static final String RAW_STRINGS = "parquet.sql.read.string.raw";
+
+  /**
+   * Configuration key: when true, the same MutableRecord is returned for all the rows, its values being valid
+   * until the next record is read. Primitive values are held unboxed and no field is created per value.
+   * False by default.
+   */
+  public static final String REUSE_RECORDS = "parquet.sql.read.record.reuse";
+
+  /**
+   * Configuration key: when true, local files are read by SQLParquetReader from memory mapped windows
+   * instead of the hadoop FileSystem streams. True by default.
+   */
+  public static final String LOCAL_MMAP = "parquet.sql.read.local.mmap";
+
+  /**
+   * Configuration key: comma separated columns to read, the column chunks of the others being skipped.
+   * Names are matched ignoring the case when there is no exact match. All the columns by default.
+   */
+  public static final String COLUMNS = "parquet.sql.read.columns";
+
   @Override
   public ReadContext init(InitContext context) {
-    return new ReadContext(context.getFileSchema());
+    return new ReadContext(requestedSchema(context.getFileSchema(), context.getConfiguration()));
+  }
+
+  /**
+   * @return the file schema projected on the columns of {@link #COLUMNS}, the file schema when not set
+   */
+  public static MessageType requestedSchema(MessageType fileSchema, Configuration configuration) {
+    String columns = configuration.get(COLUMNS);
+    if (columns == null) {
+      return fileSchema;
+    }
+    List<String> columnNames = new ArrayList<>();
+    for (String column : columns.split(",")) {
+      if (!column.trim().isEmpty()) {
+        columnNames.add(column.trim());
+      }
+    }
+    return project(fileSchema, columnNames);
+  }
+
+  /**
+   * Keep the given columns of a schema, in the order of the schema
+   *
+   * @throws IllegalArgumentException when a column isn't in the schema
+   */
+  public static MessageType project(MessageType fileSchema, Collection<String> columns) {
+    if (columns.isEmpty()) {
+      throw new IllegalArgumentException("At least one column must be read");
+    }
+    Set<String> projected = new HashSet<>();
+    for (String column : columns) {
+      projected.add(findField(fileSchema, column)
+          .orElseThrow(() -> new IllegalArgumentException("Column " + column + " not found in " + fileSchema.getName()))
+          .getName());
+    }
+    List<Type> fields = fileSchema.getFields()
+        .stream()
+        .filter(field -> projected.contains(field.getName()))
+        .collect(Collectors.toList());
+    return new MessageType(fileSchema.getName(), fields);
+  }
+
+  static Optional<Type> findField(MessageType schema, String column) {
+    if (schema.containsField(column)) {
+      return Optional.of(schema.getType(column));
+    }
+    return schema.getFields()
+        .stream()
+        .filter(field -> field.getName().equalsIgnoreCase(column))
+        .findFirst();
   }
 
   @Override
   public RecordMaterializer<Record> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData, MessageType fileSchema, ReadContext readContext) {
-    return new SQLRecordMaterializer(fileSchema);
+    return new SQLRecordMaterializer(readContext.getRequestedSchema(), ReadOptions.fromConfiguration(configuration));
   }
 }
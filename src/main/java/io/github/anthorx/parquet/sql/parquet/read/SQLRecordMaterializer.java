@@ -25,7 +25,11 @@ public class SQLRecordMaterializer extends RecordMaterializer<Record> {
   private final SQLGroupConverter sqlGroupConverter;
 
   public SQLRecordMaterializer(MessageType parquetSchema) {
-    this.sqlGroupConverter = new SQLGroupConverter(parquetSchema);
+    this(parquetSchema, ReadOptions.DEFAULT);
+  }
+
+  public SQLRecordMaterializer(MessageType parquetSchema, ReadOptions readOptions) {
+    this.sqlGroupConverter = new SQLGroupConverter(parquetSchema, readOptions);
   }
 
   @Override
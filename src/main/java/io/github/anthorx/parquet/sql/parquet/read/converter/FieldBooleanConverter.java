@@ -16,6 +16,7 @@
 package io.github.anthorx.parquet.sql.parquet.read.converter;
 
 import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
+import io.github.anthorx.parquet.sql.parquet.model.MutableRecord;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
 
 import java.util.function.Consumer;
@@ -31,9 +32,18 @@ public class FieldBooleanConverter extends FieldConverter<Boolean> {
     super(f, fieldName, ReadRecordConsumer::setBoolean);
   }
 
+  @Override
+  protected MutableRecord.Kind kind() {
+    return MutableRecord.Kind.BOOLEAN;
+  }
+
   @Override
   public void addBoolean(boolean value) {
-    acceptNewReadRecordFromValue(value);
+    if (record != null) {
+      record.setBoolean(column, value);
+    } else {
+      acceptNewReadRecordFromValue(value);
+    }
   }
 
 }
\ No newline at end of file
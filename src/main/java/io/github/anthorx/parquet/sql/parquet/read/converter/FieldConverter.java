@@ -16,19 +16,28 @@
 package io.github.anthorx.parquet.sql.parquet.read.converter;
 
 import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
+import io.github.anthorx.parquet.sql.parquet.model.MutableRecord;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
 import org.apache.parquet.io.api.PrimitiveConverter;
 import org.apache.parquet.schema.PrimitiveType;
 
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public abstract class FieldConverter<T> extends PrimitiveConverter {
 
+  // consumer of the fields read, null when they are set in a record with readInto or reuseInto
   protected final Consumer<RecordField<T>> f;
   protected final String fieldName;
   protected final BiConsumer<ReadRecordConsumer, T> readRecordConsumerFunction;
   protected final PrimitiveType primitiveType;
+  // set by reuseInto, values are then set in a column of the record instead of new fields
+  protected MutableRecord record;
+  // set by readInto, new fields are then set in a column of the current record instead of given to f
+  protected Supplier<Record> currentRecord;
+  protected int column;
 
   public FieldConverter(Consumer<RecordField<T>> f, String fieldName, BiConsumer<ReadRecordConsumer, T> readRecordConsumerFunction) {
     this(f, fieldName, null, readRecordConsumerFunction);
@@ -41,9 +50,41 @@ public abstract class FieldConverter<T> extends PrimitiveConverter {
     this.readRecordConsumerFunction = readRecordConsumerFunction;
   }
 
+  /**
+   * Set the fields read in a column of the current record of a reader, without looking up their name
+   */
+  public void readInto(Supplier<Record> currentRecord, int column) {
+    this.currentRecord = currentRecord;
+    this.column = column;
+  }
+
+  /**
+   * Set the values read in a column of a record reused for all the rows
+   */
+  public void reuseInto(MutableRecord record, int column) {
+    this.record = record;
+    this.column = column;
+    record.defineColumn(column, kind(), readRecordConsumerFunction);
+  }
+
+  /**
+   * @return how the values are held by a reused record, primitive converters setting them unboxed
+   */
+  protected MutableRecord.Kind kind() {
+    return MutableRecord.Kind.OBJECT;
+  }
+
   protected void acceptNewReadRecordFromValue(T value) {
+    if (record != null) {
+      record.setObject(column, value);
+      return;
+    }
     RecordField<T> recordField = new RecordField<>(fieldName, value)
         .addReadConsumer(readRecordConsumerFunction);
-    f.accept(recordField);
+    if (currentRecord != null) {
+      currentRecord.get().setField(column, recordField);
+    } else {
+      f.accept(recordField);
+    }
   }
 }
@@ -17,17 +17,18 @@ package io.github.anthorx.parquet.sql.parquet.read.converter;
 
 import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.util.DecimalUtils;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.PrimitiveType;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.util.function.Consumer;
 
 /**
  * Converter for decimal values.
  * Logical Types : Decimal
  * Primitive types : INT32, INT64, FIXED_LEN_BYTE_ARRAY, BINARY
+ * Values fitting a long are built with BigDecimal.valueOf, without a BigInteger.
  */
 public class FieldDecimalConverter extends FieldConverter<BigDecimal> {
 
@@ -40,17 +41,17 @@ public class FieldDecimalConverter extends FieldConverter<BigDecimal> {
 
   @Override
   public void addBinary(Binary value) {
-    BigDecimal bd = new BigDecimal(new BigInteger(value.getBytes()), scale);
-    acceptNewReadRecordFromValue(bd);
+    byte[] bytes = value.getBytesUnsafe();
+    acceptNewReadRecordFromValue(DecimalUtils.fromBytes(bytes, 0, bytes.length, scale));
   }
 
   @Override
   public void addLong(long value) {
-    acceptNewReadRecordFromValue(new BigDecimal(BigInteger.valueOf(value), this.scale));
+    acceptNewReadRecordFromValue(BigDecimal.valueOf(value, scale));
   }
 
   @Override
   public void addInt(int value) {
-    acceptNewReadRecordFromValue(new BigDecimal(BigInteger.valueOf(value), this.scale));
+    acceptNewReadRecordFromValue(BigDecimal.valueOf(value, scale));
   }
 }
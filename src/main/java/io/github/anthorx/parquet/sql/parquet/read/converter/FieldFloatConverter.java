@@ -16,6 +16,7 @@
 package io.github.anthorx.parquet.sql.parquet.read.converter;
 
 import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
+import io.github.anthorx.parquet.sql.parquet.model.MutableRecord;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
 
 import java.util.function.Consumer;
@@ -31,8 +32,17 @@ public class FieldFloatConverter extends FieldConverter<Float> {
     super(f, fieldName, ReadRecordConsumer::setFloat);
   }
 
+  @Override
+  protected MutableRecord.Kind kind() {
+    return MutableRecord.Kind.FLOAT;
+  }
+
   @Override
   public void addFloat(float value) {
-    acceptNewReadRecordFromValue(value);
+    if (record != null) {
+      record.setFloat(column, value);
+    } else {
+      acceptNewReadRecordFromValue(value);
+    }
   }
 }
\ No newline at end of file
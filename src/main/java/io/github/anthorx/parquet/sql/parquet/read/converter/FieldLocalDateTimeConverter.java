@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.read.converter;
+
+import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
+import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.util.TimestampUtils;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Converter for timestamp values read as the local date time they were written from, without zone computation.
+ * Values are bound with setObject, supported by JDBC 4.2 drivers.
+ * Logical Types : Timestamp
+ * Primitive types : INT64, INT96
+ */
+public class FieldLocalDateTimeConverter extends FieldConverter<LocalDateTime> {
+
+  private static final int JULIAN_DAY_OF_EPOCH = 2440588;
+
+  private final TimeUnit unit;
+
+  public FieldLocalDateTimeConverter(Consumer<RecordField<LocalDateTime>> f, String fieldName, TimeUnit unit) {
+    super(f, fieldName, ReadRecordConsumer::setObject);
+    this.unit = unit;
+  }
+
+  @Override
+  public void addLong(long value) {
+    acceptNewReadRecordFromValue(TimestampUtils.toLocalDateTime(value, unit));
+  }
+
+  /**
+   * INT96 Parquet physical format use first 8 bytes to store nanoseconds from midnight
+   * and last 4 bytes to store julian days
+   */
+  @Override
+  public void addBinary(Binary value) {
+    ByteBuffer buf = value.toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    long timeOfDayNanos = buf.getLong();
+    int julianDay = buf.getInt();
+    acceptNewReadRecordFromValue(LocalDate.ofEpochDay(julianDay - JULIAN_DAY_OF_EPOCH).atStartOfDay().plusNanos(timeOfDayNanos));
+  }
+}
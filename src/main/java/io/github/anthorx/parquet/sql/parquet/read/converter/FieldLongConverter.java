@@ -16,6 +16,7 @@
 package io.github.anthorx.parquet.sql.parquet.read.converter;
 
 import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
+import io.github.anthorx.parquet.sql.parquet.model.MutableRecord;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
 
 import java.util.function.Consumer;
@@ -31,8 +32,17 @@ public class FieldLongConverter extends FieldConverter<Long> {
     super(f, fieldName, ReadRecordConsumer::setLong);
   }
 
+  @Override
+  protected MutableRecord.Kind kind() {
+    return MutableRecord.Kind.LONG;
+  }
+
   @Override
   public void addLong(long value) {
-    acceptNewReadRecordFromValue(value);
+    if (record != null) {
+      record.setLong(column, value);
+    } else {
+      acceptNewReadRecordFromValue(value);
+    }
   }
 }
\ No newline at end of file
@@ -12,28 +12,61 @@
  * limitations under the License.
  *
  */
-
 package io.github.anthorx.parquet.sql.parquet.read.converter;
 
 import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.util.Utf8Codec;
+import org.apache.parquet.column.Dictionary;
 import org.apache.parquet.io.api.Binary;
 
+import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
 /**
  * Converter for string values.
  * Logical Types : String
  * Primitive types : Binary
+ * Values are decoded through a reused buffer. Dictionary encoded pages are decoded once per dictionary entry,
+ * the Strings being shared by the rows holding the same value.
  */
 public class FieldStringConverter extends FieldConverter<String> {
 
+  private final Utf8Codec utf8Codec = new Utf8Codec();
+  private String[] dictionary;
+
   public FieldStringConverter(Consumer<RecordField<String>> f, String fieldName) {
     super(f, fieldName, ReadRecordConsumer::setString);
   }
 
   @Override
   final public void addBinary(Binary value) {
-    acceptNewReadRecordFromValue(value.toStringUsingUTF8());
+    acceptNewReadRecordFromValue(decode(value));
+  }
+
+  @Override
+  public boolean hasDictionarySupport() {
+    return true;
+  }
+
+  @Override
+  public void setDictionary(Dictionary dictionary) {
+    this.dictionary = new String[dictionary.getMaxId() + 1];
+    for (int id = 0; id <= dictionary.getMaxId(); id++) {
+      this.dictionary[id] = decode(dictionary.decodeToBinary(id));
+    }
+  }
+
+  @Override
+  public void addValueFromDictionary(int dictionaryId) {
+    acceptNewReadRecordFromValue(dictionary[dictionaryId]);
+  }
+
+  private String decode(Binary value) {
+    ByteBuffer bytes = value.toByteBuffer();
+    if (bytes.hasArray()) {
+      return utf8Codec.decode(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    }
+    return value.toStringUsingUTF8();
   }
 }
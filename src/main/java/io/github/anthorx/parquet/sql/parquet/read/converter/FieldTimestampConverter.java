@@ -17,7 +17,9 @@ package io.github.anthorx.parquet.sql.parquet.read.converter;
 
 import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.util.TimestampUtils;
 import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -38,8 +40,18 @@ public class FieldTimestampConverter extends FieldConverter<Timestamp> {
   final long MILLIS_PER_SECOND = 1000L;
   final long NANOS_PER_MILLIS = 1000000L;
 
+  private final TimeUnit unit;
+
   public FieldTimestampConverter(Consumer<RecordField<Timestamp>> f, String fieldName) {
+    this(f, fieldName, TimeUnit.MILLIS);
+  }
+
+  /**
+   * @param unit unit of the INT64 values
+   */
+  public FieldTimestampConverter(Consumer<RecordField<Timestamp>> f, String fieldName, TimeUnit unit) {
     super(f, fieldName, ReadRecordConsumer::setTimestamp);
+    this.unit = unit;
   }
 
   /**
@@ -47,7 +59,7 @@ public class FieldTimestampConverter extends FieldConverter<Timestamp> {
    */
   @Override
   public void addLong(long value) {
-    acceptNewReadRecordFromValue(new Timestamp(value));
+    acceptNewReadRecordFromValue(unit == TimeUnit.MILLIS ? new Timestamp(value) : TimestampUtils.toTimestamp(value, unit));
   }
 
 
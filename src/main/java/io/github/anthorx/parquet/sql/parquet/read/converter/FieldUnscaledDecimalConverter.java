@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.read.converter;
+
+import io.github.anthorx.parquet.sql.parquet.model.MutableRecord;
+import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+
+import java.util.function.Consumer;
+
+/**
+ * Converter for decimal values read as their unscaled long, without building a BigDecimal.
+ * The scale is the one of the decimal logical type of the column, the values are given to a
+ * ReadRecordConsumer with it.
+ * Logical Types : Decimal
+ * Primitive types : INT32, INT64
+ */
+public class FieldUnscaledDecimalConverter extends FieldConverter<Long> {
+
+  private final int scale;
+
+  public FieldUnscaledDecimalConverter(Consumer<RecordField<Long>> f, String fieldName, int scale) {
+    super(f, fieldName, (readRecordConsumer, unscaled) -> readRecordConsumer.setUnscaledDecimal(unscaled, scale));
+    this.scale = scale;
+  }
+
+  @Override
+  public void reuseInto(MutableRecord record, int column) {
+    super.reuseInto(record, column);
+    record.defineScale(column, scale);
+  }
+
+  @Override
+  protected MutableRecord.Kind kind() {
+    return MutableRecord.Kind.UNSCALED_DECIMAL;
+  }
+
+  @Override
+  public void addLong(long value) {
+    if (record != null) {
+      record.setLong(column, value);
+    } else {
+      acceptNewReadRecordFromValue(value);
+    }
+  }
+
+  @Override
+  public void addInt(int value) {
+    if (record != null) {
+      record.setLong(column, value);
+    } else {
+      acceptNewReadRecordFromValue((long) value);
+    }
+  }
+}
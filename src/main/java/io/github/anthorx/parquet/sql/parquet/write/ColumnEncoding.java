@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.write;
+
+/**
+ * Encoding chosen for a column, written with the parquet v2 writer.
+ * All but DICTIONARY are the encodings the v2 writer falls back to without dictionary.
+ */
+public enum ColumnEncoding {
+  /**
+   * Few distinct values, stored once in a dictionary page
+   */
+  DICTIONARY,
+  /**
+   * Integers, longs, timestamps and small decimals: deltas between values, best on sorted values
+   */
+  DELTA_BINARY_PACKED,
+  /**
+   * Strings and large decimals: prefix shared with the previous value and suffix
+   */
+  DELTA_BYTE_ARRAY,
+  /**
+   * Doubles and floats: bytes of the values split in streams, compressing better than plain values
+   */
+  BYTE_STREAM_SPLIT,
+  /**
+   * Booleans
+   */
+  RLE
+}
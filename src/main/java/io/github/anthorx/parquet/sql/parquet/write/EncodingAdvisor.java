@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.write;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.write.converter.WritePlan;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Choose the encoding of each column from a sample of rows, e.g. the first rows to write or a TABLESAMPLE.
+ * A column with few distinct values is dictionary encoded. Others get the encoding fitting their type:
+ * delta for integers and timestamps, byte stream split for doubles, delta byte array for strings.
+ */
+public class EncodingAdvisor {
+
+  public static final double DEFAULT_MAX_DISTINCT_RATIO = 0.1;
+  public static final int DEFAULT_MAX_DICTIONARY_ENTRIES = 10_000;
+
+  private final double maxDistinctRatio;
+  private final int maxDictionaryEntries;
+
+  public EncodingAdvisor() {
+    this(DEFAULT_MAX_DISTINCT_RATIO, DEFAULT_MAX_DICTIONARY_ENTRIES);
+  }
+
+  /**
+   * @param maxDistinctRatio     maximum ratio of distinct values among the sampled non null values to use a dictionary
+   * @param maxDictionaryEntries maximum number of distinct values in the sample to use a dictionary
+   */
+  public EncodingAdvisor(double maxDistinctRatio, int maxDictionaryEntries) {
+    this.maxDistinctRatio = maxDistinctRatio;
+    this.maxDictionaryEntries = maxDictionaryEntries;
+  }
+
+  /**
+   * @param writePlan columns written
+   * @param sample    rows representative of the written ones
+   */
+  public EncodingPlan advise(WritePlan writePlan, Collection<SQLRow> sample) {
+    Map<String, ColumnEncoding> encodings = new LinkedHashMap<>();
+    for (int index = 0; index < writePlan.getColumnCount(); index++) {
+      PrimitiveType type = writePlan.getMessageType().getType(index).asPrimitiveType();
+      encodings.put(type.getName(), advise(type, writePlan.getSourceIndex(index), sample));
+    }
+    return new EncodingPlan(encodings);
+  }
+
+  private ColumnEncoding advise(PrimitiveType type, int sourceIndex, Collection<SQLRow> sample) {
+    if (type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.BOOLEAN) {
+      return ColumnEncoding.RLE;
+    }
+
+    Set<Object> distinctValues = new HashSet<>();
+    long nonNullCount = 0;
+    for (SQLRow row : sample) {
+      Object value = row.getField(sourceIndex).getValue();
+      if (value != null) {
+        nonNullCount++;
+        if (distinctValues.size() <= maxDictionaryEntries) {
+          distinctValues.add(value);
+        }
+      }
+    }
+    if (distinctValues.size() <= maxDictionaryEntries && distinctValues.size() <= nonNullCount * maxDistinctRatio) {
+      return ColumnEncoding.DICTIONARY;
+    }
+
+    switch (type.getPrimitiveTypeName()) {
+      case INT32:
+      case INT64:
+        return ColumnEncoding.DELTA_BINARY_PACKED;
+      case FLOAT:
+      case DOUBLE:
+        return ColumnEncoding.BYTE_STREAM_SPLIT;
+      default:
+        return ColumnEncoding.DELTA_BYTE_ARRAY;
+    }
+  }
+}
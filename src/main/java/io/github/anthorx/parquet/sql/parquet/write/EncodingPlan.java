@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.parquet.write;
+
+import io.github.anthorx.parquet.sql.util.MetaDataUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encoding of each column of a file, chosen by {@link EncodingAdvisor} or set by hand.
+ * It is stored in the footer, e.g. "id=DELTA_BINARY_PACKED,country=DICTIONARY", with '\', ',' and '='
+ * escaped by a '\' in the column names, so it can be read back and reused as a static configuration.
+ */
+public class EncodingPlan {
+
+  public static final String METADATA_KEY = "parquet.sql.encodings";
+
+  private final Map<String, ColumnEncoding> encodings;
+
+  public EncodingPlan(Map<String, ColumnEncoding> encodings) {
+    this.encodings = Collections.unmodifiableMap(new LinkedHashMap<>(encodings));
+  }
+
+  /**
+   * @return encoding of each column, in the schema order
+   */
+  public Map<String, ColumnEncoding> getEncodings() {
+    return encodings;
+  }
+
+  public ColumnEncoding getEncoding(String column) {
+    return encodings.get(column);
+  }
+
+  public boolean contains(ColumnEncoding encoding) {
+    return encodings.containsValue(encoding);
+  }
+
+  /**
+   * @return the plan as stored in the footer
+   */
+  public String toMetaData() {
+    return MetaDataUtils.toMetaData(encodings);
+  }
+
+  /**
+   * Read a plan back from the footer value written by {@link #toMetaData()}
+   */
+  public static EncodingPlan fromMetaData(String metaData) {
+    Map<String, ColumnEncoding> encodings = new LinkedHashMap<>();
+    for (Map.Entry<String, String> entry : MetaDataUtils.fromMetaData(metaData).entrySet()) {
+      encodings.put(entry.getKey(), ColumnEncoding.valueOf(entry.getValue()));
+    }
+    return new EncodingPlan(encodings);
+  }
+
+  @Override
+  public String toString() {
+    return "EncodingPlan{" + toMetaData() + '}';
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.parquet.write;
+
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write records already converted from SQL rows
+ */
+public class RecordWriteSupport extends WriteSupport<Record> {
+
+  private final MessageType messageType;
+  private final Map<String, String> extraMetaData;
+
+  private RecordConsumer recordConsumer;
+
+  public RecordWriteSupport(MessageType messageType) {
+    this(messageType, Collections.emptyMap());
+  }
+
+  /**
+   * @param extraMetaData key-values written in the footer
+   */
+  public RecordWriteSupport(MessageType messageType, Map<String, String> extraMetaData) {
+    this.messageType = messageType;
+    this.extraMetaData = extraMetaData;
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    return new WriteContext(messageType, new HashMap<>(extraMetaData));
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    this.recordConsumer = recordConsumer;
+  }
+
+  @Override
+  public void write(Record record) {
+    recordConsumer.startMessage();
+    writeRecords(record);
+    recordConsumer.endMessage();
+  }
+
+  private void writeRecords(Record record) {
+    List<RecordField<?>> fields = record.getFields();
+    for (int index = 0; index < fields.size(); index++) {
+      RecordField<?> field = fields.get(index);
+      if (field.isNotNull()) {
+        recordConsumer.startField(field.getName(), index);
+        field.write(recordConsumer);
+        recordConsumer.endField(field.getName(), index);
+      }
+    }
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.parquet.write;
+
+import io.github.anthorx.parquet.sql.util.DecimalUtils;
+import io.github.anthorx.parquet.sql.util.TimestampUtils;
+import io.github.anthorx.parquet.sql.util.Utf8Codec;
+import io.github.anthorx.parquet.sql.util.ZoneOffsetTable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.ParquetEncodingException;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write the current row of a ResultSet, without building SQLRow nor Record.
+ * Values are read with the typed getters matching the parquet type of each column,
+ * so the schema must come from the same ResultSet, with the default converters.
+ */
+public class ResultSetWriteSupport extends WriteSupport<ResultSet> {
+
+  private final MessageType messageType;
+  private final Map<String, String> extraMetaData;
+  private final FieldWriter[] fieldWriters;
+
+  private RecordConsumer recordConsumer;
+
+  public ResultSetWriteSupport(MessageType messageType) {
+    this(messageType, Collections.emptyMap());
+  }
+
+  /**
+   * @param extraMetaData key-values written in the footer
+   */
+  public ResultSetWriteSupport(MessageType messageType, Map<String, String> extraMetaData) {
+    this.messageType = messageType;
+    this.extraMetaData = extraMetaData;
+    List<Type> fields = messageType.getFields();
+    this.fieldWriters = new FieldWriter[fields.size()];
+    for (int index = 0; index < fields.size(); index++) {
+      fieldWriters[index] = createFieldWriter(fields.get(index).asPrimitiveType(), index);
+    }
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    return new WriteContext(messageType, new HashMap<>(extraMetaData));
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    this.recordConsumer = recordConsumer;
+  }
+
+  /**
+   * Write the row the ResultSet is positioned on
+   */
+  @Override
+  public void write(ResultSet resultSet) {
+    recordConsumer.startMessage();
+    try {
+      for (FieldWriter fieldWriter : fieldWriters) {
+        fieldWriter.write(resultSet);
+      }
+    } catch (SQLException e) {
+      throw new ParquetEncodingException("Can't read the current row of the ResultSet", e);
+    }
+    recordConsumer.endMessage();
+  }
+
+  private FieldWriter createFieldWriter(PrimitiveType type, int index) {
+    LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+    int scale = logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation
+        ? ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType).getScale()
+        : 0;
+
+    switch (type.getPrimitiveTypeName()) {
+      case INT32:
+        if (scale > 0) {
+          return new FieldWriter(type.getName(), index) {
+            void write(ResultSet resultSet, int columnIndex) throws SQLException {
+              BigDecimal value = resultSet.getBigDecimal(columnIndex);
+              if (value != null) {
+                start();
+                recordConsumer.addInteger(unscaledInt(value, scale, type));
+                end();
+              }
+            }
+          };
+        }
+        return new FieldWriter(type.getName(), index) {
+          void write(ResultSet resultSet, int columnIndex) throws SQLException {
+            int value = resultSet.getInt(columnIndex);
+            if (!resultSet.wasNull()) {
+              start();
+              recordConsumer.addInteger(value);
+              end();
+            }
+          }
+        };
+      case INT64:
+        if (logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) {
+          ZoneOffsetTable offsets = ZoneOffsetTable.systemDefault();
+          LogicalTypeAnnotation.TimeUnit unit = ((LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) logicalType).getUnit();
+          return new FieldWriter(type.getName(), index) {
+            void write(ResultSet resultSet, int columnIndex) throws SQLException {
+              Timestamp value = resultSet.getTimestamp(columnIndex);
+              if (value != null) {
+                start();
+                recordConsumer.addLong(TimestampUtils.toParquet(value, offsets, unit));
+                end();
+              }
+            }
+          };
+        } else if (scale > 0) {
+          return new FieldWriter(type.getName(), index) {
+            void write(ResultSet resultSet, int columnIndex) throws SQLException {
+              BigDecimal value = resultSet.getBigDecimal(columnIndex);
+              if (value != null) {
+                start();
+                recordConsumer.addLong(unscaledLong(value, scale, type));
+                end();
+              }
+            }
+          };
+        }
+        return new FieldWriter(type.getName(), index) {
+          void write(ResultSet resultSet, int columnIndex) throws SQLException {
+            long value = resultSet.getLong(columnIndex);
+            if (!resultSet.wasNull()) {
+              start();
+              recordConsumer.addLong(value);
+              end();
+            }
+          }
+        };
+      case DOUBLE:
+        return new FieldWriter(type.getName(), index) {
+          void write(ResultSet resultSet, int columnIndex) throws SQLException {
+            double value = resultSet.getDouble(columnIndex);
+            if (!resultSet.wasNull()) {
+              start();
+              recordConsumer.addDouble(value);
+              end();
+            }
+          }
+        };
+      case FLOAT:
+        return new FieldWriter(type.getName(), index) {
+          void write(ResultSet resultSet, int columnIndex) throws SQLException {
+            float value = resultSet.getFloat(columnIndex);
+            if (!resultSet.wasNull()) {
+              start();
+              recordConsumer.addFloat(value);
+              end();
+            }
+          }
+        };
+      case BOOLEAN:
+        return new FieldWriter(type.getName(), index) {
+          void write(ResultSet resultSet, int columnIndex) throws SQLException {
+            boolean value = resultSet.getBoolean(columnIndex);
+            if (!resultSet.wasNull()) {
+              start();
+              recordConsumer.addBoolean(value);
+              end();
+            }
+          }
+        };
+      case FIXED_LEN_BYTE_ARRAY:
+        if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+          // sized to the precision, reused for every value: parquet copies the binaries it keeps
+          byte[] buffer = new byte[type.getTypeLength()];
+          return new FieldWriter(type.getName(), index) {
+            void write(ResultSet resultSet, int columnIndex) throws SQLException {
+              BigDecimal value = resultSet.getBigDecimal(columnIndex);
+              if (value != null) {
+                try {
+                  DecimalUtils.toFixedBytes(value, scale, buffer, 0, buffer.length);
+                } catch (ArithmeticException e) {
+                  throw new SQLException("Decimal " + value + " doesn't fit column " + type, e);
+                }
+                start();
+                recordConsumer.addBinary(Binary.fromReusedByteArray(buffer));
+                end();
+              }
+            }
+          };
+        }
+        throw new IllegalArgumentException("Column " + type + " can't be written from a ResultSet");
+      case BINARY:
+        if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+          return new FieldWriter(type.getName(), index) {
+            void write(ResultSet resultSet, int columnIndex) throws SQLException {
+              BigDecimal value = resultSet.getBigDecimal(columnIndex);
+              if (value != null) {
+                start();
+                recordConsumer.addBinary(Binary.fromConstantByteArray(value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().toByteArray()));
+                end();
+              }
+            }
+          };
+        } else if (logicalType instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation) {
+          Utf8Codec utf8Codec = new Utf8Codec();
+          return new FieldWriter(type.getName(), index) {
+            void write(ResultSet resultSet, int columnIndex) throws SQLException {
+              String value = resultSet.getString(columnIndex);
+              if (value != null) {
+                utf8Codec.encode(value);
+                start();
+                recordConsumer.addBinary(Binary.fromReusedByteArray(utf8Codec.getBuffer(), 0, utf8Codec.getLength()));
+                end();
+              }
+            }
+          };
+        }
+        return new FieldWriter(type.getName(), index) {
+          void write(ResultSet resultSet, int columnIndex) throws SQLException {
+            byte[] value = resultSet.getBytes(columnIndex);
+            if (value != null) {
+              start();
+              recordConsumer.addBinary(Binary.fromConstantByteArray(value));
+              end();
+            }
+          }
+        };
+      default:
+        throw new IllegalArgumentException("Column " + type + " can't be written from a ResultSet");
+    }
+  }
+
+  private static int unscaledInt(BigDecimal value, int scale, PrimitiveType type) throws SQLException {
+    try {
+      return DecimalUtils.unscaledInt(value, scale);
+    } catch (ArithmeticException e) {
+      throw new SQLException("Decimal " + value + " doesn't fit column " + type, e);
+    }
+  }
+
+  private static long unscaledLong(BigDecimal value, int scale, PrimitiveType type) throws SQLException {
+    try {
+      return DecimalUtils.unscaledLong(value, scale);
+    } catch (ArithmeticException e) {
+      throw new SQLException("Decimal " + value + " doesn't fit column " + type, e);
+    }
+  }
+
+  /**
+   * Writer of one column, resolved once from the parquet type
+   */
+  private abstract class FieldWriter {
+    private final String name;
+    private final int index;
+
+    FieldWriter(String name, int index) {
+      this.name = name;
+      this.index = index;
+    }
+
+    void write(ResultSet resultSet) throws SQLException {
+      write(resultSet, index + 1);
+    }
+
+    abstract void write(ResultSet resultSet, int columnIndex) throws SQLException;
+
+    void start() {
+      recordConsumer.startField(name, index);
+    }
+
+    void end() {
+      recordConsumer.endField(name, index);
+    }
+  }
+}
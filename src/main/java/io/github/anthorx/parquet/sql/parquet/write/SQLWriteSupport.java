@@ -16,67 +16,116 @@
 package io.github.anthorx.parquet.sql.parquet.write;
 
 import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.jdbc.model.Watermark;
 import io.github.anthorx.parquet.sql.parquet.model.Record;
 import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import io.github.anthorx.parquet.sql.parquet.write.converter.Converter;
 import io.github.anthorx.parquet.sql.parquet.write.converter.ConverterContainer;
 import io.github.anthorx.parquet.sql.parquet.write.converter.RecordsConverter;
+import io.github.anthorx.parquet.sql.parquet.write.converter.WritePlan;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
 
 public class SQLWriteSupport extends WriteSupport<SQLRow> {
   private static final Logger LOG = LoggerFactory.getLogger(SQLWriteSupport.class);
 
-  private final MessageType messageType;
+  private final RecordWriteSupport recordWriteSupport;
 
-  private RecordConsumer recordConsumer;
+  private final Converter<SQLRow, Record> rowConverter;
 
-  private final ConverterContainer converterContainer;
+  // index in the rows of the watermark column, -1 when no watermark is kept
+  private int watermarkIndex = -1;
+  private Watermark watermark;
 
+  public SQLWriteSupport(WritePlan writePlan) {
+    this(writePlan.getMessageType(), writePlan, Collections.emptyMap());
+  }
+
+  /**
+   * Constructor keeping the highest value written of a column, stored in the footer when the file is closed
+   *
+   * @param watermarkColumn column only growing over time, see {@link Watermark}
+   */
+  public SQLWriteSupport(WritePlan writePlan, String watermarkColumn) {
+    this(writePlan, watermarkColumn, Collections.emptyMap());
+  }
+
+  /**
+   * @param watermarkColumn column only growing over time, see {@link Watermark}. Null when no watermark is kept.
+   * @param extraMetaData   key-values written in the footer
+   */
+  public SQLWriteSupport(WritePlan writePlan, String watermarkColumn, Map<String, String> extraMetaData) {
+    this(writePlan.getMessageType(), writePlan, extraMetaData);
+    if (watermarkColumn != null) {
+      List<Type> fields = writePlan.getMessageType().getFields();
+      for (int index = 0; index < fields.size() && watermarkIndex < 0; index++) {
+        if (fields.get(index).getName().equalsIgnoreCase(watermarkColumn)) {
+          watermarkIndex = writePlan.getSourceIndex(index);
+          watermark = new Watermark(fields.get(index).getName(), null);
+        }
+      }
+      if (watermarkIndex < 0) {
+        throw new IllegalArgumentException("Watermark column " + watermarkColumn + " is not written");
+      }
+    }
+  }
+
+  /**
+   * Constructor looking up the converter of each field for every row. Prefer the WritePlan one.
+   */
   public SQLWriteSupport(MessageType messageType, ConverterContainer converterContainer) {
-    this.messageType = messageType;
-    this.converterContainer = converterContainer;
+    this(messageType, new RecordsConverter(converterContainer), Collections.emptyMap());
+  }
+
+  private SQLWriteSupport(MessageType messageType, Converter<SQLRow, Record> rowConverter, Map<String, String> extraMetaData) {
+    this.recordWriteSupport = new RecordWriteSupport(messageType, extraMetaData);
+    this.rowConverter = rowConverter;
   }
 
   @Override
   public WriteContext init(Configuration configuration) {
-    Map<String, String> extraMetaData = new HashMap<>();
-    return new WriteContext(messageType, extraMetaData);
+    return recordWriteSupport.init(configuration);
   }
 
   @Override
   public void prepareForWrite(RecordConsumer recordConsumer) {
-    this.recordConsumer = recordConsumer;
+    recordWriteSupport.prepareForWrite(recordConsumer);
   }
 
   @Override
   public void write(SQLRow row) {
     try {
-      Record records = new RecordsConverter(converterContainer).convert(row);
-      recordConsumer.startMessage();
-      writeRecords(records);
-      recordConsumer.endMessage();
+      Record records = rowConverter.convert(row);
+      recordWriteSupport.write(records);
+      if (watermarkIndex >= 0) {
+        watermark = watermark.max(row.getField(watermarkIndex).getValue());
+      }
     } catch (ConvertException e) {
       LOG.error("Can't convert " + row + " to Records. Row not written to the parquet file", e);
     }
   }
 
-  private void writeRecords(Record records) {
-    IntStream
-        .range(0, records.getFields().size())
-        .forEach(index -> {
-          if (records.getField(index).isNotNull()) {
-            recordConsumer.startField(records.getField(index).getName(), index);
-            records.getField(index).write(recordConsumer);
-            recordConsumer.endField(records.getField(index).getName(), index);
-          }
-        });
+  @Override
+  public FinalizedWriteContext finalizeWrite() {
+    if (watermark == null) {
+      return recordWriteSupport.finalizeWrite();
+    }
+    return new FinalizedWriteContext(watermark.toMetaData());
+  }
+
+  /**
+   * @return highest value written of the watermark column, null when no watermark is kept
+   */
+  public Watermark getWatermark() {
+    return watermark;
   }
-}
\ No newline at end of file
+}
@@ -33,6 +33,9 @@ public class ConverterContainer {
   private void registerDefaultConverters() {
     container.add(new BigDecimalConverter());
     container.add(new DoubleConverter());
+    container.add(new FloatConverter());
+    container.add(new IntegerConverter());
+    container.add(new LongConverter());
     container.add(new StringConverter());
     container.add(new TimestampConverter());
   }
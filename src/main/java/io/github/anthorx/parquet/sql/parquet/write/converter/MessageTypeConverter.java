@@ -15,17 +15,9 @@
 
 package io.github.anthorx.parquet.sql.parquet.write.converter;
 
-import io.github.anthorx.parquet.sql.jdbc.model.SQLColumnDefinition;
-import io.github.anthorx.parquet.sql.parquet.write.converter.types.ParquetSQLConverter;
 import org.apache.parquet.schema.MessageType;
-import org.apache.parquet.schema.PrimitiveType;
-import org.apache.parquet.schema.Type;
 
 import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
 
 public class MessageTypeConverter implements Converter<ResultSetMetaData, MessageType> {
   private final String schemaName;
@@ -37,31 +29,6 @@ public class MessageTypeConverter implements Converter<ResultSetMetaData, Messag
   }
 
   public MessageType convert(ResultSetMetaData resultSetMetaData) throws ConvertException {
-    List<Type> convertedTypes = new ArrayList<>();
-
-    try {
-      int columnCount = resultSetMetaData.getColumnCount();
-      for (int index = 1; index <= columnCount; index++) {
-
-        SQLColumnDefinition sqlColumnDefinition = new SQLColumnDefinition(
-            resultSetMetaData.getColumnName(index),
-            resultSetMetaData.getColumnType(index),
-            resultSetMetaData.isNullable(index) == ResultSetMetaData.columnNullable,
-            resultSetMetaData.getPrecision(index),
-            resultSetMetaData.getScale(index),
-            resultSetMetaData.getColumnClassName(index));
-
-        Optional<ParquetSQLConverter> c = converterContainer
-            .getConverter(sqlColumnDefinition.getColumnTypeName());
-        PrimitiveType primitiveType = c
-            .orElseThrow(() -> new ConvertException("Can't found a converter for column " + sqlColumnDefinition.getName() + " of type " + sqlColumnDefinition.getColumnTypeName()))
-            .convert(sqlColumnDefinition);
-        convertedTypes.add(primitiveType);
-      }
-    } catch (SQLException | ClassNotFoundException e) {
-      throw new ConvertException("Error when converting ResultSetMetaData to MessageType.", e);
-    }
-
-    return new MessageType(this.schemaName, convertedTypes);
+    return WritePlan.create(schemaName, converterContainer, resultSetMetaData).getMessageType();
   }
 }
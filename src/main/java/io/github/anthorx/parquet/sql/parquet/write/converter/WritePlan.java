@@ -0,0 +1,151 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.parquet.write.converter;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLColumnDefinition;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.parquet.write.converter.types.ParquetSQLConverter;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Converters of each column, resolved once from the ResultSetMetaData.
+ * Converting a row walks the converters by column index, without looking them up in the ConverterContainer.
+ * A plan is immutable and can be shared between threads.
+ */
+public class WritePlan implements Converter<SQLRow, Record> {
+
+  private static final BiConsumer<RecordConsumer, Object> NO_OP_CONSUMER = (a, b) -> {};
+
+  private final MessageType messageType;
+  private final ParquetSQLConverter[] converters;
+  // index in the row of the field of each written column
+  private final int[] sourceIndexes;
+  private final int sourceColumnCount;
+
+  private WritePlan(MessageType messageType, ParquetSQLConverter[] converters, int[] sourceIndexes, int sourceColumnCount) {
+    this.messageType = messageType;
+    this.converters = converters;
+    this.sourceIndexes = sourceIndexes;
+    this.sourceColumnCount = sourceColumnCount;
+  }
+
+  /**
+   * Resolve the converter and the parquet type of each column
+   *
+   * @param schemaName         name of the parquet schema
+   * @param converterContainer converters to choose from
+   * @param resultSetMetaData  columns to convert
+   */
+  public static WritePlan create(String schemaName, ConverterContainer converterContainer, ResultSetMetaData resultSetMetaData) throws ConvertException {
+    return create(schemaName, converterContainer, resultSetMetaData, Collections.emptySet());
+  }
+
+  /**
+   * Resolve the converter and the parquet type of each column, except the excluded ones.
+   * Excluded columns are still expected in the converted rows but are not written.
+   *
+   * @param excludedColumns names of the columns not written, case insensitive
+   */
+  public static WritePlan create(String schemaName, ConverterContainer converterContainer, ResultSetMetaData resultSetMetaData,
+                                 Collection<String> excludedColumns) throws ConvertException {
+    try {
+      int columnCount = resultSetMetaData.getColumnCount();
+      List<ParquetSQLConverter> converters = new ArrayList<>(columnCount);
+      List<Integer> sourceIndexes = new ArrayList<>(columnCount);
+      List<Type> convertedTypes = new ArrayList<>(columnCount);
+
+      for (int index = 1; index <= columnCount; index++) {
+        String columnName = resultSetMetaData.getColumnName(index);
+        if (excludedColumns.stream().anyMatch(columnName::equalsIgnoreCase)) {
+          continue;
+        }
+        SQLColumnDefinition sqlColumnDefinition = new SQLColumnDefinition(
+            columnName,
+            resultSetMetaData.getColumnType(index),
+            resultSetMetaData.isNullable(index) == ResultSetMetaData.columnNullable,
+            resultSetMetaData.getPrecision(index),
+            resultSetMetaData.getScale(index),
+            resultSetMetaData.getColumnClassName(index));
+
+        ParquetSQLConverter converter = converterContainer
+            .getConverter(sqlColumnDefinition.getColumnTypeName())
+            .orElseThrow(() -> new ConvertException("Can't found a converter for column " + sqlColumnDefinition.getName() + " of type " + sqlColumnDefinition.getColumnTypeName()));
+        converters.add(converter);
+        sourceIndexes.add(index - 1);
+        convertedTypes.add(converter.convert(sqlColumnDefinition));
+      }
+
+      return new WritePlan(
+          new MessageType(schemaName, convertedTypes),
+          converters.toArray(new ParquetSQLConverter[0]),
+          sourceIndexes.stream().mapToInt(Integer::intValue).toArray(),
+          columnCount);
+    } catch (SQLException | ClassNotFoundException e) {
+      throw new ConvertException("Error when converting ResultSetMetaData to MessageType.", e);
+    }
+  }
+
+  public MessageType getMessageType() {
+    return messageType;
+  }
+
+  public int getColumnCount() {
+    return converters.length;
+  }
+
+  public ParquetSQLConverter getConverter(int index) {
+    return converters[index];
+  }
+
+  /**
+   * @return index in the converted rows of the field written as the given column
+   */
+  public int getSourceIndex(int index) {
+    return sourceIndexes[index];
+  }
+
+  @Override
+  public Record convert(SQLRow row) throws ConvertException {
+    List<SQLField> fields = row.getFields();
+    if (fields.size() != sourceColumnCount) {
+      throw new ConvertException("Row of " + fields.size() + " fields doesn't match the " + sourceColumnCount + " columns of the ResultSet");
+    }
+
+    Record record = new Record();
+    for (int index = 0; index < converters.length; index++) {
+      SQLField sqlField = fields.get(sourceIndexes[index]);
+      if (sqlField.getValue() == null) {
+        record.addField(new RecordField<>(sqlField.getName(), null).addWriteConsumer(NO_OP_CONSUMER));
+      } else {
+        record.addField(converters[index].convert(sqlField));
+      }
+    }
+    return record;
+  }
+}
@@ -21,6 +21,7 @@ import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
 import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
 import io.github.anthorx.parquet.sql.parquet.write.converter.PrimitiveTypeCreator;
+import io.github.anthorx.parquet.sql.util.DecimalUtils;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
@@ -37,25 +38,39 @@ public class BigDecimalConverter implements ParquetSQLConverter {
         return c.isAssignableFrom(BigDecimal.class);
     }
 
+    /**
+     * Values are rescaled to the scale of the column, rounding HALF_UP: 12.345 is written as 12.35
+     * in a DECIMAL(9, 2) column. A value with more integer digits than the precision of its column allows,
+     * as 12345678.12 in a DECIMAL(9, 2), is not truncated, a ConvertException is thrown.
+     */
     @Override
     public RecordField<?> convert(SQLField sqlField) throws ConvertException {
         int checkedPrecision = sqlField
                 .getPrecision()
                 .filter(p -> p > 0)
                 .orElse(DEFAULT_PRECISION);
+        int checkedScale = Math.max(sqlField.getScale().orElse(0), 0);
         BigDecimal bd = (BigDecimal) sqlField.getValue();
 
-        if (checkedPrecision <= 9) {
-            return new RecordField<>(sqlField.getName(), bd.intValue())
-                .addWriteConsumer(RecordConsumer::addInteger);
-        } else if (checkedPrecision <= 18) {
-            return new RecordField<>(sqlField.getName(), bd.longValue())
-                .addWriteConsumer(RecordConsumer::addLong);
-        } else {
-            byte[] bdBytes = bd.unscaledValue().toByteArray();
-            Binary binaryArray = Binary.fromReusedByteArray(bdBytes);
-            return new RecordField<>(sqlField.getName(), binaryArray)
-                .addWriteConsumer(RecordConsumer::addBinary);
+        try {
+            BigDecimal rescaled = DecimalUtils.rescale(bd, checkedPrecision, checkedScale);
+            if (checkedPrecision <= 9) {
+                return new RecordField<>(sqlField.getName(), DecimalUtils.unscaledInt(rescaled, checkedScale))
+                    .addWriteConsumer(RecordConsumer::addInteger);
+            } else if (checkedPrecision <= 18) {
+                return new RecordField<>(sqlField.getName(), DecimalUtils.unscaledLong(rescaled, checkedScale))
+                    .addWriteConsumer(RecordConsumer::addLong);
+            } else {
+                // converters are shared and the fields of a row converted before being written: the bytes can't be reused
+                int length = DecimalUtils.fixedLength(checkedPrecision);
+                byte[] bdBytes = new byte[length];
+                DecimalUtils.toFixedBytes(rescaled, checkedScale, bdBytes, 0, length);
+                return new RecordField<>(sqlField.getName(), Binary.fromConstantByteArray(bdBytes))
+                    .addWriteConsumer(RecordConsumer::addBinary);
+            }
+        } catch (ArithmeticException e) {
+            throw new ConvertException("Decimal " + bd + " of column " + sqlField.getName()
+                    + " doesn't fit DECIMAL(" + checkedPrecision + ", " + checkedScale + ")", e);
         }
     }
 
@@ -70,7 +85,11 @@ public class BigDecimalConverter implements ParquetSQLConverter {
         } else if (checkedPrecision <= 18) {
             primitiveTypeName = PrimitiveType.PrimitiveTypeName.INT64;
         } else {
-            primitiveTypeName = PrimitiveType.PrimitiveTypeName.BINARY;
+            return PrimitiveTypeCreator.create(sqlColumnDefinition.getName(),
+                    PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY,
+                    LogicalTypeAnnotation.decimalType(checkedScale, checkedPrecision),
+                    DecimalUtils.fixedLength(checkedPrecision),
+                    sqlColumnDefinition.isNullable());
         }
         return PrimitiveTypeCreator.create(sqlColumnDefinition.getName(),
                 primitiveTypeName,
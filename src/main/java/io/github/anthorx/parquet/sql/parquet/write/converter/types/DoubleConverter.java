@@ -8,8 +8,6 @@ import io.github.anthorx.parquet.sql.parquet.write.converter.PrimitiveTypeCreato
 import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.PrimitiveType;
 
-import java.math.BigDecimal;
-
 public class DoubleConverter implements ParquetSQLConverter {
 
     @Override
@@ -19,8 +17,9 @@ public class DoubleConverter implements ParquetSQLConverter {
 
     @Override
     public RecordField<?> convert(SQLField sqlField) throws ConvertException {
-        BigDecimal bigDecimal = (BigDecimal) sqlField.getValue();
-        return new RecordField<>(sqlField.getName(), bigDecimal.doubleValue())
+        // drivers return Double for DOUBLE columns, and sometimes BigDecimal for FLOAT(n) ones
+        Number number = (Number) sqlField.getValue();
+        return new RecordField<>(sqlField.getName(), number.doubleValue())
             .addWriteConsumer(RecordConsumer::addDouble);
     }
 
@@ -0,0 +1,35 @@
+package io.github.anthorx.parquet.sql.parquet.write.converter.types;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLColumnDefinition;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import io.github.anthorx.parquet.sql.parquet.write.converter.PrimitiveTypeCreator;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.PrimitiveType;
+
+/**
+ * Float values written as FLOAT, not widened to a double
+ */
+public class FloatConverter implements ParquetSQLConverter {
+
+    @Override
+    public boolean accept(Class<?> c) {
+        return c.isAssignableFrom(Float.class);
+    }
+
+    @Override
+    public RecordField<?> convert(SQLField sqlField) throws ConvertException {
+        Number number = (Number) sqlField.getValue();
+        return new RecordField<>(sqlField.getName(), number.floatValue())
+            .addWriteConsumer(RecordConsumer::addFloat);
+    }
+
+    @Override
+    public PrimitiveType convert(SQLColumnDefinition sqlColumnDefinition) throws ConvertException {
+        return PrimitiveTypeCreator.create(sqlColumnDefinition.getName(),
+            PrimitiveType.PrimitiveTypeName.FLOAT,
+            null,
+            sqlColumnDefinition.isNullable());
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.anthorx.parquet.sql.parquet.write.converter.types;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLColumnDefinition;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import io.github.anthorx.parquet.sql.parquet.write.converter.PrimitiveTypeCreator;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.PrimitiveType;
+
+/**
+ * Long values written as INT64
+ */
+public class LongConverter implements ParquetSQLConverter {
+
+    @Override
+    public boolean accept(Class<?> c) {
+        return c.isAssignableFrom(Long.class);
+    }
+
+    @Override
+    public RecordField<?> convert(SQLField sqlField) throws ConvertException {
+        Number number = (Number) sqlField.getValue();
+        return new RecordField<>(sqlField.getName(), number.longValue())
+            .addWriteConsumer(RecordConsumer::addLong);
+    }
+
+    @Override
+    public PrimitiveType convert(SQLColumnDefinition sqlColumnDefinition) throws ConvertException {
+        return PrimitiveTypeCreator.create(sqlColumnDefinition.getName(),
+            PrimitiveType.PrimitiveTypeName.INT64,
+            null,
+            sqlColumnDefinition.isNullable());
+    }
+}
@@ -5,13 +5,21 @@ import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
 import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
 import io.github.anthorx.parquet.sql.parquet.write.converter.PrimitiveTypeCreator;
+import io.github.anthorx.parquet.sql.util.Utf8Codec;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.PrimitiveType;
 
+/**
+ * Strings and char arrays written as UTF-8 binaries.
+ * Values are encoded one after the other into chunks of bytes per thread, never overwritten, so the binaries
+ * of a row stay valid until it is written without allocating an array per value.
+ */
 public class StringConverter implements ParquetSQLConverter {
 
+    private static final ThreadLocal<Utf8Chunks> CHUNKS = ThreadLocal.withInitial(Utf8Chunks::new);
+
     @Override
     public boolean accept(Class<?> c) {
         return c.isAssignableFrom(String.class);
@@ -19,14 +27,14 @@ public class StringConverter implements ParquetSQLConverter {
 
     @Override
     public RecordField<?> convert(SQLField sqlField) throws ConvertException {
-        String value;
-        if (sqlField.getValue() instanceof char[]) {
-            value = new String((char[]) sqlField.getValue());
+        Utf8Chunks chunks = CHUNKS.get();
+        Object value = sqlField.getValue();
+        if (value instanceof char[]) {
+            chunks.codec.encode((char[]) value);
         } else {
-            value = (String) sqlField.getValue();
+            chunks.codec.encode((CharSequence) value);
         }
-        Binary binaryString = Binary.fromString(value);
-        return new RecordField<>(sqlField.getName(), binaryString)
+        return new RecordField<>(sqlField.getName(), chunks.append())
             .addWriteConsumer(RecordConsumer::addBinary);
     }
 
@@ -37,4 +45,34 @@ public class StringConverter implements ParquetSQLConverter {
                 LogicalTypeAnnotation.stringType(),
                 sqlColumnDefinition.isNullable());
     }
+
+    private static class Utf8Chunks {
+        private static final int CHUNK_SIZE = 64 * 1024;
+
+        private final Utf8Codec codec = new Utf8Codec();
+        private byte[] chunk = new byte[CHUNK_SIZE];
+        private int position;
+
+        /**
+         * Copy the encoded value into the current chunk, or a new one when it is full.
+         * The binary is flagged as reused so parquet copies the values it keeps, dictionary and statistics,
+         * instead of holding the whole chunk.
+         */
+        private Binary append() {
+            int length = codec.getLength();
+            if (length > CHUNK_SIZE / 4) {
+                byte[] bytes = new byte[length];
+                System.arraycopy(codec.getBuffer(), 0, bytes, 0, length);
+                return Binary.fromConstantByteArray(bytes);
+            }
+            if (position + length > CHUNK_SIZE) {
+                chunk = new byte[CHUNK_SIZE];
+                position = 0;
+            }
+            System.arraycopy(codec.getBuffer(), 0, chunk, position, length);
+            Binary binary = Binary.fromReusedByteArray(chunk, position, length);
+            position += length;
+            return binary;
+        }
+    }
 }
@@ -4,15 +4,44 @@ import io.github.anthorx.parquet.sql.jdbc.model.SQLColumnDefinition;
 import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
 import io.github.anthorx.parquet.sql.parquet.write.converter.PrimitiveTypeCreator;
+import io.github.anthorx.parquet.sql.util.TimestampUtils;
+import io.github.anthorx.parquet.sql.util.ZoneOffsetTable;
 import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.PrimitiveType;
 
 import java.sql.Timestamp;
-import java.util.TimeZone;
+import java.time.ZoneId;
 
+/**
+ * Timestamps written as INT64 of a unit, milliseconds by default.
+ * Micros and nanos keep the fraction of second of Timestamp.getNanos().
+ */
 public class TimestampConverter implements ParquetSQLConverter {
 
+  private final LogicalTypeAnnotation.TimeUnit unit;
+  // null until the first value when the default zone is used
+  private volatile ZoneOffsetTable offsets;
+
+  public TimestampConverter() {
+    this(LogicalTypeAnnotation.TimeUnit.MILLIS);
+  }
+
+  /**
+   * Converter of the default zone, read on the first converted value
+   */
+  public TimestampConverter(LogicalTypeAnnotation.TimeUnit unit) {
+    this.unit = unit;
+  }
+
+  /**
+   * @param zone zone the JDBC timestamps are read in
+   */
+  public TimestampConverter(LogicalTypeAnnotation.TimeUnit unit, ZoneId zone) {
+    this.unit = unit;
+    this.offsets = ZoneOffsetTable.of(zone);
+  }
+
   @Override
   public boolean accept(Class<?> c) {
     return c.isAssignableFrom(Timestamp.class);
@@ -25,19 +54,26 @@ public class TimestampConverter implements ParquetSQLConverter {
   @Override
   public RecordField<?> convert(SQLField sqlField) {
     Timestamp timestamp = (Timestamp) sqlField.getValue();
-    long timestampMs = timestamp.getTime();
-    long offset = TimeZone.getDefault().getOffset(timestampMs);
-    long timestampUtcAdjusted = timestampMs + offset;
+    long timestampUtcAdjusted = TimestampUtils.toParquet(timestamp, getOffsets(), unit);
 
     return new RecordField<>(sqlField.getName(), timestampUtcAdjusted)
         .addWriteConsumer(RecordConsumer::addLong);
   }
 
+  private ZoneOffsetTable getOffsets() {
+    ZoneOffsetTable zoneOffsetTable = offsets;
+    if (zoneOffsetTable == null) {
+      zoneOffsetTable = ZoneOffsetTable.systemDefault();
+      offsets = zoneOffsetTable;
+    }
+    return zoneOffsetTable;
+  }
+
   @Override
   public PrimitiveType convert(SQLColumnDefinition sqlColumnDefinition) {
     return PrimitiveTypeCreator.create(sqlColumnDefinition.getName(),
         PrimitiveType.PrimitiveTypeName.INT64,
-        LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS),
+        LogicalTypeAnnotation.timestampType(true, unit),
         sqlColumnDefinition.isNullable());
   }
 }
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Conversions between BigDecimal and the unscaled values parquet stores for the decimal logical type.
+ * Values are rescaled to the scale of the column, rounding HALF_UP, and never truncated silently:
+ * a value too large for its storage throws an ArithmeticException.
+ * Decimals fitting a long are handled without creating a BigInteger.
+ */
+public class DecimalUtils {
+
+  // log2(10), number of bits per decimal digit
+  private static final double BITS_PER_DIGIT = Math.log(10) / Math.log(2);
+
+  /**
+   * @return the unscaled value of the decimal rescaled to the scale
+   * @throws ArithmeticException if the unscaled value doesn't fit a long
+   */
+  public static long unscaledLong(BigDecimal value, int scale) {
+    // scaleByPowerOfTen keeps the compact representation of the unscaled value, unlike unscaledValue()
+    return rescale(value, scale).scaleByPowerOfTen(scale).longValueExact();
+  }
+
+  /**
+   * @return the unscaled value of the decimal rescaled to the scale
+   * @throws ArithmeticException if the unscaled value doesn't fit an int
+   */
+  public static int unscaledInt(BigDecimal value, int scale) {
+    long unscaled = unscaledLong(value, scale);
+    if (unscaled < Integer.MIN_VALUE || unscaled > Integer.MAX_VALUE) {
+      throw new ArithmeticException("Decimal " + value + " doesn't fit an INT32 of scale " + scale);
+    }
+    return (int) unscaled;
+  }
+
+  /**
+   * @return number of bytes of a FIXED_LEN_BYTE_ARRAY holding any unscaled value of the precision
+   */
+  public static int fixedLength(int precision) {
+    return (int) Math.ceil((precision * BITS_PER_DIGIT + 1) / 8);
+  }
+
+  /**
+   * Write the unscaled value of the decimal rescaled to the scale, big endian two's complement sign extended
+   * to the length, as stored in a FIXED_LEN_BYTE_ARRAY
+   *
+   * @throws ArithmeticException if the unscaled value doesn't fit the length
+   */
+  public static void toFixedBytes(BigDecimal value, int scale, byte[] buffer, int offset, int length) {
+    BigDecimal rescaled = rescale(value, scale);
+    if (rescaled.precision() <= 18) {
+      long unscaled = rescaled.scaleByPowerOfTen(scale).longValueExact();
+      // arithmetic shift, the bytes after the eighth one repeat the sign
+      for (int index = offset + length - 1; index >= offset; index--) {
+        buffer[index] = (byte) unscaled;
+        unscaled >>= 8;
+      }
+      return;
+    }
+    byte[] bytes = rescaled.unscaledValue().toByteArray();
+    if (bytes.length > length) {
+      throw new ArithmeticException("Decimal " + value + " doesn't fit " + length + " bytes");
+    }
+    int padding = length - bytes.length;
+    Arrays.fill(buffer, offset, offset + padding, bytes[0] < 0 ? (byte) -1 : 0);
+    System.arraycopy(bytes, 0, buffer, offset + padding, bytes.length);
+  }
+
+  /**
+   * Read a decimal from its big endian two's complement unscaled bytes
+   */
+  public static BigDecimal fromBytes(byte[] bytes, int offset, int length, int scale) {
+    if (length <= 8) {
+      return BigDecimal.valueOf(unscaledLong(bytes, offset, length), scale);
+    }
+    byte[] unscaled = offset == 0 && length == bytes.length ? bytes : Arrays.copyOfRange(bytes, offset, offset + length);
+    return new BigDecimal(new BigInteger(unscaled), scale);
+  }
+
+  /**
+   * @return the unscaled value of at most 8 big endian two's complement bytes
+   */
+  public static long unscaledLong(byte[] bytes, int offset, int length) {
+    if (length == 0) {
+      return 0;
+    }
+    // the first byte carries the sign
+    long unscaled = bytes[offset];
+    for (int index = offset + 1; index < offset + length; index++) {
+      unscaled = (unscaled << 8) | (bytes[index] & 0xFF);
+    }
+    return unscaled;
+  }
+
+  /**
+   * @return the decimal rescaled to the scale, its extra fraction digits rounded
+   * @throws ArithmeticException if it has more integer digits than a DECIMAL(precision, scale) holds
+   */
+  public static BigDecimal rescale(BigDecimal value, int precision, int scale) {
+    BigDecimal rescaled = rescale(value, scale);
+    if (rescaled.precision() - rescaled.scale() > precision - scale) {
+      throw new ArithmeticException("Decimal " + value + " has more than " + (precision - scale) + " integer digits");
+    }
+    return rescaled;
+  }
+
+  private static BigDecimal rescale(BigDecimal value, int scale) {
+    return value.scale() == scale ? value : value.setScale(scale, RoundingMode.HALF_UP);
+  }
+}
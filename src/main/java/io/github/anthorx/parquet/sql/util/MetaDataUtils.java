@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.anthorx.parquet.sql.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Footer values holding a value per column, e.g. "id=DELTA_BINARY_PACKED,country=DICTIONARY".
+ * Column names may hold the separators: '\', ',' and '=' are escaped by a '\' in the names.
+ */
+public class MetaDataUtils {
+
+  public static String toMetaData(Map<String, ?> values) {
+    StringBuilder builder = new StringBuilder();
+    for (Map.Entry<String, ?> entry : values.entrySet()) {
+      if (builder.length() > 0) {
+        builder.append(',');
+      }
+      escape(entry.getKey(), builder);
+      builder.append('=').append(entry.getValue());
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Read back a footer value written by {@link #toMetaData(Map)}
+   *
+   * @return value of each column, in the written order. Empty when the footer value is null.
+   */
+  public static Map<String, String> fromMetaData(String metaData) {
+    Map<String, String> values = new LinkedHashMap<>();
+    if (metaData == null) {
+      return values;
+    }
+    StringBuilder column = new StringBuilder();
+    int index = 0;
+    while (index < metaData.length()) {
+      char c = metaData.charAt(index++);
+      if (c == '\\' && index < metaData.length()) {
+        column.append(metaData.charAt(index++));
+      } else if (c == '=') {
+        int end = metaData.indexOf(',', index);
+        end = end < 0 ? metaData.length() : end;
+        values.put(column.toString(), metaData.substring(index, end));
+        column.setLength(0);
+        index = end + 1;
+      } else {
+        column.append(c);
+      }
+    }
+    return values;
+  }
+
+  private static void escape(String column, StringBuilder builder) {
+    for (int index = 0; index < column.length(); index++) {
+      char c = column.charAt(index);
+      if (c == '\\' || c == ',' || c == '=') {
+        builder.append('\\');
+      }
+      builder.append(c);
+    }
+  }
+}
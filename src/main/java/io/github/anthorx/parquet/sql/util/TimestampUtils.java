@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.util;
+
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions between JDBC and java.time values and the parquet timestamps of a unit.
+ * Written timestamps are the wall clock of the value read as if it was UTC, i.e. the instant plus the offset
+ * of the zone, so the parquet value reads back as the same local date time whatever the zone of the reader.
+ */
+public class TimestampUtils {
+
+  private static final long MILLIS_PER_SECOND = 1000L;
+  private static final long MICROS_PER_SECOND = 1000_000L;
+  private static final long NANOS_PER_SECOND = 1000_000_000L;
+  private static final long NANOS_PER_MILLI = 1000_000L;
+  private static final long NANOS_PER_MICRO = 1000L;
+
+  /**
+   * @param offsets offsets of the zone the timestamp was read in
+   * @return the timestamp shifted by the offset of its zone, in the unit
+   */
+  public static long toParquet(Timestamp timestamp, ZoneOffsetTable offsets, TimeUnit unit) {
+    long epochMillis = timestamp.getTime();
+    long localMillis = epochMillis + offsets.getOffsetMillis(epochMillis);
+    if (unit == TimeUnit.MILLIS) {
+      return localMillis;
+    }
+    // getTime() holds the milliseconds of the nanos, only the seconds are taken from it
+    long seconds = Math.floorDiv(localMillis, MILLIS_PER_SECOND);
+    return toUnit(seconds, timestamp.getNanos(), unit);
+  }
+
+  /**
+   * @return the local date time as stored in parquet, in the unit
+   */
+  public static long toParquet(LocalDateTime localDateTime, TimeUnit unit) {
+    return toUnit(localDateTime.toEpochSecond(ZoneOffset.UTC), localDateTime.getNano(), unit);
+  }
+
+  /**
+   * @return the timestamp of the parquet value, as written by {@link #toParquet(Timestamp, ZoneOffsetTable, TimeUnit)}
+   * without removing the offset
+   */
+  public static Timestamp toTimestamp(long value, TimeUnit unit) {
+    long seconds = Math.floorDiv(value, unitsPerSecond(unit));
+    Timestamp timestamp = new Timestamp(seconds * MILLIS_PER_SECOND);
+    timestamp.setNanos(nanosOfSecond(value, unit));
+    return timestamp;
+  }
+
+  /**
+   * @return the local date time written in the parquet value, without any zone computation
+   */
+  public static LocalDateTime toLocalDateTime(long value, TimeUnit unit) {
+    long seconds = Math.floorDiv(value, unitsPerSecond(unit));
+    return LocalDateTime.ofEpochSecond(seconds, nanosOfSecond(value, unit), ZoneOffset.UTC);
+  }
+
+  /**
+   * @param epochDays days since 1970-01-01, as stored by the parquet date type
+   */
+  public static LocalDate toLocalDate(int epochDays) {
+    return LocalDate.ofEpochDay(epochDays);
+  }
+
+  private static long toUnit(long seconds, int nanos, TimeUnit unit) {
+    switch (unit) {
+      case MILLIS:
+        return seconds * MILLIS_PER_SECOND + nanos / NANOS_PER_MILLI;
+      case MICROS:
+        return seconds * MICROS_PER_SECOND + nanos / NANOS_PER_MICRO;
+      default:
+        return seconds * NANOS_PER_SECOND + nanos;
+    }
+  }
+
+  private static long unitsPerSecond(TimeUnit unit) {
+    switch (unit) {
+      case MILLIS:
+        return MILLIS_PER_SECOND;
+      case MICROS:
+        return MICROS_PER_SECOND;
+      default:
+        return NANOS_PER_SECOND;
+    }
+  }
+
+  private static int nanosOfSecond(long value, TimeUnit unit) {
+    long unitsPerSecond = unitsPerSecond(unit);
+    return (int) (Math.floorMod(value, unitsPerSecond) * (NANOS_PER_SECOND / unitsPerSecond));
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encode strings to UTF-8 into a byte buffer, and decode UTF-8 bytes through a char buffer,
+ * both reused from one value to the next.
+ * ASCII values are copied char by char, others go through a reused JDK encoder or decoder.
+ * Malformed input is replaced like String.getBytes and new String do.
+ * Not thread safe.
+ */
+public class Utf8Codec {
+
+  // UTF-8 encodes a char in at most 3 bytes, surrogate pairs in 4 bytes for 2 chars
+  private static final int MAX_BYTES_PER_CHAR = 3;
+
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  private byte[] buffer;
+  private int length;
+  private char[] chars;
+
+  public Utf8Codec() {
+    this(64);
+  }
+
+  public Utf8Codec(int initialCapacity) {
+    this.buffer = new byte[initialCapacity];
+    this.chars = new char[initialCapacity];
+  }
+
+  /**
+   * Encode a string. The result is available through {@link #getBuffer()} and {@link #getLength()}
+   * until the next call.
+   */
+  public Utf8Codec encode(CharSequence value) {
+    int charCount = value.length();
+    ensureBytes(charCount);
+    for (int i = 0; i < charCount; i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        return encodeNonAscii(CharBuffer.wrap(value), i);
+      }
+      buffer[i] = (byte) c;
+    }
+    length = charCount;
+    return this;
+  }
+
+  /**
+   * Encode chars, like {@link #encode(CharSequence)} without building a String
+   */
+  public Utf8Codec encode(char[] value) {
+    int charCount = value.length;
+    ensureBytes(charCount);
+    for (int i = 0; i < charCount; i++) {
+      char c = value[i];
+      if (c >= 0x80) {
+        return encodeNonAscii(CharBuffer.wrap(value), i);
+      }
+      buffer[i] = (byte) c;
+    }
+    length = charCount;
+    return this;
+  }
+
+  // the asciiLength first chars are already in the buffer
+  private Utf8Codec encodeNonAscii(CharBuffer chars, int asciiLength) {
+    ensureBytes(asciiLength + (chars.remaining() - asciiLength) * MAX_BYTES_PER_CHAR);
+    chars.position(asciiLength);
+    ByteBuffer bytes = ByteBuffer.wrap(buffer, asciiLength, buffer.length - asciiLength);
+    encoder.reset();
+    encoder.encode(chars, bytes, true);
+    encoder.flush(bytes);
+    length = bytes.position();
+    return this;
+  }
+
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Decode UTF-8 bytes to a String, the only allocation for ASCII values
+   */
+  public String decode(byte[] bytes, int offset, int length) {
+    return decodeToCharBuffer(bytes, offset, length).toString();
+  }
+
+  // decoded into the reused chars, the String being the only allocation
+  private CharBuffer decodeToCharBuffer(byte[] bytes, int offset, int length) {
+    if (chars.length < length) {
+      chars = new char[Math.max(length, chars.length * 2)];
+    }
+    int end = offset + length;
+    for (int i = offset; i < end; i++) {
+      byte b = bytes[i];
+      if (b < 0) {
+        return decodeNonAscii(bytes, i, end, i - offset);
+      }
+      chars[i - offset] = (char) b;
+    }
+    return CharBuffer.wrap(chars, 0, length);
+  }
+
+  // the asciiLength first chars are already decoded, a UTF-8 byte decodes to at most one char
+  private CharBuffer decodeNonAscii(byte[] bytes, int from, int end, int asciiLength) {
+    CharBuffer output = CharBuffer.wrap(chars, asciiLength, chars.length - asciiLength);
+    decoder.reset();
+    CoderResult result = decoder.decode(ByteBuffer.wrap(bytes, from, end - from), output, true);
+    if (!result.isUnderflow()) {
+      try {
+        result.throwException();
+      } catch (CharacterCodingException e) {
+        throw new IllegalArgumentException("Can't decode UTF-8 bytes", e);
+      }
+    }
+    decoder.flush(output);
+    return CharBuffer.wrap(chars, 0, output.position());
+  }
+
+  private void ensureBytes(int capacity) {
+    if (capacity > buffer.length) {
+      byte[] newBuffer = new byte[Math.max(capacity, buffer.length * 2)];
+      System.arraycopy(buffer, 0, newBuffer, 0, buffer.length);
+      buffer = newBuffer;
+    }
+  }
+}
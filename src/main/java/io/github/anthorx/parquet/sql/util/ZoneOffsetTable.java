@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.anthorx.parquet.sql.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Offsets from UTC of a zone, precomputed from its transitions between 1900 and 2100.
+ * Looking up the offset of an instant is a binary search in a long array, without the TimeZone.getDefault()
+ * clone nor the Calendar computations of TimeZone.getOffset. Instants out of the table ask the ZoneRules.
+ * Tables are built once per zone and shared, they are immutable.
+ */
+public class ZoneOffsetTable {
+
+  private static final long FIRST_MILLIS = Instant.parse("1900-01-01T00:00:00Z").toEpochMilli();
+  private static final long LAST_MILLIS = Instant.parse("2100-01-01T00:00:00Z").toEpochMilli();
+
+  private static final ConcurrentMap<ZoneId, ZoneOffsetTable> TABLES = new ConcurrentHashMap<>();
+
+  private final ZoneId zone;
+  private final ZoneRules rules;
+  // offsetMillis[i] applies from transitionMillis[i - 1] included to transitionMillis[i] excluded
+  private final long[] transitionMillis;
+  private final int[] offsetMillis;
+
+  private ZoneOffsetTable(ZoneId zone) {
+    this.zone = zone;
+    this.rules = zone.getRules();
+
+    List<ZoneOffsetTransition> transitions = new ArrayList<>();
+    if (!rules.isFixedOffset()) {
+      ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(FIRST_MILLIS));
+      while (transition != null && transition.toEpochSecond() * 1000 < LAST_MILLIS) {
+        transitions.add(transition);
+        transition = rules.nextTransition(transition.getInstant());
+      }
+    }
+
+    this.transitionMillis = new long[transitions.size()];
+    this.offsetMillis = new int[transitions.size() + 1];
+    offsetMillis[0] = rules.getOffset(Instant.ofEpochMilli(FIRST_MILLIS)).getTotalSeconds() * 1000;
+    for (int index = 0; index < transitions.size(); index++) {
+      transitionMillis[index] = transitions.get(index).toEpochSecond() * 1000;
+      offsetMillis[index + 1] = transitions.get(index).getOffsetAfter().getTotalSeconds() * 1000;
+    }
+  }
+
+  public static ZoneOffsetTable of(ZoneId zone) {
+    return TABLES.computeIfAbsent(zone, ZoneOffsetTable::new);
+  }
+
+  /**
+   * Table of the current default zone. Resolve it once per writer or reader, not per value:
+   * reading the default zone clones it.
+   */
+  public static ZoneOffsetTable systemDefault() {
+    return of(TimeZone.getDefault().toZoneId());
+  }
+
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * @return offset from UTC at the instant, like TimeZone.getOffset
+   */
+  public int getOffsetMillis(long epochMillis) {
+    if (epochMillis < FIRST_MILLIS || epochMillis >= LAST_MILLIS) {
+      return rules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000;
+    }
+    int index = Arrays.binarySearch(transitionMillis, epochMillis);
+    // on a transition the new offset applies, otherwise the one after the previous transition
+    return offsetMillis[index >= 0 ? index + 1 : -index - 1];
+  }
+
+  public ZoneOffset getOffset(long epochMillis) {
+    return ZoneOffset.ofTotalSeconds(getOffsetMillis(epochMillis) / 1000);
+  }
+
+  @Override
+  public String toString() {
+    return "ZoneOffsetTable{" +
+        "zone=" + zone +
+        ", transitions=" + transitionMillis.length +
+        '}';
+  }
+}
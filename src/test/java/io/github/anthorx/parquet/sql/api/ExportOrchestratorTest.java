@@ -0,0 +1,198 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import org.apache.hadoop.conf.Configuration;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExportOrchestratorTest {
+
+  private final static JdbcConnectionPool dataSource = JdbcConnectionPool.create("jdbc:h2:mem:orchestrator;DB_CLOSE_DELAY=-1", "sa", "sa");
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    createTable("smallTable", 10);
+    createTable("mediumTable", 100);
+    createTable("largeTable", 1000);
+  }
+
+  private static void createTable(String tableName, int rowCount) throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection
+          .prepareStatement(String.format("CREATE TABLE %s (id DECIMAL(10, 0) PRIMARY KEY, name VARCHAR(20))", tableName))
+          .execute();
+
+      PreparedStatement insert = connection.prepareStatement(String.format("INSERT INTO %s VALUES (?, ?)", tableName));
+      for (int i = 0; i < rowCount; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        insert.setString(2, "name" + i);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("DROP TABLE smallTable").execute();
+      connection.prepareStatement("DROP TABLE mediumTable").execute();
+      connection.prepareStatement("DROP TABLE largeTable").execute();
+    }
+    dataSource.dispose();
+  }
+
+  @Test
+  public void run_exportsEachTableInItsFile(@TempDir Path directory) throws Exception {
+    ExportOrchestrator.Report report = ExportOrchestrator
+        .builder(dataSource, directory.toString())
+        .addTable("smallTable")
+        .addTable("largeTable")
+        .addQuery("mediumNames", "select name from mediumTable")
+        .withParallelism(2)
+        .withMaxConnections(2)
+        .build()
+        .run();
+
+    List<ExportOrchestrator.TableReport> tableReports = report.getTableReports();
+    assertEquals(3, tableReports.size());
+    assertTrue(report.getFailures().isEmpty());
+    assertEquals(1110, report.getRowCount());
+    for (ExportOrchestrator.TableReport tableReport : tableReports) {
+      assertTrue(tableReport.getDurationMillis() >= 0);
+    }
+
+    assertEquals(10, countRows(directory.resolve("smallTable.parquet").toString()));
+    assertEquals(1000, countRows(directory.resolve("largeTable.parquet").toString()));
+    assertEquals(100, countRows(directory.resolve("mediumNames.parquet").toString()));
+  }
+
+  @Test
+  public void run_largestFirst_neverExceedsTheConnectionBudget(@TempDir Path directory) throws Exception {
+    AtomicInteger maxOpen = new AtomicInteger();
+    ExportOrchestrator.Report report = ExportOrchestrator
+        .builder(countingDataSource(maxOpen), directory.toString())
+        .addTable("smallTable")
+        .addTable("mediumTable")
+        .addTable("largeTable")
+        .withParallelism(3)
+        .withMaxConnections(1)
+        .withRowCountEstimator((connection, source) -> source.getName().length())
+        .build()
+        .run();
+
+    assertEquals(3, report.getTableReports().size());
+    assertTrue(report.getFailures().isEmpty());
+    assertEquals("mediumTable", report.getTableReports().get(0).getName());
+    assertEquals(1, maxOpen.get());
+  }
+
+  private static DataSource countingDataSource(AtomicInteger maxOpen) {
+    return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+      Object result = method.invoke(dataSource, args);
+      if (method.getName().equals("getConnection")) {
+        maxOpen.accumulateAndGet(dataSource.getActiveConnections(), Math::max);
+      }
+      return result;
+    });
+  }
+
+  @Test
+  public void estimateFromStatistics_maxCardinalityOfTheTable() throws Exception {
+    Connection connection = mock(Connection.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    ResultSet noIndexInfo = mock(ResultSet.class);
+    ResultSet indexInfo = mock(ResultSet.class);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.storesUpperCaseIdentifiers()).thenReturn(true);
+    // not found with the given case, found upper case
+    when(metaData.getIndexInfo(null, "app", "orders", false, true)).thenReturn(noIndexInfo);
+    when(metaData.getIndexInfo(null, "APP", "ORDERS", false, true)).thenReturn(indexInfo);
+    when(indexInfo.next()).thenReturn(true, true, false);
+    when(indexInfo.getLong("CARDINALITY")).thenReturn(5000L, 1200L);
+
+    ExportOrchestrator.ExportSource source = new ExportOrchestrator.ExportSource("orders", "app.orders", "select * from app.orders");
+
+    assertEquals(5000L, ExportOrchestrator.estimateFromStatistics(connection, source));
+  }
+
+  @Test
+  public void run_failedExport_othersAreExported(@TempDir Path directory) throws Exception {
+    ExportOrchestrator.Report report = ExportOrchestrator
+        .builder(dataSource, directory.toString())
+        .addTable("smallTable")
+        .addTable("missingTable")
+        .withMaxWriterMemory(1)
+        .build()
+        .run();
+
+    assertEquals(1, report.getFailures().size());
+    assertEquals("missingTable", report.getFailures().get(0).getName());
+    assertNotNull(report.getFailures().get(0).getError());
+    assertEquals(10, countRows(directory.resolve("smallTable.parquet").toString()));
+  }
+
+  @Test
+  public void run_failedHalfway_leavesNoFile(@TempDir Path directory) throws Exception {
+    // lazy execution: the division by zero is raised while the rows are fetched, after the writer is opened
+    JdbcConnectionPool lazyDataSource = JdbcConnectionPool.create("jdbc:h2:mem:orchestrator;LAZY_QUERY_EXECUTION=1", "sa", "sa");
+    try {
+      ExportOrchestrator.Report report = ExportOrchestrator
+          .builder(lazyDataSource, directory.toString())
+          .addQuery("ratios", "select id, cast(1000 / (id - 900) as int) as ratio from largeTable")
+          .withFetchSize(10)
+          .build()
+          .run();
+
+      assertEquals(1, report.getFailures().size());
+      assertNotNull(report.getFailures().get(0).getError());
+      assertEquals(0, directory.toFile().list().length);
+    } finally {
+      lazyDataSource.dispose();
+    }
+  }
+
+  @Test
+  public void run_pendingFileOfAKilledRun_replaced(@TempDir Path directory) throws Exception {
+    File pendingFile = directory.resolve(".smallTable.parquet.pending").toFile();
+    assertTrue(pendingFile.createNewFile());
+
+    ExportOrchestrator.Report report = ExportOrchestrator
+        .builder(dataSource, directory.toString())
+        .addTable("smallTable")
+        .build()
+        .run();
+
+    assertTrue(report.getFailures().isEmpty());
+    assertFalse(pendingFile.exists());
+    assertEquals(10, countRows(directory.resolve("smallTable.parquet").toString()));
+  }
+
+  private long countRows(String path) throws Exception {
+    SQLParquetReader parquetReader = new SQLParquetReader(path, new Configuration());
+    long count = 0;
+    for (Record record = parquetReader.read(); record != null; record = parquetReader.read()) {
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,89 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExportPipelineTest {
+
+  private static final String url = "jdbc:h2:mem:pipeline;DB_CLOSE_DELAY=-1";
+  private static final String tableName = "pipelineTable";
+  private static final int rowCount = 2000;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection
+          .prepareStatement(String.format("CREATE TABLE %s (id DECIMAL(10, 0), name VARCHAR(20))", tableName))
+          .execute();
+
+      PreparedStatement insert = connection.prepareStatement(String.format("INSERT INTO %s VALUES (?, ?)", tableName));
+      for (int i = 0; i < rowCount; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        insert.setString(2, i % 10 == 0 ? null : "name" + i);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection.prepareStatement("DROP TABLE " + tableName).execute();
+    }
+  }
+
+  @Test
+  public void run_parallelConversion_writesAllRows(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("pipeline.parquet").toString();
+
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      JDBCReader jdbcReader = new JDBCReader(connection, tableName, 100);
+      ExportPipeline.Statistics statistics = ExportPipeline
+          .builder(jdbcReader, SQLParquetWriter.recordBuilder(file).withSchema("schema", jdbcReader.getMetaData()))
+          .withQueueCapacity(16)
+          .withConvertParallelism(3)
+          .build()
+          .run();
+      jdbcReader.close();
+
+      assertEquals(rowCount, statistics.getFetch().getRows());
+      assertEquals(rowCount, statistics.getConvert().getRows());
+      assertEquals(rowCount, statistics.getEncode().getRows());
+    }
+
+    SQLParquetReader parquetReader = new SQLParquetReader(file, new Configuration());
+    long count = 0;
+    BigDecimal idSum = BigDecimal.ZERO;
+    for (Record record = parquetReader.read(); record != null; record = parquetReader.read()) {
+      count++;
+      idSum = idSum.add((BigDecimal) record.getFields().get(0).getValue());
+    }
+    assertEquals(rowCount, count);
+    assertEquals(BigDecimal.valueOf((long) rowCount * (rowCount - 1) / 2), idSum);
+  }
+
+  @Test
+  public void builder_invalidParallelism_throwsIllegalArgumentException() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      JDBCReader jdbcReader = new JDBCReader(connection, tableName, 100);
+      ExportPipeline.Builder builder = ExportPipeline.builder(jdbcReader, SQLParquetWriter.recordBuilder("unused"));
+
+      assertThrows(IllegalArgumentException.class, () -> builder.withConvertParallelism(0));
+      jdbcReader.close();
+    }
+  }
+}
@@ -0,0 +1,203 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.Watermark;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import org.apache.hadoop.conf.Configuration;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalExportTest {
+
+  private final static JdbcConnectionPool dataSource = JdbcConnectionPool.create("jdbc:h2:mem:incremental;DB_CLOSE_DELAY=-1", "sa", "sa");
+  private static final String tableName = "incrementalTable";
+
+  @BeforeEach
+  public void beforeEach() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection
+          .prepareStatement(String.format("CREATE TABLE %s (id DECIMAL(10, 0), name VARCHAR(20))", tableName))
+          .execute();
+    }
+  }
+
+  @AfterEach
+  public void afterEach() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("DROP TABLE " + tableName).execute();
+    }
+  }
+
+  private static void insert(int fromId, int toId) throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      PreparedStatement insert = connection.prepareStatement(String.format("INSERT INTO %s VALUES (?, ?)", tableName));
+      for (int id = fromId; id <= toId; id++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(id));
+        insert.setString(2, "name" + id);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @Test
+  public void run_exportsOnlyNewRowsOfEachRun(@TempDir Path directory) throws Exception {
+    IncrementalExport export = IncrementalExport
+        .builder(dataSource, tableName, "id", directory.toString())
+        .build();
+
+    insert(1, 3);
+    assertEquals(3, export.run());
+    insert(4, 5);
+    assertEquals(2, export.run());
+    // nothing new, no part written
+    assertEquals(0, export.run());
+
+    File[] parts = directory.toFile().listFiles((File f) -> f.getName().endsWith(".parquet"));
+    assertEquals(2, parts.length);
+    assertEquals(2, countRows(directory.resolve("part-00001.parquet").toString()));
+    assertEquals(5, countRows(directory.toString()));
+
+    Optional<Watermark> watermark = IncrementalExport.readWatermark(directory.toString(), new Configuration());
+    assertTrue(watermark.isPresent());
+    assertEquals("ID", watermark.get().getColumn());
+    assertEquals(new BigDecimal("5"), watermark.get().getValue());
+  }
+
+  @Test
+  public void run_failedHalfway_nextRunExportsAllTheRows(@TempDir Path directory) throws Exception {
+    insert(1, 10);
+
+    IncrementalExport failingExport = IncrementalExport
+        .builder(failingAfter(DataSource.class, dataSource, 5), tableName, "id", directory.toString())
+        .withFetchSize(2)
+        .build();
+    assertThrows(SQLException.class, failingExport::run);
+    assertEquals(0, directory.toFile().list().length);
+    assertFalse(IncrementalExport.readWatermark(directory.toString(), new Configuration()).isPresent());
+
+    IncrementalExport export = IncrementalExport
+        .builder(dataSource, tableName, "id", directory.toString())
+        .build();
+    assertEquals(10, export.run());
+    assertEquals(10, countRows(directory.toString()));
+  }
+
+  @Test
+  public void run_pendingPartOfAKilledRun_replaced(@TempDir Path directory) throws Exception {
+    insert(1, 3);
+    File pendingPart = directory.resolve(".part-00000.parquet.pending").toFile();
+    assertTrue(pendingPart.createNewFile());
+
+    IncrementalExport export = IncrementalExport
+        .builder(dataSource, tableName, "id", directory.toString())
+        .build();
+    assertEquals(3, export.run());
+    assertFalse(pendingPart.exists());
+    assertEquals(3, countRows(directory.resolve("part-00000.parquet").toString()));
+  }
+
+  // result sets of the connections fail after rowCount rows
+  private static <T> T failingAfter(Class<T> type, T target, int rowCount) {
+    AtomicInteger rows = new AtomicInteger();
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+      if (target instanceof ResultSet && method.getName().equals("next") && rows.incrementAndGet() > rowCount) {
+        throw new SQLException("Connection lost");
+      }
+      Object result;
+      try {
+        result = method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+      if (result instanceof Connection) {
+        return failingAfter(Connection.class, (Connection) result, rowCount);
+      } else if (result instanceof PreparedStatement) {
+        return failingAfter(PreparedStatement.class, (PreparedStatement) result, rowCount);
+      } else if (result instanceof ResultSet) {
+        return failingAfter(ResultSet.class, (ResultSet) result, rowCount);
+      }
+      return result;
+    }));
+  }
+
+  @Test
+  public void readWatermark_noDirectory_empty(@TempDir Path directory) throws Exception {
+    assertFalse(IncrementalExport.readWatermark(directory.resolve("missing").toString(), new Configuration()).isPresent());
+  }
+
+  @Test
+  public void watermark_metaDataRoundTrip() {
+    Timestamp timestamp = Timestamp.valueOf("2026-10-17 08:30:00.123");
+    Watermark watermark = new Watermark("updated_at", null)
+        .max(timestamp)
+        .max(Timestamp.valueOf("2026-10-16 08:30:00"));
+
+    Map<String, String> metaData = watermark.toMetaData();
+    Optional<Watermark> read = Watermark.fromMetaData(metaData);
+
+    // epoch micros, independent of the default zone
+    assertEquals(Long.toString(timestamp.getTime() * 1000), metaData.get(Watermark.VALUE_KEY));
+
+    assertTrue(read.isPresent());
+    assertEquals("updated_at", read.get().getColumn());
+    assertEquals(timestamp, read.get().getValue());
+    assertEquals("updated_at > ?", read.get().predicate());
+    assertTrue(new Watermark("id", null).toMetaData().isEmpty());
+  }
+
+  @Test
+  public void watermark_javaTimeValues_heldAsTimestamps() {
+    LocalDateTime localDateTime = LocalDateTime.of(2026, 10, 17, 8, 30, 0, 123_456_000);
+    Watermark watermark = new Watermark("updated_at", null)
+        .max(localDateTime)
+        .max(Timestamp.valueOf("2026-10-16 08:30:00"))
+        .max(OffsetDateTime.of(2026, 10, 15, 8, 30, 0, 0, ZoneOffset.UTC));
+
+    assertEquals(Timestamp.valueOf(localDateTime), watermark.getValue());
+    Optional<Watermark> read = Watermark.fromMetaData(watermark.toMetaData());
+    assertTrue(read.isPresent());
+    assertEquals(Timestamp.valueOf(localDateTime), read.get().getValue());
+
+    Instant instant = Instant.parse("2026-10-18T08:30:00Z");
+    watermark = watermark.max(OffsetDateTime.ofInstant(instant, ZoneOffset.ofHours(2)));
+    assertEquals(Timestamp.from(instant), Watermark.fromMetaData(watermark.toMetaData()).get().getValue());
+
+    watermark = new Watermark("day", LocalDate.of(2026, 10, 17));
+    assertEquals(Date.valueOf("2026-10-17"), Watermark.fromMetaData(watermark.toMetaData()).get().getValue());
+  }
+
+  private long countRows(String path) throws Exception {
+    SQLParquetReader parquetReader = new SQLParquetReader(path, new Configuration());
+    long count = 0;
+    for (Record record = parquetReader.read(); record != null; record = parquetReader.read()) {
+      count++;
+    }
+    return count;
+  }
+}
@@ -1,7 +1,11 @@
 package io.github.anthorx.parquet.sql.api;
 
+import io.github.anthorx.parquet.sql.jdbc.AdaptiveFetchSize;
+import io.github.anthorx.parquet.sql.jdbc.model.IntColumnVector;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLBatch;
 import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
 import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.jdbc.model.Watermark;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,8 +16,7 @@ import javax.sql.DataSource;
 import java.sql.*;
 import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -105,6 +108,24 @@ class JDBCReaderTest {
     assertEquals(value, field.getValue());
   }
 
+  @Test
+  void readBatch() throws SQLException {
+    // Given two rows, the second one null
+    when(resultSet.next()).thenReturn(true, true, false);
+    when(resultSet.getInt(1)).thenReturn(value, 0);
+    when(resultSet.wasNull()).thenReturn(false, true);
+
+    SQLBatch actual = jdbcReader.readBatch(10);
+
+    assertEquals(2, actual.size());
+    IntColumnVector column = (IntColumnVector) actual.getColumn(0);
+    assertEquals(columnName, column.getName());
+    assertEquals(value, column.getInt(0));
+    assertFalse(column.isNull(0));
+    assertTrue(column.isNull(1));
+    assertNull(jdbcReader.readBatch(10));
+  }
+
   @Test
   void read_no_row() throws SQLException {
     // Given no row
@@ -124,4 +145,57 @@ class JDBCReaderTest {
     verify(connection).close();
     verify(preparedStatement).close();
   }
-}
\ No newline at end of file
+
+  @Test
+  void builder_columnsAndWhere_projectedQuery() throws SQLException {
+    JDBCReader.builder(connection, tableName)
+        .withColumns("id", "amount")
+        .withWhere("country = ?", "FR")
+        .withWhere("amount > ?", 100)
+        .withWatermark(new Watermark("id", 42L))
+        .withFetchSize(500)
+        .build();
+
+    verify(connection).prepareStatement("select id, amount from " + tableName + " where (country = ?) and (amount > ?) and id > ? order by id");
+    verify(preparedStatement).setFetchSize(500);
+    verify(preparedStatement).setObject(1, "FR");
+    verify(preparedStatement).setObject(2, 100);
+    verify(preparedStatement).setObject(3, 42L);
+  }
+
+  @Test
+  void queryBuilder_bindsParameters() throws SQLException {
+    String query = "select a.id from a join b on a.id = b.id where b.day = ?";
+    Date day = Date.valueOf("2026-10-17");
+
+    JDBCReader.queryBuilder(connection, query, day).build();
+
+    verify(connection).prepareStatement(query);
+    verify(preparedStatement).setObject(1, day);
+  }
+
+  @Test
+  void queryBuilder_withColumns_fails() {
+    JDBCReader.Builder builder = JDBCReader.queryBuilder(connection, "select id from tableName");
+
+    assertThrows(IllegalStateException.class, () -> builder.withColumns("id"));
+  }
+
+  @Test
+  void builder_adaptiveFetchSize_resizesTheResultSet() throws SQLException {
+    JDBCReader adaptiveReader = JDBCReader.builder(connection, tableName)
+        .withFetchSize(2)
+        .withAdaptiveFetchSize(1024, 1000)
+        .build();
+    doReturn(true).when(resultSet).next();
+    doReturn("a value long enough to fill a fetch of 1KB quickly, a value long enough").when(resultSet).getObject(1);
+
+    adaptiveReader.read();
+    adaptiveReader.read();
+
+    // about 6 rows hold 1KB, raised to the minimum fetch size
+    verify(resultSet).setFetchSize(AdaptiveFetchSize.DEFAULT_MIN_FETCH_SIZE);
+    assertEquals(AdaptiveFetchSize.DEFAULT_MIN_FETCH_SIZE, adaptiveReader.getAdaptiveFetchSize().get().getFetchSize());
+    assertFalse(jdbcReader.getAdaptiveFetchSize().isPresent());
+  }
+}
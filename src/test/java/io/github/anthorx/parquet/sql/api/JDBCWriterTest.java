@@ -9,6 +9,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.TimeZone;
@@ -147,4 +149,19 @@ public class JDBCWriterTest {
             argThat((c) -> c.getTimeZone().equals(tz))
         );
   }
+
+  @Test
+  public void setObject_javaTimeNotSupported_bindsTimestamp() throws SQLException {
+    LocalDateTime localDateTime = LocalDateTime.of(2020, 1, 1, 10, 0, 0, 123_456_000);
+    doThrow(new SQLFeatureNotSupportedException()).when(preparedStatement).setObject(1, localDateTime);
+
+    jdbcWriter.setObject(localDateTime);
+    jdbcWriter.addBatch();
+    jdbcWriter.setObject(LocalDate.of(2020, 1, 1));
+
+    verify(preparedStatement).setTimestamp(1, Timestamp.valueOf(localDateTime));
+    // the driver isn't asked again
+    verify(preparedStatement).setDate(1, Date.valueOf("2020-01-01"));
+    verify(preparedStatement, never()).setObject(1, LocalDate.of(2020, 1, 1));
+  }
 }
@@ -0,0 +1,217 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.read.RecordFilter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSQLParquetReaderTest {
+
+  private final static JdbcConnectionPool dataSource = JdbcConnectionPool.create("jdbc:h2:mem:parallelRead;DB_CLOSE_DELAY=-1", "sa", "sa");
+  private static final int rowCount = 20_000;
+
+  @TempDir
+  static Path directory;
+  private static String file;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    file = directory.resolve("rowGroups.parquet").toString();
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("CREATE TABLE source (id DECIMAL(10, 0), name VARCHAR(20))").execute();
+      connection.prepareStatement("CREATE TABLE target (id DECIMAL(10, 0), name VARCHAR(20))").execute();
+      PreparedStatement insert = connection.prepareStatement("INSERT INTO source VALUES (?, ?)");
+      for (int i = 0; i < rowCount; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        insert.setString(2, "name" + i);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+
+      // small row groups, to get many splits
+      JDBCReader jdbcReader = new JDBCReader(connection, "source ORDER BY id", 1000);
+      try (ParquetWriter<SQLRow> writer = SQLParquetWriter
+          .builder(file)
+          .withSchema("schema", jdbcReader.getMetaData())
+          .withRowGroupSize(16 * 1024)
+          .build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      }
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("DROP TABLE source").execute();
+      connection.prepareStatement("DROP TABLE target").execute();
+    }
+  }
+
+  private static int id(Record record) {
+    return ((BigDecimal) record.getField("ID").get().getValue()).intValue();
+  }
+
+  @Test
+  public void read_ordered_recordsInFileOrder() throws Exception {
+    try (ParallelSQLParquetReader reader = ParallelSQLParquetReader.builder(file, new Configuration())
+        .withParallelism(4)
+        .withQueueCapacity(100)
+        .build()) {
+      assertTrue(reader.getSplits().size() > 4);
+      assertEquals(rowCount, reader.getSplits().stream().mapToLong(ParallelSQLParquetReader.Split::getRowCount).sum());
+
+      int expected = 0;
+      for (Record record = reader.read(); record != null; record = reader.read()) {
+        assertEquals(expected, id(record));
+        assertEquals("name" + expected, record.getField("NAME").get().getValue());
+        expected++;
+      }
+      assertEquals(rowCount, expected);
+      assertNull(reader.read());
+    }
+  }
+
+  @Test
+  public void read_unordered_everyRecordOnce() throws Exception {
+    try (ParallelSQLParquetReader reader = ParallelSQLParquetReader.builder(file, new Configuration())
+        .withParallelism(4)
+        .withRowGroupsPerSplit(2)
+        .withOrder(false)
+        .build()) {
+      BitSet ids = new BitSet();
+      int count = 0;
+      for (Record record = reader.read(); record != null; record = reader.read()) {
+        ids.set(id(record));
+        count++;
+      }
+      assertEquals(rowCount, count);
+      assertEquals(rowCount, ids.cardinality());
+    }
+  }
+
+  @Test
+  public void importInto_workerPerConnection() throws Exception {
+    try (ParallelSQLParquetReader reader = ParallelSQLParquetReader.builder(file, new Configuration())
+        .withParallelism(3)
+        .build()) {
+      assertEquals(rowCount, reader.importInto(dataSource, "target", 500));
+    }
+
+    try (Connection connection = dataSource.getConnection();
+         ResultSet resultSet = connection.prepareStatement("SELECT count(DISTINCT id), sum(id) FROM target").executeQuery()) {
+      resultSet.next();
+      assertEquals(rowCount, resultSet.getInt(1));
+      assertEquals((long) rowCount * (rowCount - 1) / 2, resultSet.getLong(2));
+    }
+  }
+
+  @Test
+  public void forEach_workerError_thrown() throws Exception {
+    try (ParallelSQLParquetReader reader = ParallelSQLParquetReader.builder(file, new Configuration())
+        .withParallelism(2)
+        .build()) {
+      SQLException exception = assertThrows(SQLException.class, () -> reader.forEach(() -> record -> {
+        throw new SQLException("insert failed");
+      }));
+      assertEquals("insert failed", exception.getMessage());
+    }
+  }
+
+  @Test
+  public void forEach_oneSplitFails_otherWorkersStopped() throws Exception {
+    AtomicInteger othersRead = new AtomicInteger();
+    AtomicInteger closedWorkers = new AtomicInteger();
+    try (ParallelSQLParquetReader reader = ParallelSQLParquetReader.builder(file, new Configuration())
+        .withParallelism(4)
+        .build()) {
+      SQLException exception = assertThrows(SQLException.class, () -> reader.forEach(() -> new ParallelSQLParquetReader.RecordWorker() {
+        @Override
+        public void accept(Record record) throws SQLException {
+          if (id(record) != 0) {
+            othersRead.incrementAndGet();
+            return;
+          }
+          // only the first split fails, once the other workers are reading
+          long deadline = System.currentTimeMillis() + 10_000;
+          while (othersRead.get() < 500 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+          }
+          throw new SQLException("constraint violated");
+        }
+
+        @Override
+        public void close() {
+          closedWorkers.incrementAndGet();
+        }
+      }));
+      assertEquals("constraint violated", exception.getMessage());
+      assertEquals(4, closedWorkers.get());
+      int read = othersRead.get();
+      assertTrue(read < rowCount / 2, read + " records read after the failure");
+      Thread.sleep(100);
+      assertEquals(read, othersRead.get());
+    }
+  }
+
+  @Test
+  public void split_rowGroupsGroupedByRange() throws Exception {
+    try (ParallelSQLParquetReader reader = ParallelSQLParquetReader.builder(file, new Configuration())
+        .withRowGroupsPerSplit(3)
+        .build()) {
+      List<ParallelSQLParquetReader.Split> splits = reader.getSplits();
+      for (int index = 0; index < splits.size(); index++) {
+        assertEquals(index * 3, splits.get(index).getFirstRowGroup());
+      }
+      assertTrue(splits.get(splits.size() - 1).getRowGroupCount() <= 3);
+    }
+  }
+
+  @Test
+  public void read_projectedColumns() throws Exception {
+    try (ParallelSQLParquetReader reader = ParallelSQLParquetReader.builder(file, new Configuration())
+        .withColumns(Collections.singletonList("name"))
+        .build()) {
+      assertEquals(Collections.singletonList("NAME"), reader.getFieldsNames());
+      Record record = reader.read();
+      assertEquals(1, record.getFields().size());
+      assertEquals("name0", record.getField("NAME").get().getValue());
+    }
+  }
+
+  @Test
+  public void read_filtered_onlyMatchingRecords() throws Exception {
+    try (ParallelSQLParquetReader reader = ParallelSQLParquetReader.builder(file, new Configuration())
+        .withParallelism(4)
+        .withFilter(RecordFilter.gtEq("id", new BigDecimal(rowCount - 100)))
+        .build()) {
+      int expected = rowCount - 100;
+      for (Record record = reader.read(); record != null; record = reader.read()) {
+        assertEquals(expected, id(record));
+        expected++;
+      }
+      assertEquals(rowCount, expected);
+    }
+  }
+}
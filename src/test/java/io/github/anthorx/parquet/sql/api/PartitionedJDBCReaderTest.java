@@ -0,0 +1,114 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.KeyRange;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import org.apache.hadoop.conf.Configuration;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PartitionedJDBCReaderTest {
+
+  private final static JdbcConnectionPool dataSource = JdbcConnectionPool.create("jdbc:h2:mem:partitioned;DB_CLOSE_DELAY=-1", "sa", "sa");
+  private static final String tableName = "partitionedTable";
+  private static final int rowCount = 1000;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection
+          .prepareStatement(String.format("CREATE TABLE %s (id DECIMAL(10, 0), name VARCHAR(20))", tableName))
+          .execute();
+
+      PreparedStatement insert = connection.prepareStatement(String.format("INSERT INTO %s VALUES (?, ?)", tableName));
+      for (int i = 0; i < rowCount; i++) {
+        // one row without split key to check it is exported too
+        insert.setBigDecimal(1, i == 0 ? null : BigDecimal.valueOf(i));
+        insert.setString(2, "name" + i);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("DROP TABLE " + tableName).execute();
+    }
+    dataSource.dispose();
+  }
+
+  private PartitionedJDBCReader reader(int partitionCount) {
+    return PartitionedJDBCReader
+        .builder(dataSource, tableName, "id")
+        .withPartitionCount(partitionCount)
+        .withFetchSize(100)
+        .withConsistentSnapshot(true)
+        .build();
+  }
+
+  @Test
+  public void computeRanges_coversTheWholeKeySpace() throws Exception {
+    List<KeyRange> ranges = reader(4).computeRanges();
+
+    assertEquals(4, ranges.size());
+    assertEquals(null, ranges.get(0).getLowerInclusive());
+    assertTrue(ranges.get(0).isIncludeNulls());
+    assertEquals(null, ranges.get(3).getUpperExclusive());
+    for (int i = 1; i < ranges.size(); i++) {
+      assertEquals(ranges.get(i - 1).getUpperExclusive(), ranges.get(i).getLowerInclusive());
+    }
+  }
+
+  @Test
+  public void split_smallKeySpace_lessRanges() {
+    List<KeyRange> ranges = KeyRange.split(1L, 2L, 8);
+
+    assertEquals(2, ranges.size());
+    assertEquals(2L, ranges.get(0).getUpperExclusive());
+  }
+
+  @Test
+  public void exportToFiles_writesOneFilePerRange(@TempDir Path directory) throws Exception {
+    long exported = reader(4).exportToFiles(directory.toString(), "schema");
+
+    assertEquals(rowCount, exported);
+    assertEquals(4, directory.toFile().listFiles((File f) -> f.getName().endsWith(".parquet")).length);
+    assertEquals(rowCount, countRows(directory.toString()));
+  }
+
+  @Test
+  public void exportMerged_writesAllRowsInOneFile(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("merged.parquet").toString();
+
+    long exported = reader(3).exportMerged(metaData -> SQLParquetWriter
+        .builder(file)
+        .withSchema("schema", metaData)
+        .build());
+
+    assertEquals(rowCount, exported);
+    assertEquals(rowCount, countRows(file));
+  }
+
+  private long countRows(String path) throws Exception {
+    SQLParquetReader parquetReader = new SQLParquetReader(path, new Configuration());
+    long count = 0;
+    for (Record record = parquetReader.read(); record != null; record = parquetReader.read()) {
+      count++;
+    }
+    return count;
+  }
+}
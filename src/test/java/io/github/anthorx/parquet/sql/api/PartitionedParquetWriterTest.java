@@ -0,0 +1,104 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedParquetWriterTest {
+
+  private static final String url = "jdbc:h2:mem:partitionedWriter;DB_CLOSE_DELAY=-1";
+  private static final String tableName = "partitionedWriterTable";
+  private static final String[] regions = {"eu", "us", "a/b"};
+  private static final int rowCount = 600;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection
+          .prepareStatement(String.format("CREATE TABLE %s (id DECIMAL(10, 0), region VARCHAR(20), dt VARCHAR(10))", tableName))
+          .execute();
+
+      PreparedStatement insert = connection.prepareStatement(String.format("INSERT INTO %s VALUES (?, ?, ?)", tableName));
+      for (int i = 0; i < rowCount; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        // blocks of 50 rows per region, one null region row
+        insert.setString(2, i == 1 ? null : regions[(i / 50) % regions.length]);
+        insert.setString(3, i < rowCount / 2 ? "2026-10-17" : "2026-10-18");
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection.prepareStatement("DROP TABLE " + tableName).execute();
+    }
+  }
+
+  @Test
+  public void write_rowsSplitInPartitionDirectories(@TempDir Path directory) throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      JDBCReader jdbcReader = new JDBCReader(connection, tableName + " ORDER BY id", 100);
+      try (PartitionedParquetWriter writer = SQLParquetWriter
+          .partitionedBuilder(directory.toString(), "schema", jdbcReader.getMetaData(), "dt", "region")
+          .withMaxOpenWriters(2)
+          .build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+          assertTrue(writer.getOpenWriterCount() <= 2);
+        }
+      }
+    }
+
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      files = walk.filter(p -> p.toString().endsWith(".parquet")).collect(Collectors.toList());
+    }
+    assertTrue(files.contains(directory.resolve("dt=2026-10-17/region=eu/part-00000.parquet")));
+    assertTrue(files.contains(directory.resolve("dt=2026-10-18/region=a%2Fb/part-00000.parquet")));
+    assertTrue(files.contains(directory.resolve("dt=2026-10-17/region=__HIVE_DEFAULT_PARTITION__/part-00000.parquet")));
+    // partitions evicted and written again get a new part file
+    assertTrue(files.contains(directory.resolve("dt=2026-10-17/region=eu/part-00001.parquet")));
+
+    long count = 0;
+    for (Path file : files) {
+      SQLParquetReader parquetReader = new SQLParquetReader(file.toString(), new Configuration());
+      assertEquals(Arrays.asList("ID"), parquetReader.getFieldsNames());
+      for (Record record = parquetReader.read(); record != null; record = parquetReader.read()) {
+        count++;
+      }
+    }
+    assertEquals(rowCount, count);
+  }
+
+  @Test
+  public void build_unknownPartitionColumn_throwsIllegalArgumentException(@TempDir Path directory) throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      JDBCReader jdbcReader = new JDBCReader(connection, tableName, 100);
+      PartitionedParquetWriter.Builder builder = SQLParquetWriter
+          .partitionedBuilder(directory.toString(), "schema", jdbcReader.getMetaData(), "unknown");
+
+      assertThrows(IllegalArgumentException.class, builder::build);
+    }
+  }
+}
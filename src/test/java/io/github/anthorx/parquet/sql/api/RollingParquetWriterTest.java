@@ -0,0 +1,108 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingParquetWriterTest {
+
+  private static final String url = "jdbc:h2:mem:rolling;DB_CLOSE_DELAY=-1";
+  private static final String tableName = "rollingTable";
+  private static final int rowCount = 1050;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection
+          .prepareStatement(String.format("CREATE TABLE %s (id DECIMAL(10, 0), name VARCHAR(20))", tableName))
+          .execute();
+
+      PreparedStatement insert = connection.prepareStatement(String.format("INSERT INTO %s VALUES (?, ?)", tableName));
+      for (int i = 0; i < rowCount; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        insert.setString(2, "name" + i);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection.prepareStatement("DROP TABLE " + tableName).execute();
+    }
+  }
+
+  @Test
+  public void write_maxRowsPerFile_rollsOverPartFiles(@TempDir Path directory) throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      JDBCReader jdbcReader = new JDBCReader(connection, tableName + " ORDER BY id", 100);
+      try (RollingParquetWriter<SQLRow> writer = SQLParquetWriter
+          .rollingBuilder(directory.toString(), "schema", jdbcReader.getMetaData())
+          .withMaxRowsPerFile(250)
+          .build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+        assertEquals(5, writer.getFiles().size());
+      }
+    }
+
+    String[] parts = directory.toFile().list((File dir, String name) -> name.endsWith(".parquet"));
+    Arrays.sort(parts);
+    assertArrayEquals(new String[]{"part-00000.parquet", "part-00001.parquet", "part-00002.parquet",
+        "part-00003.parquet", "part-00004.parquet"}, parts);
+
+    // folder read back in the written order
+    SQLParquetReader parquetReader = new SQLParquetReader(directory.toString(), new Configuration());
+    int i = 0;
+    for (Record record = parquetReader.read(); record != null; record = parquetReader.read(), i++) {
+      assertEquals(BigDecimal.valueOf(i), record.getField("ID").get().getValue());
+    }
+    assertEquals(rowCount, i);
+  }
+
+  @Test
+  public void write_maxFileSize_rollsOverPartFiles(@TempDir Path directory) throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      JDBCReader jdbcReader = new JDBCReader(connection, tableName, 100);
+      try (RollingParquetWriter<SQLRow> writer = SQLParquetWriter
+          .rollingBuilder(directory.toString(), "schema", jdbcReader.getMetaData())
+          .withMaxFileSize(1)
+          .build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+        // size is checked every 100 rows
+        assertEquals(11, writer.getFiles().size());
+      }
+    }
+  }
+
+  @Test
+  public void close_noRow_noFile(@TempDir Path directory) throws Exception {
+    RollingParquetWriter<SQLRow> writer = RollingParquetWriter.<SQLRow>builder(directory.toString(), file -> {
+          throw new IllegalStateException("no part expected");
+        })
+        .build();
+
+    writer.close();
+
+    assertTrue(writer.getFiles().isEmpty());
+  }
+}
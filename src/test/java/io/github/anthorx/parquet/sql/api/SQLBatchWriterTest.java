@@ -0,0 +1,143 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLBatch;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLBatchWriterTest {
+
+  private static final String url = "jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1";
+  private static final String tableName = "batchTable";
+  private static final int rowCount = 250;
+  private static final Timestamp timestamp = Timestamp.valueOf("2021-03-04 05:06:07.089");
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection
+          .prepareStatement(String.format("CREATE TABLE %s (id DECIMAL(10, 0), amount DECIMAL(12, 2), " +
+              "big DECIMAL(25, 3), label VARCHAR(20), ts TIMESTAMP)", tableName))
+          .execute();
+
+      PreparedStatement insert = connection.prepareStatement(String.format("INSERT INTO %s VALUES (?, ?, ?, ?, ?)", tableName));
+      for (int i = 0; i < rowCount; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        insert.setBigDecimal(2, BigDecimal.valueOf(i * 100 + 25, 2));
+        insert.setBigDecimal(3, new BigDecimal("1234567890123456789012.345"));
+        insert.setString(4, i % 7 == 0 ? null : (i % 2 == 0 ? "ascii" + i : "héllo" + i));
+        insert.setTimestamp(5, timestamp);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection.prepareStatement("DROP TABLE " + tableName).execute();
+    }
+  }
+
+  @Test
+  public void write_batches_readBackAllValues(@TempDir Path directory) throws Exception {
+    TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    String file = directory.resolve("batch.parquet").toString();
+
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      JDBCReader jdbcReader = new JDBCReader(connection, tableName, 50);
+      try (SQLBatchWriter writer = SQLParquetWriter
+          .batchBuilder(file)
+          .withSchema("schema", jdbcReader.getMetaData())
+          .build()) {
+        for (SQLBatch batch = jdbcReader.readBatch(64); batch != null; batch = jdbcReader.readBatch(64)) {
+          writer.write(batch);
+        }
+      }
+    }
+
+    SQLParquetReader parquetReader = new SQLParquetReader(file, new Configuration());
+    int i = 0;
+    for (Record record = parquetReader.read(); record != null; record = parquetReader.read(), i++) {
+      assertEquals(BigDecimal.valueOf(i), record.getField("ID").get().getValue());
+      assertEquals(BigDecimal.valueOf(i * 100 + 25, 2), record.getField("AMOUNT").get().getValue());
+      assertEquals(new BigDecimal("1234567890123456789012.345"), record.getField("BIG").get().getValue());
+      if (i % 7 == 0) {
+        assertFalse(record.getField("LABEL").isPresent());
+      } else {
+        assertEquals(i % 2 == 0 ? "ascii" + i : "héllo" + i, record.getField("LABEL").get().getValue());
+      }
+      assertEquals(timestamp, record.getField("TS").get().getValue());
+    }
+    assertEquals(rowCount, i);
+  }
+
+  @Test
+  public void readBatch_lastBatch_partiallyFilled() throws Exception {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      JDBCReader jdbcReader = new JDBCReader(connection, tableName, 50);
+
+      assertEquals(200, jdbcReader.readBatch(200).size());
+      assertEquals(50, jdbcReader.readBatch(200).size());
+      assertNull(jdbcReader.readBatch(200));
+    }
+  }
+
+  @Test
+  public void write_integersAndFloats_keepTheirType(@TempDir Path directory) throws Exception {
+    String batchFile = directory.resolve("batch.parquet").toString();
+    String rowFile = directory.resolve("rows.parquet").toString();
+    try (Connection connection = DriverManager.getConnection(url, "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE batchNumbers (i INTEGER, s SMALLINT, l BIGINT, f REAL)").execute();
+      try {
+        connection.prepareStatement("INSERT INTO batchNumbers VALUES (1, 2, 3000000000, 1.25), (NULL, NULL, NULL, NULL)").execute();
+
+        JDBCReader batchReader = new JDBCReader(connection, "batchNumbers", 50);
+        try (SQLBatchWriter writer = SQLParquetWriter
+            .batchBuilder(batchFile)
+            .withSchema("schema", batchReader.getMetaData())
+            .build()) {
+          writer.write(batchReader.readBatch(10));
+        }
+        JDBCReader rowReader = new JDBCReader(connection, "batchNumbers", 50);
+        try (ParquetWriter<SQLRow> writer = SQLParquetWriter
+            .builder(rowFile)
+            .withSchema("schema", rowReader.getMetaData())
+            .build()) {
+          for (SQLRow row = rowReader.read(); row != null; row = rowReader.read()) {
+            writer.write(row);
+          }
+        }
+      } finally {
+        connection.prepareStatement("DROP TABLE batchNumbers").execute();
+      }
+    }
+
+    for (String file : new String[]{batchFile, rowFile}) {
+      SQLParquetReader parquetReader = new SQLParquetReader(file, new Configuration());
+      Record record = parquetReader.read();
+      assertEquals(1, record.getField("I").get().getValue());
+      assertEquals(2, record.getField("S").get().getValue());
+      assertEquals(3_000_000_000L, record.getField("L").get().getValue());
+      assertEquals(1.25f, record.getField("F").get().getValue());
+      assertTrue(parquetReader.read().getFields().isEmpty());
+    }
+  }
+}
@@ -17,16 +17,22 @@ package io.github.anthorx.parquet.sql.api;
 
 import io.github.anthorx.parquet.sql.parquet.model.Record;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.parquet.read.SQLReadSupport;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.schema.Type;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.sql.Connection;
 import java.sql.Date;
+import java.sql.DriverManager;
 import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.TimeZone;
@@ -94,6 +100,19 @@ public class SQLParquetReaderTest {
     assertField("timestamp", record, Timestamp.valueOf("2019-02-04 01:00:00"));
   }
 
+  @Test
+  public void readingJavaTime_independentOfTheLocalTimezone() throws IOException {
+    TimeZone.setDefault(TimeZone.getTimeZone("CET"));
+    Configuration configuration = new Configuration();
+    configuration.setBoolean(SQLReadSupport.JAVA_TIME, true);
+
+    SQLParquetReader sqlParquetReader = new SQLParquetReader(getClass().getResource("/test.parquet").getPath(), configuration);
+    Record record = sqlParquetReader.read();
+
+    assertField("timestamp", record, LocalDateTime.of(2019, 2, 4, 0, 0));
+    assertField("date", record, LocalDate.of(2019, 1, 17));
+  }
+
   @Test
   public void readingParquetFolder() throws IOException {
     SQLParquetReader sqlParquetReader = parquetReader("/test");
@@ -148,4 +167,77 @@ public class SQLParquetReaderTest {
 
     assertNotNull(actual);
   }
+
+  @Test
+  public void read_localFileMapped_sameRecordsAsHadoopStreams() throws IOException {
+    String path = getClass().getResource("/test.parquet").getPath();
+    Configuration hadoopStreams = new Configuration();
+    hadoopStreams.setBoolean(SQLReadSupport.LOCAL_MMAP, false);
+
+    SQLParquetReader mapped = new SQLParquetReader(path, new Configuration());
+    SQLParquetReader hadoop = new SQLParquetReader(path, hadoopStreams);
+    for (Record expected = hadoop.read(); expected != null; expected = hadoop.read()) {
+      Record record = mapped.read();
+      for (String name : hadoop.getFieldsNames()) {
+        assertEquals(expected.getField(name).map(RecordField::getValue), record.getField(name).map(RecordField::getValue));
+      }
+    }
+    assertNull(mapped.read());
+  }
+
+  @Test
+  public void read_reusedRecords_sameValuesAsNewRecords() throws IOException {
+    String path = getClass().getResource("/test.parquet").getPath();
+    Configuration reuse = new Configuration();
+    reuse.setBoolean(SQLReadSupport.REUSE_RECORDS, true);
+
+    SQLParquetReader reused = new SQLParquetReader(path, reuse);
+    SQLParquetReader created = new SQLParquetReader(path, new Configuration());
+    Record first = null;
+    for (Record expected = created.read(); expected != null; expected = created.read()) {
+      Record record = reused.read();
+      first = first == null ? record : first;
+      assertSame(first, record);
+      for (String name : created.getFieldsNames()) {
+        assertEquals(expected.getField(name).map(RecordField::getValue), record.getField(name).map(RecordField::getValue));
+      }
+    }
+    assertNull(reused.read());
+  }
+
+  @Test
+  public void read_projectedColumns_otherColumnsSkipped() throws IOException {
+    String path = getClass().getResource("/test.parquet").getPath();
+
+    SQLParquetReader sqlParquetReader = new SQLParquetReader(path, new Configuration(), Arrays.asList("STRING", "int"));
+
+    // file order, whatever the requested order
+    assertEquals(Arrays.asList("string", "int"), sqlParquetReader.getFieldsNames());
+    Record record = sqlParquetReader.read();
+    assertEquals(2, record.getFields().size());
+    assertField("string", record, "a string");
+    assertField("int", record, 5);
+  }
+
+  @Test
+  public void read_unknownColumn_throws() {
+    String path = getClass().getResource("/test.parquet").getPath();
+
+    assertThrows(IllegalArgumentException.class, () -> new SQLParquetReader(path, new Configuration(), Collections.singletonList("missing")));
+  }
+
+  @Test
+  public void forTable_readsTheColumnsOfTheTable() throws Exception {
+    String path = getClass().getResource("/test.parquet").getPath();
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:projection", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE target (\"string\" VARCHAR(20), other INT, \"bool\" BOOLEAN)").execute();
+
+      SQLParquetReader sqlParquetReader = SQLParquetReader.forTable(path, new Configuration(), connection, "target");
+
+      assertEquals(Arrays.asList("string", "bool"), sqlParquetReader.getFieldsNames());
+      Record record = sqlParquetReader.read();
+      assertEquals(2, record.getFields().size());
+      assertField("bool", record, true);
+    }
+  }
 }
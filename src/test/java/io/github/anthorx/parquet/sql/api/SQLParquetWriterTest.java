@@ -3,24 +3,44 @@ package io.github.anthorx.parquet.sql.api;
 import io.github.anthorx.parquet.sql.jdbc.model.SQLColumnDefinition;
 import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
 import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.io.LocalOutputFile;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.parquet.read.SQLReadSupport;
+import io.github.anthorx.parquet.sql.parquet.write.ColumnEncoding;
+import io.github.anthorx.parquet.sql.parquet.write.EncodingPlan;
 import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
 import io.github.anthorx.parquet.sql.parquet.write.converter.PrimitiveTypeCreator;
 import io.github.anthorx.parquet.sql.parquet.write.converter.types.ParquetSQLConverter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.InvalidSchemaException;
 import org.apache.parquet.schema.PrimitiveType;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.File;
 import java.io.IOException;
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.doReturn;
@@ -116,6 +136,276 @@ class SQLParquetWriterTest {
     assertAndClose(builder.build());
   }
 
+  @Test
+  void export_resultSet_writesAllRows() throws Exception {
+    Timestamp timestamp;
+
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:export", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE exported (id DECIMAL(10, 0), amount DECIMAL(12, 2), label VARCHAR(20), ts TIMESTAMP)").execute();
+      connection.prepareStatement("INSERT INTO exported VALUES (1, 12.5, 'héllo', '2021-03-04 05:06:07.089'), (2, NULL, NULL, NULL)").execute();
+
+      ResultSet expected = connection.prepareStatement("SELECT ts FROM exported WHERE id = 1").executeQuery();
+      expected.next();
+      // written with the UTC offset like TimestampConverter does
+      long timestampMs = expected.getTimestamp(1).getTime();
+      timestamp = new Timestamp(timestampMs + TimeZone.getDefault().getOffset(timestampMs));
+
+      ResultSet resultSet = connection.prepareStatement("SELECT * FROM exported ORDER BY id").executeQuery();
+      long exported = SQLParquetWriter.export(resultSet, HadoopOutputFile.fromPath(new Path(parquetPath), new Configuration()));
+
+      assertEquals(2, exported);
+    }
+
+    SQLParquetReader parquetReader = new SQLParquetReader(parquetPath, new Configuration());
+    Record first = parquetReader.read();
+    assertEquals(BigDecimal.valueOf(1), first.getField("ID").get().getValue());
+    assertEquals(new BigDecimal("12.50"), first.getField("AMOUNT").get().getValue());
+    assertEquals("héllo", first.getField("LABEL").get().getValue());
+    assertEquals(timestamp, first.getField("TS").get().getValue());
+
+    Record second = parquetReader.read();
+    assertEquals(BigDecimal.valueOf(2), second.getField("ID").get().getValue());
+    assertFalse(second.getField("AMOUNT").isPresent());
+    assertFalse(second.getField("LABEL").isPresent());
+    assertFalse(second.getField("TS").isPresent());
+    assertNull(parquetReader.read());
+  }
+
+  @Test
+  void decimals_writtenRescaledAndReadBack() throws Exception {
+    String exportPath = parquetPath.replace("build.parquet", "export.parquet");
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:decimals", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE amounts (small DECIMAL(8, 2), large DECIMAL(30, 4))").execute();
+      connection.prepareStatement("INSERT INTO amounts VALUES (-12.5, 123456789012345678901.0625), (0.01, -1.5)").execute();
+
+      JDBCReader jdbcReader = new JDBCReader(connection, "amounts", 100);
+      try (ParquetWriter<SQLRow> writer = builder().withSchema(schema, jdbcReader.getMetaData()).build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      }
+      ResultSet resultSet = connection.prepareStatement("SELECT * FROM amounts").executeQuery();
+      SQLParquetWriter.export(resultSet, HadoopOutputFile.fromPath(new Path(exportPath), new Configuration()));
+    }
+
+    for (String path : new String[]{parquetPath, exportPath}) {
+      SQLParquetReader parquetReader = new SQLParquetReader(path, new Configuration());
+      assertEquals(PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY, parquetReader.getSchema().getType("LARGE").asPrimitiveType().getPrimitiveTypeName());
+      Record first = parquetReader.read();
+      assertEquals(new BigDecimal("-12.50"), first.getField("SMALL").get().getValue());
+      assertEquals(new BigDecimal("123456789012345678901.0625"), first.getField("LARGE").get().getValue());
+      Record second = parquetReader.read();
+      assertEquals(new BigDecimal("0.01"), second.getField("SMALL").get().getValue());
+      assertEquals(new BigDecimal("-1.5000"), second.getField("LARGE").get().getValue());
+    }
+
+    Configuration unscaled = new Configuration();
+    unscaled.setBoolean(SQLReadSupport.UNSCALED_DECIMALS, true);
+    SQLParquetReader parquetReader = new SQLParquetReader(parquetPath, unscaled);
+    Record first = parquetReader.read();
+    assertEquals(-1250L, first.getField("SMALL").get().getValue());
+    assertEquals(new BigDecimal("123456789012345678901.0625"), first.getField("LARGE").get().getValue());
+    new File(exportPath).delete();
+
+    // unscaled values are bound with their scale, with and without reused records
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:unscaled", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE copies (small DECIMAL(8, 2), large DECIMAL(30, 4))").execute();
+      for (boolean reuseRecords : new boolean[]{false, true}) {
+        unscaled.setBoolean(SQLReadSupport.REUSE_RECORDS, reuseRecords);
+        parquetReader = new SQLParquetReader(parquetPath, unscaled);
+        JDBCWriter jdbcWriter = new JDBCWriter(connection, "copies", parquetReader.getFieldsNames());
+        for (Record record = parquetReader.read(); record != null; record = parquetReader.read()) {
+          record.readAll(parquetReader.getFields(), jdbcWriter);
+          jdbcWriter.addBatch();
+        }
+        jdbcWriter.executeBatch();
+
+        ResultSet copies = connection.prepareStatement("SELECT small FROM copies ORDER BY small").executeQuery();
+        copies.next();
+        assertEquals(new BigDecimal("-12.50"), copies.getBigDecimal(1));
+        copies.next();
+        assertEquals(new BigDecimal("0.01"), copies.getBigDecimal(1));
+        connection.prepareStatement("DELETE FROM copies").execute();
+      }
+    }
+  }
+
+  @Test
+  void builder_encodingSample_encodesEachColumn() throws Exception {
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:encoding", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE encoded (id DECIMAL(10, 0), country VARCHAR(2), price DOUBLE)").execute();
+      PreparedStatement insert = connection.prepareStatement("INSERT INTO encoded VALUES (?, ?, ?)");
+      for (int i = 0; i < 1000; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        insert.setString(2, i % 2 == 0 ? "FR" : "DE");
+        insert.setDouble(3, i * 1.01);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+
+      JDBCReader jdbcReader = new JDBCReader(connection, "encoded", 100);
+      List<SQLRow> sample = new ArrayList<>();
+      while (sample.size() < 100) {
+        sample.add(jdbcReader.read());
+      }
+      SQLParquetWriter.Builder builder = builder()
+          .withSchema(schema, jdbcReader.getMetaData())
+          .withEncodingSample(sample);
+      try (ParquetWriter<SQLRow> writer = builder.build()) {
+        for (SQLRow row : sample) {
+          writer.write(row);
+        }
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      }
+      assertEquals(ColumnEncoding.DICTIONARY, builder.getEncodingPlan().getEncoding("COUNTRY"));
+    }
+
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(new Path(parquetPath), new Configuration()))) {
+      assertEquals("ID=DELTA_BINARY_PACKED,COUNTRY=DICTIONARY,PRICE=BYTE_STREAM_SPLIT",
+          reader.getFileMetaData().getKeyValueMetaData().get(EncodingPlan.METADATA_KEY));
+      List<ColumnChunkMetaData> columns = reader.getFooter().getBlocks().get(0).getColumns();
+      assertTrue(columns.get(0).getEncodings().contains(Encoding.DELTA_BINARY_PACKED));
+      assertTrue(columns.get(1).getEncodings().contains(Encoding.RLE_DICTIONARY));
+      assertTrue(columns.get(2).getEncodings().contains(Encoding.BYTE_STREAM_SPLIT));
+      assertEquals(1000, reader.getRecordCount());
+    }
+  }
+
+  @Test
+  void builder_bloomFilter_sizedForTheExpectedDistinctValues() throws Exception {
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:bloom", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE customers (customer_id VARCHAR(10), name VARCHAR(20))").execute();
+      PreparedStatement insert = connection.prepareStatement("INSERT INTO customers VALUES (?, ?)");
+      for (int i = 0; i < 1000; i++) {
+        insert.setString(1, "c" + i);
+        insert.setString(2, "name" + i);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+
+      JDBCReader jdbcReader = new JDBCReader(connection, "customers", 100);
+      try (ParquetWriter<SQLRow> writer = builder()
+          .withSchema(schema, jdbcReader.getMetaData())
+          // H2 upper-cases the column names
+          .withBloomFilter("customer_id", 1000)
+          .build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      }
+    }
+
+    BloomFilterReport report = BloomFilterReport.read(parquetPath, new Configuration());
+
+    assertEquals(1, report.getColumnReports().size());
+    BloomFilterReport.ColumnReport columnReport = report.getColumnReports().get(0);
+    assertEquals("CUSTOMER_ID", columnReport.getColumn());
+    assertEquals(1, columnReport.getRowGroupCount());
+    assertEquals(1000, columnReport.getDistinctValues());
+    // sized for 1000 values at the default 1% rate, far below the 1MB maximum
+    assertTrue(columnReport.getTotalBytes() <= 2048);
+    assertTrue(columnReport.getMaxFalsePositiveRate() < 0.01);
+
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(new Path(parquetPath), new Configuration()))) {
+      BlockMetaData block = reader.getFooter().getBlocks().get(0);
+      BloomFilter bloomFilter = reader.getBloomFilterDataReader(block).readBloomFilter(block.getColumns().get(0));
+      assertTrue(bloomFilter.findHash(bloomFilter.hash(Binary.fromString("c42"))));
+    }
+  }
+
+  @Test
+  void builder_bloomFilterOnUnknownColumn_throws() throws Exception {
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:unknownBloom", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE customers (customer_id VARCHAR(10))").execute();
+      JDBCReader jdbcReader = new JDBCReader(connection, "customers", 100);
+      SQLParquetWriter.Builder writerBuilder = builder()
+          .withSchema(schema, jdbcReader.getMetaData())
+          .withBloomFilter("customerId");
+
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class, writerBuilder::build);
+      assertEquals("Bloom filter column customerId is not written", e.getMessage());
+    }
+  }
+
+  @Test
+  void strings_writtenAcrossChunksAndReadBack() throws Exception {
+    // enough rows to fill several encoding chunks, with a repeated dictionary encoded column
+    int rows = 5000;
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:strings", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE labels (id DECIMAL(10, 0), label VARCHAR(100), city VARCHAR(20))").execute();
+      PreparedStatement insert = connection.prepareStatement("INSERT INTO labels VALUES (?, ?, ?)");
+      for (int i = 0; i < rows; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        insert.setString(2, "label " + i + (i % 3 == 0 ? " é日本😀" : " ascii only"));
+        insert.setString(3, i % 2 == 0 ? "Zürich" : "Paris");
+        insert.addBatch();
+      }
+      insert.executeBatch();
+
+      JDBCReader jdbcReader = new JDBCReader(connection, "labels", 100);
+      try (ParquetWriter<SQLRow> writer = builder().withSchema(schema, jdbcReader.getMetaData()).build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      }
+    }
+
+    SQLParquetReader parquetReader = new SQLParquetReader(parquetPath, new Configuration());
+    for (int i = 0; i < rows; i++) {
+      Record record = parquetReader.read();
+      assertEquals("label " + i + (i % 3 == 0 ? " é日本😀" : " ascii only"), record.getField("LABEL").get().getValue());
+      assertEquals(i % 2 == 0 ? "Zürich" : "Paris", record.getField("CITY").get().getValue());
+    }
+    assertNull(parquetReader.read());
+
+    Configuration raw = new Configuration();
+    raw.setBoolean(SQLReadSupport.RAW_STRINGS, true);
+    Record first = new SQLParquetReader(parquetPath, raw).read();
+    assertArrayEquals("Zürich".getBytes(StandardCharsets.UTF_8), (byte[]) first.getField("CITY").get().getValue());
+
+    // raw strings are bound as bytes to binary columns only
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:rawStrings", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE copies (id DECIMAL(10, 0), label VARCHAR(100), city VARBINARY(20))").execute();
+      parquetReader = new SQLParquetReader(parquetPath, raw);
+      JDBCWriter jdbcWriter = new JDBCWriter(connection, "copies", parquetReader.getFieldsNames());
+      parquetReader.read().readAll(parquetReader.getFields(), jdbcWriter);
+      jdbcWriter.addBatch();
+      jdbcWriter.executeBatch();
+
+      ResultSet copies = connection.prepareStatement("SELECT label, city FROM copies").executeQuery();
+      assertTrue(copies.next());
+      assertEquals("label 0 é日本😀", copies.getString(1));
+      assertArrayEquals("Zürich".getBytes(StandardCharsets.UTF_8), copies.getBytes(2));
+    }
+  }
+
+  @Test
+  void builder_localOutputFile_writesWithoutChecksumFile(@TempDir java.nio.file.Path directory) throws Exception {
+    java.nio.file.Path file = directory.resolve("local.parquet");
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:local", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE local (id DECIMAL(10, 0), label VARCHAR(20))").execute();
+      connection.prepareStatement("INSERT INTO local VALUES (1, 'one'), (2, 'two')").execute();
+
+      JDBCReader jdbcReader = new JDBCReader(connection, "local", 100);
+      try (ParquetWriter<SQLRow> writer = SQLParquetWriter
+          .builder(new LocalOutputFile(file, 64 * 1024, true))
+          .withSchema(schema, jdbcReader.getMetaData())
+          .build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      }
+    }
+
+    assertArrayEquals(new String[]{"local.parquet"}, directory.toFile().list());
+    SQLParquetReader parquetReader = new SQLParquetReader(file.toString(), new Configuration());
+    assertEquals("one", parquetReader.read().getField("LABEL").get().getValue());
+    assertEquals("two", parquetReader.read().getField("LABEL").get().getValue());
+    assertNull(parquetReader.read());
+  }
+
   private void assertAndClose(ParquetWriter<SQLRow> build) throws IOException {
     assertNotNull(build);
     build.close();
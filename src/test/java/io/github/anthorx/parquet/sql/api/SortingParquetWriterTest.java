@@ -0,0 +1,212 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class SortingParquetWriterTest {
+
+  private static final String[] categories = {"b", null, "a", "c"};
+
+  @Test
+  public void write_smallBuffer_spillsAndMergesInOrder(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("sorted.parquet").toString();
+    Path spillDirectory = directory.resolve("spill");
+    assertTrue(spillDirectory.toFile().mkdir());
+
+    List<String> expected = new ArrayList<>();
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:sorting", "sa", "sa")) {
+      connection.prepareStatement("CREATE TABLE items (category VARCHAR(10), name VARCHAR(20))").execute();
+      PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, ?)");
+      List<Integer> ids = new ArrayList<>();
+      for (int id = 0; id < 500; id++) {
+        ids.add(id);
+      }
+      Collections.shuffle(ids, new Random(42));
+      for (int id : ids) {
+        insert.setString(1, categories[id % categories.length]);
+        insert.setString(2, String.format("name%04d", id));
+        insert.addBatch();
+      }
+      insert.executeBatch();
+
+      for (String category : new String[]{"a", "b", "c", null}) {
+        for (int id = 499; id >= 0; id--) {
+          if (Objects.equals(category, categories[id % categories.length])) {
+            expected.add(category + "/" + String.format("name%04d", id));
+          }
+        }
+      }
+
+      JDBCReader jdbcReader = new JDBCReader(connection, "items", 100);
+      SortingParquetWriter writer = SQLParquetWriter
+          .sortingBuilder(SQLParquetWriter.builder(file).withSchema("schema", jdbcReader.getMetaData()))
+          .sortBy("category")
+          .sortBy("NAME", true)
+          .withMaxBufferBytes(2000)
+          .withMaxMergeRuns(4)
+          .withTempDirectory(spillDirectory.toString())
+          .build();
+      try {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      } finally {
+        writer.close();
+      }
+      assertEquals(500, writer.getRowCount());
+      // more runs than maxMergeRuns, so intermediate merges happened
+      assertTrue(writer.getSpilledRuns() > 4);
+    }
+
+    assertEquals(expected, readRows(file));
+    assertEquals(0, spillDirectory.toFile().list().length);
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(new org.apache.hadoop.fs.Path(file), new Configuration()))) {
+      // the names of the written columns
+      assertEquals("CATEGORY ASC,NAME DESC",
+          reader.getFileMetaData().getKeyValueMetaData().get(SortingParquetWriter.METADATA_KEY));
+    }
+  }
+
+  @Test
+  public void write_bufferNotFull_sortsInMemory(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("sorted.parquet").toString();
+    List<SQLRow> rows = new ArrayList<>();
+    for (String name : new String[]{"b", "c", null, "a"}) {
+      SQLRow row = new SQLRow();
+      row.addField(new SQLField("NAME", name, Types.VARCHAR, String.class.getName()));
+      rows.add(row);
+    }
+
+    SortingParquetWriter writer = SortingParquetWriter
+        .builder(SQLParquetWriter.builder(file).withSchema("schema", nameMetaData()))
+        .sortBy("name")
+        .withTempDirectory(directory.toString())
+        .build();
+    for (SQLRow row : rows) {
+      writer.write(row);
+    }
+    writer.close();
+
+    assertEquals(0, writer.getSpilledRuns());
+    assertEquals(Arrays.asList("null/a", "null/b", "null/c", "null/null"), readRows(file));
+    assertEquals(1, directory.toFile().listFiles((File f) -> f.getName().endsWith(".parquet")).length);
+  }
+
+  @Test
+  public void write_spillFails_fileDeletedOnClose(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("sorted.parquet").toString();
+    SortingParquetWriter writer = SortingParquetWriter
+        .builder(SQLParquetWriter.builder(file).withSchema("schema", nameMetaData()))
+        .sortBy("name")
+        .withMaxBufferBytes(1000)
+        .withTempDirectory(directory.toString())
+        .build();
+
+    assertThrows(ClassCastException.class, () -> {
+      for (int id = 0; id < 100; id++) {
+        SQLRow row = new SQLRow();
+        // a value that can't be compared to the others, the sort of the next spill fails
+        Object name = id == 50 ? (Object) id : "name" + id;
+        row.addField(new SQLField("NAME", name, Types.VARCHAR, String.class.getName()));
+        writer.write(row);
+      }
+    });
+    assertThrows(IOException.class, writer::close);
+
+    assertEquals(0, directory.toFile().list().length);
+  }
+
+  @Test
+  public void close_mergePassFails_runsAlreadyMergedDeleted(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("sorted.parquet").toString();
+    SortingParquetWriter writer = SortingParquetWriter
+        .builder(SQLParquetWriter.builder(file).withSchema("schema", nameMetaData()))
+        .sortBy("name")
+        .withMaxBufferBytes(1)
+        .withMaxMergeRuns(2)
+        .withTempDirectory(directory.toString())
+        .build();
+    // one run per row: the first group of runs is merged, the merge of the second one compares 1 to "c"
+    for (Object name : new Object[]{"a", "b", 1, "c"}) {
+      SQLRow row = new SQLRow();
+      row.addField(new SQLField("NAME", name, Types.VARCHAR, String.class.getName()));
+      writer.write(row);
+    }
+
+    assertThrows(ClassCastException.class, writer::close);
+    assertEquals(5, writer.getSpilledRuns());
+    assertEquals(0, directory.toFile().list().length);
+  }
+
+  @Test
+  public void write_unknownSortColumn_fileDeletedOnClose(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("sorted.parquet").toString();
+    SortingParquetWriter writer = SortingParquetWriter
+        .builder(SQLParquetWriter.builder(file).withSchema("schema", nameMetaData()))
+        .sortBy("missing")
+        .withTempDirectory(directory.toString())
+        .build();
+    SQLRow row = new SQLRow();
+    row.addField(new SQLField("NAME", "a", Types.VARCHAR, String.class.getName()));
+
+    assertThrows(IllegalArgumentException.class, () -> writer.write(row));
+    // the columns are not kept, the next row is checked again
+    assertThrows(IllegalArgumentException.class, () -> writer.write(row));
+    assertThrows(IOException.class, writer::close);
+    assertEquals(0, directory.toFile().list().length);
+  }
+
+  @Test
+  public void builder_noSortColumn_throwsException(@TempDir Path directory) {
+    SortingParquetWriter.Builder builder = SortingParquetWriter.builder(SQLParquetWriter.builder(directory.resolve("f.parquet").toString()));
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+    assertThrows(IllegalArgumentException.class, () -> builder.withMaxBufferBytes(0));
+    assertThrows(IllegalArgumentException.class, () -> builder.withMaxMergeRuns(1));
+  }
+
+  private static ResultSetMetaData nameMetaData() throws SQLException {
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    doReturn(1).when(metaData).getColumnCount();
+    doReturn(String.class.getName()).when(metaData).getColumnClassName(1);
+    doReturn("NAME").when(metaData).getColumnName(1);
+    doReturn(ResultSetMetaData.columnNullable).when(metaData).isNullable(1);
+    return metaData;
+  }
+
+  // category/name of each row, null when the column is absent or null
+  private static List<String> readRows(String file) throws Exception {
+    List<String> rows = new ArrayList<>();
+    SQLParquetReader parquetReader = new SQLParquetReader(file, new Configuration());
+    for (Record record = parquetReader.read(); record != null; record = parquetReader.read()) {
+      rows.add(value(record, "CATEGORY") + "/" + value(record, "NAME"));
+    }
+    return rows;
+  }
+
+  private static Object value(Record record, String name) {
+    return record.getField(name).map(RecordField::getValue).orElse(null);
+  }
+}
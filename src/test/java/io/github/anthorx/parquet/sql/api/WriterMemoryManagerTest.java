@@ -0,0 +1,195 @@
+package io.github.anthorx.parquet.sql.api;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriterMemoryManagerTest {
+
+  private static final String url = "jdbc:h2:mem:memory;DB_CLOSE_DELAY=-1";
+  private static final String tableName = "memoryTable";
+  private static final int rowCount = 20_000;
+  private static final List<SQLRow> rows = new ArrayList<>();
+  private static Connection connection;
+  private static ResultSetMetaData metaData;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    // kept open, the metadata is read by each built writer
+    connection = DriverManager.getConnection(url, "sa", "sa");
+    connection
+        .prepareStatement(String.format("CREATE TABLE %s (id DECIMAL(10, 0), name VARCHAR(100))", tableName))
+        .execute();
+
+    PreparedStatement insert = connection.prepareStatement(String.format("INSERT INTO %s VALUES (?, ?)", tableName));
+    for (int i = 0; i < rowCount; i++) {
+      insert.setBigDecimal(1, BigDecimal.valueOf(i));
+      insert.setString(2, "a name long enough to fill the row groups quickly " + i);
+      insert.addBatch();
+    }
+    insert.executeBatch();
+
+    JDBCReader jdbcReader = new JDBCReader(connection, tableName, 1000);
+    metaData = jdbcReader.getMetaData();
+    for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+      rows.add(row);
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    connection.prepareStatement("DROP TABLE " + tableName).execute();
+    connection.close();
+  }
+
+  private static ParquetWriter<SQLRow> writer(Path file, WriterMemoryManager memoryManager) throws Exception {
+    return SQLParquetWriter
+        .builder(file.toString())
+        .withSchema("schema", metaData)
+        .withMemoryManager(memoryManager)
+        .build();
+  }
+
+  private static int rowGroups(Path file) throws Exception {
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(new org.apache.hadoop.fs.Path(file.toString()), new Configuration()))) {
+      return reader.getFooter().getBlocks().size();
+    }
+  }
+
+  @Test
+  public void register_rowGroupsScaledToTheBudget(@TempDir Path directory) throws Exception {
+    WriterMemoryManager memoryManager = new WriterMemoryManager(ParquetWriter.DEFAULT_BLOCK_SIZE);
+
+    ParquetWriter<SQLRow> first = writer(directory.resolve("first.parquet"), memoryManager);
+    ParquetWriter<SQLRow> second = writer(directory.resolve("second.parquet"), memoryManager);
+
+    List<WriterMemoryManager.Allocation> allocations = memoryManager.getAllocations();
+    assertEquals(2, allocations.size());
+    assertTrue(allocations.get(0).getName().endsWith("first.parquet"));
+    assertEquals(ParquetWriter.DEFAULT_BLOCK_SIZE, allocations.get(0).getRowGroupSize());
+    assertEquals(ParquetWriter.DEFAULT_BLOCK_SIZE / 2, allocations.get(0).getAllocatedBytes());
+    assertEquals(ParquetWriter.DEFAULT_BLOCK_SIZE / 2, allocations.get(1).getAllocatedBytes());
+
+    // a closed writer leaves its memory to the others
+    first.close();
+    allocations = memoryManager.getAllocations();
+    assertEquals(1, allocations.size());
+    assertEquals(ParquetWriter.DEFAULT_BLOCK_SIZE, allocations.get(0).getAllocatedBytes());
+
+    second.close();
+    assertTrue(memoryManager.getAllocations().isEmpty());
+  }
+
+  @Test
+  public void write_overBudget_biggestWritersFlushedEarly(@TempDir Path directory) throws Exception {
+    // each writer keeps 1MB at least, but the budget is 200KB
+    WriterMemoryManager memoryManager = new WriterMemoryManager(200 * 1024, 1024 * 1024);
+    Path firstFile = directory.resolve("first.parquet");
+    Path secondFile = directory.resolve("second.parquet");
+
+    try (ParquetWriter<SQLRow> first = writer(firstFile, memoryManager);
+         ParquetWriter<SQLRow> second = writer(secondFile, memoryManager)) {
+      for (SQLRow row : rows) {
+        first.write(row);
+        second.write(row);
+        assertTrue(memoryManager.getBufferedBytes() <= 2 * 1024 * 1024);
+      }
+    }
+
+    assertTrue(memoryManager.getForcedFlushes() > 0);
+    assertTrue(rowGroups(firstFile) > 1);
+    assertTrue(rowGroups(secondFile) > 1);
+    assertEquals(rowCount, countRows(firstFile));
+    assertEquals(rowCount, countRows(secondFile));
+  }
+
+  @Test
+  public void write_concurrentWriters_eachAppliesItsAllocation(@TempDir Path directory) throws Exception {
+    WriterMemoryManager memoryManager = new WriterMemoryManager(200 * 1024, 64 * 1024);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<Path>> files = new ArrayList<>();
+      for (String name : new String[]{"first.parquet", "second.parquet"}) {
+        files.add(executor.submit(() -> {
+          Path file = directory.resolve(name);
+          try (ParquetWriter<SQLRow> writer = writer(file, memoryManager)) {
+            for (SQLRow row : rows) {
+              writer.write(row);
+            }
+          }
+          return file;
+        }));
+      }
+      for (Future<Path> file : files) {
+        assertEquals(rowCount, countRows(file.get()));
+        assertTrue(rowGroups(file.get()) > 1);
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(memoryManager.getAllocations().isEmpty());
+  }
+
+  @Test
+  public void write_failedRow_writerLeavesTheBudget(@TempDir Path directory) throws Exception {
+    WriterMemoryManager memoryManager = new WriterMemoryManager(ParquetWriter.DEFAULT_BLOCK_SIZE);
+    ParquetWriter<SQLRow> writer = writer(directory.resolve("failed.parquet"), memoryManager);
+    SQLRow invalidRow = new SQLRow();
+    invalidRow.addField(new SQLField("ID", BigDecimal.ONE, Types.DECIMAL, BigDecimal.class.getName()));
+    invalidRow.addField(new SQLField("NAME", 42, Types.VARCHAR, String.class.getName()));
+    assertEquals(1, memoryManager.getAllocations().size());
+
+    assertThrows(RuntimeException.class, () -> writer.write(invalidRow));
+
+    assertTrue(memoryManager.getAllocations().isEmpty());
+  }
+
+  @Test
+  public void write_withoutManager_oneRowGroup(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("alone.parquet");
+    try (ParquetWriter<SQLRow> writer = writer(file, null)) {
+      for (SQLRow row : rows) {
+        writer.write(row);
+      }
+    }
+
+    assertEquals(1, rowGroups(file));
+  }
+
+  @Test
+  public void constructor_invalidBudget_throws() {
+    assertThrows(IllegalArgumentException.class, () -> new WriterMemoryManager(0));
+    assertThrows(IllegalArgumentException.class, () -> WriterMemoryManager.ofHeapRatio(1.5));
+  }
+
+  private static long countRows(Path file) throws Exception {
+    SQLParquetReader parquetReader = new SQLParquetReader(file.toString(), new Configuration());
+    long count = 0;
+    while (parquetReader.read() != null) {
+      count++;
+    }
+    return count;
+  }
+}
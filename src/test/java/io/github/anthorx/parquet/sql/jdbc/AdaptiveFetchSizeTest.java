@@ -0,0 +1,91 @@
+package io.github.anthorx.parquet.sql.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class AdaptiveFetchSizeTest {
+
+  private final ResultSet resultSet = mock(ResultSet.class);
+
+  private static void fetch(AdaptiveFetchSize adaptiveFetchSize, ResultSet resultSet, long rowBytes, long nextNanos) throws SQLException {
+    int rows = adaptiveFetchSize.getFetchSize();
+    for (int row = 0; row < rows; row++) {
+      adaptiveFetchSize.onRow(resultSet, rowBytes, nextNanos);
+    }
+  }
+
+  @Test
+  public void wideRows_fetchSizeShrinksToTheTargetMemory() throws SQLException {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize(1000, 1_000_000, 1000);
+
+    fetch(adaptiveFetchSize, resultSet, 10_000, 0);
+
+    assertEquals(100, adaptiveFetchSize.getFetchSize());
+    assertEquals(10_000, adaptiveFetchSize.getAverageRowBytes());
+    verify(resultSet).setFetchSize(100);
+  }
+
+  @Test
+  public void slowRows_fetchSizeShrinksToTheTargetLatency() throws SQLException {
+    // 1ms per row, 50ms per fetch wanted
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize(200, 100_000_000, 50);
+
+    fetch(adaptiveFetchSize, resultSet, 100, 1_000_000);
+
+    assertEquals(50, adaptiveFetchSize.getFetchSize());
+    assertEquals(1000d, adaptiveFetchSize.getAverageRowMicros());
+  }
+
+  @Test
+  public void narrowRows_fetchSizeGrowsUpToTheMaximum() throws SQLException {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize(10, 10_000_000, 100, 10, 5000, 3);
+
+    fetch(adaptiveFetchSize, resultSet, 100, 1000);
+
+    assertEquals(5000, adaptiveFetchSize.getFetchSize());
+    verify(resultSet).setFetchSize(5000);
+  }
+
+  @Test
+  public void afterSampleFetches_fetchSizeIsFixed() throws SQLException {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize(100, 1_000_000, 1000, 10, 100_000, 2);
+
+    fetch(adaptiveFetchSize, resultSet, 10_000, 0);
+    fetch(adaptiveFetchSize, resultSet, 10_000, 0);
+    assertTrue(adaptiveFetchSize.isFixed());
+
+    // much narrower rows, but the fetch size doesn't move anymore
+    fetch(adaptiveFetchSize, resultSet, 10, 0);
+    assertEquals(100, adaptiveFetchSize.getFetchSize());
+    verify(resultSet, never()).setFetchSize(anyInt());
+  }
+
+  @Test
+  public void estimateBytes() {
+    assertEquals(1, AdaptiveFetchSize.estimateBytes(null));
+    assertEquals(16 + 2 * 5, AdaptiveFetchSize.estimateBytes("abcde"));
+    assertEquals(16 + 100, AdaptiveFetchSize.estimateBytes(new byte[100]));
+    assertEquals(16, AdaptiveFetchSize.estimateBytes(42L));
+  }
+
+  @Test
+  public void blobRows_sizedFromTheirLength() throws SQLException {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize(1000, 1_000_000, 1000);
+    long rowBytes = AdaptiveFetchSize.estimateBytes(42L)
+        + AdaptiveFetchSize.estimateBytes(new SerialBlob(new byte[100_000]));
+
+    fetch(adaptiveFetchSize, resultSet, rowBytes, 0);
+
+    assertEquals(16 + 100_000, AdaptiveFetchSize.estimateBytes(new SerialBlob(new byte[100_000])));
+    assertEquals(16 + 2 * 5, AdaptiveFetchSize.estimateBytes(new SerialClob("abcde".toCharArray())));
+    assertEquals(AdaptiveFetchSize.DEFAULT_MIN_FETCH_SIZE, adaptiveFetchSize.getFetchSize());
+  }
+}
@@ -0,0 +1,67 @@
+package io.github.anthorx.parquet.sql.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TableStatisticsTest {
+
+  private static final short STATISTIC = DatabaseMetaData.tableIndexStatistic;
+  private static final short INDEX = DatabaseMetaData.tableIndexOther;
+
+  @Test
+  public void distinctValues_smallestIndexStartingWithTheColumn() throws SQLException {
+    // one row per column of each index: type, ordinal position, column name, cardinality
+    Connection connection = indexInfo(
+        new Object[]{STATISTIC, (short) 0, null, 100_000L},
+        new Object[]{INDEX, (short) 1, "CUSTOMER_ID", 40_000L},
+        new Object[]{INDEX, (short) 2, "DAY", 40_000L},
+        new Object[]{INDEX, (short) 1, "CUSTOMER_ID", 5_000L},
+        new Object[]{INDEX, (short) 1, "DAY", 2_000L},
+        new Object[]{INDEX, (short) 2, "CUSTOMER_ID", 2_000L});
+
+    assertEquals(5_000L, TableStatistics.distinctValues(connection, "orders", "customer_id"));
+    assertEquals(100_000L, TableStatistics.rowCount(connection, "orders"));
+  }
+
+  @Test
+  public void distinctValues_columnNotLeadingAnIndex_unknown() throws SQLException {
+    // index (day, customer_id) only: its cardinality counts the pairs, not the customers
+    Connection connection = indexInfo(
+        new Object[]{STATISTIC, (short) 0, null, 100_000L},
+        new Object[]{INDEX, (short) 1, "DAY", 2_000L},
+        new Object[]{INDEX, (short) 2, "CUSTOMER_ID", 2_000L});
+
+    assertEquals(0L, TableStatistics.distinctValues(connection, "orders", "customer_id"));
+    assertEquals(2_000L, TableStatistics.distinctValues(connection, "orders", "day"));
+  }
+
+  // a connection whose index info of the table "orders" holds the rows, read again on each call
+  private static Connection indexInfo(Object[]... rows) throws SQLException {
+    Connection connection = mock(Connection.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getIndexInfo(null, null, "orders", false, true)).thenAnswer(invocation -> {
+      ResultSet indexInfo = mock(ResultSet.class);
+      AtomicInteger row = new AtomicInteger(-1);
+      when(indexInfo.next()).thenAnswer(next -> row.incrementAndGet() < rows.length);
+      when(indexInfo.getShort(anyString())).thenAnswer(get -> {
+        String column = get.getArgument(0);
+        return rows[row.get()][column.equals("TYPE") ? 0 : 1];
+      });
+      when(indexInfo.getString("COLUMN_NAME")).thenAnswer(get -> rows[row.get()][2]);
+      when(indexInfo.getLong("CARDINALITY")).thenAnswer(get -> rows[row.get()][3]);
+      return indexInfo;
+    });
+    return connection;
+  }
+}
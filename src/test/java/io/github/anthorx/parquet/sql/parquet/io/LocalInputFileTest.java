@@ -0,0 +1,106 @@
+package io.github.anthorx.parquet.sql.parquet.io;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LocalInputFileTest {
+
+  private static byte[] writeRandomFile(Path path, int length) throws IOException {
+    byte[] bytes = new byte[length];
+    new Random(42).nextBytes(bytes);
+    Files.write(path, bytes);
+    return bytes;
+  }
+
+  // mappings of the file listed in /proc/self/maps
+  private static long mappings(Path maps, String file) throws IOException {
+    return Files.readAllLines(maps).stream().filter(line -> line.endsWith(file)).count();
+  }
+
+  @Test
+  public void read_acrossWindows(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("data.bin");
+    byte[] bytes = writeRandomFile(path, 10_000);
+
+    try (SeekableInputStream in = new LocalInputFile(path, 1000).newStream()) {
+      assertEquals(bytes[0] & 0xFF, in.read());
+
+      byte[] read = new byte[2500];
+      in.readFully(read);
+      assertArrayEquals(Arrays.copyOfRange(bytes, 1, 2501), read);
+      assertEquals(2501, in.getPos());
+
+      in.seek(9990);
+      ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+      assertEquals(10, in.read(buffer));
+      buffer.flip();
+      assertEquals(bytes[9990], buffer.get());
+      assertEquals(-1, in.read());
+
+      in.seek(500);
+      ByteBuffer heap = ByteBuffer.allocate(3000);
+      in.readFully(heap);
+      assertArrayEquals(Arrays.copyOfRange(bytes, 500, 3500), heap.array());
+    }
+  }
+
+  @Test
+  public void read_previousWindowsUnmapped(@TempDir Path directory) throws IOException {
+    Path maps = Paths.get("/proc/self/maps");
+    assumeTrue(Files.isReadable(maps), "the mappings of the process are only listed on linux");
+    assertTrue(BufferUnmapper.isSupported());
+    Path path = directory.resolve("data.bin");
+    writeRandomFile(path, 40_000);
+    String file = path.toRealPath().toString();
+
+    try (SeekableInputStream in = new LocalInputFile(path, 4096).newStream()) {
+      in.readFully(new byte[30_000]);
+      in.seek(100);
+      assertEquals(4096, in.read(new byte[4096]));
+      // only the window holding the position stays mapped
+      assertEquals(1, mappings(maps, file));
+    }
+    assertEquals(0, mappings(maps, file));
+  }
+
+  @Test
+  public void readFully_pastEnd_throws(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("data.bin");
+    writeRandomFile(path, 100);
+
+    try (SeekableInputStream in = new LocalInputFile(path).newStream()) {
+      in.seek(90);
+      assertThrows(EOFException.class, () -> in.readFully(new byte[20]));
+      assertThrows(EOFException.class, () -> in.seek(101));
+    }
+  }
+
+  @Test
+  public void parquetFile_readFromSmallWindows() throws Exception {
+    Path path = Paths.get(getClass().getResource("/test.parquet").toURI());
+
+    try (ParquetFileReader mapped = ParquetFileReader.open(new LocalInputFile(path, 64));
+         ParquetFileReader hadoop = ParquetFileReader.open(HadoopInputFile.fromPath(new org.apache.hadoop.fs.Path(path.toUri()), new Configuration()))) {
+      assertEquals(hadoop.getFooter().getFileMetaData().getSchema(), mapped.getFooter().getFileMetaData().getSchema());
+      PageReadStore rowGroup = mapped.readNextRowGroup();
+      assertEquals(hadoop.readNextRowGroup().getRowCount(), rowGroup.getRowCount());
+    }
+  }
+}
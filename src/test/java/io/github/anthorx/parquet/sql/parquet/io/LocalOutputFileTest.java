@@ -0,0 +1,60 @@
+package io.github.anthorx.parquet.sql.parquet.io;
+
+import org.apache.parquet.io.PositionOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalOutputFileTest {
+
+  private static byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+
+  private static void writeAndCheck(LocalOutputFile outputFile, Path path) throws IOException {
+    byte[] bytes = randomBytes(50_000);
+    try (PositionOutputStream out = outputFile.createOrOverwrite(0)) {
+      out.write(bytes[0]);
+      // small writes, a write larger than the buffer, then an unaligned tail
+      out.write(bytes, 1, 999);
+      out.write(bytes, 1000, 20_000);
+      out.write(bytes, 21_000, 29_000);
+      assertEquals(bytes.length, out.getPos());
+    }
+    assertArrayEquals(bytes, Files.readAllBytes(path));
+  }
+
+  @Test
+  public void write_buffered(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("buffered.bin");
+    writeAndCheck(new LocalOutputFile(path, 4096, false), path);
+  }
+
+  @Test
+  public void write_backgroundFlush(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("background.bin");
+    writeAndCheck(new LocalOutputFile(path, 4096, true), path);
+  }
+
+  @Test
+  public void bufferSize_alignedOnPages(@TempDir Path directory) {
+    assertEquals(8192, new LocalOutputFile(directory.resolve("a"), 5000, false).getBufferSize());
+    assertThrows(IllegalArgumentException.class, () -> new LocalOutputFile(directory.resolve("a"), 0, false));
+  }
+
+  @Test
+  public void create_existingFile_throws(@TempDir Path directory) throws IOException {
+    Path path = Files.createFile(directory.resolve("existing.bin"));
+
+    assertThrows(FileAlreadyExistsException.class, () -> new LocalOutputFile(path).create(0));
+  }
+}
@@ -0,0 +1,99 @@
+package io.github.anthorx.parquet.sql.parquet.model;
+
+import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RecordTest {
+
+  private final MessageType schema = Types.buildMessage()
+      .addField(Types.optional(INT64).named("a"))
+      .addField(Types.optional(BINARY).as(stringType()).named("b"))
+      .addField(Types.optional(INT32).named("c"))
+      .named("test");
+  private final RecordLayout layout = new RecordLayout(schema.getFields());
+
+  @Test
+  public void readAll_withLayout_fieldsInSchemaOrderAndNullsBound() {
+    Record record = new Record(layout);
+    record.addField(new RecordField<>("b", "value").addReadConsumer(ReadRecordConsumer::setString));
+    record.addField(new RecordField<>("a", 42L).addReadConsumer(ReadRecordConsumer::setLong));
+
+    ReadRecordConsumer consumer = mock(ReadRecordConsumer.class);
+    record.readAll(schema.getFields(), consumer);
+    record.readAll(schema.getFields(), consumer);
+
+    InOrder inOrder = inOrder(consumer);
+    for (int row = 0; row < 2; row++) {
+      inOrder.verify(consumer).setLong(42L);
+      inOrder.verify(consumer).setString("value");
+      inOrder.verify(consumer).setNull(java.sql.Types.INTEGER);
+    }
+  }
+
+  @Test
+  public void readAll_otherSchema_columnsMatchedByName() {
+    Record record = new Record(layout);
+    record.addField(new RecordField<>("c", 7).addReadConsumer(ReadRecordConsumer::setInt));
+    List<Type> otherFields = Arrays.asList(
+        Types.optional(INT32).named("c"),
+        Types.optional(BINARY).as(stringType()).named("missing"));
+
+    ReadRecordConsumer consumer = mock(ReadRecordConsumer.class);
+    record.readAll(otherFields, consumer);
+
+    InOrder inOrder = inOrder(consumer);
+    inOrder.verify(consumer).setInt(7);
+    inOrder.verify(consumer).setNull(java.sql.Types.VARCHAR);
+  }
+
+  @Test
+  public void getField_withLayout_addressedByColumn() {
+    Record record = new Record(layout);
+    record.addField(new RecordField<>("c", 7));
+    record.addField(new RecordField<>("other", "x"));
+
+    assertEquals(7, record.getField("c").get().getValue());
+    assertFalse(record.getField("a").isPresent());
+    // not in the layout, still found in the fields
+    assertEquals("x", record.getField("other").get().getValue());
+    // by column of the schema, like a MutableRecord, null fields for the columns not read
+    assertEquals(7, record.getField(2).getValue());
+    assertFalse(record.getField(0).isNotNull());
+    assertEquals(2, record.getFields().size());
+    assertEquals(2, layout.getColumnIndex("c"));
+    assertEquals(-1, layout.getColumnIndex("other"));
+  }
+
+  @Test
+  public void mutableRecord_addField_valueSetInItsColumn() {
+    MutableRecord record = new MutableRecord(layout);
+    record.defineColumn(0, MutableRecord.Kind.LONG, null);
+    record.defineColumn(1, MutableRecord.Kind.OBJECT, (ReadRecordConsumer consumer, String value) -> consumer.setString(value));
+    record.addField(new RecordField<>("a", 42L));
+    record.addField(new RecordField<>("b", "value"));
+
+    assertEquals(42L, record.getLong(0));
+    assertEquals("value", record.getField("b").get().getValue());
+    assertTrue(record.isNull(2));
+    assertThrows(IllegalArgumentException.class, () -> record.addField(new RecordField<>("other", "x")));
+
+    ReadRecordConsumer consumer = mock(ReadRecordConsumer.class);
+    record.readAll(schema.getFields(), consumer);
+    InOrder inOrder = inOrder(consumer);
+    inOrder.verify(consumer).setLong(42L);
+    inOrder.verify(consumer).setString("value");
+    inOrder.verify(consumer).setNull(java.sql.Types.INTEGER);
+  }
+}
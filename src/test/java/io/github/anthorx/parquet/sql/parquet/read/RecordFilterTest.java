@@ -0,0 +1,216 @@
+package io.github.anthorx.parquet.sql.parquet.read;
+
+import io.github.anthorx.parquet.sql.api.JDBCReader;
+import io.github.anthorx.parquet.sql.api.SQLParquetReader;
+import io.github.anthorx.parquet.sql.api.SQLParquetWriter;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordFilterTest {
+
+  private final static JdbcConnectionPool dataSource = JdbcConnectionPool.create("jdbc:h2:mem:recordFilter;DB_CLOSE_DELAY=-1", "sa", "sa");
+  private static final int rowCount = 20_000;
+  private static final LocalDate firstDay = LocalDate.of(2026, 1, 1);
+
+  @TempDir
+  static Path directory;
+  private static String file;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    file = directory.resolve("filtered.parquet").toString();
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("CREATE TABLE filtered (id DECIMAL(10, 0), name VARCHAR(20), day TIMESTAMP)").execute();
+      PreparedStatement insert = connection.prepareStatement("INSERT INTO filtered VALUES (?, ?, ?)");
+      for (int i = 0; i < rowCount; i++) {
+        insert.setBigDecimal(1, BigDecimal.valueOf(i));
+        insert.setString(2, "name" + i);
+        insert.setTimestamp(3, Timestamp.valueOf(firstDay.plusDays(i / 100).atStartOfDay()));
+        insert.addBatch();
+      }
+      insert.executeBatch();
+
+      // small row groups and pages, sorted on id and day
+      JDBCReader jdbcReader = new JDBCReader(connection, "filtered ORDER BY id", 1000);
+      try (ParquetWriter<SQLRow> writer = SQLParquetWriter
+          .builder(file)
+          .withSchema("schema", jdbcReader.getMetaData())
+          .withRowGroupSize(32 * 1024)
+          .withPageSize(1024)
+          .build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      }
+    }
+  }
+
+  @AfterAll
+  public static void cleanContext() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("DROP TABLE filtered").execute();
+    }
+  }
+
+  private static List<Integer> readIds(SQLParquetReader reader) throws Exception {
+    List<Integer> ids = new ArrayList<>();
+    for (Record record = reader.read(); record != null; record = reader.read()) {
+      ids.add(((BigDecimal) record.getField("ID").get().getValue()).intValue());
+    }
+    return ids;
+  }
+
+  @Test
+  public void between_onlyMatchingRecordsRead_rowGroupsAndPagesSkipped() throws Exception {
+    SQLParquetReader reader = new SQLParquetReader(file, new Configuration(),
+        RecordFilter.between("id", new BigDecimal(5000), new BigDecimal(5999)));
+
+    List<Integer> ids = readIds(reader);
+
+    assertEquals(1000, ids.size());
+    assertEquals(5000, ids.get(0));
+    assertEquals(5999, ids.get(999));
+
+    FilterReport report = reader.getFilterReport();
+    assertTrue(report.getRowGroups() > 2);
+    assertTrue(report.getRowGroupsSkipped() > 0);
+    assertEquals(rowCount, report.getRows());
+    assertTrue(report.getRowsRead() >= 1000);
+    assertTrue(report.getRowsRead() < rowCount / 2);
+    assertTrue(report.getPagesSkipped() > 0);
+  }
+
+  @Test
+  public void eqOnString_singleRecord() throws Exception {
+    SQLParquetReader reader = new SQLParquetReader(file, new Configuration(), RecordFilter.eq("NAME", "name4242"));
+
+    assertEquals(Collections.singletonList(4242), readIds(reader));
+    // names are not sorted as strings, the statistics of a few row groups match
+    assertTrue(reader.getFilterReport().getRowGroupsSkipped() > 0);
+  }
+
+  @Test
+  public void timestampFilterWithProjection_recordsOfTheDays() throws Exception {
+    RecordFilter filter = RecordFilter.or(
+        RecordFilter.eq("day", firstDay.plusDays(10).atStartOfDay()),
+        RecordFilter.eq("day", Timestamp.valueOf(firstDay.plusDays(150).atStartOfDay())));
+    SQLParquetReader reader = new SQLParquetReader(file, new Configuration(), Arrays.asList("id", "day"), filter);
+
+    List<Integer> ids = readIds(reader);
+
+    assertEquals(200, ids.size());
+    assertEquals(1000, ids.get(0));
+    assertEquals(15099, ids.get(199));
+    assertEquals(2, reader.getFields().size());
+  }
+
+  @Test
+  public void noFilter_emptyReport() throws Exception {
+    SQLParquetReader reader = new SQLParquetReader(file, new Configuration());
+
+    assertEquals(rowCount, readIds(reader).size());
+    assertEquals(0, reader.getFilterReport().getRowGroups());
+  }
+
+  @Test
+  public void notEq_nullValuesDropped_notKeepsThem() throws Exception {
+    String nullableFile = directory.resolve("nullable.parquet").toString();
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("CREATE TABLE nullable (id DECIMAL(10, 0), name VARCHAR(20))").execute();
+      connection.prepareStatement("INSERT INTO nullable VALUES (0, 'a'), (1, NULL), (2, 'b'), (3, NULL), (4, 'c')").execute();
+      JDBCReader jdbcReader = new JDBCReader(connection, "nullable ORDER BY id", 1000);
+      try (ParquetWriter<SQLRow> writer = SQLParquetWriter
+          .builder(nullableFile)
+          .withSchema("schema", jdbcReader.getMetaData())
+          .build()) {
+        for (SQLRow row = jdbcReader.read(); row != null; row = jdbcReader.read()) {
+          writer.write(row);
+        }
+      }
+      connection.prepareStatement("DROP TABLE nullable").execute();
+    }
+
+    // like name <> 'b' in SQL
+    assertEquals(Arrays.asList(0, 4),
+        readIds(new SQLParquetReader(nullableFile, new Configuration(), RecordFilter.notEq("name", "b"))));
+    assertEquals(Arrays.asList(0, 1, 3, 4),
+        readIds(new SQLParquetReader(nullableFile, new Configuration(), RecordFilter.not(RecordFilter.eq("name", "b")))));
+    assertEquals(Arrays.asList(0, 2, 4),
+        readIds(new SQLParquetReader(nullableFile, new Configuration(), RecordFilter.isNotNull("name"))));
+  }
+
+  @Test
+  public void toPredicate_convertsSqlValuesToStoredValues() {
+    MessageType schema = Types.buildMessage()
+        .optional(PrimitiveType.PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.decimalType(3, 8)).named("amount")
+        .optional(PrimitiveType.PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.dateType()).named("day")
+        .optional(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("name")
+        .named("schema");
+
+    assertEquals(FilterApi.eq(FilterApi.intColumn("amount"), 1500),
+        RecordFilter.eq("AMOUNT", new BigDecimal("1.5")).toPredicate(schema));
+    assertEquals(FilterApi.lt(FilterApi.intColumn("day"), 1),
+        RecordFilter.lt("day", Date.valueOf(LocalDate.ofEpochDay(1))).toPredicate(schema));
+    assertEquals(FilterApi.eq(FilterApi.binaryColumn("name"), null),
+        RecordFilter.isNull("name").toPredicate(schema));
+    assertEquals(FilterApi.not(FilterApi.gtEq(FilterApi.binaryColumn("name"), Binary.fromString("b"))),
+        RecordFilter.not(RecordFilter.gtEq("name", "b")).toPredicate(schema));
+  }
+
+  @Test
+  public void toPredicate_invalidFilters_throws() {
+    MessageType schema = Types.buildMessage()
+        .optional(PrimitiveType.PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.decimalType(3, 8)).named("amount")
+        .named("schema");
+
+    assertThrows(IllegalArgumentException.class, () -> RecordFilter.eq("missing", 1).toPredicate(schema));
+    // rounding the value would change the matching records
+    assertThrows(IllegalArgumentException.class, () -> RecordFilter.eq("amount", new BigDecimal("1.2345")).toPredicate(schema));
+    assertThrows(IllegalArgumentException.class, () -> RecordFilter.eq("amount", "abc").toPredicate(schema));
+    assertThrows(IllegalArgumentException.class, () -> RecordFilter.lt("amount", null));
+    assertThrows(IllegalArgumentException.class, () -> RecordFilter.in("amount", Collections.emptyList()));
+  }
+
+  @Test
+  public void toPredicate_integerColumns_fractionalValuesRejected() {
+    MessageType schema = Types.buildMessage()
+        .optional(PrimitiveType.PrimitiveTypeName.INT32).named("quantity")
+        .optional(PrimitiveType.PrimitiveTypeName.INT64).named("total")
+        .named("schema");
+
+    assertEquals(FilterApi.eq(FilterApi.intColumn("quantity"), 2),
+        RecordFilter.eq("quantity", 2.0).toPredicate(schema));
+    assertEquals(FilterApi.gt(FilterApi.longColumn("total"), 30L),
+        RecordFilter.gt("total", new BigDecimal("30.00")).toPredicate(schema));
+    // truncating the value would change the matching records
+    assertThrows(IllegalArgumentException.class, () -> RecordFilter.eq("quantity", 2.5).toPredicate(schema));
+    assertThrows(IllegalArgumentException.class, () -> RecordFilter.gt("total", new BigDecimal("30.1")).toPredicate(schema));
+  }
+}
@@ -15,7 +15,11 @@
 
 package io.github.anthorx.parquet.sql.parquet.read;
 
+import io.github.anthorx.parquet.sql.jdbc.ReadRecordConsumer;
+import io.github.anthorx.parquet.sql.parquet.model.MutableRecord;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
 import io.github.anthorx.parquet.sql.parquet.read.converter.*;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.PrimitiveType;
 import org.apache.parquet.schema.Types;
@@ -24,7 +28,8 @@ import org.junit.jupiter.api.Test;
 import static org.apache.parquet.schema.LogicalTypeAnnotation.*;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.*;
 import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 public class SQLGroupConverterTest {
 
@@ -115,4 +120,104 @@ public class SQLGroupConverterTest {
     }
   }
 
+  @Test
+  public void testUnscaledDecimalConverter() {
+    MessageType mt = Types.buildMessage()
+        .addField(Types.optional(INT32).as(decimalType(2, 9)).named("a"))
+        .addField(Types.optional(INT64).as(decimalType(2, 18)).named("b"))
+        .addField(Types.optional(FIXED_LEN_BYTE_ARRAY).length(9).as(decimalType(2, 20)).named("c"))
+        .named("test");
+
+    SQLGroupConverter groupConverter = new SQLGroupConverter(mt, new ReadOptions(true, false, false));
+
+    assertTrue(groupConverter.getConverter(0) instanceof FieldUnscaledDecimalConverter);
+    assertTrue(groupConverter.getConverter(1) instanceof FieldUnscaledDecimalConverter);
+    // too large for a long, still read as BigDecimal
+    assertTrue(groupConverter.getConverter(2) instanceof FieldDecimalConverter);
+  }
+
+  @Test
+  public void testJavaTimeConverters() {
+    MessageType mt = Types.buildMessage()
+        .addField(Types.optional(INT64).as(timestampType(true, TimeUnit.MICROS)).named("a"))
+        .addField(Types.optional(INT32).as(dateType()).named("b"))
+        .named("test");
+
+    SQLGroupConverter groupConverter = new SQLGroupConverter(mt, new ReadOptions(false, true, false));
+
+    assertTrue(groupConverter.getConverter(0) instanceof FieldLocalDateTimeConverter);
+    assertTrue(groupConverter.getConverter(1) instanceof FieldLocalDateConverter);
+  }
+
+  @Test
+  public void testRawStringConverter() {
+    MessageType mt = Types.buildMessage()
+        .addField(Types.optional(BINARY).as(stringType()).named("a"))
+        .named("test");
+
+    SQLGroupConverter groupConverter = new SQLGroupConverter(mt, new ReadOptions(false, false, true));
+
+    assertTrue(groupConverter.getConverter(0) instanceof FieldUtf8BytesConverter);
+  }
+
+  @Test
+  public void testRecordFieldsSetByColumn() {
+    MessageType mt = Types.buildMessage()
+        .addField(Types.optional(INT64).named("a"))
+        .addField(Types.optional(BINARY).as(stringType()).named("b"))
+        .addField(Types.optional(DOUBLE).named("c"))
+        .named("test");
+    SQLGroupConverter groupConverter = new SQLGroupConverter(mt);
+
+    groupConverter.start();
+    groupConverter.getConverter(1).asPrimitiveConverter().addBinary(Binary.fromString("value"));
+    groupConverter.getConverter(0).asPrimitiveConverter().addLong(42);
+    Record record = groupConverter.getCurrentSQLRowRead();
+
+    assertEquals(42L, record.getField(0).getValue());
+    assertEquals("value", record.getField("b").get().getValue());
+    assertFalse(record.getField(2).isNotNull());
+    // each field held once, in the schema order
+    assertEquals(2, record.getFields().size());
+    assertEquals("a", record.getFields().get(0).getName());
+
+    groupConverter.start();
+    assertNotSame(record, groupConverter.getCurrentSQLRowRead());
+    assertTrue(groupConverter.getCurrentSQLRowRead().getFields().isEmpty());
+  }
+
+  @Test
+  public void testReusedRecord() {
+    MessageType mt = Types.buildMessage()
+        .addField(Types.optional(INT64).named("a"))
+        .addField(Types.optional(BINARY).as(stringType()).named("b"))
+        .addField(Types.optional(DOUBLE).named("c"))
+        .named("test");
+    SQLGroupConverter groupConverter = new SQLGroupConverter(mt, new ReadOptions(false, false, false, true));
+
+    groupConverter.start();
+    groupConverter.getConverter(0).asPrimitiveConverter().addLong(42);
+    groupConverter.getConverter(1).asPrimitiveConverter().addBinary(Binary.fromString("value"));
+    Record record = groupConverter.getCurrentSQLRowRead();
+
+    assertTrue(record instanceof MutableRecord);
+    assertEquals(42L, record.getField("a").get().getValue());
+    assertEquals("value", record.getField(1).getValue());
+    assertFalse(record.getField("c").isPresent());
+    assertEquals(2, record.getFields().size());
+
+    ReadRecordConsumer consumer = mock(ReadRecordConsumer.class);
+    record.readAll(mt.getFields(), consumer);
+    verify(consumer).setLong(42);
+    verify(consumer).setString("value");
+    verify(consumer).setNull(java.sql.Types.DECIMAL);
+
+    // same record, cleared for the next row
+    groupConverter.start();
+    groupConverter.getConverter(2).asPrimitiveConverter().addDouble(1.5);
+    assertSame(record, groupConverter.getCurrentSQLRowRead());
+    assertTrue(((MutableRecord) record).isNull(0));
+    assertEquals(1.5, ((MutableRecord) record).getDouble(2));
+    assertEquals(1, record.getFields().size());
+  }
 }
@@ -0,0 +1,104 @@
+package io.github.anthorx.parquet.sql.parquet.write;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConverterContainer;
+import io.github.anthorx.parquet.sql.parquet.write.converter.WritePlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+
+@ExtendWith(MockitoExtension.class)
+public class EncodingAdvisorTest {
+
+  @Mock
+  ResultSetMetaData resultSetMetaData;
+
+  private WritePlan writePlan;
+
+  @BeforeEach
+  public void setup() throws SQLException, ConvertException {
+    doReturn(4).when(resultSetMetaData).getColumnCount();
+    doReturn("id").when(resultSetMetaData).getColumnName(1);
+    doReturn("java.math.BigDecimal").when(resultSetMetaData).getColumnClassName(1);
+    doReturn(10).when(resultSetMetaData).getPrecision(1);
+    doReturn("country").when(resultSetMetaData).getColumnName(2);
+    doReturn("java.lang.String").when(resultSetMetaData).getColumnClassName(2);
+    doReturn("label").when(resultSetMetaData).getColumnName(3);
+    doReturn("java.lang.String").when(resultSetMetaData).getColumnClassName(3);
+    doReturn("price").when(resultSetMetaData).getColumnName(4);
+    doReturn("java.lang.Double").when(resultSetMetaData).getColumnClassName(4);
+
+    writePlan = WritePlan.create("schema", new ConverterContainer(), resultSetMetaData);
+  }
+
+  private static List<SQLRow> sample(int rowCount) {
+    List<SQLRow> sample = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      SQLRow row = new SQLRow();
+      row.addField(new SQLField("id", BigDecimal.valueOf(i), Types.DECIMAL, "java.math.BigDecimal"));
+      row.addField(new SQLField("country", i % 3 == 0 ? "FR" : "DE", Types.VARCHAR, "java.lang.String"));
+      row.addField(new SQLField("label", "label" + i, Types.VARCHAR, "java.lang.String"));
+      row.addField(new SQLField("price", i * 1.01, Types.DOUBLE, "java.lang.Double"));
+      sample.add(row);
+    }
+    return sample;
+  }
+
+  @Test
+  public void advise_lowCardinality_dictionary_otherwiseTypeEncoding() {
+    EncodingPlan plan = new EncodingAdvisor().advise(writePlan, sample(1000));
+
+    assertEquals(ColumnEncoding.DELTA_BINARY_PACKED, plan.getEncoding("id"));
+    assertEquals(ColumnEncoding.DICTIONARY, plan.getEncoding("country"));
+    assertEquals(ColumnEncoding.DELTA_BYTE_ARRAY, plan.getEncoding("label"));
+    assertEquals(ColumnEncoding.BYTE_STREAM_SPLIT, plan.getEncoding("price"));
+  }
+
+  @Test
+  public void advise_tooManyDistinctValues_noDictionary() {
+    // 2 distinct countries, but at most 1 dictionary entry allowed
+    EncodingPlan plan = new EncodingAdvisor(0.5, 1).advise(writePlan, sample(100));
+
+    assertEquals(ColumnEncoding.DELTA_BYTE_ARRAY, plan.getEncoding("country"));
+  }
+
+  @Test
+  public void metaData_roundTrip() {
+    EncodingPlan plan = new EncodingAdvisor().advise(writePlan, sample(100));
+
+    EncodingPlan read = EncodingPlan.fromMetaData(plan.toMetaData());
+
+    assertEquals("id=DELTA_BINARY_PACKED,country=DICTIONARY,label=DELTA_BYTE_ARRAY,price=BYTE_STREAM_SPLIT", plan.toMetaData());
+    assertEquals(plan.getEncodings(), read.getEncodings());
+  }
+
+  @Test
+  public void metaData_separatorsInColumnNames_roundTrip() {
+    Map<String, ColumnEncoding> encodings = new LinkedHashMap<>();
+    encodings.put("a,b", ColumnEncoding.DICTIONARY);
+    encodings.put("x=y", ColumnEncoding.DELTA_BINARY_PACKED);
+    encodings.put("c\\", ColumnEncoding.DELTA_BYTE_ARRAY);
+    EncodingPlan plan = new EncodingPlan(encodings);
+
+    EncodingPlan read = EncodingPlan.fromMetaData(plan.toMetaData());
+
+    assertEquals("a\\,b=DICTIONARY,x\\=y=DELTA_BINARY_PACKED,c\\\\=DELTA_BYTE_ARRAY", plan.toMetaData());
+    assertEquals(encodings, read.getEncodings());
+  }
+}
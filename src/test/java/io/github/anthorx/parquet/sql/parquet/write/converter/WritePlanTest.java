@@ -0,0 +1,67 @@
+package io.github.anthorx.parquet.sql.parquet.write.converter;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.jdbc.model.SQLRow;
+import io.github.anthorx.parquet.sql.parquet.model.Record;
+import io.github.anthorx.parquet.sql.parquet.write.converter.types.StringConverter;
+import org.apache.parquet.io.api.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+
+@ExtendWith(MockitoExtension.class)
+public class WritePlanTest {
+
+  @Mock
+  ResultSetMetaData resultSetMetaData;
+
+  private WritePlan writePlan;
+
+  @BeforeEach
+  public void setup() throws SQLException, ConvertException {
+    doReturn(2).when(resultSetMetaData).getColumnCount();
+    doReturn("name").when(resultSetMetaData).getColumnName(1);
+    doReturn("java.lang.String").when(resultSetMetaData).getColumnClassName(1);
+    doReturn("label").when(resultSetMetaData).getColumnName(2);
+    doReturn("java.lang.String").when(resultSetMetaData).getColumnClassName(2);
+
+    writePlan = WritePlan.create("schema", new ConverterContainer(), resultSetMetaData);
+  }
+
+  @Test
+  public void create_resolvesOneConverterPerColumn() {
+    assertEquals(2, writePlan.getColumnCount());
+    assertTrue(writePlan.getConverter(0) instanceof StringConverter);
+    assertEquals("name", writePlan.getMessageType().getType(0).getName());
+    assertEquals("label", writePlan.getMessageType().getType(1).getName());
+  }
+
+  @Test
+  public void convert_nullField_notWritten() throws ConvertException {
+    SQLRow row = new SQLRow();
+    row.addField(new SQLField("name", "value", Types.VARCHAR, "java.lang.String"));
+    row.addField(new SQLField("label", null, Types.VARCHAR, "java.lang.String"));
+
+    Record record = writePlan.convert(row);
+
+    assertEquals(Binary.fromString("value"), record.getField(0).getValue());
+    assertFalse(record.getField(1).isNotNull());
+  }
+
+  @Test
+  public void convert_wrongFieldCount_throwsConvertException() {
+    SQLRow row = new SQLRow();
+    row.addField(new SQLField("name", "value", Types.VARCHAR, "java.lang.String"));
+
+    assertThrows(ConvertException.class, () -> writePlan.convert(row));
+  }
+}
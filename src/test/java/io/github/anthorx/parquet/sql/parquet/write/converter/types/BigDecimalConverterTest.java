@@ -4,6 +4,7 @@ import io.github.anthorx.parquet.sql.jdbc.model.SQLColumnDefinition;
 import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
 import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import io.github.anthorx.parquet.sql.util.DecimalUtils;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.PrimitiveType;
@@ -164,7 +165,8 @@ public class BigDecimalConverterTest {
                         new SQLColumnDefinition(name, 1, true, precision, scale, "java.math.BigDecimal");
                 PrimitiveType primitiveType = converter.convert(column);
 
-                assertEquals(PrimitiveType.PrimitiveTypeName.BINARY, primitiveType.getPrimitiveTypeName());
+                assertEquals(PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY, primitiveType.getPrimitiveTypeName());
+                assertEquals(DecimalUtils.fixedLength(precision), primitiveType.getTypeLength());
                 assertEquals(LogicalTypeAnnotation.decimalType(scale, precision), primitiveType.getLogicalTypeAnnotation());
                 assertEquals(name, primitiveType.getName());
             } catch (ConvertException e) {
@@ -172,4 +174,45 @@ public class BigDecimalConverterTest {
             }
         });
     }
+
+    @Test
+    public void convert_rescalesToTheColumnScale() throws ConvertException {
+        BigDecimalConverter converter = new BigDecimalConverter();
+
+        RecordField<?> intRecord = converter.convert(new SQLField("a", new BigDecimal("12.345"), 1, 9, 2, "java.math.BigDecimal"));
+        RecordField<?> longRecord = converter.convert(new SQLField("b", new BigDecimal("-1.5"), 1, 18, 4, "java.math.BigDecimal"));
+        RecordField<?> binaryRecord = converter.convert(new SQLField("c", new BigDecimal("-1.5"), 1, 38, 4, "java.math.BigDecimal"));
+
+        assertEquals(1235, intRecord.getValue());
+        assertEquals(-15000L, longRecord.getValue());
+        Binary binary = (Binary) binaryRecord.getValue();
+        assertEquals(DecimalUtils.fixedLength(38), binary.length());
+        assertEquals(new BigDecimal("-1.5000"), DecimalUtils.fromBytes(binary.getBytes(), 0, binary.length(), 4));
+    }
+
+    @Test
+    public void convert_valueTooLargeForThePrecision_throwsException() {
+        BigDecimalConverter converter = new BigDecimalConverter();
+
+        SQLField field = new SQLField("a", new BigDecimal("30000000.12"), 1, 9, 2, "java.math.BigDecimal");
+        // fits the INT32 but has 8 integer digits, DECIMAL(9, 2) holds 7
+        SQLField intField = new SQLField("b", new BigDecimal("12345678.12"), 1, 9, 2, "java.math.BigDecimal");
+        SQLField longField = new SQLField("c", new BigDecimal("100000000.5"), 1, 10, 2, "java.math.BigDecimal");
+        SQLField binaryField = new SQLField("d", new BigDecimal("1E+20"), 1, 20, 0, "java.math.BigDecimal");
+
+        assertThrows(ConvertException.class, () -> converter.convert(field));
+        assertThrows(ConvertException.class, () -> converter.convert(intField));
+        assertThrows(ConvertException.class, () -> converter.convert(longField));
+        assertThrows(ConvertException.class, () -> converter.convert(binaryField));
+    }
+
+    @Test
+    public void convert_largestValueOfThePrecision_written() throws ConvertException {
+        BigDecimalConverter converter = new BigDecimalConverter();
+
+        assertEquals(999999999, converter.convert(new SQLField("a", new BigDecimal("9999999.99"), 1, 9, 2, "java.math.BigDecimal")).getValue());
+        assertEquals(-999999999, converter.convert(new SQLField("b", new BigDecimal("-9999999.994"), 1, 9, 2, "java.math.BigDecimal")).getValue());
+        // rounded up to 8 integer digits
+        assertThrows(ConvertException.class, () -> converter.convert(new SQLField("c", new BigDecimal("9999999.995"), 1, 9, 2, "java.math.BigDecimal")));
+    }
 }
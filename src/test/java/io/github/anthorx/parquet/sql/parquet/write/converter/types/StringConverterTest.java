@@ -0,0 +1,33 @@
+package io.github.anthorx.parquet.sql.parquet.write.converter.types;
+
+import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
+import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import io.github.anthorx.parquet.sql.parquet.write.converter.ConvertException;
+import org.apache.parquet.io.api.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringConverterTest {
+
+    @Test
+    public void convertString() throws ConvertException {
+        RecordField<?> record = new StringConverter().convert(new SQLField("aname", "héllo", Types.VARCHAR, "java.lang.String"));
+
+        assertEquals("aname", record.getName());
+        assertEquals("héllo", ((Binary) record.getValue()).toStringUsingUTF8());
+    }
+
+    @Test
+    public void convertCharArray() throws ConvertException {
+        StringConverter converter = new StringConverter();
+
+        RecordField<?> ascii = converter.convert(new SQLField("aname", "ascii".toCharArray(), Types.CHAR, "java.lang.String"));
+        RecordField<?> multiByte = converter.convert(new SQLField("aname", "日本語 😀".toCharArray(), Types.CHAR, "java.lang.String"));
+
+        assertEquals("ascii", ((Binary) ascii.getValue()).toStringUsingUTF8());
+        assertEquals("日本語 😀", ((Binary) multiByte.getValue()).toStringUsingUTF8());
+    }
+}
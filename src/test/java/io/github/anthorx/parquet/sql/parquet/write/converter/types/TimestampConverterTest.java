@@ -1,10 +1,13 @@
 package io.github.anthorx.parquet.sql.parquet.write.converter.types;
 
+import io.github.anthorx.parquet.sql.jdbc.model.SQLColumnDefinition;
 import io.github.anthorx.parquet.sql.jdbc.model.SQLField;
 import io.github.anthorx.parquet.sql.parquet.model.RecordField;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Timestamp;
+import java.time.ZoneId;
 import java.util.TimeZone;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -57,4 +60,18 @@ public class TimestampConverterTest {
     long refMinus2Timestamp = refUtcTimestamp + MILLIS_BY_HOUR * 2;
     assertEquals(refMinus2Timestamp, resultTsp);
   }
+
+  @Test
+  public void convertMicrosTimestamp_withZone() {
+    TimestampConverter microsConverter = new TimestampConverter(LogicalTypeAnnotation.TimeUnit.MICROS, ZoneId.of("Etc/GMT-2"));
+    Timestamp timestamp = new Timestamp(refUtcTimestamp);
+    timestamp.setNanos(123_456_789);
+    SQLField field = new SQLField("tsp", timestamp);
+    RecordField<?> record = microsConverter.convert(field);
+
+    long seconds = Math.floorDiv(refUtcTimestamp, 1000L) + 2 * 3600;
+    assertEquals(seconds * 1000_000 + 123_456, record.getValue());
+    assertEquals(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS),
+        microsConverter.convert(new SQLColumnDefinition("tsp", 1, true, 0, 0, Timestamp.class.getName())).getLogicalTypeAnnotation());
+  }
 }
@@ -0,0 +1,59 @@
+package io.github.anthorx.parquet.sql.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecimalUtilsTest {
+
+  @Test
+  public void unscaledLong_rescalesHalfUp() {
+    assertEquals(12346, DecimalUtils.unscaledLong(new BigDecimal("123.455"), 2));
+    assertEquals(-12346, DecimalUtils.unscaledLong(new BigDecimal("-123.455"), 2));
+    assertEquals(1500, DecimalUtils.unscaledLong(new BigDecimal("1.5"), 3));
+    assertEquals(2, DecimalUtils.unscaledLong(new BigDecimal("1.5"), 0));
+  }
+
+  @Test
+  public void unscaled_overflow_throwsException() {
+    assertThrows(ArithmeticException.class, () -> DecimalUtils.unscaledLong(new BigDecimal("99999999999999999999"), 0));
+    assertThrows(ArithmeticException.class, () -> DecimalUtils.unscaledInt(new BigDecimal("3000000000"), 0));
+  }
+
+  @Test
+  public void fixedLength() {
+    assertEquals(4, DecimalUtils.fixedLength(9));
+    assertEquals(8, DecimalUtils.fixedLength(18));
+    assertEquals(9, DecimalUtils.fixedLength(19));
+    assertEquals(16, DecimalUtils.fixedLength(38));
+  }
+
+  @Test
+  public void fixedBytes_roundTrip() {
+    String[] values = {"0", "1.25", "-1.25", "123456789012345.67", "-123456789012345678901234567890.12345678"};
+    for (String value : values) {
+      BigDecimal decimal = new BigDecimal(value).setScale(8);
+      byte[] bytes = new byte[18];
+      DecimalUtils.toFixedBytes(decimal, 8, bytes, 2, 16);
+
+      assertEquals(decimal, DecimalUtils.fromBytes(bytes, 2, 16, 8));
+      assertEquals(decimal.unscaledValue(), new BigInteger(Arrays.copyOfRange(bytes, 2, 18)));
+    }
+  }
+
+  @Test
+  public void fixedBytes_tooLarge_throwsException() {
+    assertThrows(ArithmeticException.class,
+        () -> DecimalUtils.toFixedBytes(new BigDecimal("99999999999999999999"), 0, new byte[8], 0, 8));
+  }
+
+  @Test
+  public void fromBytes_shortValues() {
+    assertEquals(new BigDecimal("-0.01"), DecimalUtils.fromBytes(new byte[]{-1}, 0, 1, 2));
+    assertEquals(new BigDecimal("2.56"), DecimalUtils.fromBytes(new byte[]{1, 0}, 0, 2, 2));
+  }
+}
@@ -0,0 +1,34 @@
+package io.github.anthorx.parquet.sql.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetaDataUtilsTest {
+
+  @Test
+  public void separatorsInColumnNames_roundTrip() {
+    Map<String, Long> values = new LinkedHashMap<>();
+    values.put("a,b=c", 10L);
+    values.put("back\\slash", 0L);
+    values.put("id", 1000L);
+
+    String metaData = MetaDataUtils.toMetaData(values);
+    assertEquals("a\\,b\\=c=10,back\\\\slash=0,id=1000", metaData);
+
+    Map<String, String> read = MetaDataUtils.fromMetaData(metaData);
+    assertEquals(3, read.size());
+    assertEquals("10", read.get("a,b=c"));
+    assertEquals("0", read.get("back\\slash"));
+    assertEquals("1000", read.get("id"));
+  }
+
+  @Test
+  public void fromMetaData_noValue_empty() {
+    assertTrue(MetaDataUtils.fromMetaData(null).isEmpty());
+    assertTrue(MetaDataUtils.fromMetaData("").isEmpty());
+  }
+}
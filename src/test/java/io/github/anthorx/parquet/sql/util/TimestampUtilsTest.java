@@ -0,0 +1,46 @@
+package io.github.anthorx.parquet.sql.util;
+
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimestampUtilsTest {
+
+  private final ZoneOffsetTable paris = ZoneOffsetTable.of(ZoneId.of("Europe/Paris"));
+
+  @Test
+  public void toParquet_keepsTheLocalDateTimeInEachUnit() {
+    LocalDateTime localDateTime = LocalDateTime.of(2021, 7, 14, 10, 30, 15, 123_456_789);
+    Timestamp timestamp = Timestamp.from(localDateTime.atZone(paris.getZone()).toInstant());
+
+    for (TimeUnit unit : TimeUnit.values()) {
+      long value = TimestampUtils.toParquet(timestamp, paris, unit);
+      assertEquals(TimestampUtils.toParquet(localDateTime, unit), value);
+    }
+    assertEquals(1626258615123L, TimestampUtils.toParquet(timestamp, paris, TimeUnit.MILLIS));
+    assertEquals(1626258615123456L, TimestampUtils.toParquet(timestamp, paris, TimeUnit.MICROS));
+    assertEquals(1626258615123456789L, TimestampUtils.toParquet(timestamp, paris, TimeUnit.NANOS));
+  }
+
+  @Test
+  public void fromParquet_beforeEpoch() {
+    // 1969-12-31 23:59:59.999999
+    long micros = -1;
+
+    assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), TimestampUtils.toLocalDateTime(micros, TimeUnit.MICROS));
+    Timestamp timestamp = TimestampUtils.toTimestamp(micros, TimeUnit.MICROS);
+    assertEquals(-1, timestamp.getTime());
+    assertEquals(999_999_000, timestamp.getNanos());
+  }
+
+  @Test
+  public void toLocalDate() {
+    assertEquals(LocalDate.of(2019, 1, 17), TimestampUtils.toLocalDate(17913));
+  }
+}
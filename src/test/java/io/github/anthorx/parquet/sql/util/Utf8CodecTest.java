@@ -0,0 +1,50 @@
+package io.github.anthorx.parquet.sql.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Utf8CodecTest {
+
+  private static byte[] encoded(Utf8Codec codec) {
+    return Arrays.copyOf(codec.getBuffer(), codec.getLength());
+  }
+
+  @Test
+  public void encode_asciiAndMultiByteValues() {
+    Utf8Codec codec = new Utf8Codec(4);
+
+    for (String value : new String[]{"", "ascii value", "é à ü", "日本語", "emoji 😀 end"}) {
+      assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), encoded(codec.encode(value)), value);
+      assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), encoded(codec.encode(value.toCharArray())), value);
+    }
+  }
+
+  @Test
+  public void encode_bufferIsReused() {
+    Utf8Codec codec = new Utf8Codec(64);
+    byte[] buffer = codec.encode("first").getBuffer();
+
+    assertSame(buffer, codec.encode("second").getBuffer());
+    assertEquals(6, codec.getLength());
+  }
+
+  @Test
+  public void encode_malformedSurrogateReplaced() {
+    Utf8Codec codec = new Utf8Codec();
+
+    assertArrayEquals("a?b".getBytes(StandardCharsets.UTF_8), encoded(codec.encode("a\uD83Db")));
+  }
+
+  @Test
+  public void decode_fromOffset() {
+    Utf8Codec codec = new Utf8Codec(2);
+    byte[] bytes = "--ascii--日本語 😀".getBytes(StandardCharsets.UTF_8);
+
+    assertEquals("ascii", codec.decode(bytes, 2, 5));
+    assertEquals("日本語 😀", codec.decode(bytes, 9, bytes.length - 9));
+  }
+}
@@ -0,0 +1,46 @@
+package io.github.anthorx.parquet.sql.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ZoneOffsetTableTest {
+
+  private static final String[] zones = {"UTC", "Europe/Paris", "America/Los_Angeles", "Australia/Lord_Howe", "Asia/Kolkata"};
+
+  @Test
+  public void getOffsetMillis_sameAsTimeZone() {
+    long from = Instant.parse("1950-01-01T00:00:00Z").toEpochMilli();
+    long to = Instant.parse("2060-01-01T00:00:00Z").toEpochMilli();
+    // a prime step in minutes, landing at many different times of the day
+    long step = 7919 * 60_000L;
+    for (String zone : zones) {
+      ZoneOffsetTable table = ZoneOffsetTable.of(ZoneId.of(zone));
+      TimeZone timeZone = TimeZone.getTimeZone(zone);
+      for (long millis = from; millis < to; millis += step) {
+        assertEquals(timeZone.getOffset(millis), table.getOffsetMillis(millis), zone + " at " + Instant.ofEpochMilli(millis));
+      }
+    }
+  }
+
+  @Test
+  public void getOffsetMillis_aroundTransitions() {
+    ZoneOffsetTable table = ZoneOffsetTable.of(ZoneId.of("Europe/Paris"));
+    long transition = Instant.parse("2021-03-28T01:00:00Z").toEpochMilli();
+
+    assertEquals(3600_000, table.getOffsetMillis(transition - 1));
+    assertEquals(7200_000, table.getOffsetMillis(transition));
+    // out of the precomputed years
+    assertEquals(7200_000, table.getOffsetMillis(Instant.parse("2150-07-01T00:00:00Z").toEpochMilli()));
+  }
+
+  @Test
+  public void of_sharedPerZone() {
+    assertSame(ZoneOffsetTable.of(ZoneId.of("Europe/Paris")), ZoneOffsetTable.of(ZoneId.of("Europe/Paris")));
+  }
+}